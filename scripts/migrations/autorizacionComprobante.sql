@@ -0,0 +1,14 @@
+CREATE TABLE autorizacioncomprobante (
+  idAutorizacionComprobante bigint NOT NULL AUTO_INCREMENT,
+  documento varchar(255),
+  idComprobante bigint NOT NULL,
+  estado varchar(255),
+  intentos int NOT NULL,
+  fechaAlta datetime(6),
+  fechaProximoIntento datetime(6),
+  fechaAutorizacion datetime(6),
+  ultimoError varchar(1000),
+  PRIMARY KEY (idAutorizacionComprobante),
+  UNIQUE KEY uk_autorizacioncomprobante_documento_idcomprobante (documento, idComprobante),
+  KEY idx_autorizacioncomprobante_estado_fechaproximointento (estado, fechaProximoIntento)
+);
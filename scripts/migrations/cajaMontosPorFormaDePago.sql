@@ -0,0 +1,2 @@
+CREATE INDEX idx_recibo_sucursal_fecha ON recibo (idSucursal, fecha);
+CREATE INDEX idx_gasto_sucursal_fecha ON gasto (idSucursal, fecha);
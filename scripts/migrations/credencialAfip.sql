@@ -0,0 +1,33 @@
+CREATE TABLE credencialafip (
+  idConfiguracionSucursal bigint NOT NULL,
+  certificadoAfip longblob,
+  passwordCertificadoAfip varchar(255),
+  tokenWSAA varchar(1000),
+  signTokenWSAA varchar(255),
+  fechaGeneracionTokenWSAA datetime(6),
+  fechaVencimientoTokenWSAA datetime(6),
+  PRIMARY KEY (idConfiguracionSucursal)
+);
+
+INSERT INTO credencialafip
+  (idConfiguracionSucursal, certificadoAfip, passwordCertificadoAfip, tokenWSAA, signTokenWSAA,
+   fechaGeneracionTokenWSAA, fechaVencimientoTokenWSAA)
+SELECT idConfiguracionSucursal, certificadoAfip, passwordCertificadoAfip, tokenWSAA, signTokenWSAA,
+       fechaGeneracionTokenWSAA, fechaVencimientoTokenWSAA
+FROM configuracionsucursal
+WHERE certificadoAfip IS NOT NULL OR passwordCertificadoAfip IS NOT NULL;
+
+ALTER TABLE configuracionsucursal
+ADD COLUMN existeCertificado bit(1) NOT NULL DEFAULT b'0';
+
+SET SQL_SAFE_UPDATES = 0;
+UPDATE configuracionsucursal SET existeCertificado = (certificadoAfip IS NOT NULL);
+SET SQL_SAFE_UPDATES = 1;
+
+ALTER TABLE configuracionsucursal
+DROP COLUMN certificadoAfip,
+DROP COLUMN passwordCertificadoAfip,
+DROP COLUMN tokenWSAA,
+DROP COLUMN signTokenWSAA,
+DROP COLUMN fechaGeneracionTokenWSAA,
+DROP COLUMN fechaVencimientoTokenWSAA;
@@ -0,0 +1,18 @@
+CREATE TABLE envioemail (
+  idEnvioEmail bigint NOT NULL AUTO_INCREMENT,
+  destinatario varchar(255),
+  bcc varchar(255),
+  asunto varchar(255),
+  mensaje longtext,
+  adjunto varchar(255),
+  idDocumentoAdjunto bigint,
+  nombreAdjunto varchar(255),
+  estado varchar(255),
+  intentos int NOT NULL,
+  fechaAlta datetime(6),
+  fechaProximoIntento datetime(6),
+  fechaEnvio datetime(6),
+  ultimoError varchar(1000),
+  PRIMARY KEY (idEnvioEmail),
+  KEY idx_envioemail_estado_fechaproximointento (estado, fechaProximoIntento)
+);
@@ -0,0 +1,31 @@
+CREATE TABLE numeradorcomprobante (
+  idNumeradorComprobante bigint NOT NULL AUTO_INCREMENT,
+  idSucursal bigint NOT NULL,
+  tipoComprobante varchar(255) NOT NULL,
+  serie bigint NOT NULL,
+  ultimoNumero bigint NOT NULL,
+  PRIMARY KEY (idNumeradorComprobante),
+  UNIQUE KEY uk_numeradorcomprobante (idSucursal, tipoComprobante, serie)
+);
+
+INSERT INTO numeradorcomprobante (idSucursal, tipoComprobante, serie, ultimoNumero)
+SELECT f.idSucursal, f.tipoComprobante, f.numSerie, MAX(f.numFactura)
+FROM factura f
+INNER JOIN facturaventa fv ON fv.idFactura = f.idFactura
+GROUP BY f.idSucursal, f.tipoComprobante, f.numSerie;
+
+INSERT INTO numeradorcomprobante (idSucursal, tipoComprobante, serie, ultimoNumero)
+SELECT n.idSucursal, n.tipoComprobante, n.serie, MAX(n.nroNota)
+FROM nota n
+WHERE n.id_Cliente IS NOT NULL
+GROUP BY n.idSucursal, n.tipoComprobante, n.serie;
+
+INSERT INTO numeradorcomprobante (idSucursal, tipoComprobante, serie, ultimoNumero)
+SELECT r.idSucursal, 'RECIBO', r.numSerie, MAX(r.numRecibo)
+FROM recibo r
+GROUP BY r.idSucursal, r.numSerie;
+
+INSERT INTO numeradorcomprobante (idSucursal, tipoComprobante, serie, ultimoNumero)
+SELECT r.idSucursal, 'REMITO', r.serie, MAX(r.nroRemito)
+FROM remito r
+GROUP BY r.idSucursal, r.serie;
@@ -0,0 +1 @@
+CREATE INDEX idx_pedido_estado_vencimiento ON pedido (estado, eliminado, fechaVencimiento);
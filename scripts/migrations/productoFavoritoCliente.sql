@@ -0,0 +1 @@
+CREATE INDEX idx_productofavorito_cliente_producto ON productofavorito (id_Cliente, idProducto);
@@ -0,0 +1,26 @@
+CREATE TABLE resumenfacturacion (
+  idResumenFacturacion bigint NOT NULL AUTO_INCREMENT,
+  idSucursal bigint NOT NULL,
+  movimiento varchar(255) NOT NULL,
+  anio int NOT NULL,
+  mes int NOT NULL,
+  dia int NOT NULL,
+  idEntidad bigint NOT NULL,
+  total decimal(25,15) NOT NULL,
+  PRIMARY KEY (idResumenFacturacion),
+  UNIQUE KEY uk_resumenfacturacion (idSucursal, movimiento, anio, mes, dia, idEntidad)
+);
+
+INSERT INTO resumenfacturacion (idSucursal, movimiento, anio, mes, dia, idEntidad, total)
+SELECT f.idSucursal, 'VENTA', YEAR(f.fecha), MONTH(f.fecha), DAY(f.fecha), fv.id_Cliente, SUM(f.total)
+FROM factura f
+INNER JOIN facturaventa fv ON fv.idFactura = f.idFactura
+WHERE f.eliminada = false
+GROUP BY f.idSucursal, YEAR(f.fecha), MONTH(f.fecha), DAY(f.fecha), fv.id_Cliente;
+
+INSERT INTO resumenfacturacion (idSucursal, movimiento, anio, mes, dia, idEntidad, total)
+SELECT f.idSucursal, 'COMPRA', YEAR(f.fecha), MONTH(f.fecha), DAY(f.fecha), fc.id_Proveedor, SUM(f.total)
+FROM factura f
+INNER JOIN facturacompra fc ON fc.idFactura = f.idFactura
+WHERE f.eliminada = false
+GROUP BY f.idSucursal, YEAR(f.fecha), MONTH(f.fecha), DAY(f.fecha), fc.id_Proveedor;
@@ -0,0 +1,15 @@
+CREATE TABLE secuenciaidentificador (
+  idSecuenciaIdentificador bigint NOT NULL AUTO_INCREMENT,
+  tipo varchar(255) NOT NULL,
+  ambito varchar(255) NOT NULL,
+  ultimoReservado bigint NOT NULL,
+  PRIMARY KEY (idSecuenciaIdentificador),
+  UNIQUE KEY uk_secuenciaidentificador (tipo, ambito)
+);
+
+INSERT INTO secuenciaidentificador (tipo, ambito, ultimoReservado)
+VALUES ('TRASPASO', '', 0), ('CLIENTE', '', 0), ('PROVEEDOR', '', 0);
+
+INSERT INTO secuenciaidentificador (tipo, ambito, ultimoReservado)
+SELECT 'PEDIDO', CAST(s.idSucursal AS CHAR), 0
+FROM sucursal s;
@@ -0,0 +1,22 @@
+CREATE TABLE secuenciarenglon (
+  entidad varchar(255) NOT NULL,
+  siguienteValor bigint,
+  PRIMARY KEY (entidad)
+);
+-- con el optimizador pooled el valor guardado es el limite superior del proximo bloque de 50 ids
+INSERT INTO secuenciarenglon (entidad, siguienteValor)
+SELECT 'renglonfactura', COALESCE(MAX(id_RenglonFactura), 0) + 50 FROM renglonfactura;
+INSERT INTO secuenciarenglon (entidad, siguienteValor)
+SELECT 'renglonpedido', COALESCE(MAX(id_RenglonPedido), 0) + 50 FROM renglonpedido;
+INSERT INTO secuenciarenglon (entidad, siguienteValor)
+SELECT 'renglonnotacredito', COALESCE(MAX(idRenglonNotaCredito), 0) + 50 FROM renglonnotacredito;
+INSERT INTO secuenciarenglon (entidad, siguienteValor)
+SELECT 'renglonnotadebito', COALESCE(MAX(idRenglonNotaDebito), 0) + 50 FROM renglonnotadebito;
+INSERT INTO secuenciarenglon (entidad, siguienteValor)
+SELECT 'renglonremito', COALESCE(MAX(idRenglonRemito), 0) + 50 FROM renglonremito;
+INSERT INTO secuenciarenglon (entidad, siguienteValor)
+SELECT 'renglontraspaso', COALESCE(MAX(idRenglonTraspaso), 0) + 50 FROM renglontraspaso;
+INSERT INTO secuenciarenglon (entidad, siguienteValor)
+SELECT 'rengloncuentacorriente', COALESCE(MAX(id_renglon_cuenta_corriente), 0) + 50 FROM rengloncuentacorriente;
+INSERT INTO secuenciarenglon (entidad, siguienteValor)
+SELECT 'cantidadensucursal', COALESCE(MAX(idCantidadEnSucursal), 0) + 50 FROM cantidadensucursal;
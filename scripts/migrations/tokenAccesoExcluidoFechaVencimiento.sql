@@ -0,0 +1,9 @@
+ALTER TABLE tokenaccesoexcluido
+ADD COLUMN fechaVencimiento datetime(6);
+
+-- los tokens se emiten por una semana, los ya excluidos vencen a lo sumo en ese plazo
+SET SQL_SAFE_UPDATES = 0;
+UPDATE tokenaccesoexcluido SET fechaVencimiento = NOW() + INTERVAL 7 DAY WHERE fechaVencimiento IS NULL;
+SET SQL_SAFE_UPDATES = 1;
+
+CREATE INDEX idx_tokenaccesoexcluido_fechaVencimiento ON tokenaccesoexcluido (fechaVencimiento);
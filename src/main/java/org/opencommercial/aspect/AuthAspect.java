@@ -1,6 +1,5 @@
 package org.opencommercial.aspect;
 
-import io.jsonwebtoken.Claims;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Before;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,7 +11,6 @@ import org.opencommercial.exception.ForbiddenException;
 import org.opencommercial.model.Rol;
 import org.opencommercial.service.AuthService;
 
-import java.util.List;
 import java.util.Locale;
 
 @Aspect
@@ -21,7 +19,6 @@ public class AuthAspect {
 
   private final AuthService authService;
   private final MessageSource messageSource;
-  private static final String CLAIM_ROLES = "roles";
 
   @Autowired
   public AuthAspect(AuthService authService, MessageSource messageSource) {
@@ -33,12 +30,11 @@ public class AuthAspect {
   public void autorizarAcceso(AccesoRolesPermitidos AccesoRolesPermitidos) {
     var request = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest();
     String authorizationHeader = request.getHeader("Authorization");
-    Claims claims = authService.getClaimsDelToken(authorizationHeader);
     Rol[] rolesRequeridos = AccesoRolesPermitidos.value();
-    var rolesDelUsuario = claims.get(CLAIM_ROLES, List.class);
+    var rolesDelUsuario = authService.getContextoAutenticacion(authorizationHeader).getRoles();
     boolean accesoDenegado = true;
     for (Rol rolRequerido : rolesRequeridos) {
-      if (rolesDelUsuario.contains(rolRequerido.toString())) accesoDenegado = false;
+      if (rolesDelUsuario.contains(rolRequerido)) accesoDenegado = false;
     }
     if (accesoDenegado)
       throw new ForbiddenException(
@@ -11,6 +11,7 @@ import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.HttpMethod;
 import org.springframework.oxm.jaxb.Jaxb2Marshaller;
 import org.springframework.web.client.RestTemplate;
@@ -18,6 +19,7 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.filter.CorsFilter;
 import org.opencommercial.model.Cliente;
+import org.opencommercial.model.PaginaPorCursor;
 import org.opencommercial.model.Ubicacion;
 import org.opencommercial.model.dto.ClienteDTO;
 import org.opencommercial.model.dto.UbicacionDTO;
@@ -51,6 +53,41 @@ public class AppConfig {
                 gen.writeObjectField("sort", value.getSort());
                 gen.writeEndObject();
               }
+            })
+        .addSerializer(
+            SliceImpl.class,
+            new JsonSerializer<SliceImpl>() {
+              @Override
+              public void serialize(SliceImpl value, JsonGenerator gen, SerializerProvider serializers)
+                  throws IOException {
+                gen.writeStartObject();
+                gen.writeNumberField("number", value.getNumber());
+                gen.writeNumberField("numberOfElements", value.getNumberOfElements());
+                gen.writeNumberField("size", value.getSize());
+                gen.writeBooleanField("first", value.isFirst());
+                gen.writeBooleanField("last", value.isLast());
+                gen.writeFieldName("content");
+                serializers.defaultSerializeValue(value.getContent(), gen);
+                gen.writeObjectField("sort", value.getSort());
+                gen.writeEndObject();
+              }
+            })
+        .addSerializer(
+            PaginaPorCursor.class,
+            new JsonSerializer<PaginaPorCursor>() {
+              @Override
+              public void serialize(PaginaPorCursor value, JsonGenerator gen, SerializerProvider serializers)
+                  throws IOException {
+                gen.writeStartObject();
+                gen.writeNumberField("numberOfElements", value.getNumberOfElements());
+                gen.writeNumberField("size", value.getSize());
+                gen.writeBooleanField("last", !value.hasNext());
+                gen.writeFieldName("content");
+                serializers.defaultSerializeValue(value.getContent(), gen);
+                gen.writeStringField("despuesDe", value.getDespuesDe());
+                gen.writeObjectField("sort", value.getSort());
+                gen.writeEndObject();
+              }
             });
   }
 
@@ -0,0 +1,130 @@
+package org.opencommercial.config;
+
+import org.opencommercial.model.dto.EstadisticaCacheDTO;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.core.serializer.support.SerializationDelegate;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Cache en memoria con capacidad fija, descarta la entrada usada hace mas tiempo.
+// Los valores se guardan serializados para que cada lectura devuelva una copia
+// y las entidades modificadas por quien las obtuvo no alteren la cache.
+public class CacheAcotada extends AbstractValueAdaptingCache {
+
+  private final String nombre;
+  private final int capacidad;
+  private final Map<Object, Object> entradas;
+  private final SerializationDelegate serializacion;
+  private final AtomicLong aciertos = new AtomicLong();
+  private final AtomicLong fallos = new AtomicLong();
+
+  public CacheAcotada(String nombre, int capacidad) {
+    super(true);
+    this.nombre = nombre;
+    this.capacidad = capacidad;
+    this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Object, Object> entradaMasAntigua) {
+        return size() > capacidad;
+      }
+    };
+    this.serializacion = new SerializationDelegate(CacheAcotada.class.getClassLoader());
+  }
+
+  @Override
+  public String getName() {
+    return nombre;
+  }
+
+  @Override
+  public Object getNativeCache() {
+    return entradas;
+  }
+
+  @Override
+  protected Object lookup(Object key) {
+    Object valor;
+    synchronized (entradas) {
+      valor = entradas.get(key);
+    }
+    if (valor != null) {
+      aciertos.incrementAndGet();
+    } else {
+      fallos.incrementAndGet();
+    }
+    return valor;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T get(Object key, Callable<T> valueLoader) {
+    Object valor = this.lookup(key);
+    if (valor != null) return (T) this.fromStoreValue(valor);
+    T valorCargado;
+    try {
+      valorCargado = valueLoader.call();
+    } catch (Exception ex) {
+      throw new ValueRetrievalException(key, valueLoader, ex);
+    }
+    this.put(key, valorCargado);
+    return valorCargado;
+  }
+
+  @Override
+  public void put(Object key, Object value) {
+    Object valor = this.toStoreValue(value);
+    synchronized (entradas) {
+      entradas.put(key, valor);
+    }
+  }
+
+  @Override
+  public void evict(Object key) {
+    synchronized (entradas) {
+      entradas.remove(key);
+    }
+  }
+
+  @Override
+  public void clear() {
+    synchronized (entradas) {
+      entradas.clear();
+    }
+  }
+
+  @Override
+  protected Object toStoreValue(Object userValue) {
+    try {
+      return serializacion.serializeToByteArray(super.toStoreValue(userValue));
+    } catch (IOException ex) {
+      throw new IllegalArgumentException("No se pudo serializar el valor para la cache " + nombre, ex);
+    }
+  }
+
+  @Override
+  protected Object fromStoreValue(Object storeValue) {
+    try {
+      return super.fromStoreValue(serializacion.deserializeFromByteArray((byte[]) storeValue));
+    } catch (IOException ex) {
+      throw new IllegalArgumentException("No se pudo deserializar el valor de la cache " + nombre, ex);
+    }
+  }
+
+  public EstadisticaCacheDTO getEstadistica() {
+    int cantidadDeEntradas;
+    synchronized (entradas) {
+      cantidadDeEntradas = entradas.size();
+    }
+    return EstadisticaCacheDTO.builder()
+            .nombre(nombre)
+            .entradas(cantidadDeEntradas)
+            .capacidad(capacidad)
+            .aciertos(aciertos.get())
+            .fallos(fallos.get())
+            .build();
+  }
+}
@@ -0,0 +1,47 @@
+package org.opencommercial.config;
+
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachingConfigurer;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.cache.interceptor.SimpleKeyGenerator;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+public class CacheConfig implements CachingConfigurer {
+
+  public static final String RUBROS = "rubros";
+  public static final String MEDIDAS = "medidas";
+  public static final String FORMAS_DE_PAGO = "formas-de-pago";
+  public static final String SUCURSALES = "sucursales";
+  public static final String TRANSPORTISTAS = "transportistas";
+  public static final String UBICACIONES = "ubicaciones";
+
+  @Bean
+  @Override
+  public CacheManager cacheManager() {
+    var cacheManager = new SimpleCacheManager();
+    cacheManager.setCaches(List.of(
+            new CacheAcotada(RUBROS, 200),
+            new CacheAcotada(MEDIDAS, 200),
+            new CacheAcotada(FORMAS_DE_PAGO, 100),
+            new CacheAcotada(SUCURSALES, 100),
+            new CacheAcotada(TRANSPORTISTAS, 200),
+            new CacheAcotada(UBICACIONES, 1000)));
+    cacheManager.initializeCaches();
+    // las invalidaciones se aplican despues del commit, para que otra transaccion no vuelva a cargar datos viejos
+    return new TransactionAwareCacheManagerProxy(cacheManager);
+  }
+
+  // Varios metodos comparten cache, el nombre del metodo forma parte de la clave.
+  @Bean
+  @Override
+  public KeyGenerator keyGenerator() {
+    return (target, method, params) -> new SimpleKey(method.getName(), SimpleKeyGenerator.generateKey(params));
+  }
+}
@@ -11,14 +11,11 @@ import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJack
 import org.opencommercial.model.Rol;
 import org.opencommercial.service.AuthService;
 
-import java.util.List;
-
 @RestControllerAdvice
 public class SecurityJsonViewControllerAdvice extends AbstractMappingJacksonResponseBodyAdvice {
 
   private final AuthService authService;
   private static final String AUTHORIZATION_HEADER = "Authorization";
-  private static final String CLAIM_ROLES = "roles";
 
   @Autowired
   public SecurityJsonViewControllerAdvice(AuthService authService) {
@@ -35,18 +32,17 @@ public class SecurityJsonViewControllerAdvice extends AbstractMappingJacksonResp
 
     var headers = serverHttpRequest.getHeaders().get(AUTHORIZATION_HEADER);
     if (headers != null && !headers.isEmpty()) {
-      var claims = authService.getClaimsDelToken(headers.get(0));
-      var rolesDelUsuario = claims.get(CLAIM_ROLES, List.class);
+      var rolesDelUsuario = authService.getContextoAutenticacion(headers.get(0)).getRoles();
       if (rolesDelUsuario != null && !rolesDelUsuario.isEmpty()) {
-        if (rolesDelUsuario.contains(Rol.ADMINISTRADOR.name())) {
+        if (rolesDelUsuario.contains(Rol.ADMINISTRADOR)) {
           mappingJacksonValue.setSerializationView(Views.Administrador.class);
-        } else if (rolesDelUsuario.contains(Rol.ENCARGADO.name())) {
+        } else if (rolesDelUsuario.contains(Rol.ENCARGADO)) {
           mappingJacksonValue.setSerializationView(Views.Encargado.class);
-        } else if (rolesDelUsuario.contains(Rol.VENDEDOR.name())) {
+        } else if (rolesDelUsuario.contains(Rol.VENDEDOR)) {
           mappingJacksonValue.setSerializationView(Views.Vendedor.class);
-        } else if (rolesDelUsuario.contains(Rol.VIAJANTE.name())) {
+        } else if (rolesDelUsuario.contains(Rol.VIAJANTE)) {
           mappingJacksonValue.setSerializationView(Views.Viajante.class);
-        } else if (rolesDelUsuario.contains(Rol.COMPRADOR.name())) {
+        } else if (rolesDelUsuario.contains(Rol.COMPRADOR)) {
           mappingJacksonValue.setSerializationView(Views.Comprador.class);
         }
       }
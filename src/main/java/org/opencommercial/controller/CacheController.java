@@ -0,0 +1,37 @@
+package org.opencommercial.controller;
+
+import org.opencommercial.aspect.AccesoRolesPermitidos;
+import org.opencommercial.config.CacheAcotada;
+import org.opencommercial.model.Rol;
+import org.opencommercial.model.dto.EstadisticaCacheDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Objects;
+
+@RestController
+public class CacheController {
+
+  private final CacheManager cacheManager;
+
+  @Autowired
+  public CacheController(CacheManager cacheManager) {
+    this.cacheManager = cacheManager;
+  }
+
+  @GetMapping("/api/v1/caches/estadisticas")
+  @AccesoRolesPermitidos(Rol.ADMINISTRADOR)
+  public List<EstadisticaCacheDTO> getEstadisticas() {
+    return cacheManager.getCacheNames().stream()
+            .map(cacheManager::getCache)
+            .filter(Objects::nonNull)
+            .map(cache -> cache instanceof TransactionAwareCacheDecorator decorador ? decorador.getTargetCache() : cache)
+            .filter(CacheAcotada.class::isInstance)
+            .map(cache -> ((CacheAcotada) cache).getEstadistica())
+            .toList();
+  }
+}
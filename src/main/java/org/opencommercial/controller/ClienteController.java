@@ -4,7 +4,7 @@ import io.jsonwebtoken.Claims;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.MessageSource;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.web.bind.annotation.*;
 import org.opencommercial.aspect.AccesoRolesPermitidos;
 import org.opencommercial.exception.ForbiddenException;
@@ -55,7 +55,7 @@ public class ClienteController {
   }
 
   @PostMapping("/api/v1/clientes/busqueda/criteria")
-  public Page<Cliente> buscarConCriteria(@RequestBody BusquedaClienteCriteria criteria,
+  public Slice<Cliente> buscarConCriteria(@RequestBody BusquedaClienteCriteria criteria,
                                          @RequestHeader("Authorization") String authorizationHeader) {
     Claims claims = authService.getClaimsDelToken(authorizationHeader);
     return clienteService.buscarClientes(criteria, claims.get(CLAIM_ID_USUARIO, Long.class));
@@ -1,8 +1,10 @@
 package org.opencommercial.controller;
 
 import io.jsonwebtoken.Claims;
+import jakarta.servlet.http.HttpServletResponse;
 import org.opencommercial.aspect.AccesoRolesPermitidos;
 import org.opencommercial.exception.BusinessServiceException;
+import org.opencommercial.exception.ServiceException;
 import org.opencommercial.model.CuentaCorrienteCliente;
 import org.opencommercial.model.CuentaCorrienteProveedor;
 import org.opencommercial.model.RenglonCuentaCorriente;
@@ -17,12 +19,14 @@ import org.opencommercial.util.FormatoReporte;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.MessageSource;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.Locale;
 
@@ -97,9 +101,14 @@ public class CuentaCorrienteController {
   }
 
   @GetMapping("/api/v1/cuentas-corriente/{idCuentaCorriente}/renglones")
-  public Page<RenglonCuentaCorriente> getRenglonesCuentaCorriente(
+  public Slice<RenglonCuentaCorriente> getRenglonesCuentaCorriente(
           @PathVariable long idCuentaCorriente,
-          @RequestParam(required = false) Integer pagina) {
+          @RequestParam(required = false) Integer pagina,
+          @RequestParam(required = false) boolean porCursor,
+          @RequestParam(required = false) String despuesDe) {
+    if (porCursor || despuesDe != null) {
+      return cuentaCorrienteService.getRenglonesCuentaCorrientePorCursor(idCuentaCorriente, despuesDe);
+    }
     if (pagina == null || pagina < 0) pagina = 0;
     return cuentaCorrienteService.getRenglonesCuentaCorriente(idCuentaCorriente, pagina);
   }
@@ -138,41 +147,34 @@ public class CuentaCorrienteController {
   }
 
   @PostMapping("/api/v1/cuentas-corriente/lista-clientes/reporte/criteria")
-  public ResponseEntity<byte[]> getReporteListaDeCuentasCorrienteClientePorCriteria(
+  public void getReporteListaDeCuentasCorrienteClientePorCriteria(
       @RequestBody BusquedaCuentaCorrienteClienteCriteria criteria,
       @RequestParam(required = false) String formato,
-      @RequestHeader("Authorization") String authorizationHeader) {
+      @RequestHeader("Authorization") String authorizationHeader,
+      HttpServletResponse response) {
     Claims claims = authService.getClaimsDelToken(authorizationHeader);
-    HttpHeaders headers = new HttpHeaders();
-    headers.setCacheControl("must-revalidate, post-check=0, pre-check=0");
-    return switch (formato) {
-      case "xlsx" ->
-        this.getReporteListaDeCuentasCorrienteClienteEnXlsx(headers, criteria, claims);
-      case "pdf" ->
-        this.getReporteListaDeCuentasCorrienteClienteEnPdf(headers, criteria, claims);
+    FormatoReporte formatoReporte;
+    switch (formato) {
+      case "xlsx" -> {
+        formatoReporte = FormatoReporte.XLSX;
+        response.setContentType("application/vnd.ms-excel");
+        response.setHeader(CONTENT_DISPOSITION_HEADER, "attachment; filename=ListaClientes.xlsx");
+      }
+      case "pdf" -> {
+        formatoReporte = FormatoReporte.PDF;
+        response.setContentType(MediaType.APPLICATION_PDF_VALUE);
+        response.setHeader(CONTENT_DISPOSITION_HEADER, "attachment; filename=ListaClientes.pdf");
+      }
       default -> throw new BusinessServiceException(
               messageSource.getMessage("mensaje_formato_no_valido", null, Locale.getDefault()));
-    };
-  }
-
-  private ResponseEntity<byte[]> getReporteListaDeCuentasCorrienteClienteEnXlsx(
-          HttpHeaders headers, BusquedaCuentaCorrienteClienteCriteria criteria, Claims claims) {
-    headers.setContentType(new MediaType("application", "vnd.ms-excel"));
-    headers.set(CONTENT_DISPOSITION_HEADER, "attachment; filename=ListaClientes.xlsx");
-    byte[] reporteXls =
-            cuentaCorrienteService.getReporteListaDeCuentasCorrienteClientePorCriteria(
-                    criteria, claims.get(CLAIM_ID_USUARIO, Long.class), FormatoReporte.XLSX);
-    headers.setContentLength(reporteXls.length);
-    return new ResponseEntity<>(reporteXls, headers, HttpStatus.OK);
-  }
-
-  private ResponseEntity<byte[]> getReporteListaDeCuentasCorrienteClienteEnPdf(
-          HttpHeaders headers, BusquedaCuentaCorrienteClienteCriteria criteria, Claims claims) {
-    headers.setContentType(MediaType.APPLICATION_PDF);
-    headers.add(CONTENT_DISPOSITION_HEADER, "attachment; filename=ListaClientes.pdf");
-    byte[] reportePDF =
-            cuentaCorrienteService.getReporteListaDeCuentasCorrienteClientePorCriteria(
-                    criteria, claims.get(CLAIM_ID_USUARIO, Long.class), FormatoReporte.PDF);
-    return new ResponseEntity<>(reportePDF, headers, HttpStatus.OK);
+    }
+    response.setHeader(HttpHeaders.CACHE_CONTROL, "must-revalidate, post-check=0, pre-check=0");
+    // el reporte se escribe directo en la respuesta, sin armarlo antes en memoria
+    try {
+      cuentaCorrienteService.exportarReporteListaDeCuentasCorrienteCliente(
+              criteria, claims.get(CLAIM_ID_USUARIO, Long.class), formatoReporte, response.getOutputStream());
+    } catch (IOException ex) {
+      throw new ServiceException(messageSource.getMessage("mensaje_error_reporte", null, Locale.getDefault()), ex);
+    }
   }
 }
@@ -7,16 +7,20 @@ import org.opencommercial.model.Rol;
 import org.opencommercial.model.dto.EntidadMontoDTO;
 import org.opencommercial.model.dto.PeriodoMontoDTO;
 import org.opencommercial.service.EstadisticaService;
+import org.opencommercial.service.ResumenFacturacionService;
 import java.util.List;
 
 @RestController
 public class EstadisticaController {
 
   public final EstadisticaService estadisticaService;
+  public final ResumenFacturacionService resumenFacturacionService;
 
   @Autowired
-  public EstadisticaController(EstadisticaService estadisticaService) {
+  public EstadisticaController(EstadisticaService estadisticaService,
+                               ResumenFacturacionService resumenFacturacionService) {
     this.estadisticaService = estadisticaService;
+    this.resumenFacturacionService = resumenFacturacionService;
   }
 
   @GetMapping("/api/v1/estadisticas/compras/monto-neto-mensual/sucursales/{idSucursal}")
@@ -77,5 +81,11 @@ public class EstadisticaController {
     return estadisticaService.getMontoNetoVendidoPorRubroPorMes(idSucursal, anio, mes);
   }
 
+  @PostMapping("/api/v1/estadisticas/resumenes/reconstruccion")
+  @AccesoRolesPermitidos(Rol.ADMINISTRADOR)
+  public void reconstruirResumenes() {
+    resumenFacturacionService.reconstruirResumenes();
+  }
+
 
 }
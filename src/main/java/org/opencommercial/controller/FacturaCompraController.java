@@ -8,7 +8,7 @@ import org.opencommercial.model.dto.NuevaFacturaCompraDTO;
 import org.opencommercial.model.dto.NuevoRenglonFacturaDTO;
 import org.opencommercial.service.*;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
@@ -92,7 +92,7 @@ public class FacturaCompraController {
 
   @PostMapping("/api/v1/facturas/compras/busqueda/criteria")
   @AccesoRolesPermitidos({Rol.ADMINISTRADOR, Rol.ENCARGADO})
-  public Page<FacturaCompra> buscarFacturaCompra(@RequestBody BusquedaFacturaCompraCriteria criteria) {
+  public Slice<FacturaCompra> buscarFacturaCompra(@RequestBody BusquedaFacturaCompraCriteria criteria) {
     return facturaCompraService.buscarFacturaCompra(criteria);
   }
 
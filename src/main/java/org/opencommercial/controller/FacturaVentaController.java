@@ -8,12 +8,13 @@ import org.opencommercial.model.criteria.BusquedaFacturaVentaCriteria;
 import org.opencommercial.model.dto.NuevaFacturaVentaDTO;
 import org.opencommercial.model.dto.NuevoRenglonFacturaDTO;
 import org.opencommercial.service.AuthService;
+import org.opencommercial.service.AutorizacionComprobanteService;
 import org.opencommercial.service.FacturaService;
 import org.opencommercial.service.FacturaVentaService;
 import org.opencommercial.service.ReciboService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.MessageSource;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -33,6 +34,7 @@ public class FacturaVentaController {
   private final FacturaService facturaService;
   private final ReciboService reciboService;
   private final AuthService authService;
+  private final AutorizacionComprobanteService autorizacionComprobanteService;
   private final MessageSource messageSource;
   private static final String CLAIM_ID_USUARIO = "idUsuario";
 
@@ -41,11 +43,13 @@ public class FacturaVentaController {
                                 FacturaService facturaService,
                                 ReciboService reciboService,
                                 AuthService authService,
+                                AutorizacionComprobanteService autorizacionComprobanteService,
                                 MessageSource messageSource) {
     this.facturaVentaService = facturaVentaService;
     this.facturaService = facturaService;
     this.reciboService = reciboService;
     this.authService = authService;
+    this.autorizacionComprobanteService = autorizacionComprobanteService;
     this.messageSource = messageSource;
   }
 
@@ -112,7 +116,7 @@ public class FacturaVentaController {
 
   @PostMapping("/api/v1/facturas/ventas/busqueda/criteria")
   @AccesoRolesPermitidos({Rol.ADMINISTRADOR, Rol.ENCARGADO, Rol.VENDEDOR})
-  public Page<FacturaVenta> buscarFacturaVenta(@RequestBody BusquedaFacturaVentaCriteria criteria,
+  public Slice<FacturaVenta> buscarFacturaVenta(@RequestBody BusquedaFacturaVentaCriteria criteria,
                                                @RequestHeader("Authorization") String authorizationHeader) {
     Claims claims = authService.getClaimsDelToken(authorizationHeader);
     return facturaVentaService.buscarFacturaVenta(criteria, claims.get(CLAIM_ID_USUARIO, Long.class));
@@ -140,6 +144,12 @@ public class FacturaVentaController {
     return new ResponseEntity<>(reportePDF, headers, HttpStatus.OK);
   }
 
+  @GetMapping("/api/v1/facturas/ventas/{idFactura}/autorizacion")
+  @AccesoRolesPermitidos({Rol.ADMINISTRADOR, Rol.ENCARGADO, Rol.VENDEDOR})
+  public AutorizacionComprobante getAutorizacionFacturaVenta(@PathVariable long idFactura) {
+    return autorizacionComprobanteService.getAutorizacion(DocumentoAutorizable.FACTURA_VENTA, idFactura);
+  }
+
   @GetMapping("/api/v1/facturas/ventas/renglones/pedidos/{idPedido}")
   @AccesoRolesPermitidos({Rol.ADMINISTRADOR, Rol.ENCARGADO, Rol.VENDEDOR, Rol.VIAJANTE})
   public List<RenglonFactura> getRenglonesPedidoParaFacturar(@PathVariable long idPedido,
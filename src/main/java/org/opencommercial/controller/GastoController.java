@@ -8,7 +8,7 @@ import org.opencommercial.model.criteria.BusquedaGastoCriteria;
 import org.opencommercial.model.dto.NuevoGastoDTO;
 import org.opencommercial.service.*;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
@@ -45,7 +45,7 @@ public class GastoController {
 
   @PostMapping("/api/v1/gastos/busqueda/criteria")
   @AccesoRolesPermitidos({Rol.ADMINISTRADOR, Rol.ENCARGADO})
-  public Page<Gasto> buscarConCriteria(@RequestBody BusquedaGastoCriteria criteria) {
+  public Slice<Gasto> buscarConCriteria(@RequestBody BusquedaGastoCriteria criteria) {
     return gastoService.buscarGastos(criteria);
   }
 
@@ -10,7 +10,7 @@ import org.opencommercial.model.dto.NuevaNotaDebitoDeReciboDTO;
 import org.opencommercial.model.dto.NuevaNotaDebitoSinReciboDTO;
 import org.opencommercial.service.*;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -28,6 +28,7 @@ public class NotaController {
   private final SucursalService sucursalService;
   private final UsuarioService usuarioService;
   private final AuthService authService;
+  private final AutorizacionComprobanteService autorizacionComprobanteService;
   private static final String CLAIM_ID_USUARIO = "idUsuario";
 
   @Autowired
@@ -35,12 +36,14 @@ public class NotaController {
                         ReciboService reciboService,
                         SucursalService sucursalService,
                         UsuarioService usuarioService,
-                        AuthService authService) {
+                        AuthService authService,
+                        AutorizacionComprobanteService autorizacionComprobanteService) {
     this.notaService = notaService;
     this.reciboService = reciboService;
     this.sucursalService = sucursalService;
     this.usuarioService = usuarioService;
     this.authService = authService;
+    this.autorizacionComprobanteService = autorizacionComprobanteService;
   }
 
   @GetMapping("/api/v1/notas/{idNota}")
@@ -48,6 +51,12 @@ public class NotaController {
     return notaService.getNotaNoEliminadaPorId(idNota);
   }
 
+  @GetMapping("/api/v1/notas/{idNota}/autorizacion")
+  @AccesoRolesPermitidos({Rol.ADMINISTRADOR, Rol.ENCARGADO, Rol.VENDEDOR})
+  public AutorizacionComprobante getAutorizacionNota(@PathVariable long idNota) {
+    return autorizacionComprobanteService.getAutorizacion(DocumentoAutorizable.NOTA, idNota);
+  }
+
   @DeleteMapping("/api/v1/notas/{idNota}")
   @AccesoRolesPermitidos(Rol.ADMINISTRADOR)
   public void eliminarNota(@PathVariable long idNota) {
@@ -222,7 +231,7 @@ public class NotaController {
   }
 
   @PostMapping("/api/v1/notas/credito/busqueda/criteria")
-  public Page<NotaCredito> buscarNotasCredito(
+  public Slice<NotaCredito> buscarNotasCredito(
           @RequestBody BusquedaNotaCriteria busquedaNotaCriteria,
           @RequestHeader("Authorization") String authorizationHeader) {
     Claims claims = authService.getClaimsDelToken(authorizationHeader);
@@ -230,7 +239,7 @@ public class NotaController {
   }
 
   @PostMapping("/api/v1/notas/debito/busqueda/criteria")
-  public Page<NotaDebito> buscarNotasDebito(
+  public Slice<NotaDebito> buscarNotasDebito(
           @RequestBody BusquedaNotaCriteria busquedaNotaCriteria,
           @RequestHeader("Authorization") String authorizationHeader) {
     Claims claims = authService.getClaimsDelToken(authorizationHeader);
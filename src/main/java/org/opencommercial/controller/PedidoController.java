@@ -9,7 +9,7 @@ import org.opencommercial.model.dto.NuevosResultadosComprobanteDTO;
 import org.opencommercial.model.dto.PedidoDTO;
 import org.opencommercial.service.*;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -130,7 +130,7 @@ public class PedidoController {
   }
 
   @PostMapping("/api/v1/pedidos/busqueda/criteria")
-  public Page<Pedido> buscarConCriteria(@RequestBody BusquedaPedidoCriteria criteria,
+  public Slice<Pedido> buscarConCriteria(@RequestBody BusquedaPedidoCriteria criteria,
                                         @RequestHeader("Authorization") String authorizationHeader) {
     Claims claims = authService.getClaimsDelToken(authorizationHeader);
     return pedidoService.buscarPedidos(criteria, claims.get(CLAIM_ID_USUARIO, Long.class));
@@ -13,6 +13,7 @@ import org.opencommercial.util.FormatoReporte;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.MessageSource;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
@@ -85,13 +86,13 @@ public class ProductoController {
   }
 
   @PostMapping("/api/v1/productos/busqueda/criteria/sucursales/{idSucursal}")
-  public Page<Producto> buscarProductos(
+  public Slice<Producto> buscarProductos(
       @PathVariable long idSucursal,
       @RequestBody BusquedaProductoCriteria criteria,
       @RequestParam(required = false) Long idCliente,
       @RequestParam(required = false) Movimiento movimiento,
       @RequestHeader(required = false, name = "Authorization") String authorizationHeader) {
-    Page<Producto> productos;
+    Slice<Producto> productos;
     boolean esAutogestion = authorizationHeader != null &&
             movimiento != null &&
             movimiento.equals(Movimiento.COMPRA)
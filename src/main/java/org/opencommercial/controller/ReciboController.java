@@ -9,7 +9,7 @@ import org.opencommercial.model.criteria.BusquedaReciboCriteria;
 import org.opencommercial.model.dto.ReciboDTO;
 import org.opencommercial.service.*;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -58,7 +58,7 @@ public class ReciboController {
 
   @PostMapping("/api/v1/recibos/busqueda/criteria")
   @AccesoRolesPermitidos({Rol.ADMINISTRADOR, Rol.ENCARGADO, Rol.VENDEDOR})
-  public Page<Recibo> buscarConCriteria(@RequestBody BusquedaReciboCriteria criteria) {
+  public Slice<Recibo> buscarConCriteria(@RequestBody BusquedaReciboCriteria criteria) {
     return reciboService.buscarRecibos(criteria);
   }
 
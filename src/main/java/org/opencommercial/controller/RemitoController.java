@@ -2,7 +2,7 @@ package org.opencommercial.controller;
 
 import io.jsonwebtoken.Claims;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -62,7 +62,7 @@ public class RemitoController {
 
   @PostMapping("/api/v1/remitos/busqueda/criteria")
   @AccesoRolesPermitidos({Rol.ADMINISTRADOR, Rol.ENCARGADO, Rol.VENDEDOR})
-  public Page<Remito> getRemitosCriteria(@RequestBody BusquedaRemitoCriteria criteria) {
+  public Slice<Remito> getRemitosCriteria(@RequestBody BusquedaRemitoCriteria criteria) {
     return remitoService.buscarRemito(criteria);
   }
 
@@ -21,11 +21,11 @@ public class JwtInterceptor implements HandlerInterceptor {
   public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
     if (!request.getMethod().equals("OPTIONS")) {
       final String authorizationHeader = request.getHeader("Authorization");
-      if (authorizationHeader == null || !authService.esAuthorizationHeaderValido(authorizationHeader)) {
+      if (authorizationHeader == null) {
         throw new UnauthorizedException(
             messageSource.getMessage("mensaje_error_token_invalido", null, Locale.getDefault()));
       }
-      long idUsuario = authService.getClaimsDelToken(authorizationHeader).get("idUsuario", Long.class);
+      long idUsuario = authService.getContextoAutenticacion(authorizationHeader).getIdUsuario();
       if (!usuarioService.esUsuarioHabilitado(idUsuario)) {
         throw new UnauthorizedException(
             messageSource.getMessage("mensaje_usuario_no_habilitado", null, Locale.getDefault()));
@@ -0,0 +1,6 @@
+package org.opencommercial.model;
+
+public enum AdjuntoEmail {
+  PEDIDO,
+  FACTURA_VENTA
+}
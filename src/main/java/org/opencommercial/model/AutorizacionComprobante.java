@@ -0,0 +1,43 @@
+package org.opencommercial.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "autorizacioncomprobante",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"documento", "idComprobante"}))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class AutorizacionComprobante implements Serializable {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private long idAutorizacionComprobante;
+
+  @Enumerated(EnumType.STRING)
+  private DocumentoAutorizable documento;
+
+  private long idComprobante;
+
+  @Enumerated(EnumType.STRING)
+  private EstadoAutorizacion estado;
+
+  private int intentos;
+
+  private LocalDateTime fechaAlta;
+
+  private LocalDateTime fechaProximoIntento;
+
+  private LocalDateTime fechaAutorizacion;
+
+  @Column(length = 1000)
+  private String ultimoError;
+}
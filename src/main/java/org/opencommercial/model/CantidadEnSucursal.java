@@ -24,7 +24,9 @@ import java.math.BigDecimal;
 public class CantidadEnSucursal implements Serializable {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.TABLE, generator = "secuenciaCantidadEnSucursal")
+  @TableGenerator(name = "secuenciaCantidadEnSucursal", table = "secuenciarenglon", pkColumnName = "entidad",
+          valueColumnName = "siguienteValor", pkColumnValue = "cantidadensucursal", allocationSize = 50)
   private Long idCantidadEnSucursal;
 
   @ManyToOne
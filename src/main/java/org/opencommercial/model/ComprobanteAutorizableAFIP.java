@@ -18,4 +18,5 @@ public class ComprobanteAutorizableAFIP extends ComprobanteAutorizable {
     private long numFacturaAfip;
     private BigDecimal iva105neto;    
     private BigDecimal iva21neto;
+    private String observaciones;
 }
@@ -1,10 +1,8 @@
 package org.opencommercial.model;
 
-import com.fasterxml.jackson.annotation.JsonGetter;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.io.Serializable;
-import java.time.LocalDateTime;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotNull;
@@ -23,14 +21,8 @@ import org.opencommercial.config.Views;
 @AllArgsConstructor
 @NoArgsConstructor
 @EqualsAndHashCode(of = "idConfiguracionSucursal")
-@ToString(exclude = "certificadoAfip")
-@JsonIgnoreProperties({
-  "tokenWSAA",
-  "signTokenWSAA",
-  "fechaGeneracionTokenWSAA",
-  "fechaVencimientoTokenWSAA",
-  "sucursal"
-})
+@ToString(exclude = {"certificadoAfip", "passwordCertificadoAfip"})
+@JsonIgnoreProperties("sucursal")
 @JsonView(Views.Comprador.class)
 public class ConfiguracionSucursal implements Serializable {
 
@@ -44,22 +36,22 @@ public class ConfiguracionSucursal implements Serializable {
 
   private boolean facturaElectronicaHabilitada;
 
-  @Lob
+  // el certificado y su password se persisten en CredencialAfip
+  @Transient
   @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
   private byte[] certificadoAfip;
 
+  @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+  private boolean existeCertificado;
+
   private String firmanteCertificadoAfip;
 
+  @Transient
   @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
   private String passwordCertificadoAfip;
 
   private int nroPuntoDeVentaAfip;
 
-  @Column(length = 1000)
-  private String tokenWSAA;
-
-  private String signTokenWSAA;
-
   private boolean puntoDeRetiro;
 
   private boolean predeterminada;
@@ -73,13 +65,4 @@ public class ConfiguracionSucursal implements Serializable {
   @NotNull(message = "{mensaje_cds_sin_vencimiento_corto}")
   @DecimalMin(value = "1", message = "{mensaje_cds_valor_no_valido}")
   private long vencimientoCorto;
-
-  private LocalDateTime fechaGeneracionTokenWSAA;
-
-  private LocalDateTime fechaVencimientoTokenWSAA;
-
-  @JsonGetter("existeCertificado")
-  public boolean isExisteCertificado() {
-    return (certificadoAfip != null);
-  }
 }
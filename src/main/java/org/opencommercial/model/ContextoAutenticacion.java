@@ -0,0 +1,19 @@
+package org.opencommercial.model;
+
+import io.jsonwebtoken.Claims;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@Builder
+public class ContextoAutenticacion {
+
+  private String authorizationHeader;
+  private Claims claims;
+  private long idUsuario;
+  private List<Rol> roles;
+}
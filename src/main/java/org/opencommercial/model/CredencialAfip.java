@@ -0,0 +1,40 @@
+package org.opencommercial.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "credencialafip")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@EqualsAndHashCode(of = "idConfiguracionSucursal")
+@ToString(exclude = {"certificadoAfip", "passwordCertificadoAfip", "tokenWSAA", "signTokenWSAA"})
+public class CredencialAfip implements Serializable {
+
+  @Id
+  private long idConfiguracionSucursal;
+
+  @Lob
+  private byte[] certificadoAfip;
+
+  private String passwordCertificadoAfip;
+
+  @Column(length = 1000)
+  private String tokenWSAA;
+
+  private String signTokenWSAA;
+
+  private LocalDateTime fechaGeneracionTokenWSAA;
+
+  private LocalDateTime fechaVencimientoTokenWSAA;
+}
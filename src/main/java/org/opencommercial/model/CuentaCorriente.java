@@ -42,7 +42,8 @@ public abstract class CuentaCorriente implements Serializable {
     @NotNull(message = "{mensaje_cuenta_corriente_fecha_vacia}")
     private LocalDateTime fechaApertura;
 
-    @Column(precision = 25, scale = 15)
+    // Solo se modifica con CuentaCorrienteRepository.actualizarSaldo
+    @Column(precision = 25, scale = 15, updatable = false)
     private BigDecimal saldo;
     
     private LocalDateTime fechaUltimoMovimiento;
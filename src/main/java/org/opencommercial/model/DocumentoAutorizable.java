@@ -0,0 +1,6 @@
+package org.opencommercial.model;
+
+public enum DocumentoAutorizable {
+  FACTURA_VENTA,
+  NOTA
+}
@@ -0,0 +1,53 @@
+package org.opencommercial.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "envioemail")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class EnvioEmail implements Serializable {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private long idEnvioEmail;
+
+  private String destinatario;
+
+  private String bcc;
+
+  private String asunto;
+
+  @Lob
+  private String mensaje;
+
+  @Enumerated(EnumType.STRING)
+  private AdjuntoEmail adjunto;
+
+  private Long idDocumentoAdjunto;
+
+  private String nombreAdjunto;
+
+  @Enumerated(EnumType.STRING)
+  private EstadoEnvioEmail estado;
+
+  private int intentos;
+
+  private LocalDateTime fechaAlta;
+
+  private LocalDateTime fechaProximoIntento;
+
+  private LocalDateTime fechaEnvio;
+
+  @Column(length = 1000)
+  private String ultimoError;
+}
@@ -0,0 +1,7 @@
+package org.opencommercial.model;
+
+public enum EstadoAutorizacion {
+  PENDIENTE,
+  AUTORIZADO,
+  FALLIDO
+}
@@ -0,0 +1,7 @@
+package org.opencommercial.model;
+
+public enum EstadoEnvioEmail {
+  PENDIENTE,
+  ENVIADO,
+  FALLIDO
+}
@@ -0,0 +1,31 @@
+package org.opencommercial.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Entity
+@Table(name = "numeradorcomprobante")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class NumeradorComprobante implements Serializable {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private long idNumeradorComprobante;
+
+  private long idSucursal;
+
+  @Enumerated(EnumType.STRING)
+  private TipoDeComprobante tipoComprobante;
+
+  private long serie;
+
+  private long ultimoNumero;
+}
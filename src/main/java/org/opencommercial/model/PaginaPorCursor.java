@@ -0,0 +1,34 @@
+package org.opencommercial.model;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+import java.util.Objects;
+
+public class PaginaPorCursor<T> extends SliceImpl<T> {
+
+  private final String despuesDe;
+
+  public PaginaPorCursor(List<T> content, Pageable pageable, String despuesDe) {
+    super(content, pageable, despuesDe != null);
+    this.despuesDe = despuesDe;
+  }
+
+  // cursor opaco que se envia en la siguiente busqueda, es null en la ultima pagina
+  public String getDespuesDe() {
+    return despuesDe;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    return obj instanceof PaginaPorCursor<?> pagina
+            && super.equals(pagina)
+            && Objects.equals(despuesDe, pagina.despuesDe);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * super.hashCode() + Objects.hashCode(despuesDe);
+  }
+}
@@ -24,7 +24,9 @@ import java.time.LocalDateTime;
 public class RenglonCuentaCorriente implements Serializable {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "secuenciaRenglonCuentaCorriente")
+    @TableGenerator(name = "secuenciaRenglonCuentaCorriente", table = "secuenciarenglon", pkColumnName = "entidad",
+            valueColumnName = "siguienteValor", pkColumnValue = "rengloncuentacorriente", allocationSize = 50)
     @Column(name = "id_renglon_cuenta_corriente")
     private Long idRenglonCuentaCorriente;
     
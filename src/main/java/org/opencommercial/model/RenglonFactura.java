@@ -26,7 +26,9 @@ import org.opencommercial.config.Views;
 public class RenglonFactura implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "secuenciaRenglonFactura")
+    @TableGenerator(name = "secuenciaRenglonFactura", table = "secuenciarenglon", pkColumnName = "entidad",
+            valueColumnName = "siguienteValor", pkColumnValue = "renglonfactura", allocationSize = 50)
     @Column(name = "id_RenglonFactura")
     private long idRenglonFactura;
 
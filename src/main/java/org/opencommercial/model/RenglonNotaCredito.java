@@ -28,7 +28,9 @@ import jakarta.validation.constraints.Positive;
 public class RenglonNotaCredito implements Serializable {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "secuenciaRenglonNotaCredito")
+    @TableGenerator(name = "secuenciaRenglonNotaCredito", table = "secuenciarenglon", pkColumnName = "entidad",
+            valueColumnName = "siguienteValor", pkColumnValue = "renglonnotacredito", allocationSize = 50)
     private long idRenglonNotaCredito;
     
     private Long idProductoItem;
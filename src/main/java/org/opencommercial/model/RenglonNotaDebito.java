@@ -25,7 +25,9 @@ import jakarta.validation.constraints.NotEmpty;
 public class RenglonNotaDebito implements Serializable {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "secuenciaRenglonNotaDebito")
+    @TableGenerator(name = "secuenciaRenglonNotaDebito", table = "secuenciarenglon", pkColumnName = "entidad",
+            valueColumnName = "siguienteValor", pkColumnValue = "renglonnotadebito", allocationSize = 50)
     private long idRenglonNotaDebito;
     
     @Column(nullable = false)
@@ -24,7 +24,9 @@ import org.opencommercial.config.Views;
 public class RenglonPedido implements Serializable {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.TABLE, generator = "secuenciaRenglonPedido")
+  @TableGenerator(name = "secuenciaRenglonPedido", table = "secuenciarenglon", pkColumnName = "entidad",
+          valueColumnName = "siguienteValor", pkColumnValue = "renglonpedido", allocationSize = 50)
   @Column(name = "id_RenglonPedido")
   private long idRenglonPedido;
 
@@ -21,7 +21,9 @@ import java.math.BigDecimal;
 public class RenglonRemito implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "secuenciaRenglonRemito")
+    @TableGenerator(name = "secuenciaRenglonRemito", table = "secuenciarenglon", pkColumnName = "entidad",
+            valueColumnName = "siguienteValor", pkColumnValue = "renglonremito", allocationSize = 50)
     private long idRenglonRemito;
 
     @Column(nullable = false)
@@ -21,7 +21,9 @@ import java.math.BigDecimal;
 public class RenglonTraspaso {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "secuenciaRenglonTraspaso")
+    @TableGenerator(name = "secuenciaRenglonTraspaso", table = "secuenciarenglon", pkColumnName = "entidad",
+            valueColumnName = "siguienteValor", pkColumnValue = "renglontraspaso", allocationSize = 50)
     private Long idRenglonTraspaso;
 
     @NotNull
@@ -0,0 +1,40 @@
+package org.opencommercial.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+@Entity
+@Table(name = "resumenfacturacion")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ResumenFacturacion implements Serializable {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private long idResumenFacturacion;
+
+  private long idSucursal;
+
+  @Enumerated(EnumType.STRING)
+  private Movimiento movimiento;
+
+  private int anio;
+
+  private int mes;
+
+  private int dia;
+
+  // idCliente para las ventas, idProveedor para las compras
+  private long idEntidad;
+
+  @Column(precision = 25, scale = 15)
+  private BigDecimal total;
+}
@@ -0,0 +1,30 @@
+package org.opencommercial.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Entity
+@Table(name = "secuenciaidentificador",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"tipo", "ambito"}))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class SecuenciaIdentificador implements Serializable {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private long idSecuenciaIdentificador;
+
+  @Enumerated(EnumType.STRING)
+  private TipoIdentificador tipo;
+
+  private String ambito;
+
+  private long ultimoReservado;
+}
@@ -0,0 +1,25 @@
+package org.opencommercial.model;
+
+public enum TipoIdentificador {
+  PEDIDO(9999999999L, 50),
+  TRASPASO(99999L, 20),
+  CLIENTE(99999L, 20),
+  PROVEEDOR(99999L, 20),
+  USUARIO(999L, 1);
+
+  private final long capacidad;
+  private final int tamanioBloque;
+
+  TipoIdentificador(long capacidad, int tamanioBloque) {
+    this.capacidad = capacidad;
+    this.tamanioBloque = tamanioBloque;
+  }
+
+  public long getCapacidad() {
+    return capacidad;
+  }
+
+  public int getTamanioBloque() {
+    return tamanioBloque;
+  }
+}
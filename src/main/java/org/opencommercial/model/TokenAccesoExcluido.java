@@ -7,6 +7,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.io.Serializable;
+import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "tokenaccesoexcluido")
@@ -22,4 +23,6 @@ public class TokenAccesoExcluido implements Serializable {
 
     @Column(length = 300)
     private String token;
+
+    private LocalDateTime fechaVencimiento;
 }
@@ -21,4 +21,7 @@ public class BusquedaClienteCriteria {
     private Integer pagina;
     private String ordenarPor;
     private String sentido;
+    private boolean porCursor;
+    private String despuesDe;
+    private boolean sinTotal;
 }
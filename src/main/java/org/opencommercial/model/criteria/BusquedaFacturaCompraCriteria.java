@@ -26,4 +26,7 @@ public class BusquedaFacturaCompraCriteria {
   private Integer pagina;
   private String ordenarPor;
   private String sentido;
+  private boolean porCursor;
+  private String despuesDe;
+  private boolean sinTotal;
 }
@@ -29,4 +29,7 @@ public class BusquedaFacturaVentaCriteria {
   private Integer pagina;
   private String ordenarPor;
   private String sentido;
+  private boolean porCursor;
+  private String despuesDe;
+  private boolean sinTotal;
 }
@@ -24,4 +24,7 @@ public class BusquedaGastoCriteria {
   private Integer pagina;
   private String ordenarPor;
   private String sentido;
+  private boolean porCursor;
+  private String despuesDe;
+  private boolean sinTotal;
 }
@@ -32,5 +32,8 @@ public class BusquedaNotaCriteria {
   private Integer pagina;
   private String ordenarPor;
   private String sentido;
+  private boolean porCursor;
+  private String despuesDe;
+  private boolean sinTotal;
 
 }
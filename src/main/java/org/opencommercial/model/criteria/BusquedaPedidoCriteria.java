@@ -28,4 +28,7 @@ public class BusquedaPedidoCriteria {
   private Integer pagina;
   private String ordenarPor;
   private String sentido;
+  private boolean porCursor;
+  private String despuesDe;
+  private boolean sinTotal;
 }
@@ -24,4 +24,5 @@ public class BusquedaProductoCriteria {
   private Integer pagina;
   private List<String> ordenarPor;
   private String sentido;
+  private boolean sinTotal;
 }
@@ -0,0 +1,26 @@
+package org.opencommercial.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonView;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.opencommercial.config.Views;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@JsonView(Views.Administrador.class)
+public class EstadisticaCacheDTO {
+
+  private String nombre;
+
+  private int entradas;
+
+  private int capacidad;
+
+  private long aciertos;
+
+  private long fallos;
+}
@@ -0,0 +1,19 @@
+package org.opencommercial.repository;
+
+import org.opencommercial.model.AutorizacionComprobante;
+import org.opencommercial.model.DocumentoAutorizable;
+import org.opencommercial.model.EstadoAutorizacion;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface AutorizacionComprobanteRepository extends JpaRepository<AutorizacionComprobante, Long> {
+
+  Optional<AutorizacionComprobante> findByDocumentoAndIdComprobante(DocumentoAutorizable documento, long idComprobante);
+
+  List<AutorizacionComprobante> findByEstadoAndFechaProximoIntentoLessThanEqualOrderByFechaProximoIntento(
+          EstadoAutorizacion estado, LocalDateTime fecha, Pageable pageable);
+}
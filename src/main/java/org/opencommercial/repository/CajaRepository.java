@@ -8,9 +8,11 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
 import org.springframework.data.repository.query.Param;
 import org.opencommercial.model.Caja;
+import org.opencommercial.repository.projection.FormaDePagoMontoProjection;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 
 public interface CajaRepository extends
         JpaRepository<Caja, Long>,
@@ -41,4 +43,20 @@ public interface CajaRepository extends
           + "SET c.saldoSistema = c.saldoSistema + :monto WHERE c.idCaja = :idCaja "
           + "AND c.estado = org.opencommercial.model.EstadoCaja.CERRADA")
   int actualizarSaldoSistema(@Param("idCaja") long idCaja, @Param("monto") BigDecimal monto);
+
+  @Query("SELECT r.formaDePago.idFormaDePago AS idFormaDePago, r.formaDePago.afectaCaja AS afectaCaja, "
+          + "SUM(CASE WHEN r.cliente IS NULL THEN -r.monto ELSE r.monto END) AS monto "
+          + "FROM Recibo r "
+          + "WHERE r.sucursal.idSucursal = :idSucursal "
+          + "AND r.fecha BETWEEN :desde AND :hasta AND r.eliminado = false "
+          + "GROUP BY r.formaDePago.idFormaDePago, r.formaDePago.afectaCaja "
+          + "UNION ALL "
+          + "SELECT g.formaDePago.idFormaDePago, g.formaDePago.afectaCaja, SUM(-g.monto) "
+          + "FROM Gasto g "
+          + "WHERE g.sucursal.idSucursal = :idSucursal "
+          + "AND g.fecha BETWEEN :desde AND :hasta AND g.eliminado = false "
+          + "GROUP BY g.formaDePago.idFormaDePago, g.formaDePago.afectaCaja")
+  List<FormaDePagoMontoProjection> getMontosPorFormaDePagoEntreFechas(@Param("idSucursal") long idSucursal,
+                                                                     @Param("desde") LocalDateTime desde,
+                                                                     @Param("hasta") LocalDateTime hasta);
 }
@@ -0,0 +1,6 @@
+package org.opencommercial.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.opencommercial.model.CredencialAfip;
+
+public interface CredencialAfipRepository extends JpaRepository<CredencialAfip, Long> {}
@@ -11,7 +11,8 @@ import java.math.BigDecimal;
 
 public interface CuentaCorrienteClienteRepository extends
         CuentaCorrienteRepository<CuentaCorrienteCliente>,
-        QuerydslPredicateExecutor<CuentaCorrienteCliente> {
+        QuerydslPredicateExecutor<CuentaCorrienteCliente>,
+        CuentaCorrienteClienteRepositoryCustom {
 
   CuentaCorrienteCliente findByClienteAndEliminada(Cliente cliente, boolean eliminada);
 
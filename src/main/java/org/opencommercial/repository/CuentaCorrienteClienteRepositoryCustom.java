@@ -0,0 +1,13 @@
+package org.opencommercial.repository;
+
+import java.util.stream.Stream;
+
+import com.querydsl.core.BooleanBuilder;
+import org.opencommercial.model.CuentaCorrienteCliente;
+import org.springframework.data.domain.Sort;
+
+public interface CuentaCorrienteClienteRepositoryCustom {
+
+    Stream<CuentaCorrienteCliente> streamCuentasCorrienteCliente(BooleanBuilder builder, Sort sort);
+
+}
@@ -1,12 +1,25 @@
 package org.opencommercial.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.opencommercial.model.CuentaCorriente;
 
+import java.math.BigDecimal;
+
 public interface CuentaCorrienteRepository<T extends CuentaCorriente> extends JpaRepository<T, Long> {
 
       @Query("SELECT c FROM CuentaCorriente c WHERE c.idCuentaCorriente = :idCuentaCorriente AND c.eliminada = false")
       CuentaCorriente findById(@Param("idCuentaCorriente") long idCuentaCorriente);
+
+      // nativa sobre la tabla base: con herencia JOINED el UPDATE de HQL pasa por una tabla temporal
+      @Modifying
+      @Query(value = "UPDATE cuentacorriente "
+              + "SET saldo = CASE WHEN ABS(saldo + :monto) < 0.01 THEN 0 ELSE saldo + :monto END "
+              + "WHERE id_cuenta_corriente = :idCuentaCorriente", nativeQuery = true)
+      int actualizarSaldo(@Param("idCuentaCorriente") long idCuentaCorriente, @Param("monto") BigDecimal monto);
+
+      @Query("SELECT c.saldo FROM CuentaCorriente c WHERE c.idCuentaCorriente = :idCuentaCorriente")
+      BigDecimal getSaldo(@Param("idCuentaCorriente") long idCuentaCorriente);
 }
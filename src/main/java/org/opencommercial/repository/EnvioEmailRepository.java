@@ -0,0 +1,22 @@
+package org.opencommercial.repository;
+
+import org.opencommercial.model.EnvioEmail;
+import org.opencommercial.model.EstadoEnvioEmail;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface EnvioEmailRepository extends JpaRepository<EnvioEmail, Long> {
+
+  List<EnvioEmail> findByEstadoAndFechaProximoIntentoLessThanEqualOrderByFechaProximoIntento(
+          EstadoEnvioEmail estado, LocalDateTime fecha, Pageable pageable);
+
+  @Modifying
+  @Query("DELETE FROM EnvioEmail e WHERE e.estado IN :estados AND e.fechaAlta < :fecha")
+  int eliminarFinalizadosAntesDe(@Param("estados") List<EstadoEnvioEmail> estados, @Param("fecha") LocalDateTime fecha);
+}
@@ -1,14 +1,11 @@
 package org.opencommercial.repository;
 
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
 import org.opencommercial.model.FacturaVenta;
 import org.opencommercial.model.Remito;
 import org.opencommercial.model.TipoDeComprobante;
-import org.opencommercial.repository.projection.EntidadMontoProjection;
-import org.opencommercial.repository.projection.PeriodoMontoProjection;
 import java.util.List;
 
 public interface FacturaVentaRepository extends
@@ -34,33 +31,4 @@ public interface FacturaVentaRepository extends
 
   List<FacturaVenta> findByIdFacturaIn(long[] idFactura);
 
-  @Query("SELECT year(fv.fecha) as periodo, round(sum(fv.total)) as monto " +
-          "FROM FacturaVenta fv " +
-          "WHERE fv.eliminada = false AND fv.sucursal.idSucursal = :idSucursal " +
-          "GROUP BY periodo " +
-          "ORDER BY periodo desc")
-  List<PeriodoMontoProjection> getMontoNetoVendidoPorAnio(long idSucursal, Pageable pageable);
-
-  @Query("SELECT month(fv.fecha) as periodo, round(sum(fv.total)) as monto " +
-          "FROM FacturaVenta fv " +
-          "WHERE fv.eliminada = false AND fv.sucursal.idSucursal = :idSucursal AND year(fv.fecha) = :anio " +
-          "GROUP BY periodo " +
-          "ORDER BY periodo")
-  List<PeriodoMontoProjection> getMontoNetoVendidoPorMes(long idSucursal, int anio);
-
-  @Query("SELECT c.nombreFiscal as entidad, round(sum(fv.total)) as monto " +
-          "FROM FacturaVenta fv INNER JOIN fv.cliente c " +
-          "WHERE fv.eliminada = false AND c.eliminado = false " +
-          "AND year(fv.fecha) = :anio AND fv.sucursal.idSucursal = :idSucursal " +
-          "GROUP BY c.idCliente " +
-          "ORDER BY monto desc")
-  List<EntidadMontoProjection> getMontoNetoVendidoPorRubroPorAnio(long idSucursal, int anio);
-
-  @Query("SELECT c.nombreFiscal as entidad, round(sum(fv.total)) as monto " +
-          "FROM FacturaVenta fv INNER JOIN fv.cliente c " +
-          "WHERE fv.eliminada = false AND c.eliminado = false " +
-          "AND year(fv.fecha) = :anio AND month(fv.fecha) = :mes AND fv.sucursal.idSucursal = :idSucursal " +
-          "GROUP BY c.idCliente " +
-          "ORDER BY monto desc")
-  List<EntidadMontoProjection> getMontoNetoVendidoPorRubroPorMes(long idSucursal, int anio, int mes);
 }
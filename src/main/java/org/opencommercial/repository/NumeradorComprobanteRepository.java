@@ -0,0 +1,33 @@
+package org.opencommercial.repository;
+
+import jakarta.persistence.LockModeType;
+import org.opencommercial.model.NumeradorComprobante;
+import org.opencommercial.model.TipoDeComprobante;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface NumeradorComprobanteRepository extends JpaRepository<NumeradorComprobante, Long> {
+
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT n FROM NumeradorComprobante n "
+          + "WHERE n.idSucursal = :idSucursal AND n.tipoComprobante = :tipoComprobante AND n.serie = :serie")
+  Optional<NumeradorComprobante> findParaActualizar(@Param("idSucursal") long idSucursal,
+                                                    @Param("tipoComprobante") TipoDeComprobante tipoComprobante,
+                                                    @Param("serie") long serie);
+
+  boolean existsByIdSucursalAndTipoComprobanteAndSerie(long idSucursal, TipoDeComprobante tipoComprobante, long serie);
+
+  @Modifying
+  @Query(value = "INSERT INTO numeradorcomprobante (idSucursal, tipoComprobante, serie, ultimoNumero) "
+          + "VALUES (:idSucursal, :tipoComprobante, :serie, :ultimoNumero) "
+          + "ON DUPLICATE KEY UPDATE ultimoNumero = ultimoNumero", nativeQuery = true)
+  void crearSiNoExiste(@Param("idSucursal") long idSucursal,
+                       @Param("tipoComprobante") String tipoComprobante,
+                       @Param("serie") long serie,
+                       @Param("ultimoNumero") long ultimoNumero);
+}
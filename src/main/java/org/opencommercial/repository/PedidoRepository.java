@@ -1,15 +1,18 @@
 package org.opencommercial.repository;
 
-import org.opencommercial.model.EstadoPedido;
+import jakarta.persistence.LockModeType;
 import org.opencommercial.model.Pedido;
 import org.opencommercial.model.Sucursal;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 public interface PedidoRepository extends
         JpaRepository<Pedido, Long>,
         QuerydslPredicateExecutor<Pedido> {
@@ -18,6 +21,15 @@ public interface PedidoRepository extends
 
   boolean existsByNroPedidoAndSucursal(long nroPedido, Sucursal sucursal);
 
-  @Query("SELECT p FROM Pedido p " + "WHERE p.estado = :estado " + "AND p.eliminado = false")
-  Page<Pedido> findAllByEstadoAndEliminado(@Param("estado") EstadoPedido estado, Pageable page);
+  @Query("SELECT p.idPedido FROM Pedido p "
+          + "WHERE p.estado = org.opencommercial.model.EstadoPedido.ABIERTO AND p.eliminado = false "
+          + "AND p.fechaVencimiento < :fecha AND p.idPedido > :idDesde "
+          + "ORDER BY p.idPedido")
+  List<Long> findIdsDePedidosAbiertosVencidos(@Param("fecha") LocalDateTime fecha,
+                                              @Param("idDesde") long idDesde,
+                                              Pageable pageable);
+
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT p FROM Pedido p WHERE p.idPedido IN :idsPedidos")
+  List<Pedido> findParaActualizar(@Param("idsPedidos") List<Long> idsPedidos);
 }
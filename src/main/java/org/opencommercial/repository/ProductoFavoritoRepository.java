@@ -1,5 +1,7 @@
 package org.opencommercial.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
@@ -8,7 +10,9 @@ import org.opencommercial.model.Cliente;
 import org.opencommercial.model.Producto;
 import org.opencommercial.model.ProductoFavorito;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 public interface ProductoFavoritoRepository extends
         JpaRepository<ProductoFavorito, Long>,
@@ -24,6 +28,15 @@ public interface ProductoFavoritoRepository extends
 
   void deleteAllByProducto(Producto producto);
 
-  @Query("SELECT COUNT(pf) FROM ProductoFavorito pf WHERE pf.cliente = :cliente")
-  Long getCantidadDeArticulosEnFavoritos(@Param("cliente") Cliente cliente);
+  @Query("SELECT pf.producto.idProducto FROM ProductoFavorito pf " +
+          "WHERE pf.cliente.credencial.idUsuario = :idUsuario AND pf.producto.idProducto IN :idsProductos")
+  Set<Long> getIdsProductosFavoritos(@Param("idUsuario") long idUsuario,
+                                     @Param("idsProductos") Collection<Long> idsProductos);
+
+  @Query(value = "SELECT pf.producto FROM ProductoFavorito pf WHERE pf.cliente.credencial.idUsuario = :idUsuario",
+         countQuery = "SELECT COUNT(pf) FROM ProductoFavorito pf WHERE pf.cliente.credencial.idUsuario = :idUsuario")
+  Page<Producto> getProductosFavoritos(@Param("idUsuario") long idUsuario, Pageable pageable);
+
+  @Query("SELECT COUNT(pf) FROM ProductoFavorito pf WHERE pf.cliente.credencial.idUsuario = :idUsuario")
+  Long getCantidadDeArticulosEnFavoritos(@Param("idUsuario") long idUsuario);
 }
@@ -8,6 +8,9 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
 import org.springframework.data.repository.query.Param;
 import org.opencommercial.model.Producto;
+import org.opencommercial.repository.projection.CantidadDisponibleProjection;
+import org.opencommercial.repository.projection.PrecioRenglonProjection;
+import org.opencommercial.repository.projection.ProductoBusquedaProjection;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -27,6 +30,31 @@ public interface ProductoRepository extends
 
   List<Producto> findByIdProductoInAndEliminadoFalse(Set<Long> idsProducto);
 
+  @Query("SELECT p.idProducto AS idProducto, p.codigo AS codigo, p.descripcion AS descripcion, "
+          + "p.cantidadProducto.ilimitado AS ilimitado, ces.sucursal.idSucursal AS idSucursal, ces.cantidad AS cantidad "
+          + "FROM Producto p LEFT JOIN p.cantidadProducto.cantidadEnSucursales ces "
+          + "ON ces.sucursal.idSucursal IN (SELECT s.idSucursal FROM Sucursal s "
+          + "WHERE s.idSucursal = :idSucursal OR s.configuracionSucursal.comparteStock = true) "
+          + "WHERE p.idProducto IN :idsProducto AND p.eliminado = false")
+  List<CantidadDisponibleProjection> getCantidadesDisponibles(@Param("idsProducto") Set<Long> idsProducto,
+                                                              @Param("idSucursal") long idSucursal);
+
+  @Query("SELECT p.idProducto AS idProducto, p.codigo AS codigo, p.descripcion AS descripcion, "
+          + "m.nombre AS medida, p.urlImagen AS urlImagen, p.cantidadProducto.cantMinima AS cantMinima, "
+          + "p.precioProducto.precioCosto AS precioCosto, p.precioProducto.gananciaPorcentaje AS gananciaPorcentaje, "
+          + "p.precioProducto.gananciaNeto AS gananciaNeto, p.precioProducto.precioVentaPublico AS precioVentaPublico, "
+          + "p.precioProducto.ivaPorcentaje AS ivaPorcentaje, p.precioProducto.precioLista AS precioLista, "
+          + "p.precioProducto.oferta AS oferta, "
+          + "p.precioProducto.porcentajeBonificacionOferta AS porcentajeBonificacionOferta, "
+          + "p.precioProducto.porcentajeBonificacionPrecio AS porcentajeBonificacionPrecio "
+          + "FROM Producto p LEFT JOIN p.medida m "
+          + "WHERE p.idProducto IN :idsProducto AND p.eliminado = false")
+  List<PrecioRenglonProjection> getPreciosParaRenglones(@Param("idsProducto") Set<Long> idsProducto);
+
+  @Query("SELECT p.idProducto AS idProducto, p.codigo AS codigo, p.descripcion AS descripcion "
+          + "FROM Producto p WHERE p.eliminado = false")
+  List<ProductoBusquedaProjection> findAllParaIndiceDeBusqueda();
+
   @Modifying
   @Query("UPDATE Producto p SET p.urlImagen = :urlImagen WHERE p.idProducto = :idProducto")
   int actualizarUrlImagen(@Param("idProducto") long idProducto, @Param("urlImagen") String urlImagen);
@@ -1,11 +1,22 @@
 package org.opencommercial.repository;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import com.querydsl.core.BooleanBuilder;
+import org.opencommercial.model.Producto;
+import org.springframework.data.domain.Sort;
 
 public interface ProductoRepositoryCustom {
 
     BigDecimal calcularValorStock(BooleanBuilder builder);
 
+    List<Long> getIdsProductos(BooleanBuilder builder);
+
+    Stream<Producto> streamProductos(BooleanBuilder builder, Sort sort);
+
+    void actualizarStock(Map<Long, Map<Long, BigDecimal>> variacionesPorProductoYSucursal);
+
 }
@@ -10,6 +10,6 @@ public interface RemitoRepository extends
         JpaRepository<Remito, Long>,
         QuerydslPredicateExecutor<Remito> {
 
-  @Query("SELECT max(r.nroRemito) FROM Remito r WHERE r.serie = :serie")
-  Long buscarMayorNumRemitoSegunSerie(@Param("serie") long serie);
+  @Query("SELECT max(r.nroRemito) FROM Remito r WHERE r.sucursal.idSucursal = :idSucursal AND r.serie = :serie")
+  Long buscarMayorNumRemitoSegunSerieYSucursal(@Param("idSucursal") long idSucursal, @Param("serie") long serie);
 }
@@ -30,6 +30,15 @@ public interface RenglonCuentaCorrienteRepository extends JpaRepository<RenglonC
       + " ORDER BY r.idRenglonCuentaCorriente DESC")
     List<RenglonCuentaCorriente> findAllByCuentaCorrienteAndEliminado(@Param("idCuentaCorriente") long idCuentaCorriente);
 
+    @Query("SELECT r FROM CuentaCorriente cc INNER JOIN cc.renglones r"
+      + " WHERE cc.idCuentaCorriente = :idCuentaCorriente AND cc.eliminada = false AND r.eliminado = false"
+      + " AND r.idRenglonCuentaCorriente < :idRenglonCuentaCorriente"
+      + " ORDER BY r.idRenglonCuentaCorriente DESC")
+    List<RenglonCuentaCorriente> findAllByCuentaCorrienteAndEliminadoAnterioresA(
+            @Param("idCuentaCorriente") long idCuentaCorriente,
+            @Param("idRenglonCuentaCorriente") long idRenglonCuentaCorriente,
+            Pageable page);
+
     List<RenglonCuentaCorriente> findTop2ByAndCuentaCorrienteAndEliminadoOrderByIdRenglonCuentaCorrienteDesc(
             CuentaCorriente cuentaCorriente, boolean eliminado);
 }
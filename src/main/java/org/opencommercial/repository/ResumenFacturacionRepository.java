@@ -0,0 +1,106 @@
+package org.opencommercial.repository;
+
+import org.opencommercial.model.Movimiento;
+import org.opencommercial.model.ResumenFacturacion;
+import org.opencommercial.repository.projection.EntidadMontoProjection;
+import org.opencommercial.repository.projection.PeriodoMontoProjection;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface ResumenFacturacionRepository extends JpaRepository<ResumenFacturacion, Long> {
+
+  // crea el resumen del dia o suma al existente en una sola sentencia, sin dejar locks de hueco en el indice unico
+  @Modifying
+  @Query(value = "INSERT INTO resumenfacturacion (idSucursal, movimiento, anio, mes, dia, idEntidad, total) "
+          + "VALUES (:idSucursal, :movimiento, :anio, :mes, :dia, :idEntidad, :monto) "
+          + "ON DUPLICATE KEY UPDATE total = total + :monto", nativeQuery = true)
+  void acumularTotal(@Param("idSucursal") long idSucursal,
+                     @Param("movimiento") String movimiento,
+                     @Param("anio") int anio,
+                     @Param("mes") int mes,
+                     @Param("dia") int dia,
+                     @Param("idEntidad") long idEntidad,
+                     @Param("monto") BigDecimal monto);
+
+  @Modifying
+  @Query("DELETE FROM ResumenFacturacion r")
+  int eliminarTodos();
+
+  @Modifying
+  @Query("INSERT INTO ResumenFacturacion (idSucursal, movimiento, anio, mes, dia, idEntidad, total) "
+          + "SELECT fv.sucursal.idSucursal, org.opencommercial.model.Movimiento.VENTA, "
+          + "year(fv.fecha), month(fv.fecha), day(fv.fecha), fv.cliente.idCliente, sum(fv.total) "
+          + "FROM FacturaVenta fv WHERE fv.eliminada = false "
+          + "GROUP BY fv.sucursal.idSucursal, year(fv.fecha), month(fv.fecha), day(fv.fecha), fv.cliente.idCliente")
+  int insertarResumenesDeVentas();
+
+  @Modifying
+  @Query("INSERT INTO ResumenFacturacion (idSucursal, movimiento, anio, mes, dia, idEntidad, total) "
+          + "SELECT fc.sucursal.idSucursal, org.opencommercial.model.Movimiento.COMPRA, "
+          + "year(fc.fecha), month(fc.fecha), day(fc.fecha), fc.proveedor.idProveedor, sum(fc.total) "
+          + "FROM FacturaCompra fc WHERE fc.eliminada = false "
+          + "GROUP BY fc.sucursal.idSucursal, year(fc.fecha), month(fc.fecha), day(fc.fecha), fc.proveedor.idProveedor")
+  int insertarResumenesDeCompras();
+
+  @Query("SELECT r.anio as periodo, round(sum(r.total)) as monto "
+          + "FROM ResumenFacturacion r "
+          + "WHERE r.idSucursal = :idSucursal AND r.movimiento = :movimiento "
+          + "GROUP BY r.anio "
+          + "ORDER BY r.anio desc")
+  List<PeriodoMontoProjection> getMontoNetoPorAnio(@Param("idSucursal") long idSucursal,
+                                                   @Param("movimiento") Movimiento movimiento,
+                                                   Pageable pageable);
+
+  @Query("SELECT r.mes as periodo, round(sum(r.total)) as monto "
+          + "FROM ResumenFacturacion r "
+          + "WHERE r.idSucursal = :idSucursal AND r.movimiento = :movimiento AND r.anio = :anio "
+          + "GROUP BY r.mes "
+          + "ORDER BY r.mes")
+  List<PeriodoMontoProjection> getMontoNetoPorMes(@Param("idSucursal") long idSucursal,
+                                                  @Param("movimiento") Movimiento movimiento,
+                                                  @Param("anio") int anio);
+
+  @Query("SELECT c.nombreFiscal as entidad, round(sum(r.total)) as monto "
+          + "FROM ResumenFacturacion r INNER JOIN Cliente c ON c.idCliente = r.idEntidad "
+          + "WHERE r.movimiento = org.opencommercial.model.Movimiento.VENTA AND c.eliminado = false "
+          + "AND r.anio = :anio AND r.idSucursal = :idSucursal "
+          + "GROUP BY c.idCliente, c.nombreFiscal "
+          + "ORDER BY monto desc")
+  List<EntidadMontoProjection> getMontoNetoVendidoPorClientePorAnio(@Param("idSucursal") long idSucursal,
+                                                                    @Param("anio") int anio);
+
+  @Query("SELECT c.nombreFiscal as entidad, round(sum(r.total)) as monto "
+          + "FROM ResumenFacturacion r INNER JOIN Cliente c ON c.idCliente = r.idEntidad "
+          + "WHERE r.movimiento = org.opencommercial.model.Movimiento.VENTA AND c.eliminado = false "
+          + "AND r.anio = :anio AND r.mes = :mes AND r.idSucursal = :idSucursal "
+          + "GROUP BY c.idCliente, c.nombreFiscal "
+          + "ORDER BY monto desc")
+  List<EntidadMontoProjection> getMontoNetoVendidoPorClientePorMes(@Param("idSucursal") long idSucursal,
+                                                                   @Param("anio") int anio,
+                                                                   @Param("mes") int mes);
+
+  @Query("SELECT p.razonSocial as entidad, round(sum(r.total)) as monto "
+          + "FROM ResumenFacturacion r INNER JOIN Proveedor p ON p.idProveedor = r.idEntidad "
+          + "WHERE r.movimiento = org.opencommercial.model.Movimiento.COMPRA AND p.eliminado = false "
+          + "AND r.anio = :anio AND r.idSucursal = :idSucursal "
+          + "GROUP BY p.idProveedor, p.razonSocial "
+          + "ORDER BY monto desc")
+  List<EntidadMontoProjection> getMontoNetoCompradoPorProveedorPorAnio(@Param("idSucursal") long idSucursal,
+                                                                       @Param("anio") int anio);
+
+  @Query("SELECT p.razonSocial as entidad, round(sum(r.total)) as monto "
+          + "FROM ResumenFacturacion r INNER JOIN Proveedor p ON p.idProveedor = r.idEntidad "
+          + "WHERE r.movimiento = org.opencommercial.model.Movimiento.COMPRA AND p.eliminado = false "
+          + "AND r.anio = :anio AND r.mes = :mes AND r.idSucursal = :idSucursal "
+          + "GROUP BY p.idProveedor, p.razonSocial "
+          + "ORDER BY monto desc")
+  List<EntidadMontoProjection> getMontoNetoCompradoPorProveedorPorMes(@Param("idSucursal") long idSucursal,
+                                                                      @Param("anio") int anio,
+                                                                      @Param("mes") int mes);
+}
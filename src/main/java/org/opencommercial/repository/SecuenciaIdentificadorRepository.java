@@ -0,0 +1,27 @@
+package org.opencommercial.repository;
+
+import jakarta.persistence.LockModeType;
+import org.opencommercial.model.SecuenciaIdentificador;
+import org.opencommercial.model.TipoIdentificador;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface SecuenciaIdentificadorRepository extends JpaRepository<SecuenciaIdentificador, Long> {
+
+  // toma el lock exclusivo de la fila exista o no, un SELECT ... FOR UPDATE sobre una fila inexistente
+  // solo bloquearia el hueco del indice y el INSERT posterior quedaria esperando
+  @Modifying
+  @Query(value = "INSERT INTO secuenciaidentificador (tipo, ambito, ultimoReservado) VALUES (:tipo, :ambito, 0)"
+          + " ON DUPLICATE KEY UPDATE ultimoReservado = ultimoReservado", nativeQuery = true)
+  void crearSiNoExiste(@Param("tipo") String tipo, @Param("ambito") String ambito);
+
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT s FROM SecuenciaIdentificador s WHERE s.tipo = :tipo AND s.ambito = :ambito")
+  Optional<SecuenciaIdentificador> findParaActualizar(@Param("tipo") TipoIdentificador tipo,
+                                                      @Param("ambito") String ambito);
+}
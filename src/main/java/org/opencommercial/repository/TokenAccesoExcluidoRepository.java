@@ -1,12 +1,26 @@
 package org.opencommercial.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
 import org.opencommercial.model.TokenAccesoExcluido;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 public interface TokenAccesoExcluidoRepository extends
         JpaRepository<TokenAccesoExcluido, Long>,
         QuerydslPredicateExecutor<TokenAccesoExcluido> {
 
   TokenAccesoExcluido findByToken(String token);
+
+  @Query("SELECT tae FROM TokenAccesoExcluido tae "
+          + "WHERE tae.fechaVencimiento IS NULL OR tae.fechaVencimiento > :fecha")
+  List<TokenAccesoExcluido> findAllVigentes(@Param("fecha") LocalDateTime fecha);
+
+  @Modifying
+  @Query("DELETE FROM TokenAccesoExcluido tae WHERE tae.fechaVencimiento < :fecha")
+  int eliminarTokensVencidos(@Param("fecha") LocalDateTime fecha);
 }
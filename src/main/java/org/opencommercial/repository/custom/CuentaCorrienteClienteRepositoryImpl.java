@@ -0,0 +1,47 @@
+package org.opencommercial.repository.custom;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.dsl.PathBuilder;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.hibernate.jpa.HibernateHints;
+import org.opencommercial.model.CuentaCorrienteCliente;
+import org.opencommercial.model.QCuentaCorrienteCliente;
+import org.opencommercial.repository.CuentaCorrienteClienteRepositoryCustom;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.support.Querydsl;
+
+public class CuentaCorrienteClienteRepositoryImpl implements CuentaCorrienteClienteRepositoryCustom {
+
+  private static final int TAMANIO_LOTE_LECTURA = 500;
+
+  @PersistenceContext
+  private EntityManager em;
+
+  @Override
+  public Stream<CuentaCorrienteCliente> streamCuentasCorrienteCliente(BooleanBuilder builder, Sort sort) {
+    QCuentaCorrienteCliente qCuentaCorrienteCliente = QCuentaCorrienteCliente.cuentaCorrienteCliente;
+    JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+    var query = queryFactory
+        .selectFrom(qCuentaCorrienteCliente)
+        .innerJoin(qCuentaCorrienteCliente.cliente).fetchJoin()
+        .where(builder);
+    new Querydsl(em, new PathBuilder<>(CuentaCorrienteCliente.class, qCuentaCorrienteCliente.getMetadata()))
+        .applySorting(sort, query);
+    // el driver lee las filas por lotes; junto con cada cuenta se cargan clientes, ubicaciones y usuarios,
+    // por eso el contexto se vacia por lotes en lugar de desvincular solo la cuenta ya consumida
+    var leidas = new AtomicInteger();
+    return query
+        .setHint(HibernateHints.HINT_FETCH_SIZE, TAMANIO_LOTE_LECTURA)
+        .setHint(HibernateHints.HINT_READ_ONLY, true)
+        .stream()
+        .map(cuentaCorrienteCliente -> {
+          if (leidas.incrementAndGet() % TAMANIO_LOTE_LECTURA == 0) em.clear();
+          return cuentaCorrienteCliente;
+        });
+  }
+}
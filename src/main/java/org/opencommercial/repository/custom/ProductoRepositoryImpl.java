@@ -1,16 +1,28 @@
 package org.opencommercial.repository.custom;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.stream.Stream;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 
 import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.dsl.PathBuilder;
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.hibernate.jpa.HibernateHints;
+import org.opencommercial.model.Producto;
 import org.opencommercial.model.QProducto;
 import org.opencommercial.repository.ProductoRepositoryCustom;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.support.Querydsl;
 
 public class ProductoRepositoryImpl implements ProductoRepositoryCustom {
 
+  private static final int TAMANIO_LOTE_LECTURA = 500;
+
   @PersistenceContext
   private EntityManager em;
 
@@ -25,4 +37,69 @@ public class ProductoRepositoryImpl implements ProductoRepositoryCustom {
         .fetch()
         .get(0);
   }
+
+  @Override
+  public List<Long> getIdsProductos(BooleanBuilder builder) {
+    QProducto qProducto = QProducto.producto;
+    JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+    return queryFactory
+        .select(qProducto.idProducto)
+        .from(qProducto)
+        .where(builder)
+        .fetch();
+  }
+
+  @Override
+  public Stream<Producto> streamProductos(BooleanBuilder builder, Sort sort) {
+    QProducto qProducto = QProducto.producto;
+    JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+    var query = queryFactory.selectFrom(qProducto).where(builder);
+    new Querydsl(em, new PathBuilder<>(Producto.class, qProducto.getMetadata())).applySorting(sort, query);
+    // el driver lee las filas por lotes y cada producto se desvincula del contexto una vez consumido
+    return query
+        .setHint(HibernateHints.HINT_FETCH_SIZE, TAMANIO_LOTE_LECTURA)
+        .setHint(HibernateHints.HINT_READ_ONLY, true)
+        .stream()
+        .map(producto -> {
+          em.detach(producto);
+          return producto;
+        });
+  }
+
+  @Override
+  public void actualizarStock(Map<Long, Map<Long, BigDecimal>> variacionesPorProductoYSucursal) {
+    if (variacionesPorProductoYSucursal.isEmpty()) return;
+    // los cambios pendientes se envian antes de que las sentencias SQL modifiquen las mismas filas
+    em.flush();
+    // todas las variaciones se aplican en una sola sentencia, unidas como tabla derivada por producto y sucursal
+    var filas = new ArrayList<Object[]>();
+    variacionesPorProductoYSucursal.forEach((idProducto, variacionesPorSucursal) ->
+        variacionesPorSucursal.forEach((idSucursal, variacion) ->
+            filas.add(new Object[] {idProducto, idSucursal, variacion})));
+    var variaciones = new StringJoiner(" UNION ALL ");
+    for (int i = 0; i < filas.size(); i++) {
+      variaciones.add("SELECT :idProducto" + i + " AS idProducto, :idSucursal" + i + " AS idSucursal, :variacion" + i
+          + " AS variacion");
+    }
+    var actualizacionCantidades = em.createNativeQuery("UPDATE cantidadensucursal c JOIN (" + variaciones + ") v "
+        + "ON c.idProducto = v.idProducto AND c.idSucursal = v.idSucursal "
+        + "SET c.cantidad = c.cantidad + v.variacion");
+    for (int i = 0; i < filas.size(); i++) {
+      actualizacionCantidades
+          .setParameter("idProducto" + i, filas.get(i)[0])
+          .setParameter("idSucursal" + i, filas.get(i)[1])
+          .setParameter("variacion" + i, filas.get(i)[2]);
+    }
+    actualizacionCantidades.executeUpdate();
+    // la version se incrementa igual que en un guardado, para que una edicion concurrente del producto falle
+    em.createNativeQuery("UPDATE producto p SET p.version = p.version + 1, p.cantidadTotalEnSucursales = "
+            + "(SELECT COALESCE(SUM(c.cantidad), 0) FROM cantidadensucursal c WHERE c.idProducto = p.idProducto) "
+            + "WHERE p.idProducto IN (:idsProducto)")
+        .setParameter("idsProducto", variacionesPorProductoYSucursal.keySet())
+        .executeUpdate();
+    // los productos cargados quedan desactualizados, se quitan del contexto para que no se guarden ni se reutilicen;
+    // getReference no consulta la base y devuelve la instancia administrada si existe
+    variacionesPorProductoYSucursal.keySet()
+        .forEach(idProducto -> em.detach(em.getReference(Producto.class, idProducto)));
+  }
 }
@@ -0,0 +1,18 @@
+package org.opencommercial.repository.projection;
+
+import java.math.BigDecimal;
+
+public interface CantidadDisponibleProjection {
+
+  Long getIdProducto();
+
+  String getCodigo();
+
+  String getDescripcion();
+
+  Boolean getIlimitado();
+
+  Long getIdSucursal();
+
+  BigDecimal getCantidad();
+}
@@ -0,0 +1,12 @@
+package org.opencommercial.repository.projection;
+
+import java.math.BigDecimal;
+
+public interface FormaDePagoMontoProjection {
+
+  Long getIdFormaDePago();
+
+  Boolean getAfectaCaja();
+
+  BigDecimal getMonto();
+}
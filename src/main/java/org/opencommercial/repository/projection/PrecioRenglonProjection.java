@@ -0,0 +1,36 @@
+package org.opencommercial.repository.projection;
+
+import java.math.BigDecimal;
+
+public interface PrecioRenglonProjection {
+
+  Long getIdProducto();
+
+  String getCodigo();
+
+  String getDescripcion();
+
+  String getMedida();
+
+  String getUrlImagen();
+
+  BigDecimal getCantMinima();
+
+  BigDecimal getPrecioCosto();
+
+  BigDecimal getGananciaPorcentaje();
+
+  BigDecimal getGananciaNeto();
+
+  BigDecimal getPrecioVentaPublico();
+
+  BigDecimal getIvaPorcentaje();
+
+  BigDecimal getPrecioLista();
+
+  Boolean getOferta();
+
+  BigDecimal getPorcentajeBonificacionOferta();
+
+  BigDecimal getPorcentajeBonificacionPrecio();
+}
@@ -0,0 +1,10 @@
+package org.opencommercial.repository.projection;
+
+public interface ProductoBusquedaProjection {
+
+  Long getIdProducto();
+
+  String getCodigo();
+
+  String getDescripcion();
+}
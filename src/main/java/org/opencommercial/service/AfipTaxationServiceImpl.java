@@ -24,8 +24,10 @@ import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.Base64;
-import java.util.Locale;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
@@ -38,6 +40,10 @@ public class AfipTaxationServiceImpl implements TaxationService {
   private static final BigDecimal LIMITE_MONTO_CONSUMIDOR_FINAL = new BigDecimal(95000);
   private static final String MENSAJE_AUTORIZACION_ERROR = "mensaje_autorizacion_error";
   private static final String MENSAJE_COMPROBANTE_AFIP_INVALIDO = "mensaje_comprobante_AFIP_invalido";
+  // WSFE admite hasta 250 comprobantes por FECAESolicitar
+  private static final int TAMANIO_MAXIMO_LOTE = 250;
+  private final Map<String, Long> ultimosNrosAutorizados = new ConcurrentHashMap<>();
+  private final Map<String, ReentrantLock> bloqueosNumeracion = new ConcurrentHashMap<>();
 
   @Autowired
   public AfipTaxationServiceImpl(AfipWebServiceSOAPClient afipWebServiceSOAPClient,
@@ -50,6 +56,53 @@ public class AfipTaxationServiceImpl implements TaxationService {
 
   @Override
   public void autorizar(ComprobanteAutorizable comprobanteAutorizable) {
+    var comprobanteAutorizableAFIP = this.validarComprobanteAutorizable(comprobanteAutorizable);
+    var sucursal = comprobanteAutorizableAFIP.getSucursal();
+    this.solicitarCAE(this.getFEAuth(sucursal), sucursal.getConfiguracionSucursal().getNroPuntoDeVentaAfip(),
+            comprobanteAutorizableAFIP.getTipoComprobante(), List.of(comprobanteAutorizableAFIP));
+    if (comprobanteAutorizableAFIP.getObservaciones() != null) {
+      throw new BusinessServiceException(comprobanteAutorizableAFIP.getObservaciones());
+    }
+  }
+
+  @Override
+  public void autorizar(List<? extends ComprobanteAutorizable> comprobantesAutorizables) {
+    // un comprobante invalido queda con sus observaciones y no impide autorizar el resto
+    var comprobantesValidos = new ArrayList<ComprobanteAutorizableAFIP>();
+    for (var comprobanteAutorizable : comprobantesAutorizables) {
+      try {
+        comprobantesValidos.add(this.validarComprobanteAutorizable(comprobanteAutorizable));
+      } catch (ServiceException ex) {
+        log.warn("No se puede autorizar el comprobante {}. {}", comprobanteAutorizable.getIdComprobante(), ex.getMessage());
+        if (comprobanteAutorizable instanceof ComprobanteAutorizableAFIP c) c.setObservaciones(ex.getMessage());
+      }
+    }
+    var comprobantesPorSucursal = comprobantesValidos.stream()
+            .collect(Collectors.groupingBy(c -> c.getSucursal().getIdSucursal(), LinkedHashMap::new,
+                    Collectors.groupingBy(ComprobanteAutorizableAFIP::getTipoComprobante, LinkedHashMap::new,
+                            Collectors.toList())));
+    comprobantesPorSucursal.values().forEach(comprobantesPorTipo -> {
+      var sucursal = comprobantesPorTipo.values().iterator().next().getFirst().getSucursal();
+      int nroPuntoDeVentaAfip = sucursal.getConfiguracionSucursal().getNroPuntoDeVentaAfip();
+      FEAuthRequest feAuthRequest = null;
+      for (var comprobantesDelTipo : comprobantesPorTipo.entrySet()) {
+        var comprobantes = comprobantesDelTipo.getValue();
+        for (int desde = 0; desde < comprobantes.size(); desde += TAMANIO_MAXIMO_LOTE) {
+          var lote = comprobantes.subList(desde, Math.min(desde + TAMANIO_MAXIMO_LOTE, comprobantes.size()));
+          try {
+            if (feAuthRequest == null) feAuthRequest = this.getFEAuth(sucursal);
+            this.solicitarCAE(feAuthRequest, nroPuntoDeVentaAfip, comprobantesDelTipo.getKey(), lote);
+          } catch (ServiceException ex) {
+            log.error("No se pudo autorizar el lote de {} comprobantes {} del punto de venta {}. {}",
+                    lote.size(), comprobantesDelTipo.getKey(), nroPuntoDeVentaAfip, ex.getMessage());
+            lote.forEach(c -> c.setObservaciones(ex.getMessage()));
+          }
+        }
+      }
+    });
+  }
+
+  private ComprobanteAutorizableAFIP validarComprobanteAutorizable(ComprobanteAutorizable comprobanteAutorizable) {
     ComprobanteAutorizableAFIP comprobanteAutorizableAFIP;
     if (comprobanteAutorizable instanceof ComprobanteAutorizableAFIP c) {
       comprobanteAutorizableAFIP = c;
@@ -71,65 +124,97 @@ public class AfipTaxationServiceImpl implements TaxationService {
     if (sinCae) {
       throw new BusinessServiceException(messageSource.getMessage("mensaje_comprobante_AFIP_autorizado", null, Locale.getDefault()));
     }
-    FECAESolicitar fecaeSolicitud = new FECAESolicitar();
-    FEAuthRequest feAuthRequest = this.getFEAuth(comprobanteAutorizableAFIP.getSucursal());
-    fecaeSolicitud.setAuth(feAuthRequest);
-    int nroPuntoDeVentaAfip = comprobanteAutorizableAFIP.getSucursal().getConfiguracionSucursal().getNroPuntoDeVentaAfip();
-    int siguienteNroComprobante =
-        this.getSiguienteNroComprobante(feAuthRequest, comprobanteAutorizableAFIP.getTipoComprobante(), nroPuntoDeVentaAfip);
-    fecaeSolicitud.setFeCAEReq(
-        this.transformComprobanteToFECAERequest(comprobanteAutorizableAFIP, siguienteNroComprobante, nroPuntoDeVentaAfip));
+    comprobanteAutorizableAFIP.setObservaciones(null);
+    return comprobanteAutorizableAFIP;
+  }
+
+  private void solicitarCAE(FEAuthRequest feAuthRequest, int nroPuntoDeVentaAfip, TipoDeComprobante tipo,
+                            List<ComprobanteAutorizableAFIP> lote) {
+    int cbteTipo = this.getCbteTipo(tipo);
+    // la numeracion es por CUIT, punto de venta y tipo de comprobante
+    var claveNumeracion = feAuthRequest.getCuit() + "-" + nroPuntoDeVentaAfip + "-" + cbteTipo;
+    var bloqueo = bloqueosNumeracion.computeIfAbsent(claveNumeracion, clave -> new ReentrantLock());
+    bloqueo.lock();
     try {
-      FECAEResponse response = afipWebServiceSOAPClient.solicitarCAE(fecaeSolicitud);
-      String msjError = "";
+      Long ultimoNroAutorizado = ultimosNrosAutorizados.get(claveNumeracion);
+      if (ultimoNroAutorizado == null) {
+        ultimoNroAutorizado = this.getUltimoNroComprobante(feAuthRequest, cbteTipo, nroPuntoDeVentaAfip);
+      }
+      var comprobantesPorNumero = new HashMap<Long, ComprobanteAutorizableAFIP>();
+      FECAESolicitar fecaeSolicitud = new FECAESolicitar();
+      fecaeSolicitud.setAuth(feAuthRequest);
+      fecaeSolicitud.setFeCAEReq(this.transformComprobantesToFECAERequest(
+              lote, cbteTipo, ultimoNroAutorizado + 1, nroPuntoDeVentaAfip, comprobantesPorNumero));
+      FECAEResponse response;
+      try {
+        response = afipWebServiceSOAPClient.solicitarCAE(fecaeSolicitud);
+      } catch (WebServiceClientException | IOException ex) {
+        ultimosNrosAutorizados.remove(claveNumeracion);
+        throw new BusinessServiceException(messageSource.getMessage(MENSAJE_AUTORIZACION_ERROR, null, Locale.getDefault()), ex);
+      }
       // errores generales de la request
       if (response.getErrors() != null) {
-        msjError =
+        ultimosNrosAutorizados.remove(claveNumeracion);
+        throw new BusinessServiceException(
             response.getErrors().getErr().getFirst().getCode()
                 + "-"
-                + response.getErrors().getErr().getFirst().getMsg();
-        throw new BusinessServiceException(msjError);
+                + response.getErrors().getErr().getFirst().getMsg());
       }
-      // errores particulares de cada comprobante
-      if (response.getFeDetResp().getFECAEDetResponse().getFirst().getResultado().equals("R")) {
-        msjError +=
-            response
-                .getFeDetResp()
-                .getFECAEDetResponse()
-                .getFirst()
-                .getObservaciones()
-                .getObs()
-                .getFirst()
-                .getMsg();
-        throw new BusinessServiceException(msjError);
+      boolean loteAprobado = true;
+      for (FECAEDetResponse detalle : response.getFeDetResp().getFECAEDetResponse()) {
+        var comprobante = comprobantesPorNumero.remove(detalle.getCbteDesde());
+        if (comprobante == null) continue;
+        if (detalle.getResultado().equals("R")) {
+          // errores particulares de cada comprobante
+          loteAprobado = false;
+          comprobante.setObservaciones(this.getObservaciones(detalle));
+        } else {
+          comprobante.setCae(Long.parseLong(detalle.getCAE()));
+          comprobante.setVencimientoCAE(LocalDate.parse(detalle.getCAEFchVto(), DateTimeFormatter.BASIC_ISO_DATE));
+          comprobante.setNumSerieAfip(nroPuntoDeVentaAfip);
+          comprobante.setNumFacturaAfip(detalle.getCbteDesde());
+        }
       }
-      long cae = Long.parseLong(response.getFeDetResp().getFECAEDetResponse().getFirst().getCAE());
-      comprobanteAutorizableAFIP.setCae(cae);
-      String fechaVencimientoCaeResponse = response.getFeDetResp().getFECAEDetResponse().getFirst().getCAEFchVto();
-      comprobanteAutorizableAFIP.setVencimientoCAE(LocalDate.parse(fechaVencimientoCaeResponse, DateTimeFormatter.BASIC_ISO_DATE));
-      comprobanteAutorizableAFIP.setNumSerieAfip(nroPuntoDeVentaAfip);
-      comprobanteAutorizableAFIP.setNumFacturaAfip(siguienteNroComprobante);
-    } catch (WebServiceClientException | IOException ex) {
-      throw new BusinessServiceException(messageSource.getMessage(MENSAJE_AUTORIZACION_ERROR, null, Locale.getDefault()), ex);
+      comprobantesPorNumero.values().forEach(comprobante -> comprobante.setObservaciones(
+              messageSource.getMessage(MENSAJE_AUTORIZACION_ERROR, null, Locale.getDefault())));
+      // ante cualquier rechazo se vuelve a consultar el ultimo numero autorizado en la proxima solicitud
+      if (loteAprobado && comprobantesPorNumero.isEmpty()) {
+        ultimosNrosAutorizados.put(claveNumeracion, ultimoNroAutorizado + lote.size());
+      } else {
+        ultimosNrosAutorizados.remove(claveNumeracion);
+      }
+    } finally {
+      bloqueo.unlock();
     }
   }
 
+  private String getObservaciones(FECAEDetResponse detalle) {
+    if (detalle.getObservaciones() == null || detalle.getObservaciones().getObs().isEmpty()) {
+      return messageSource.getMessage(MENSAJE_AUTORIZACION_ERROR, null, Locale.getDefault());
+    }
+    return detalle.getObservaciones().getObs().stream()
+            .map(Obs::getMsg)
+            .collect(Collectors.joining(" "));
+  }
+
   private FEAuthRequest getFEAuth(Sucursal sucursal) {
     FEAuthRequest feAuthRequest = new FEAuthRequest();
     ConfiguracionSucursal configSucursal = sucursal.getConfiguracionSucursal();
-    LocalDateTime fechaVencimientoToken = configSucursal.getFechaVencimientoTokenWSAA();
+    CredencialAfip credencialAfip =
+        configuracionSucursalService.getCredencialAfip(configSucursal.getIdConfiguracionSucursal());
+    LocalDateTime fechaVencimientoToken = credencialAfip.getFechaVencimientoTokenWSAA();
     if (fechaVencimientoToken != null && fechaVencimientoToken.isAfter(LocalDateTime.now())) {
-      feAuthRequest.setToken(configSucursal.getTokenWSAA());
-      feAuthRequest.setSign(configSucursal.getSignTokenWSAA());
+      feAuthRequest.setToken(credencialAfip.getTokenWSAA());
+      feAuthRequest.setSign(credencialAfip.getSignTokenWSAA());
       feAuthRequest.setCuit(sucursal.getIdFiscal());
       return feAuthRequest;
     } else {
-      byte[] p12file = configSucursal.getCertificadoAfip();
-      if (p12file.length == 0) {
+      byte[] p12file = credencialAfip.getCertificadoAfip();
+      if (p12file == null || p12file.length == 0) {
         throw new BusinessServiceException(messageSource.getMessage("mensaje_sucursal_certificado_vacio", null, Locale.getDefault()));
       } else {
         String p12signer = configSucursal.getFirmanteCertificadoAfip();
-        String p12pass = configSucursal.getPasswordCertificadoAfip();
+        String p12pass = credencialAfip.getPasswordCertificadoAfip();
         long ticketTimeInHours = 12L; // siempre devuelve por 12hs
         byte[] loginTicketRequestXmlCms =
                 afipWebServiceSOAPClient.crearCMS(p12file, p12pass, p12signer, WEBSERVICE_FACTURA_ELECTRONICA, ticketTimeInHours);
@@ -146,13 +231,13 @@ public class AfipTaxationServiceImpl implements TaxationService {
           feAuthRequest.setToken(tokenWSAA);
           feAuthRequest.setSign(signTokenWSAA);
           feAuthRequest.setCuit(sucursal.getIdFiscal());
-          configSucursal.setTokenWSAA(tokenWSAA);
-          configSucursal.setSignTokenWSAA(signTokenWSAA);
+          credencialAfip.setTokenWSAA(tokenWSAA);
+          credencialAfip.setSignTokenWSAA(signTokenWSAA);
           String generationTime = tokenDoc.valueOf("/loginTicketResponse/header/generationTime");
           String expirationTime = tokenDoc.valueOf("/loginTicketResponse/header/expirationTime");
-          configSucursal.setFechaGeneracionTokenWSAA(LocalDateTime.parse(generationTime, DateTimeFormatter.ISO_OFFSET_DATE_TIME));
-          configSucursal.setFechaVencimientoTokenWSAA(LocalDateTime.parse(expirationTime, DateTimeFormatter.ISO_OFFSET_DATE_TIME));
-          configuracionSucursalService.actualizar(configSucursal);
+          credencialAfip.setFechaGeneracionTokenWSAA(LocalDateTime.parse(generationTime, DateTimeFormatter.ISO_OFFSET_DATE_TIME));
+          credencialAfip.setFechaVencimientoTokenWSAA(LocalDateTime.parse(expirationTime, DateTimeFormatter.ISO_OFFSET_DATE_TIME));
+          configuracionSucursalService.actualizarCredencialAfip(credencialAfip);
           return feAuthRequest;
         } catch (DocumentException | IOException | WebServiceClientException | SAXException ex) {
           throw new ServiceException(messageSource.getMessage(MENSAJE_AUTORIZACION_ERROR, null, Locale.getDefault()), ex);
@@ -161,96 +246,81 @@ public class AfipTaxationServiceImpl implements TaxationService {
     }
   }
 
-  private int getSiguienteNroComprobante(FEAuthRequest feAuthRequest, TipoDeComprobante tipo, int nroPuntoDeVentaAfip) {
+  private long getUltimoNroComprobante(FEAuthRequest feAuthRequest, int cbteTipo, int nroPuntoDeVentaAfip) {
     FECompUltimoAutorizado solicitud = new FECompUltimoAutorizado();
     solicitud.setAuth(feAuthRequest);
-    switch (tipo) {
-      case FACTURA_A -> solicitud.setCbteTipo(1);
-      case NOTA_DEBITO_A -> solicitud.setCbteTipo(2);
-      case NOTA_CREDITO_A -> solicitud.setCbteTipo(3);
-      case FACTURA_B -> solicitud.setCbteTipo(6);
-      case NOTA_DEBITO_B -> solicitud.setCbteTipo(7);
-      case NOTA_CREDITO_B -> solicitud.setCbteTipo(8);
-      case FACTURA_C -> solicitud.setCbteTipo(11);
-      case NOTA_DEBITO_C -> solicitud.setCbteTipo(12);
-      case NOTA_CREDITO_C -> solicitud.setCbteTipo(13);
-      default -> throw new BusinessServiceException(
-              messageSource.getMessage(MENSAJE_COMPROBANTE_AFIP_INVALIDO, null, Locale.getDefault()));
-    }
+    solicitud.setCbteTipo(cbteTipo);
     solicitud.setPtoVta(nroPuntoDeVentaAfip);
     try {
       FERecuperaLastCbteResponse response = afipWebServiceSOAPClient.getUltimoComprobanteAutorizado(solicitud);
-      return response.getCbteNro() + 1;
+      return response.getCbteNro();
     } catch (WebServiceClientException | IOException ex) {
       throw new ServiceException(messageSource.getMessage(
               MENSAJE_AUTORIZACION_ERROR, null, Locale.getDefault()), ex);
     }
   }
 
-  private FECAERequest transformComprobanteToFECAERequest(ComprobanteAutorizableAFIP comprobante, int siguienteNroComprobante, int nroPuntoDeVentaAfip) {
+  private int getCbteTipo(TipoDeComprobante tipo) {
+    // CbteTipo = 1: Factura A, 2: Nota de Débito A, 3: Nota de Crédito A, 6: Factura B,
+    //    7: Nota de Débito B 8: Nota de Crédito B. 11: Factura C. 12: Nota Debito C. 13: Nota Credito C.
+    return switch (tipo) {
+      case FACTURA_A -> 1;
+      case NOTA_DEBITO_A -> 2;
+      case NOTA_CREDITO_A -> 3;
+      case FACTURA_B -> 6;
+      case NOTA_DEBITO_B -> 7;
+      case NOTA_CREDITO_B -> 8;
+      case FACTURA_C -> 11;
+      case NOTA_DEBITO_C -> 12;
+      case NOTA_CREDITO_C -> 13;
+      default -> throw new BusinessServiceException(
+              messageSource.getMessage(MENSAJE_COMPROBANTE_AFIP_INVALIDO, null, Locale.getDefault()));
+    };
+  }
+
+  private FECAERequest transformComprobantesToFECAERequest(List<ComprobanteAutorizableAFIP> comprobantes,
+                                                           int cbteTipo,
+                                                           long siguienteNroComprobante,
+                                                           int nroPuntoDeVentaAfip,
+                                                           Map<Long, ComprobanteAutorizableAFIP> comprobantesPorNumero) {
     FECAERequest fecaeRequest = new FECAERequest();
     FECAECabRequest cabecera = new FECAECabRequest();
+    cabecera.setCbteTipo(cbteTipo);
+    // Cantidad de registros del detalle del comprobante o lote de comprobantes de ingreso
+    cabecera.setCantReg(comprobantes.size());
+    // Punto de Venta del comprobante que se está informando.
+    // Si se informa más de un comprobante, todos deben corresponder al mismo punto de venta
+    cabecera.setPtoVta(nroPuntoDeVentaAfip);
+    fecaeRequest.setFeCabReq(cabecera);
+    ArrayOfFECAEDetRequest arrayDetalle = new ArrayOfFECAEDetRequest();
+    long nroComprobante = siguienteNroComprobante;
+    for (var comprobante : comprobantes) {
+      arrayDetalle.getFECAEDetRequest().add(this.transformComprobanteToFECAEDetRequest(comprobante, nroComprobante));
+      comprobantesPorNumero.put(nroComprobante, comprobante);
+      nroComprobante++;
+    }
+    fecaeRequest.setFeDetReq(arrayDetalle);
+    return fecaeRequest;
+  }
+
+  private FECAEDetRequest transformComprobanteToFECAEDetRequest(ComprobanteAutorizableAFIP comprobante, long nroComprobante) {
     FECAEDetRequest detalle = new FECAEDetRequest();
     this.agregarPeriodoAlDetalle(comprobante, detalle);
-    // CbteTipo = 1: Factura A, 2: Nota de Débito A, 3: Nota de Crédito A, 6: Factura B,
-    //    7: Nota de Débito B 8: Nota de Crédito B. 11: Factura C. 12: Nota Debito C. 13: Nota Credito C.
     // DocTipo = 80: CUIT, 86: CUIL, 96: DNI, 99: Doc.(Otro)
     int docTipo = (comprobante.getCliente().getCategoriaIVACliente() == CategoriaIVA.CONSUMIDOR_FINAL) ? 96 : 80;
     switch (comprobante.getTipoComprobante()) {
-      case FACTURA_A -> {
-        this.validarCliente(comprobante.getCliente());
-        cabecera.setCbteTipo(1);
-        detalle.setDocTipo(docTipo);
-        detalle.setDocNro(comprobante.getCliente().getIdFiscalCliente());
-      }
-      case NOTA_DEBITO_A -> {
+      case FACTURA_A, NOTA_DEBITO_A, NOTA_CREDITO_A -> {
         this.validarCliente(comprobante.getCliente());
-        cabecera.setCbteTipo(2);
         detalle.setDocTipo(docTipo);
         detalle.setDocNro(comprobante.getCliente().getIdFiscalCliente());
       }
-      case NOTA_CREDITO_A -> {
-        this.validarCliente(comprobante.getCliente());
-        cabecera.setCbteTipo(3);
-        detalle.setDocTipo(docTipo);
-        detalle.setDocNro(comprobante.getCliente().getIdFiscalCliente());
-      }
-      case FACTURA_B -> {
-        cabecera.setCbteTipo(6);
-        this.procesarDetalle(detalle, comprobante);
-      }
-      case NOTA_DEBITO_B -> {
-        cabecera.setCbteTipo(7);
+      case FACTURA_B, NOTA_DEBITO_B, NOTA_CREDITO_B, FACTURA_C, NOTA_DEBITO_C, NOTA_CREDITO_C ->
         this.procesarDetalle(detalle, comprobante);
-      }
-      case NOTA_CREDITO_B -> {
-        cabecera.setCbteTipo(8);
-        this.procesarDetalle(detalle, comprobante);
-      }
-      case FACTURA_C -> {
-        cabecera.setCbteTipo(11);
-        this.procesarDetalle(detalle, comprobante);
-      }
-      case NOTA_DEBITO_C -> {
-        cabecera.setCbteTipo(12);
-        this.procesarDetalle(detalle, comprobante);
-      }
-      case NOTA_CREDITO_C -> {
-        cabecera.setCbteTipo(13);
-        this.procesarDetalle(detalle, comprobante);
-      }
       default -> throw new BusinessServiceException(
               messageSource.getMessage(MENSAJE_COMPROBANTE_AFIP_INVALIDO, null, Locale.getDefault()));
     }
-    // Cantidad de registros del detalle del comprobante o lote de comprobantes de ingreso
-    cabecera.setCantReg(1);
-    // Punto de Venta del comprobante que se está informando.
-    // Si se informa más de un comprobante, todos deben corresponder al mismo punto de venta
-    cabecera.setPtoVta(nroPuntoDeVentaAfip);
-    fecaeRequest.setFeCabReq(cabecera);
-    ArrayOfFECAEDetRequest arrayDetalle = new ArrayOfFECAEDetRequest();
-    detalle.setCbteDesde(siguienteNroComprobante);
-    detalle.setCbteHasta(siguienteNroComprobante);
+    detalle.setCbteDesde(nroComprobante);
+    detalle.setCbteHasta(nroComprobante);
     // Concepto del Comprobante. Valores permitidos: 1 Productos, 2 Servicios, 3 Productos y
     // Servicios
     detalle.setConcepto(1);
@@ -343,9 +413,7 @@ public class AfipTaxationServiceImpl implements TaxationService {
     detalle.setMonId("PES");
     // Cotización de la moneda informada. Para PES, pesos argentinos la misma debe ser 1
     detalle.setMonCotiz(1);
-    arrayDetalle.getFECAEDetRequest().add(detalle);
-    fecaeRequest.setFeDetReq(arrayDetalle);
-    return fecaeRequest;
+    return detalle;
   }
 
   private void procesarDetalle(FECAEDetRequest detalle, ComprobanteAutorizableAFIP comprobante) {
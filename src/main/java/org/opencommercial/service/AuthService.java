@@ -1,6 +1,7 @@
 package org.opencommercial.service;
 
 import io.jsonwebtoken.Claims;
+import org.opencommercial.model.ContextoAutenticacion;
 import org.opencommercial.model.Rol;
 
 import java.util.List;
@@ -17,6 +18,8 @@ public interface AuthService {
 
   Claims getClaimsDelToken(String authorizationHeader);
 
+  ContextoAutenticacion getContextoAutenticacion(String authorizationHeader);
+
   void validarRecaptcha(String recaptcha);
 
   void excluirTokenAcceso(String authorizationHeader);
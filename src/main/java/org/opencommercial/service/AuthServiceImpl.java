@@ -2,14 +2,15 @@ package org.opencommercial.service;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.opencommercial.exception.BusinessServiceException;
 import org.opencommercial.exception.UnauthorizedException;
+import org.opencommercial.model.ContextoAutenticacion;
 import org.opencommercial.model.ReCaptchaResponse;
 import org.opencommercial.model.Rol;
-import org.opencommercial.model.TokenAccesoExcluido;
-import org.opencommercial.repository.TokenAccesoExcluidoRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.MessageSource;
@@ -17,11 +18,14 @@ import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import javax.crypto.spec.SecretKeySpec;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Base64;
 import java.util.Date;
 import java.util.List;
@@ -32,11 +36,16 @@ import java.util.Locale;
 public class AuthServiceImpl implements AuthService {
 
   private final RestTemplate restTemplate;
-  private final TokenAccesoExcluidoRepository tokenAccesoExcluidoRepository;
+  private final TokenAccesoExcluidoService tokenAccesoExcluidoService;
   private static final String URL_RECAPTCHA = "https://www.google.com/recaptcha/api/siteverify";
   private static final String BEARER_TOKEN_PREFIX = "Bearer";
   private static final String ALGORITHM_SHA512 = "HmacSHA512";
+  private static final String CLAIM_ID_USUARIO = "idUsuario";
+  private static final String CLAIM_ROLES = "roles";
+  private static final String ATRIBUTO_CONTEXTO_AUTENTICACION = ContextoAutenticacion.class.getName();
   private final MessageSource messageSource;
+  private SecretKeySpec privateKey;
+  private JwtParser jwtParser;
 
   @Value("${RECAPTCHA_SECRET_KEY}")
   private String recaptchaSecretKey;
@@ -50,10 +59,16 @@ public class AuthServiceImpl implements AuthService {
   @Autowired
   public AuthServiceImpl(RestTemplate restTemplate,
                          MessageSource messageSource,
-                         TokenAccesoExcluidoRepository tokenAccesoExcluidoRepository) {
+                         TokenAccesoExcluidoService tokenAccesoExcluidoService) {
     this.restTemplate = restTemplate;
     this.messageSource = messageSource;
-    this.tokenAccesoExcluidoRepository = tokenAccesoExcluidoRepository;
+    this.tokenAccesoExcluidoService = tokenAccesoExcluidoService;
+  }
+
+  @PostConstruct
+  public void inicializarClave() {
+    privateKey = new SecretKeySpec(Base64.getDecoder().decode(jwtSecretKey), ALGORITHM_SHA512);
+    jwtParser = Jwts.parser().verifyWith(privateKey).build();
   }
 
   @Override
@@ -61,55 +76,87 @@ public class AuthServiceImpl implements AuthService {
     LocalDateTime today = LocalDateTime.now();
     ZonedDateTime zdtNow = today.atZone(ZoneId.systemDefault());
     ZonedDateTime zdtExpiration = today.plusWeeks(1L).atZone(ZoneId.systemDefault());
-    var privateKey = new SecretKeySpec(Base64.getDecoder().decode(jwtSecretKey), ALGORITHM_SHA512);
     return Jwts.builder()
             .issuedAt(Date.from(zdtNow.toInstant()))
             .expiration(Date.from(zdtExpiration.toInstant()))
             .signWith(privateKey, Jwts.SIG.HS512)
-            .claim("idUsuario", idUsuario)
-            .claim("roles", rolesDeUsuario)
+            .claim(CLAIM_ID_USUARIO, idUsuario)
+            .claim(CLAIM_ROLES, rolesDeUsuario)
             .compact();
   }
 
   @Override
   public boolean esAuthorizationHeaderValido(String authorizationHeader) {
-    String token = authorizationHeader.substring(7);
-    return authorizationHeader.startsWith(BEARER_TOKEN_PREFIX)
-        && this.esJWTValido(token)
-        && this.noEsTokenExcluido(token);
-  }
-
-  @Override
-  public boolean esJWTValido(String token) {
-    if (token == null || token.isEmpty()) return false;
-    var privateKey = new SecretKeySpec(Base64.getDecoder().decode(jwtSecretKey), ALGORITHM_SHA512);
     try {
-      Jwts.parser().verifyWith(privateKey).build().parse(token);
+      this.getContextoAutenticacion(authorizationHeader);
       return true;
-    } catch (JwtException ex) {
-      log.warn(ex.getMessage());
+    } catch (UnauthorizedException ex) {
       return false;
     }
   }
 
+  @Override
+  public boolean esJWTValido(String token) {
+    return this.parsearClaims(token) != null;
+  }
+
   @Override
   public boolean noEsTokenExcluido(String token) {
-    return tokenAccesoExcluidoRepository.findByToken(token) == null;
+    return !tokenAccesoExcluidoService.esTokenExcluido(token);
   }
 
   @Override
   public Claims getClaimsDelToken(String authorizationHeader) {
-    if (this.esAuthorizationHeaderValido(authorizationHeader)) {
-      var privateKey = new SecretKeySpec(Base64.getDecoder().decode(jwtSecretKey), ALGORITHM_SHA512);
-      return Jwts.parser()
-              .verifyWith(privateKey)
-              .build()
-              .parseSignedClaims(authorizationHeader.substring(7))
-              .getPayload();
-    } else {
+    return this.getContextoAutenticacion(authorizationHeader).getClaims();
+  }
+
+  @Override
+  public ContextoAutenticacion getContextoAutenticacion(String authorizationHeader) {
+    // el contexto se resuelve una sola vez por request y lo reutilizan interceptor, aspecto, controllers y advices
+    var requestAttributes = RequestContextHolder.getRequestAttributes();
+    if (requestAttributes != null
+        && requestAttributes.getAttribute(ATRIBUTO_CONTEXTO_AUTENTICACION, RequestAttributes.SCOPE_REQUEST)
+                instanceof ContextoAutenticacion contexto
+        && contexto.getAuthorizationHeader().equals(authorizationHeader)) {
+      return contexto;
+    }
+    var contexto = this.construirContextoAutenticacion(authorizationHeader);
+    if (requestAttributes != null) {
+      requestAttributes.setAttribute(ATRIBUTO_CONTEXTO_AUTENTICACION, contexto, RequestAttributes.SCOPE_REQUEST);
+    }
+    return contexto;
+  }
+
+  private ContextoAutenticacion construirContextoAutenticacion(String authorizationHeader) {
+    if (authorizationHeader == null || !authorizationHeader.startsWith(BEARER_TOKEN_PREFIX)) {
+      throw new UnauthorizedException(
+          messageSource.getMessage("mensaje_error_token_invalido", null, Locale.getDefault()));
+    }
+    String token = authorizationHeader.substring(7);
+    Claims claims = this.parsearClaims(token);
+    if (claims == null || !this.noEsTokenExcluido(token)) {
       throw new UnauthorizedException(
           messageSource.getMessage("mensaje_error_token_invalido", null, Locale.getDefault()));
     }
+    List<Rol> roles = new ArrayList<>();
+    List<?> rolesDelToken = claims.get(CLAIM_ROLES, List.class);
+    if (rolesDelToken != null) rolesDelToken.forEach(rol -> roles.add(Rol.valueOf(rol.toString())));
+    return ContextoAutenticacion.builder()
+            .authorizationHeader(authorizationHeader)
+            .claims(claims)
+            .idUsuario(claims.get(CLAIM_ID_USUARIO, Long.class))
+            .roles(roles)
+            .build();
+  }
+
+  private Claims parsearClaims(String token) {
+    if (token == null || token.isEmpty()) return null;
+    try {
+      return jwtParser.parseSignedClaims(token).getPayload();
+    } catch (JwtException | IllegalArgumentException ex) {
+      log.warn(ex.getMessage());
+      return null;
+    }
   }
 
   @Override
@@ -135,8 +182,11 @@ public class AuthServiceImpl implements AuthService {
   @Override
   public void excluirTokenAcceso(String authorizationHeader) {
     String token = authorizationHeader.substring(7);
-    if (tokenAccesoExcluidoRepository.findByToken(token) == null) {
-      tokenAccesoExcluidoRepository.save(TokenAccesoExcluido.builder().token(token).build());
+    Claims claims = this.parsearClaims(token);
+    // un token invalido o vencido ya es rechazado, no hace falta excluirlo
+    if (claims != null) {
+      tokenAccesoExcluidoService.excluirToken(
+              token, LocalDateTime.ofInstant(claims.getExpiration().toInstant(), ZoneId.systemDefault()));
     }
   }
 }
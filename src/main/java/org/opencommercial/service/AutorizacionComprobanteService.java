@@ -0,0 +1,13 @@
+package org.opencommercial.service;
+
+import org.opencommercial.model.AutorizacionComprobante;
+import org.opencommercial.model.DocumentoAutorizable;
+
+public interface AutorizacionComprobanteService {
+
+  AutorizacionComprobante encolar(DocumentoAutorizable documento, long idComprobante);
+
+  AutorizacionComprobante getAutorizacion(DocumentoAutorizable documento, long idComprobante);
+
+  void autorizarPendientes();
+}
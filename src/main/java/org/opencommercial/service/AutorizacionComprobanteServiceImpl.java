@@ -0,0 +1,176 @@
+package org.opencommercial.service;
+
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.opencommercial.model.AutorizacionComprobante;
+import org.opencommercial.model.ComprobanteAutorizableAFIP;
+import org.opencommercial.model.DocumentoAutorizable;
+import org.opencommercial.model.EstadoAutorizacion;
+import org.opencommercial.repository.AutorizacionComprobanteRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.MessageSource;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Locale;
+
+@Service
+@Slf4j
+public class AutorizacionComprobanteServiceImpl implements AutorizacionComprobanteService {
+
+  private static final int TAMANIO_LOTE = 100;
+  private static final int MAXIMO_INTENTOS = 8;
+  private static final int LONGITUD_MAXIMA_ERROR = 1000;
+  private final AutorizacionComprobanteRepository autorizacionComprobanteRepository;
+  private final FacturaVentaService facturaVentaService;
+  private final NotaService notaService;
+  private final TaxationService taxationService;
+  private final MessageSource messageSource;
+  private final TransactionTemplate transactionTemplate;
+
+  @Autowired
+  @Lazy
+  public AutorizacionComprobanteServiceImpl(AutorizacionComprobanteRepository autorizacionComprobanteRepository,
+                                            FacturaVentaService facturaVentaService,
+                                            NotaService notaService,
+                                            TaxationService taxationService,
+                                            MessageSource messageSource,
+                                            PlatformTransactionManager transactionManager) {
+    this.autorizacionComprobanteRepository = autorizacionComprobanteRepository;
+    this.facturaVentaService = facturaVentaService;
+    this.notaService = notaService;
+    this.taxationService = taxationService;
+    this.messageSource = messageSource;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+  }
+
+  // Se guarda en la misma transaccion que el comprobante, la autorizacion en AFIP la hace autorizarPendientes.
+  @Override
+  @Transactional
+  public AutorizacionComprobante encolar(DocumentoAutorizable documento, long idComprobante) {
+    var ahora = LocalDateTime.now();
+    var autorizacion = autorizacionComprobanteRepository.findByDocumentoAndIdComprobante(documento, idComprobante)
+            .orElseGet(() -> AutorizacionComprobante.builder()
+                    .documento(documento)
+                    .idComprobante(idComprobante)
+                    .fechaAlta(ahora)
+                    .build());
+    if (autorizacion.getEstado() == EstadoAutorizacion.AUTORIZADO) return autorizacion;
+    autorizacion.setEstado(EstadoAutorizacion.PENDIENTE);
+    autorizacion.setIntentos(0);
+    autorizacion.setFechaProximoIntento(ahora);
+    autorizacion = autorizacionComprobanteRepository.save(autorizacion);
+    log.info("El comprobante {} {} quedó pendiente de autorización.", documento, idComprobante);
+    return autorizacion;
+  }
+
+  @Override
+  public AutorizacionComprobante getAutorizacion(DocumentoAutorizable documento, long idComprobante) {
+    return autorizacionComprobanteRepository.findByDocumentoAndIdComprobante(documento, idComprobante)
+            .orElseThrow(() -> new EntityNotFoundException(
+                    messageSource.getMessage("mensaje_autorizacion_no_existente", null, Locale.getDefault())));
+  }
+
+  // La solicitud a AFIP se hace fuera de una transaccion, en lotes agrupados por punto de venta y tipo.
+  @Override
+  @Scheduled(fixedDelay = 10000) // 10 seg
+  public void autorizarPendientes() {
+    var pendientes = autorizacionComprobanteRepository.findByEstadoAndFechaProximoIntentoLessThanEqualOrderByFechaProximoIntento(
+            EstadoAutorizacion.PENDIENTE, LocalDateTime.now(), PageRequest.of(0, TAMANIO_LOTE));
+    if (pendientes.isEmpty()) return;
+    var autorizaciones = new ArrayList<AutorizacionComprobante>();
+    var comprobantes = new ArrayList<ComprobanteAutorizableAFIP>();
+    for (AutorizacionComprobante autorizacion : pendientes) {
+      try {
+        var comprobante = this.construirComprobanteAutorizable(autorizacion);
+        if (comprobante.getCae() != 0) {
+          this.registrarAutorizacion(autorizacion);
+          autorizacionComprobanteRepository.save(autorizacion);
+        } else {
+          autorizaciones.add(autorizacion);
+          comprobantes.add(comprobante);
+        }
+      } catch (RuntimeException ex) {
+        this.registrarIntentoFallido(autorizacion, ex.getMessage());
+        autorizacionComprobanteRepository.save(autorizacion);
+      }
+    }
+    if (comprobantes.isEmpty()) return;
+    try {
+      taxationService.autorizar(comprobantes);
+    } catch (RuntimeException ex) {
+      comprobantes.forEach(comprobante -> comprobante.setObservaciones(ex.getMessage()));
+    }
+    int autorizados = 0;
+    for (int i = 0; i < autorizaciones.size(); i++) {
+      var autorizacion = autorizaciones.get(i);
+      var comprobante = comprobantes.get(i);
+      if (comprobante.getCae() != 0) {
+        try {
+          transactionTemplate.executeWithoutResult(status -> {
+            this.asignarAutorizacion(autorizacion, comprobante);
+            this.registrarAutorizacion(autorizacion);
+            autorizacionComprobanteRepository.save(autorizacion);
+          });
+          autorizados++;
+        } catch (RuntimeException ex) {
+          // AFIP ya otorgo el CAE, reintentar generaria otro comprobante
+          log.error("No se pudo registrar el CAE {} del comprobante {} {}.",
+                  comprobante.getCae(), autorizacion.getDocumento(), autorizacion.getIdComprobante(), ex);
+          autorizacion.setEstado(EstadoAutorizacion.FALLIDO);
+          autorizacion.setIntentos(autorizacion.getIntentos() + 1);
+          autorizacion.setUltimoError("CAE " + comprobante.getCae() + " sin registrar: " + ex.getMessage());
+          autorizacionComprobanteRepository.save(autorizacion);
+        }
+      } else {
+        this.registrarIntentoFallido(autorizacion, comprobante.getObservaciones());
+        autorizacionComprobanteRepository.save(autorizacion);
+      }
+    }
+    log.info("Se autorizaron {} de {} comprobantes pendientes.", autorizados, pendientes.size());
+  }
+
+  private ComprobanteAutorizableAFIP construirComprobanteAutorizable(AutorizacionComprobante autorizacion) {
+    return switch (autorizacion.getDocumento()) {
+      case FACTURA_VENTA -> facturaVentaService.construirComprobanteAutorizable(autorizacion.getIdComprobante());
+      case NOTA -> notaService.construirComprobanteAutorizable(autorizacion.getIdComprobante());
+    };
+  }
+
+  private void asignarAutorizacion(AutorizacionComprobante autorizacion, ComprobanteAutorizableAFIP comprobante) {
+    switch (autorizacion.getDocumento()) {
+      case FACTURA_VENTA -> facturaVentaService.asignarAutorizacion(autorizacion.getIdComprobante(), comprobante);
+      case NOTA -> notaService.asignarAutorizacion(autorizacion.getIdComprobante(), comprobante);
+    }
+  }
+
+  private void registrarAutorizacion(AutorizacionComprobante autorizacion) {
+    autorizacion.setEstado(EstadoAutorizacion.AUTORIZADO);
+    autorizacion.setIntentos(autorizacion.getIntentos() + 1);
+    autorizacion.setFechaAutorizacion(LocalDateTime.now());
+    autorizacion.setUltimoError(null);
+  }
+
+  private void registrarIntentoFallido(AutorizacionComprobante autorizacion, String error) {
+    if (error == null) error = messageSource.getMessage("mensaje_autorizacion_error", null, Locale.getDefault());
+    autorizacion.setUltimoError(error.length() > LONGITUD_MAXIMA_ERROR ? error.substring(0, LONGITUD_MAXIMA_ERROR) : error);
+    autorizacion.setIntentos(autorizacion.getIntentos() + 1);
+    if (autorizacion.getIntentos() >= MAXIMO_INTENTOS) {
+      autorizacion.setEstado(EstadoAutorizacion.FALLIDO);
+      log.error("No se pudo autorizar el comprobante {} {} luego de {} intentos. {}",
+              autorizacion.getDocumento(), autorizacion.getIdComprobante(), MAXIMO_INTENTOS, error);
+    } else {
+      // 1, 2, 4, ... 64 minutos entre intentos
+      autorizacion.setFechaProximoIntento(LocalDateTime.now().plusMinutes(1L << (autorizacion.getIntentos() - 1)));
+      log.warn("Falló la autorización del comprobante {} {}, se reintentará. {}",
+              autorizacion.getDocumento(), autorizacion.getIdComprobante(), error);
+    }
+  }
+}
@@ -7,6 +7,7 @@ import org.opencommercial.exception.BusinessServiceException;
 import org.opencommercial.model.*;
 import org.opencommercial.model.criteria.BusquedaCajaCriteria;
 import org.opencommercial.repository.CajaRepository;
+import org.opencommercial.repository.projection.FormaDePagoMontoProjection;
 import org.opencommercial.util.CustomValidator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.MessageSource;
@@ -27,7 +28,6 @@ import java.util.*;
 public class CajaServiceImpl implements CajaService {
 
   private final CajaRepository cajaRepository;
-  private final FormaDePagoService formaDePagoService;
   private final GastoService gastoService;
   private final SucursalService sucursalService;
   private final UsuarioService usuarioService;
@@ -40,7 +40,6 @@ public class CajaServiceImpl implements CajaService {
   @Autowired
   public CajaServiceImpl(
     CajaRepository cajaRepository,
-    FormaDePagoService formaDePagoService,
     GastoService gastoService,
     SucursalService sucursalService,
     UsuarioService usuarioService,
@@ -49,7 +48,6 @@ public class CajaServiceImpl implements CajaService {
     MessageSource messageSource,
     CustomValidator customValidator) {
     this.cajaRepository = cajaRepository;
-    this.formaDePagoService = formaDePagoService;
     this.gastoService = gastoService;
     this.sucursalService = sucursalService;
     this.usuarioService = usuarioService;
@@ -274,45 +272,18 @@ public class CajaServiceImpl implements CajaService {
 
   @Override
   public BigDecimal getSaldoQueAfectaCaja(Caja caja) {
-    LocalDateTime fechaHasta = LocalDateTime.now();
-    if (caja.getFechaCierre() != null) {
-      fechaHasta = caja.getFechaCierre();
-    }
-    BigDecimal totalRecibosCliente =
-        reciboService.getTotalRecibosClientesQueAfectanCajaEntreFechas(
-            caja.getSucursal().getIdSucursal(), caja.getFechaApertura(), fechaHasta);
-    BigDecimal totalRecibosProveedor =
-        reciboService.getTotalRecibosProveedoresQueAfectanCajaEntreFechas(
-            caja.getSucursal().getIdSucursal(), caja.getFechaApertura(), fechaHasta);
-    BigDecimal totalGastos =
-        gastoService.getTotalGastosQueAfectanCajaEntreFechas(
-            caja.getSucursal().getIdSucursal(), caja.getFechaApertura(), fechaHasta);
-    return caja.getSaldoApertura()
-        .add(totalRecibosCliente)
-        .subtract(totalRecibosProveedor)
-        .subtract(totalGastos);
+    return this.getMontosPorFormaDePago(caja).stream()
+        .filter(FormaDePagoMontoProjection::getAfectaCaja)
+        .map(FormaDePagoMontoProjection::getMonto)
+        .reduce(caja.getSaldoApertura(), BigDecimal::add);
   }
 
   @Override
   public BigDecimal getSaldoSistema(Caja caja) {
     if (caja.getEstado().equals(EstadoCaja.ABIERTA)) {
-      LocalDateTime fechaHasta = LocalDateTime.now();
-      if (caja.getFechaCierre() != null) {
-        fechaHasta = caja.getFechaCierre();
-      }
-      BigDecimal totalRecibosCliente =
-          reciboService.getTotalRecibosClientesEntreFechas(
-              caja.getSucursal().getIdSucursal(), caja.getFechaApertura(), fechaHasta);
-      BigDecimal totalRecibosProveedor =
-          reciboService.getTotalRecibosProveedoresEntreFechas(
-              caja.getSucursal().getIdSucursal(), caja.getFechaApertura(), fechaHasta);
-      BigDecimal totalGastos =
-          gastoService.getTotalGastosEntreFechas(
-              caja.getSucursal().getIdSucursal(), caja.getFechaApertura(), fechaHasta);
-      return caja.getSaldoApertura()
-          .add(totalRecibosCliente)
-          .subtract(totalRecibosProveedor)
-          .subtract(totalGastos);
+      return this.getMontosPorFormaDePago(caja).stream()
+          .map(FormaDePagoMontoProjection::getMonto)
+          .reduce(caja.getSaldoApertura(), BigDecimal::add);
     } else {
       return caja.getSaldoSistema();
     }
@@ -329,31 +300,20 @@ public class CajaServiceImpl implements CajaService {
   public Map<Long, BigDecimal> getIdsFormasDePagoAndMontos(long idCaja) {
     Caja caja = cajaRepository.findById(idCaja);
     Map<Long, BigDecimal> totalesPorFomaDePago = new HashMap<>();
-    List<MovimientoCaja> movimientos = new ArrayList<>();
-    formaDePagoService
-        .getFormasDePago()
-        .forEach(
-            fdp -> {
-              movimientos.addAll(
-                  this.getMovimientosPorFormaDePagoEntreFechas(
-                      caja.getSucursal(),
-                      fdp,
-                      caja.getFechaApertura(),
-                      (caja.getFechaCierre() != null
-                          ? caja.getFechaCierre()
-                          : LocalDateTime.now())));
-              if (!movimientos.isEmpty()) {
-                BigDecimal total =
-                    movimientos.stream()
-                        .map(MovimientoCaja::getMonto)
-                        .reduce(BigDecimal.ZERO, BigDecimal::add);
-                totalesPorFomaDePago.put(fdp.getIdFormaDePago(), total);
-              }
-              movimientos.clear();
-            });
+    this.getMontosPorFormaDePago(caja)
+        .forEach(montoFormaDePago -> totalesPorFomaDePago.merge(
+            montoFormaDePago.getIdFormaDePago(), montoFormaDePago.getMonto(), BigDecimal::add));
     return totalesPorFomaDePago;
   }
 
+  // Una fila por forma de pago para recibos y otra para gastos, con los montos ya signados
+  private List<FormaDePagoMontoProjection> getMontosPorFormaDePago(Caja caja) {
+    return cajaRepository.getMontosPorFormaDePagoEntreFechas(
+        caja.getSucursal().getIdSucursal(),
+        caja.getFechaApertura(),
+        (caja.getFechaCierre() != null ? caja.getFechaCierre() : LocalDateTime.now()));
+  }
+
   @Override
   public BigDecimal getSaldoSistemaCajas(BusquedaCajaCriteria criteria) {
     return cajaRepository.getSaldoSistemaCajas(this.getBuilder(criteria));
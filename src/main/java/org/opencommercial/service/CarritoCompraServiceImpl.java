@@ -19,7 +19,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 
@@ -183,11 +182,9 @@ public class CarritoCompraServiceImpl implements CarritoCompraService {
     nuevoPedido.setDescuentoPorcentaje(BigDecimal.ZERO);
     nuevoPedido.setSucursal(sucursalService.getSucursalPorId(nuevaOrdenDePagoDTO.getIdSucursal()));
     nuevoPedido.setUsuario(usuarioService.getUsuarioNoEliminadoPorId(idUsuario));
-    List<RenglonPedido> renglonesPedido = new ArrayList<>();
-    items.forEach(
-            i -> renglonesPedido.add(
-                    pedidoService.calcularRenglonPedido(i.getProducto().getIdProducto(), i.getCantidad())));
-    nuevoPedido.setRenglones(renglonesPedido);
+    nuevoPedido.setRenglones(pedidoService.calcularRenglonesPedido(
+            items.stream().mapToLong(i -> i.getProducto().getIdProducto()).toArray(),
+            items.stream().map(ItemCarritoCompra::getCantidad).toArray(BigDecimal[]::new)));
     nuevoPedido.setTipoDeEnvio(nuevaOrdenDePagoDTO.getTipoDeEnvio());
     Pedido pedido = pedidoService.guardar(nuevoPedido, null);
     this.eliminarTodosLosItemsDelUsuario(idUsuario);
@@ -5,13 +5,13 @@ import org.opencommercial.model.TipoDeOperacion;
 import org.opencommercial.model.Usuario;
 import org.opencommercial.model.criteria.BusquedaClienteCriteria;
 import org.opencommercial.model.embeddable.ClienteEmbeddable;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 public interface ClienteService {
 
   Cliente actualizar(Cliente clientePorActualizar, Cliente clientePersistido);
 
-  Page<Cliente> buscarClientes(BusquedaClienteCriteria criteria, long idUsuario);
+  Slice<Cliente> buscarClientes(BusquedaClienteCriteria criteria, long idUsuario);
 
   void eliminar(long idCliente);
 
@@ -9,11 +9,13 @@ import org.opencommercial.model.criteria.BusquedaClienteCriteria;
 import org.opencommercial.model.embeddable.ClienteEmbeddable;
 import org.opencommercial.repository.ClienteRepository;
 import org.opencommercial.util.CustomValidator;
+import org.opencommercial.util.PaginadorPorCursor;
+import org.opencommercial.util.PaginadorSinConteo;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.MessageSource;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -32,7 +34,10 @@ public class ClienteServiceImpl implements ClienteService {
   private final UbicacionService ubicacionService;
   private static final int TAMANIO_PAGINA_DEFAULT = 25;
   private final MessageSource messageSource;
+  private final GeneradorIdentificadorService generadorIdentificadorService;
   private final CustomValidator customValidator;
+  private final PaginadorPorCursor paginadorPorCursor;
+  private final PaginadorSinConteo paginadorSinConteo;
 
   @Autowired
   public ClienteServiceImpl(
@@ -41,13 +46,19 @@ public class ClienteServiceImpl implements ClienteService {
     UsuarioService usuarioService,
     UbicacionService ubicacionService,
     MessageSource messageSource,
-    CustomValidator customValidator) {
+    GeneradorIdentificadorService generadorIdentificadorService,
+    CustomValidator customValidator,
+    PaginadorPorCursor paginadorPorCursor,
+    PaginadorSinConteo paginadorSinConteo) {
     this.clienteRepository = clienteRepository;
     this.cuentaCorrienteService = cuentaCorrienteService;
     this.usuarioService = usuarioService;
     this.ubicacionService = ubicacionService;
     this.messageSource = messageSource;
+    this.generadorIdentificadorService = generadorIdentificadorService;
     this.customValidator = customValidator;
+    this.paginadorPorCursor = paginadorPorCursor;
+    this.paginadorSinConteo = paginadorSinConteo;
   }
 
   @Override
@@ -90,7 +101,7 @@ public class ClienteServiceImpl implements ClienteService {
   }
 
   @Override
-  public Page<Cliente> buscarClientes(BusquedaClienteCriteria criteria, long idUsuarioLoggedIn) {
+  public Slice<Cliente> buscarClientes(BusquedaClienteCriteria criteria, long idUsuarioLoggedIn) {
     QCliente qCliente = QCliente.cliente;
     BooleanBuilder builder = new BooleanBuilder();
     if (criteria.getNombreFiscal() != null) {
@@ -147,9 +158,13 @@ public class ClienteServiceImpl implements ClienteService {
       builder.and(rsPredicate);
     }
     builder.and(qCliente.eliminado.eq(false));
-    return clienteRepository.findAll(
-        builder,
-        this.getPageable(criteria.getPagina(), criteria.getOrdenarPor(), criteria.getSentido()));
+    var pageable = this.getPageable(criteria.getPagina(), criteria.getOrdenarPor(), criteria.getSentido());
+    if (criteria.isPorCursor() || criteria.getDespuesDe() != null) {
+      return paginadorPorCursor.buscar(
+          clienteRepository, Cliente.class, "idCliente", builder, pageable, criteria.getDespuesDe());
+    }
+    if (criteria.isSinTotal()) return paginadorSinConteo.buscar(Cliente.class, builder, pageable);
+    return paginadorSinConteo.buscarConTotal(clienteRepository, Cliente.class, builder, pageable);
   }
 
   private Pageable getPageable(Integer pagina, String ordenarPor, String sentido) {
@@ -337,16 +352,9 @@ public class ClienteServiceImpl implements ClienteService {
 
   @Override
   public String generarNroDeCliente() {
-    long min = 1L;
-    long max = 99999L; // 5 digitos
-    long randomLong = 0L;
-    boolean esRepetido = true;
-    while (esRepetido) {
-      randomLong = min + (long) (Math.random() * (max - min));
-      String nroCliente = Long.toString(randomLong);
-      esRepetido = clienteRepository.existsByNroCliente(nroCliente);
-    }
-    return Long.toString(randomLong);
+    return Long.toString(generadorIdentificadorService.generarIdentificador(
+            TipoIdentificador.CLIENTE, "",
+            nroCliente -> clienteRepository.existsByNroCliente(Long.toString(nroCliente))));
   }
 
   @Override
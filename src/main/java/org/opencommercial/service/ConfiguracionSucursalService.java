@@ -1,6 +1,7 @@
 package org.opencommercial.service;
 
 import org.opencommercial.model.ConfiguracionSucursal;
+import org.opencommercial.model.CredencialAfip;
 
 public interface ConfiguracionSucursalService {
 
@@ -17,4 +18,8 @@ public interface ConfiguracionSucursalService {
   int getCantidadMaximaDeRenglonesPorIdSucursal(long idSucursal);
 
   boolean isFacturaElectronicaHabilitada(long idSucursal);
+
+  CredencialAfip getCredencialAfip(long idConfiguracionSucursal);
+
+  void actualizarCredencialAfip(CredencialAfip credencialAfip);
 }
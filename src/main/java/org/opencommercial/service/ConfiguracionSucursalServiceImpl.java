@@ -2,11 +2,15 @@ package org.opencommercial.service;
 
 import jakarta.persistence.EntityNotFoundException;
 import lombok.extern.slf4j.Slf4j;
+import org.opencommercial.config.CacheConfig;
 import org.opencommercial.exception.BusinessServiceException;
 import org.opencommercial.model.ConfiguracionSucursal;
+import org.opencommercial.model.CredencialAfip;
 import org.opencommercial.repository.ConfiguracionSucursalRepository;
+import org.opencommercial.repository.CredencialAfipRepository;
 import org.opencommercial.util.CustomValidator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.context.MessageSource;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -18,15 +22,18 @@ import java.util.Locale;
 public class ConfiguracionSucursalServiceImpl implements ConfiguracionSucursalService {
 
   private final ConfiguracionSucursalRepository configuracionRepository;
+  private final CredencialAfipRepository credencialAfipRepository;
   private final MessageSource messageSource;
   private final CustomValidator customValidator;
 
   @Autowired
   public ConfiguracionSucursalServiceImpl(
     ConfiguracionSucursalRepository configuracionRepository,
+    CredencialAfipRepository credencialAfipRepository,
     MessageSource messageSource,
     CustomValidator customValidator) {
     this.configuracionRepository = configuracionRepository;
+    this.credencialAfipRepository = credencialAfipRepository;
     this.messageSource = messageSource;
     this.customValidator = customValidator;
   }
@@ -41,6 +48,7 @@ public class ConfiguracionSucursalServiceImpl implements ConfiguracionSucursalSe
   }
 
   @Override
+  @CacheEvict(cacheNames = CacheConfig.SUCURSALES, allEntries = true)
   @Transactional
   public ConfiguracionSucursal guardar(ConfiguracionSucursal configuracionSucursal) {
     customValidator.validar(configuracionSucursal);
@@ -48,47 +56,48 @@ public class ConfiguracionSucursalServiceImpl implements ConfiguracionSucursalSe
     if (configuracionSucursal.isPredeterminada()) {
       configuracionRepository.desmarcarSucursalPredeterminada();
     }
+    configuracionSucursal.setExisteCertificado(configuracionSucursal.getCertificadoAfip() != null);
+    byte[] certificadoAfip = configuracionSucursal.getCertificadoAfip();
+    String passwordCertificadoAfip = configuracionSucursal.getPasswordCertificadoAfip();
     configuracionSucursal = configuracionRepository.save(configuracionSucursal);
+    if (certificadoAfip != null || passwordCertificadoAfip != null) {
+      credencialAfipRepository.save(
+          CredencialAfip.builder()
+              .idConfiguracionSucursal(configuracionSucursal.getIdConfiguracionSucursal())
+              .certificadoAfip(certificadoAfip)
+              .passwordCertificadoAfip(passwordCertificadoAfip)
+              .build());
+    }
     log.info("La configuración de sucursal se guardó correctamente. {}", configuracionSucursal);
     return configuracionSucursal;
   }
 
   @Override
+  @CacheEvict(cacheNames = CacheConfig.SUCURSALES, allEntries = true)
   @Transactional
   public void actualizar(ConfiguracionSucursal configuracionDeSucursalParaActualizar) {
     ConfiguracionSucursal configuracionSucursalPersistida =
         this.getConfiguracionSucursalPorId(
             configuracionDeSucursalParaActualizar.getIdConfiguracionSucursal());
+    CredencialAfip credencialAfipPersistida =
+        credencialAfipRepository
+            .findById(configuracionDeSucursalParaActualizar.getIdConfiguracionSucursal())
+            .orElse(null);
     if (!configuracionDeSucursalParaActualizar.isPredeterminada()
         && configuracionSucursalPersistida.isPredeterminada()) {
       throw new BusinessServiceException(
           messageSource.getMessage(
               "mensaje_sucursal_quitar_predeterminada", null, Locale.getDefault()));
     }
-    if (configuracionDeSucursalParaActualizar.isFacturaElectronicaHabilitada()) {
+    if (configuracionDeSucursalParaActualizar.isFacturaElectronicaHabilitada()
+        && credencialAfipPersistida != null) {
       if (configuracionDeSucursalParaActualizar.getPasswordCertificadoAfip().equals("")) {
         configuracionDeSucursalParaActualizar.setPasswordCertificadoAfip(
-            configuracionSucursalPersistida.getPasswordCertificadoAfip());
+            credencialAfipPersistida.getPasswordCertificadoAfip());
       }
       if (configuracionDeSucursalParaActualizar.getCertificadoAfip() == null) {
         configuracionDeSucursalParaActualizar.setCertificadoAfip(
-            configuracionSucursalPersistida.getCertificadoAfip());
-      }
-      if (configuracionDeSucursalParaActualizar.getSignTokenWSAA() == null) {
-        configuracionDeSucursalParaActualizar.setSignTokenWSAA(
-            configuracionSucursalPersistida.getSignTokenWSAA());
-      }
-      if (configuracionDeSucursalParaActualizar.getTokenWSAA() == null) {
-        configuracionDeSucursalParaActualizar.setTokenWSAA(
-            configuracionSucursalPersistida.getTokenWSAA());
-      }
-      if (configuracionDeSucursalParaActualizar.getFechaGeneracionTokenWSAA() == null) {
-        configuracionDeSucursalParaActualizar.setFechaGeneracionTokenWSAA(
-            configuracionSucursalPersistida.getFechaGeneracionTokenWSAA());
-      }
-      if (configuracionDeSucursalParaActualizar.getFechaVencimientoTokenWSAA() == null) {
-        configuracionDeSucursalParaActualizar.setFechaVencimientoTokenWSAA(
-            configuracionSucursalPersistida.getFechaVencimientoTokenWSAA());
+            credencialAfipPersistida.getCertificadoAfip());
       }
     }
     if (configuracionDeSucursalParaActualizar.getVencimientoLargo() == 0L) {
@@ -105,16 +114,44 @@ public class ConfiguracionSucursalServiceImpl implements ConfiguracionSucursalSe
         && configuracionDeSucursalParaActualizar.isPredeterminada()) {
       configuracionRepository.desmarcarSucursalPredeterminada();
     }
-    if (configuracionDeSucursalParaActualizar.getPasswordCertificadoAfip() == null) {
+    if (configuracionDeSucursalParaActualizar.getPasswordCertificadoAfip() == null
+        && credencialAfipPersistida != null) {
       configuracionDeSucursalParaActualizar.setPasswordCertificadoAfip(
-          configuracionSucursalPersistida.getPasswordCertificadoAfip());
+          credencialAfipPersistida.getPasswordCertificadoAfip());
     }
+    configuracionDeSucursalParaActualizar.setExisteCertificado(
+        configuracionDeSucursalParaActualizar.getCertificadoAfip() != null);
+    this.actualizarCredencialAfip(configuracionDeSucursalParaActualizar, credencialAfipPersistida);
     configuracionRepository.save(configuracionDeSucursalParaActualizar);
   }
 
+  private void actualizarCredencialAfip(
+      ConfiguracionSucursal configuracionSucursal, CredencialAfip credencialAfipPersistida) {
+    if (credencialAfipPersistida == null
+        && configuracionSucursal.getCertificadoAfip() == null
+        && configuracionSucursal.getPasswordCertificadoAfip() == null) return;
+    CredencialAfip credencialAfip =
+        credencialAfipPersistida != null
+            ? credencialAfipPersistida
+            : CredencialAfip.builder()
+                .idConfiguracionSucursal(configuracionSucursal.getIdConfiguracionSucursal())
+                .build();
+    credencialAfip.setCertificadoAfip(configuracionSucursal.getCertificadoAfip());
+    credencialAfip.setPasswordCertificadoAfip(configuracionSucursal.getPasswordCertificadoAfip());
+    if (!configuracionSucursal.isFacturaElectronicaHabilitada()) {
+      credencialAfip.setTokenWSAA(null);
+      credencialAfip.setSignTokenWSAA(null);
+      credencialAfip.setFechaGeneracionTokenWSAA(null);
+      credencialAfip.setFechaVencimientoTokenWSAA(null);
+    }
+    credencialAfipRepository.save(credencialAfip);
+  }
+
   @Override
+  @CacheEvict(cacheNames = CacheConfig.SUCURSALES, allEntries = true)
   @Transactional
   public void eliminar(ConfiguracionSucursal configuracionSucursal) {
+    credencialAfipRepository.deleteById(configuracionSucursal.getIdConfiguracionSucursal());
     configuracionRepository.delete(configuracionSucursal);
   }
 
@@ -149,4 +186,19 @@ public class ConfiguracionSucursalServiceImpl implements ConfiguracionSucursalSe
   public boolean isFacturaElectronicaHabilitada(long idSucursal) {
     return configuracionRepository.isFacturaElectronicaHabilitada(idSucursal);
   }
+
+  @Override
+  public CredencialAfip getCredencialAfip(long idConfiguracionSucursal) {
+    return credencialAfipRepository
+        .findById(idConfiguracionSucursal)
+        .orElseThrow(
+            () -> new BusinessServiceException(messageSource.getMessage(
+                  "mensaje_sucursal_certificado_vacio", null, Locale.getDefault())));
+  }
+
+  @Override
+  @Transactional
+  public void actualizarCredencialAfip(CredencialAfip credencialAfip) {
+    credencialAfipRepository.save(credencialAfip);
+  }
 }
@@ -8,8 +8,10 @@ import org.opencommercial.util.FormatoReporte;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface CuentaCorrienteService {
 
@@ -37,6 +39,8 @@ public interface CuentaCorrienteService {
 
   Page<RenglonCuentaCorriente> getRenglonesCuentaCorriente(long idCuentaCorriente, Integer pagina);
 
+  PaginaPorCursor<RenglonCuentaCorriente> getRenglonesCuentaCorrientePorCursor(long idCuentaCorriente, String despuesDe);
+
   List<RenglonCuentaCorriente> getRenglonesCuentaCorrienteParaReporte(long idCuentaCorriente);
 
   void asentarEnCuentaCorriente(FacturaVenta facturaVenta, TipoDeOperacion tipo);
@@ -51,8 +55,8 @@ public interface CuentaCorrienteService {
 
   byte[] getReporteCuentaCorrienteCliente(CuentaCorrienteCliente cuentaCorrienteCliente, FormatoReporte formato);
 
-  byte[] getReporteListaDeCuentasCorrienteClientePorCriteria(
-          BusquedaCuentaCorrienteClienteCriteria criteria, long idUsuarioLoggedIn, FormatoReporte formato);
+  void exportarReporteListaDeCuentasCorrienteCliente(
+          BusquedaCuentaCorrienteClienteCriteria criteria, long idUsuarioLoggedIn, FormatoReporte formato, OutputStream salida);
 
   List<RenglonCuentaCorriente> getUltimosDosMovimientos(CuentaCorriente cuentaCorriente);
 
@@ -68,7 +72,7 @@ public interface CuentaCorrienteService {
 
   BooleanBuilder getBuilder(BusquedaCuentaCorrienteClienteCriteria criteria, long idUsuarioLoggedIn);
 
-  List<CuentaCorrienteCliente> buscarCuentasCorrienteClienteParaReporte(
+  Stream<CuentaCorrienteCliente> buscarCuentasCorrienteClienteParaReporte(
       BusquedaCuentaCorrienteClienteCriteria criteria, long idUsuarioLoggedIn);
 
   Pageable getPageable(Integer pagina, String ordenarPor, String sentido, String ordenDefault, int tamanioPagina);
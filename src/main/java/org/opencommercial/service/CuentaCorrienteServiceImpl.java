@@ -13,7 +13,10 @@ import org.opencommercial.repository.CuentaCorrienteRepository;
 import org.opencommercial.repository.RenglonCuentaCorrienteRepository;
 import org.opencommercial.util.CustomValidator;
 import org.opencommercial.util.FormatoReporte;
+import org.opencommercial.util.ImagenesReporteHandler;
+import org.opencommercial.util.IteradorBeanDataSource;
 import org.opencommercial.util.JasperReportsHandler;
+import org.opencommercial.util.PaginadorPorCursor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.MessageSource;
 import org.springframework.context.annotation.Lazy;
@@ -24,17 +27,15 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import javax.imageio.ImageIO;
-import javax.swing.*;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.net.URL;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
@@ -51,6 +52,8 @@ public class CuentaCorrienteServiceImpl implements CuentaCorrienteService {
   private final MessageSource messageSource;
   private final CustomValidator customValidator;
   private final JasperReportsHandler jasperReportsHandler;
+  private final ImagenesReporteHandler imagenesReporteHandler;
+  private final PaginadorPorCursor paginadorPorCursor;
   private static final String MENSAJE_RENGLON_CC_GUARDADO = "mensaje_renglon_cuenta_corriente_guardado";
   private static final String MENSAJE_RENGLON_CC_ELIMINADO = "mensaje_renglon_cuenta_corriente_eliminado";
   private static final String MENSAJE_CC_NO_EXISTENTE = "mensaje_cuenta_corriente_no_existente";
@@ -64,7 +67,9 @@ public class CuentaCorrienteServiceImpl implements CuentaCorrienteService {
           RenglonCuentaCorrienteRepository renglonCuentaCorrienteRepository,
           UsuarioService usuarioService, ClienteService clienteService,
           SucursalService sucursalService, CustomValidator customValidator,
-          MessageSource messageSource, JasperReportsHandler jasperReportsHandler) {
+          MessageSource messageSource, JasperReportsHandler jasperReportsHandler,
+          ImagenesReporteHandler imagenesReporteHandler,
+          PaginadorPorCursor paginadorPorCursor) {
     this.cuentaCorrienteRepository = cuentaCorrienteRepository;
     this.cuentaCorrienteClienteRepository = cuentaCorrienteClienteRepository;
     this.cuentaCorrienteProveedorRepository = cuentaCorrienteProveedorRepository;
@@ -75,6 +80,8 @@ public class CuentaCorrienteServiceImpl implements CuentaCorrienteService {
     this.messageSource = messageSource;
     this.customValidator = customValidator;
     this.jasperReportsHandler = jasperReportsHandler;
+    this.imagenesReporteHandler = imagenesReporteHandler;
+    this.paginadorPorCursor = paginadorPorCursor;
   }
 
   @Override
@@ -136,18 +143,17 @@ public class CuentaCorrienteServiceImpl implements CuentaCorrienteService {
   }
 
   @Override
-  public List<CuentaCorrienteCliente> buscarCuentasCorrienteClienteParaReporte(BusquedaCuentaCorrienteClienteCriteria criteria,
-                                                                               long idUsuarioLoggedIn) {
+  public Stream<CuentaCorrienteCliente> buscarCuentasCorrienteClienteParaReporte(BusquedaCuentaCorrienteClienteCriteria criteria,
+                                                                                 long idUsuarioLoggedIn) {
     criteria.setPagina(0);
-    return cuentaCorrienteClienteRepository.findAll(
+    return cuentaCorrienteClienteRepository.streamCuentasCorrienteCliente(
             this.getBuilder(criteria, idUsuarioLoggedIn),
             this.getPageable(
                 criteria.getPagina(),
                 criteria.getOrdenarPor(),
                 criteria.getSentido(),
                 "cliente.nombreFiscal",
-                Integer.MAX_VALUE))
-        .getContent();
+                Integer.MAX_VALUE).getSort());
   }
 
   @Override
@@ -273,7 +279,7 @@ public class CuentaCorrienteServiceImpl implements CuentaCorrienteService {
       this.guardarRenglonCuentaCorrienteDeFactura(facturaVenta, cc);
     }
     if (tipo == TipoDeOperacion.ELIMINACION) {
-      this.setSaldoCuentaCorriente(cc, cc.getSaldo().add(facturaVenta.getTotal()));
+      this.actualizarSaldoCuentaCorriente(cc, facturaVenta.getTotal());
       RenglonCuentaCorriente rcc = this.getRenglonCuentaCorrienteDeFactura(facturaVenta, false);
       this.cambiarFechaUltimoComprobante(cc, rcc);
       rcc.setEliminado(true);
@@ -301,8 +307,7 @@ public class CuentaCorrienteServiceImpl implements CuentaCorrienteService {
     rcc.setFecha(factura.getFecha());
     rcc.setIdMovimiento(factura.getIdFactura());
     rcc.setMonto(factura.getTotal().negate());
-    cc.getRenglones().add(rcc);
-    this.setSaldoCuentaCorriente(cc, cc.getSaldo().add(rcc.getMonto()));
+    this.actualizarSaldoCuentaCorriente(cc, rcc.getMonto());
     cc.setFechaUltimoMovimiento(factura.getFecha());
     rcc.setCuentaCorriente(cc);
     this.renglonCuentaCorrienteRepository.save(rcc);
@@ -325,20 +330,19 @@ public class CuentaCorrienteServiceImpl implements CuentaCorrienteService {
       if (nota instanceof NotaDebito) {
         rcc.setMonto(nota.getTotal().negate());
       }
-      this.setSaldoCuentaCorriente(cc, cc.getSaldo().add(rcc.getMonto()));
+      this.actualizarSaldoCuentaCorriente(cc, rcc.getMonto());
       cc.setFechaUltimoMovimiento(nota.getFecha());
       rcc.setDescripcion(nota.getMotivo());
       rcc.setNota(nota);
       rcc.setFecha(nota.getFecha());
       rcc.setIdMovimiento(nota.getIdNota());
-      cc.getRenglones().add(rcc);
       rcc.setCuentaCorriente(cc);
       this.renglonCuentaCorrienteRepository.save(rcc);
       log.info(messageSource.getMessage(MENSAJE_RENGLON_CC_GUARDADO, null, Locale.getDefault()), rcc);
     }
     if (tipo == TipoDeOperacion.ELIMINACION) {
       RenglonCuentaCorriente rcc = this.getRenglonCuentaCorrienteDeNota(nota, false);
-      this.setSaldoCuentaCorriente(cc, cc.getSaldo().subtract(rcc.getMonto()));
+      this.actualizarSaldoCuentaCorriente(cc, rcc.getMonto().negate());
       this.cambiarFechaUltimoComprobante(cc, rcc);
       rcc.setEliminado(true);
       log.info(messageSource.getMessage(MENSAJE_RENGLON_CC_ELIMINADO, null, Locale.getDefault()), rcc);
@@ -363,20 +367,19 @@ public class CuentaCorrienteServiceImpl implements CuentaCorrienteService {
       rcc.setSerie(remito.getSerie());
       rcc.setNumero(remito.getNroRemito());
       rcc.setMonto(remito.getCostoDeEnvio().negate());
-      this.setSaldoCuentaCorriente(cc, cc.getSaldo().add(rcc.getMonto()));
+      this.actualizarSaldoCuentaCorriente(cc, rcc.getMonto());
       cc.setFechaUltimoMovimiento(remito.getFecha());
       rcc.setRemito(remito);
       rcc.setTipoComprobante(TipoDeComprobante.REMITO);
       rcc.setFecha(remito.getFecha());
       rcc.setIdMovimiento(remito.getIdRemito());
-      cc.getRenglones().add(rcc);
       rcc.setCuentaCorriente(cc);
       this.renglonCuentaCorrienteRepository.save(rcc);
       log.info(messageSource.getMessage(MENSAJE_RENGLON_CC_GUARDADO, null, Locale.getDefault()), rcc);
     }
     if (tipo == TipoDeOperacion.ELIMINACION) {
       RenglonCuentaCorriente rcc = this.getRenglonCuentaCorrienteDeRemito(remito, false);
-      this.setSaldoCuentaCorriente(cc, cc.getSaldo().subtract(rcc.getMonto()));
+      this.actualizarSaldoCuentaCorriente(cc, rcc.getMonto().negate());
       this.cambiarFechaUltimoComprobante(cc, rcc);
       rcc.setEliminado(true);
       this.renglonCuentaCorrienteRepository.save(rcc);
@@ -407,8 +410,7 @@ public class CuentaCorrienteServiceImpl implements CuentaCorrienteService {
       if (cc == null) {
         throw new BusinessServiceException(messageSource.getMessage(MENSAJE_CC_NO_EXISTENTE, null, Locale.getDefault()));
       }
-      cc.getRenglones().add(rcc);
-      this.setSaldoCuentaCorriente(cc, cc.getSaldo().add(recibo.getMonto()));
+      this.actualizarSaldoCuentaCorriente(cc, recibo.getMonto());
       cc.setFechaUltimoMovimiento(recibo.getFecha());
       rcc.setCuentaCorriente(cc);
       this.renglonCuentaCorrienteRepository.save(rcc);
@@ -424,7 +426,7 @@ public class CuentaCorrienteServiceImpl implements CuentaCorrienteService {
       if (null == cc) {
         throw new BusinessServiceException(messageSource.getMessage(MENSAJE_CC_NO_EXISTENTE, null, Locale.getDefault()));
       }
-      this.setSaldoCuentaCorriente(cc, cc.getSaldo().subtract(recibo.getMonto()));
+      this.actualizarSaldoCuentaCorriente(cc, recibo.getMonto().negate());
       rcc = this.getRenglonCuentaCorrienteDeRecibo(recibo, false);
       this.cambiarFechaUltimoComprobante(cc, rcc);
       rcc.setEliminado(true);
@@ -432,12 +434,10 @@ public class CuentaCorrienteServiceImpl implements CuentaCorrienteService {
     }
   }
 
-  private void setSaldoCuentaCorriente(CuentaCorriente cuentaCorriente, BigDecimal saldo) {
-    if (saldo.setScale(2, RoundingMode.DOWN).compareTo(BigDecimal.ZERO) == 0) {
-      cuentaCorriente.setSaldo(BigDecimal.ZERO);
-    } else {
-      cuentaCorriente.setSaldo(saldo);
-    }
+  // El saldo se actualiza en la base de datos sin inicializar los renglones de la cuenta corriente
+  private void actualizarSaldoCuentaCorriente(CuentaCorriente cuentaCorriente, BigDecimal monto) {
+    cuentaCorrienteRepository.actualizarSaldo(cuentaCorriente.getIdCuentaCorriente(), monto);
+    cuentaCorriente.setSaldo(cuentaCorrienteRepository.getSaldo(cuentaCorriente.getIdCuentaCorriente()));
   }
 
   private void cambiarFechaUltimoComprobante(CuentaCorriente cc, RenglonCuentaCorriente rcc) {
@@ -461,7 +461,7 @@ public class CuentaCorrienteServiceImpl implements CuentaCorrienteService {
     var sucursalPredeterminada = sucursalService.getSucursalPredeterminada();
     if (sucursalPredeterminada.getLogo() != null && !sucursalPredeterminada.getLogo().isEmpty()) {
       try {
-        params.put("logo", new ImageIcon(ImageIO.read(new URL(sucursalPredeterminada.getLogo()))).getImage());
+        params.put("logo", imagenesReporteHandler.getImagen(sucursalPredeterminada.getLogo()));
       } catch (IOException ex) {
         throw new ServiceException(messageSource.getMessage("mensaje_sucursal_404_logo", null, Locale.getDefault()), ex);
       }
@@ -470,19 +470,24 @@ public class CuentaCorrienteServiceImpl implements CuentaCorrienteService {
   }
 
   @Override
-  public byte[] getReporteListaDeCuentasCorrienteClientePorCriteria(BusquedaCuentaCorrienteClienteCriteria criteria,
-                                                                    long idUsuarioLoggedIn, FormatoReporte formato) {
-    var cuentaCorrienteClientes = this.buscarCuentasCorrienteClienteParaReporte(criteria, idUsuarioLoggedIn);
+  @Transactional(readOnly = true)
+  public void exportarReporteListaDeCuentasCorrienteCliente(BusquedaCuentaCorrienteClienteCriteria criteria,
+                                                            long idUsuarioLoggedIn,
+                                                            FormatoReporte formato,
+                                                            OutputStream salida) {
     Map<String, Object> params = new HashMap<>();
     var sucursalPredeterminada =  sucursalService.getSucursalPredeterminada();
     if (sucursalPredeterminada.getLogo() != null && !sucursalPredeterminada.getLogo().isEmpty()) {
       try {
-        params.put("logo", new ImageIcon(ImageIO.read(new URL(sucursalPredeterminada.getLogo()))).getImage());
+        params.put("logo", imagenesReporteHandler.getImagen(sucursalPredeterminada.getLogo()));
       } catch (IOException ex) {
         throw new ServiceException(messageSource.getMessage("mensaje_sucursal_404_logo", null, Locale.getDefault()), ex);
       }
     }
-    return jasperReportsHandler.compilar("report/ListaClientes.jrxml", params, cuentaCorrienteClientes, formato);
+    try (var cuentasCorrienteCliente = this.buscarCuentasCorrienteClienteParaReporte(criteria, idUsuarioLoggedIn)) {
+      jasperReportsHandler.exportar("report/ListaClientes.jrxml", params,
+              new IteradorBeanDataSource(cuentasCorrienteCliente.iterator()), formato, salida, true);
+    }
   }
 
   @Override
@@ -517,6 +522,15 @@ public class CuentaCorrienteServiceImpl implements CuentaCorrienteService {
         idCuentaCorriente, pageable);
   }
 
+  @Override
+  public PaginaPorCursor<RenglonCuentaCorriente> getRenglonesCuentaCorrientePorCursor(long idCuentaCorriente,
+                                                                                     String despuesDe) {
+    var renglones = renglonCuentaCorrienteRepository.findAllByCuentaCorrienteAndEliminadoAnterioresA(
+        idCuentaCorriente, paginadorPorCursor.getIdDesde(despuesDe), PageRequest.of(0, TAMANIO_PAGINA_DEFAULT + 1));
+    return paginadorPorCursor.construirPagina(
+        renglones, TAMANIO_PAGINA_DEFAULT, RenglonCuentaCorriente::getIdRenglonCuentaCorriente);
+  }
+
   @Override
   public List<RenglonCuentaCorriente> getRenglonesCuentaCorrienteParaReporte(long idCuentaCorriente) {
     return renglonCuentaCorrienteRepository.findAllByCuentaCorrienteAndEliminado(idCuentaCorriente);
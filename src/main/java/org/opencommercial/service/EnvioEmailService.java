@@ -0,0 +1,12 @@
+package org.opencommercial.service;
+
+import org.opencommercial.model.EnvioEmail;
+
+public interface EnvioEmailService {
+
+  EnvioEmail encolar(EnvioEmail envioEmail);
+
+  void despacharPendientes();
+
+  void eliminarEnviosFinalizados();
+}
@@ -0,0 +1,134 @@
+package org.opencommercial.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.opencommercial.model.EnvioEmail;
+import org.opencommercial.model.EstadoEnvioEmail;
+import org.opencommercial.repository.EnvioEmailRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+@Slf4j
+public class EnvioEmailServiceImpl implements EnvioEmailService {
+
+  @Value("${EMAIL_DEFAULT_PROVIDER}")
+  private String emailDefaultProvider;
+
+  @Value("${EMAIL_DIAS_RETENCION:30}")
+  private int diasRetencion;
+
+  private static final int TAMANIO_LOTE = 20;
+  private static final int MAXIMO_INTENTOS = 6;
+  private static final int LONGITUD_MAXIMA_ERROR = 1000;
+  private final EnvioEmailRepository envioEmailRepository;
+  private final EmailServiceFactory emailServiceFactory;
+  private final PedidoService pedidoService;
+  private final FacturaService facturaService;
+  private final FacturaVentaService facturaVentaService;
+  private final TransactionTemplate transactionTemplateLectura;
+
+  @Autowired
+  @Lazy
+  public EnvioEmailServiceImpl(EnvioEmailRepository envioEmailRepository,
+                               EmailServiceFactory emailServiceFactory,
+                               PedidoService pedidoService,
+                               FacturaService facturaService,
+                               FacturaVentaService facturaVentaService,
+                               PlatformTransactionManager transactionManager) {
+    this.envioEmailRepository = envioEmailRepository;
+    this.emailServiceFactory = emailServiceFactory;
+    this.pedidoService = pedidoService;
+    this.facturaService = facturaService;
+    this.facturaVentaService = facturaVentaService;
+    this.transactionTemplateLectura = new TransactionTemplate(transactionManager);
+    this.transactionTemplateLectura.setReadOnly(true);
+  }
+
+  @Override
+  @Transactional
+  public EnvioEmail encolar(EnvioEmail envioEmail) {
+    var ahora = LocalDateTime.now();
+    envioEmail.setEstado(EstadoEnvioEmail.PENDIENTE);
+    envioEmail.setIntentos(0);
+    envioEmail.setFechaAlta(ahora);
+    envioEmail.setFechaProximoIntento(ahora);
+    envioEmail = envioEmailRepository.save(envioEmail);
+    log.info("El email quedó pendiente de envío. {}", envioEmail.getIdEnvioEmail());
+    return envioEmail;
+  }
+
+  // Cada email se envia fuera de una transaccion, el estado se guarda apenas termina el intento.
+  @Override
+  @Scheduled(fixedDelay = 30000) // 30 seg
+  public void despacharPendientes() {
+    var pendientes = envioEmailRepository.findByEstadoAndFechaProximoIntentoLessThanEqualOrderByFechaProximoIntento(
+            EstadoEnvioEmail.PENDIENTE, LocalDateTime.now(), PageRequest.of(0, TAMANIO_LOTE));
+    if (pendientes.isEmpty()) return;
+    int enviados = 0;
+    for (EnvioEmail envioEmail : pendientes) {
+      try {
+        emailServiceFactory.getEmailService(emailDefaultProvider)
+                .enviarEmail(
+                        envioEmail.getDestinatario(),
+                        envioEmail.getBcc(),
+                        envioEmail.getAsunto(),
+                        envioEmail.getMensaje(),
+                        this.generarAdjunto(envioEmail),
+                        envioEmail.getNombreAdjunto());
+        envioEmail.setEstado(EstadoEnvioEmail.ENVIADO);
+        envioEmail.setFechaEnvio(LocalDateTime.now());
+        envioEmail.setUltimoError(null);
+        // el mensaje puede contener claves de recuperacion, no se conserva una vez enviado
+        envioEmail.setMensaje(null);
+        enviados++;
+      } catch (RuntimeException ex) {
+        this.registrarIntentoFallido(envioEmail, ex);
+      }
+      envioEmail.setIntentos(envioEmail.getIntentos() + 1);
+      envioEmailRepository.save(envioEmail);
+    }
+    log.info("Se enviaron {} de {} emails pendientes.", enviados, pendientes.size());
+  }
+
+  @Override
+  @Scheduled(cron = "0 30 3 * * *") // Todos los dias a las 03:30
+  @Transactional
+  public void eliminarEnviosFinalizados() {
+    int eliminados = envioEmailRepository.eliminarFinalizadosAntesDe(
+            List.of(EstadoEnvioEmail.ENVIADO, EstadoEnvioEmail.FALLIDO), LocalDateTime.now().minusDays(diasRetencion));
+    log.info("Se eliminaron {} emails enviados o fallidos.", eliminados);
+  }
+
+  private byte[] generarAdjunto(EnvioEmail envioEmail) {
+    if (envioEmail.getAdjunto() == null) return null;
+    return transactionTemplateLectura.execute(status -> switch (envioEmail.getAdjunto()) {
+      case PEDIDO -> pedidoService.getReportePedido(envioEmail.getIdDocumentoAdjunto());
+      case FACTURA_VENTA -> facturaVentaService.getReporteFacturaVenta(
+              facturaService.getFacturaNoEliminadaPorId(envioEmail.getIdDocumentoAdjunto()));
+    });
+  }
+
+  private void registrarIntentoFallido(EnvioEmail envioEmail, RuntimeException ex) {
+    var error = ex.getMessage() != null ? ex.getMessage() : ex.getClass().getName();
+    envioEmail.setUltimoError(error.length() > LONGITUD_MAXIMA_ERROR ? error.substring(0, LONGITUD_MAXIMA_ERROR) : error);
+    if (envioEmail.getIntentos() + 1 >= MAXIMO_INTENTOS) {
+      envioEmail.setEstado(EstadoEnvioEmail.FALLIDO);
+      envioEmail.setMensaje(null);
+      log.error("No se pudo enviar el email {} luego de {} intentos.", envioEmail.getIdEnvioEmail(), MAXIMO_INTENTOS, ex);
+    } else {
+      // 1, 2, 4, 8 y 16 minutos entre intentos
+      envioEmail.setFechaProximoIntento(LocalDateTime.now().plusMinutes(1L << envioEmail.getIntentos()));
+      log.warn("Falló el envío del email {}, se reintentará. {}", envioEmail.getIdEnvioEmail(), error);
+    }
+  }
+}
@@ -1,148 +1,106 @@
 package org.opencommercial.service;
 
-import lombok.extern.slf4j.Slf4j;
 import org.opencommercial.exception.BusinessServiceException;
+import org.opencommercial.model.Movimiento;
 import org.opencommercial.model.dto.EntidadMontoDTO;
 import org.opencommercial.model.dto.PeriodoMontoDTO;
-import org.opencommercial.repository.FacturaCompraRepository;
-import org.opencommercial.repository.FacturaVentaRepository;
+import org.opencommercial.repository.ResumenFacturacionRepository;
 import org.opencommercial.repository.projection.EntidadMontoProjection;
 import org.opencommercial.repository.projection.PeriodoMontoProjection;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.CacheManager;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.MessageSource;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 import java.util.Locale;
-import java.util.Objects;
-import java.util.Set;
 
 @Service
-@Slf4j
 public class EstadisticaServiceImpl implements EstadisticaService {
 
-  private final FacturaCompraRepository facturaCompraRepository;
-  private final FacturaVentaRepository facturaVentaRepository;
-  private final CacheManager cacheManager;
+  private final ResumenFacturacionRepository resumenFacturacionRepository;
   private final MessageSource messageSource;
   private static final String MENSAJE_ERROR_FORMATO_ANIO_NO_VALIDO = "mensaje_formato_anio_no_valido";
   private static final String MENSAJE_ERROR_FORMATO_MES_NO_VALIDO = "mensaje_formato_mes_no_valido";
-  private static final String MONTO_NETO_COMPRADO_POR_ANIO = "monto-neto-comprado-por-anio";
-  private static final String MONTO_NETO_COMPRADO_POR_MES = "monto-neto-comprado-por-mes";
-  private static final String MONTO_NETO_COMPRADO_POR_PROVEEDOR_POR_ANIO = "monto-neto-comprado-por-proveedor-por-anio";
-  private static final String MONTO_NETO_COMPRADO_POR_PROVEEDOR_POR_MES = "monto-neto-comprado-por-proveedor-por-mes";
-  private static final String MONTO_NETO_VENDIDO_POR_ANIO = "monto-neto-vendido-por-anio";
-  private static final String MONTO_NETO_VENDIDO_POR_MES = "monto-neto-vendido-por-mes";
-  private static final String MONTO_NETO_VENDIDO_POR_RUBRO_POR_ANIO = "monto-neto-vendido-por-rubro-por-anio";
-  private static final String MONTO_NETO_VENDIDO_POR_RUBRO_POR_MES = "monto-neto-vendido-por-rubro-por-mes";
 
   @Autowired
-  public EstadisticaServiceImpl(FacturaCompraRepository facturaCompraRepository,
-                                FacturaVentaRepository facturaVentaRepository,
-                                CacheManager cacheManager, MessageSource messageSource) {
-    this.facturaCompraRepository = facturaCompraRepository;
-    this.facturaVentaRepository = facturaVentaRepository;
-    this.cacheManager = cacheManager;
+  public EstadisticaServiceImpl(ResumenFacturacionRepository resumenFacturacionRepository,
+                                MessageSource messageSource) {
+    this.resumenFacturacionRepository = resumenFacturacionRepository;
     this.messageSource = messageSource;
   }
 
-  @Scheduled(fixedRate = 300000) // 5 min
-  public void limpiarTodasLasCaches() {
-    var caches = Set.of(MONTO_NETO_COMPRADO_POR_ANIO,
-                        MONTO_NETO_COMPRADO_POR_MES,
-                        MONTO_NETO_COMPRADO_POR_PROVEEDOR_POR_ANIO,
-                        MONTO_NETO_COMPRADO_POR_PROVEEDOR_POR_MES,
-                        MONTO_NETO_VENDIDO_POR_ANIO,
-                        MONTO_NETO_VENDIDO_POR_MES,
-                        MONTO_NETO_VENDIDO_POR_RUBRO_POR_ANIO,
-                        MONTO_NETO_VENDIDO_POR_RUBRO_POR_MES);
-    caches.forEach(i -> Objects.requireNonNull(cacheManager.getCache(i)).clear());
-    log.info("Todas las caches fueron limpiadas. {}", caches);
-  }
-
   @Override
-  @Cacheable(MONTO_NETO_COMPRADO_POR_ANIO)
   public List<PeriodoMontoDTO> getMontoNetoCompradoPorAnio(long idSucursal, int limite) {
-    return facturaCompraRepository.getMontoNetoCompradoPorAnio(idSucursal, PageRequest.ofSize(limite))
+    return resumenFacturacionRepository.getMontoNetoPorAnio(idSucursal, Movimiento.COMPRA, PageRequest.ofSize(limite))
             .stream()
             .map(this::mapPeriodoMonto)
             .toList();
   }
 
   @Override
-  @Cacheable(MONTO_NETO_COMPRADO_POR_MES)
   public List<PeriodoMontoDTO> getMontoNetoCompradoPorMes(long idSucursal, int anio) {
     if (!this.isAnioValido(anio)) throw new BusinessServiceException(
             messageSource.getMessage(MENSAJE_ERROR_FORMATO_ANIO_NO_VALIDO, null, Locale.getDefault()));
-    return facturaCompraRepository.getMontoNetoCompradoPorMes(idSucursal, anio)
+    return resumenFacturacionRepository.getMontoNetoPorMes(idSucursal, Movimiento.COMPRA, anio)
             .stream()
             .map(this::mapPeriodoMonto)
             .toList();
   }
 
   @Override
-  @Cacheable(MONTO_NETO_COMPRADO_POR_PROVEEDOR_POR_ANIO)
   public List<EntidadMontoDTO> getMontoNetoCompradoPorProveedorPorAnio(long idSucursal, int anio) {
     if (!this.isAnioValido(anio)) throw new BusinessServiceException(
             messageSource.getMessage(MENSAJE_ERROR_FORMATO_ANIO_NO_VALIDO, null, Locale.getDefault()));
-    return facturaCompraRepository.getMontoNetoCompradoPorProveedorPorAnio(idSucursal, anio)
+    return resumenFacturacionRepository.getMontoNetoCompradoPorProveedorPorAnio(idSucursal, anio)
             .stream()
             .map(this::mapEntidadMonto)
             .toList();
   }
 
   @Override
-  @Cacheable(MONTO_NETO_COMPRADO_POR_PROVEEDOR_POR_MES)
   public List<EntidadMontoDTO> getMontoNetoCompradoPorProveedorPorMes(long idSucursal, int anio, int mes) {
     if (!this.isMesValido(mes)) throw new BusinessServiceException(
             messageSource.getMessage(MENSAJE_ERROR_FORMATO_MES_NO_VALIDO, null, Locale.getDefault()));
-    return facturaCompraRepository.getMontoNetoCompradoPorProveedorPorMes(idSucursal, anio, mes)
+    return resumenFacturacionRepository.getMontoNetoCompradoPorProveedorPorMes(idSucursal, anio, mes)
             .stream()
             .map(this::mapEntidadMonto)
             .toList();
   }
 
   @Override
-  @Cacheable(MONTO_NETO_VENDIDO_POR_ANIO)
   public List<PeriodoMontoDTO> getMontoNetoVendidoPorAnio(long idSucursal, int limite) {
-    return facturaVentaRepository.getMontoNetoVendidoPorAnio(idSucursal, PageRequest.ofSize(limite))
+    return resumenFacturacionRepository.getMontoNetoPorAnio(idSucursal, Movimiento.VENTA, PageRequest.ofSize(limite))
             .stream()
             .map(this::mapPeriodoMonto)
             .toList();
   }
 
   @Override
-  @Cacheable(MONTO_NETO_VENDIDO_POR_MES)
   public List<PeriodoMontoDTO> getMontoNetoVendidoPorMes(long idSucursal, int anio) {
     if (!this.isAnioValido(anio)) throw new BusinessServiceException(
             messageSource.getMessage(MENSAJE_ERROR_FORMATO_ANIO_NO_VALIDO, null, Locale.getDefault()));
-    return facturaVentaRepository.getMontoNetoVendidoPorMes(idSucursal, anio)
+    return resumenFacturacionRepository.getMontoNetoPorMes(idSucursal, Movimiento.VENTA, anio)
             .stream()
             .map(this::mapPeriodoMonto)
             .toList();
   }
 
   @Override
-  @Cacheable(MONTO_NETO_VENDIDO_POR_RUBRO_POR_ANIO)
   public List<EntidadMontoDTO> getMontoNetoVendidoPorRubroPorAnio(long idSucursal, int anio) {
     if (!this.isAnioValido(anio)) throw new BusinessServiceException(
             messageSource.getMessage(MENSAJE_ERROR_FORMATO_ANIO_NO_VALIDO, null, Locale.getDefault()));
-    return facturaVentaRepository.getMontoNetoVendidoPorRubroPorAnio(idSucursal, anio)
+    return resumenFacturacionRepository.getMontoNetoVendidoPorClientePorAnio(idSucursal, anio)
             .stream()
             .map(this::mapEntidadMonto)
             .toList();
   }
 
   @Override
-  @Cacheable(MONTO_NETO_VENDIDO_POR_RUBRO_POR_MES)
   public List<EntidadMontoDTO> getMontoNetoVendidoPorRubroPorMes(long idSucursal, int anio, int mes) {
     if (!this.isMesValido(mes)) throw new BusinessServiceException(
             messageSource.getMessage(MENSAJE_ERROR_FORMATO_MES_NO_VALIDO, null, Locale.getDefault()));
-    return facturaVentaRepository.getMontoNetoVendidoPorRubroPorMes(idSucursal, anio, mes)
+    return resumenFacturacionRepository.getMontoNetoVendidoPorClientePorMes(idSucursal, anio, mes)
             .stream()
             .map(this::mapEntidadMonto)
             .toList();
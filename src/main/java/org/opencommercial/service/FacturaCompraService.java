@@ -1,7 +1,7 @@
 package org.opencommercial.service;
 
 import com.querydsl.core.BooleanBuilder;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.opencommercial.model.FacturaCompra;
 import org.opencommercial.model.Proveedor;
 import org.opencommercial.model.Sucursal;
@@ -15,7 +15,7 @@ public interface FacturaCompraService {
 
   TipoDeComprobante[] getTiposDeComprobanteCompra(Sucursal sucursal, Proveedor proveedor);
 
-  Page<FacturaCompra> buscarFacturaCompra(BusquedaFacturaCompraCriteria criteria);
+  Slice<FacturaCompra> buscarFacturaCompra(BusquedaFacturaCompraCriteria criteria);
 
   List<FacturaCompra> guardar(List<FacturaCompra> facturas);
 
@@ -6,10 +6,12 @@ import org.opencommercial.model.*;
 import org.opencommercial.model.criteria.BusquedaFacturaCompraCriteria;
 import org.opencommercial.repository.FacturaCompraRepository;
 import org.opencommercial.util.CustomValidator;
+import org.opencommercial.util.PaginadorPorCursor;
+import org.opencommercial.util.PaginadorSinConteo;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.MessageSource;
 import org.springframework.context.annotation.Lazy;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,6 +29,9 @@ public class FacturaCompraServiceImpl implements FacturaCompraService {
   private final ProductoService productoService;
   private final MessageSource messageSource;
   private final CustomValidator customValidator;
+  private final ResumenFacturacionService resumenFacturacionService;
+  private final PaginadorPorCursor paginadorPorCursor;
+  private final PaginadorSinConteo paginadorSinConteo;
 
   @Autowired
   @Lazy
@@ -36,13 +41,19 @@ public class FacturaCompraServiceImpl implements FacturaCompraService {
     CuentaCorrienteService cuentaCorrienteService,
     ProductoService productoService,
     MessageSource messageSource,
-    CustomValidator customValidator) {
+    CustomValidator customValidator,
+    ResumenFacturacionService resumenFacturacionService,
+    PaginadorPorCursor paginadorPorCursor,
+    PaginadorSinConteo paginadorSinConteo) {
     this.facturaService = facturaService;
     this.facturaCompraRepository = facturaCompraRepository;
     this.cuentaCorrienteService = cuentaCorrienteService;
     this.productoService = productoService;
     this.messageSource = messageSource;
     this.customValidator = customValidator;
+    this.resumenFacturacionService = resumenFacturacionService;
+    this.paginadorPorCursor = paginadorPorCursor;
+    this.paginadorSinConteo = paginadorSinConteo;
   }
 
   @Override
@@ -80,13 +91,18 @@ public class FacturaCompraServiceImpl implements FacturaCompraService {
   }
 
   @Override
-  public Page<FacturaCompra> buscarFacturaCompra(BusquedaFacturaCompraCriteria criteria) {
-    return facturaCompraRepository.findAll(
-        this.getBuilderCompra(criteria),
-        facturaService.getPageable(
-            (criteria.getPagina() == null || criteria.getPagina() < 0) ? 0 : criteria.getPagina(),
-            criteria.getOrdenarPor(),
-            criteria.getSentido()));
+  public Slice<FacturaCompra> buscarFacturaCompra(BusquedaFacturaCompraCriteria criteria) {
+    var builder = this.getBuilderCompra(criteria);
+    var pageable = facturaService.getPageable(
+        (criteria.getPagina() == null || criteria.getPagina() < 0) ? 0 : criteria.getPagina(),
+        criteria.getOrdenarPor(),
+        criteria.getSentido());
+    if (criteria.isPorCursor() || criteria.getDespuesDe() != null) {
+      return paginadorPorCursor.buscar(
+          facturaCompraRepository, FacturaCompra.class, "idFactura", builder, pageable, criteria.getDespuesDe());
+    }
+    if (criteria.isSinTotal()) return paginadorSinConteo.buscar(FacturaCompra.class, builder, pageable);
+    return paginadorSinConteo.buscarConTotal(facturaCompraRepository, FacturaCompra.class, builder, pageable);
   }
 
   @Override
@@ -187,6 +203,7 @@ public class FacturaCompraServiceImpl implements FacturaCompraService {
         facturaGuardada =
             facturaCompraRepository.save((FacturaCompra) facturaService.procesarFactura(f));
         this.cuentaCorrienteService.asentarEnCuentaCorriente(facturaGuardada);
+        this.resumenFacturacionService.acumularFactura(facturaGuardada);
       }
       facturasProcesadas.add(facturaGuardada);
     }
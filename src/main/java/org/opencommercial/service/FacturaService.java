@@ -19,7 +19,7 @@ public interface FacturaService {
 
   List<RenglonFactura> getRenglonesDeLaFacturaModificadosParaCredito(Long idFactura);
 
-  RenglonFactura getRenglonFactura(Long idRenglonFactura);
+  Map<Long, RenglonFactura> getRenglonesFactura(Long[] idsRenglonFactura);
 
   BigDecimal calcularIvaNetoFactura(
       TipoDeComprobante tipo,
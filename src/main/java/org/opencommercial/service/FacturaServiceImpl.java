@@ -21,6 +21,7 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.stream.Collectors;
 
 @Service
 public class FacturaServiceImpl implements FacturaService {
@@ -95,8 +96,11 @@ public class FacturaServiceImpl implements FacturaService {
   }
 
   @Override
-  public RenglonFactura getRenglonFactura(Long idRenglonFactura) {
-    return renglonFacturaRepository.findById(idRenglonFactura).orElse(null); // orElseThrow
+  public Map<Long, RenglonFactura> getRenglonesFactura(Long[] idsRenglonFactura) {
+    Map<Long, RenglonFactura> renglones = new HashMap<>();
+    renglonFacturaRepository.findAllById(Arrays.asList(idsRenglonFactura))
+        .forEach(renglon -> renglones.put(renglon.getIdRenglonFactura(), renglon));
+    return renglones;
   }
 
   @Override
@@ -312,16 +316,19 @@ public class FacturaServiceImpl implements FacturaService {
       Movimiento movimiento,
       List<NuevoRenglonFacturaDTO> nuevosRenglonesFacturaDTO) {
     nuevosRenglonesFacturaDTO.forEach(customValidator::validar);
+    // los productos de todos los renglones se obtienen con una sola consulta
+    Map<Long, Producto> productos = productoService.getProductosParaCalcularRenglones(
+        nuevosRenglonesFacturaDTO.stream().map(NuevoRenglonFacturaDTO::getIdProducto).collect(Collectors.toSet()));
     List<RenglonFactura> renglones = new ArrayList<>();
     nuevosRenglonesFacturaDTO.forEach(
         nuevoRenglonFacturaDTO -> {
+          Producto producto = productos.get(nuevoRenglonFacturaDTO.getIdProducto());
           if (movimiento.equals(Movimiento.VENTA)) {
             nuevoRenglonFacturaDTO.setRenglonMarcado(
-                this.marcarRenglonParaAplicarBonificacion(
-                    nuevoRenglonFacturaDTO.getIdProducto(), nuevoRenglonFacturaDTO.getCantidad()));
+                this.marcarRenglonParaAplicarBonificacion(producto, nuevoRenglonFacturaDTO.getCantidad()));
           }
           renglones.add(
-              this.calcularRenglon(tipoDeComprobante, movimiento, nuevoRenglonFacturaDTO));
+              this.calcularRenglon(tipoDeComprobante, movimiento, nuevoRenglonFacturaDTO, producto));
         });
     return renglones;
   }
@@ -332,7 +339,19 @@ public class FacturaServiceImpl implements FacturaService {
       Movimiento movimiento,
       NuevoRenglonFacturaDTO nuevoRenglonFacturaDTO) {
     customValidator.validar(nuevoRenglonFacturaDTO);
-    Producto producto = productoService.getProductoNoEliminadoPorId(nuevoRenglonFacturaDTO.getIdProducto());
+    long idProducto = nuevoRenglonFacturaDTO.getIdProducto();
+    return this.calcularRenglon(
+        tipoDeComprobante,
+        movimiento,
+        nuevoRenglonFacturaDTO,
+        productoService.getProductosParaCalcularRenglones(Set.of(idProducto)).get(idProducto));
+  }
+
+  private RenglonFactura calcularRenglon(
+      TipoDeComprobante tipoDeComprobante,
+      Movimiento movimiento,
+      NuevoRenglonFacturaDTO nuevoRenglonFacturaDTO,
+      Producto producto) {
     RenglonFactura nuevoRenglon = new RenglonFactura();
     nuevoRenglon.setIdProductoItem(producto.getIdProducto());
     nuevoRenglon.setCodigoItem(producto.getCodigo());
@@ -458,7 +477,11 @@ public class FacturaServiceImpl implements FacturaService {
 
   @Override
   public boolean marcarRenglonParaAplicarBonificacion(long idProducto, BigDecimal cantidad) {
-    Producto producto = productoService.getProductoNoEliminadoPorId(idProducto);
+    return this.marcarRenglonParaAplicarBonificacion(
+        productoService.getProductoNoEliminadoPorId(idProducto), cantidad);
+  }
+
+  private boolean marcarRenglonParaAplicarBonificacion(Producto producto, BigDecimal cantidad) {
     return cantidad.compareTo(producto.getCantidadProducto().getCantMinima()) >= 0;
   }
 }
@@ -4,7 +4,7 @@ import com.querydsl.core.BooleanBuilder;
 import org.opencommercial.model.*;
 import org.opencommercial.model.criteria.BusquedaFacturaVentaCriteria;
 import org.opencommercial.model.dto.NuevaFacturaVentaDTO;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -17,11 +17,13 @@ public interface FacturaVentaService {
 
   List<RenglonFactura> getRenglonesPedidoParaFacturar(long idPedido, TipoDeComprobante tipoDeComprobante);
 
-  Page<FacturaVenta> buscarFacturaVenta(BusquedaFacturaVentaCriteria criteria, long idUsuarioLoggedIn);
+  Slice<FacturaVenta> buscarFacturaVenta(BusquedaFacturaVentaCriteria criteria, long idUsuarioLoggedIn);
 
   List<FacturaVenta> guardar(List<FacturaVenta> facturas, long idPedido, List<Recibo> recibos);
 
-  FacturaVenta autorizarFacturaVenta(FacturaVenta fv);
+  ComprobanteAutorizableAFIP construirComprobanteAutorizable(long idFactura);
+
+  void asignarAutorizacion(long idFactura, ComprobanteAutorizableAFIP comprobanteAutorizableAFIP);
 
   void asignarRemitoConFactura(Remito remito, long idFactura);
 
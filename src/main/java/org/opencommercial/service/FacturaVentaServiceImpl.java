@@ -12,21 +12,20 @@ import org.opencommercial.repository.FacturaVentaRepository;
 import org.opencommercial.util.CalculosComprobante;
 import org.opencommercial.util.CustomValidator;
 import org.opencommercial.util.FormatoReporte;
+import org.opencommercial.util.ImagenesReporteHandler;
 import org.opencommercial.util.JasperReportsHandler;
+import org.opencommercial.util.PaginadorPorCursor;
+import org.opencommercial.util.PaginadorSinConteo;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.MessageSource;
 import org.springframework.context.annotation.Lazy;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import javax.imageio.ImageIO;
-import javax.swing.*;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.net.URL;
 import java.time.LocalDateTime;
 import java.util.*;
 
@@ -34,13 +33,9 @@ import java.util.*;
 @Slf4j
 public class FacturaVentaServiceImpl implements FacturaVentaService {
 
-  @Value("${EMAIL_DEFAULT_PROVIDER}")
-  private String emailDefaultProvider;
-
   private final FacturaVentaRepository facturaVentaRepository;
-  private final TaxationService taxationService;
   private final ReciboService reciboService;
-  private final EmailServiceFactory emailServiceFactory;
+  private final EnvioEmailService envioEmailService;
   private final PedidoService pedidoService;
   private final UsuarioService usuarioService;
   private final ClienteService clienteService;
@@ -55,14 +50,19 @@ public class FacturaVentaServiceImpl implements FacturaVentaService {
   private static final String NRO_FACTURA = "nroFactura";
   private final CustomValidator customValidator;
   private final JasperReportsHandler jasperReportsHandler;
+  private final ImagenesReporteHandler imagenesReporteHandler;
+  private final NumeradorComprobanteService numeradorComprobanteService;
+  private final ResumenFacturacionService resumenFacturacionService;
+  private final AutorizacionComprobanteService autorizacionComprobanteService;
+  private final PaginadorPorCursor paginadorPorCursor;
+  private final PaginadorSinConteo paginadorSinConteo;
 
   @Autowired
   @Lazy
   public FacturaVentaServiceImpl(
       FacturaVentaRepository facturaVentaRepository,
-      TaxationService taxationService,
       ReciboService reciboService,
-      EmailServiceFactory emailServiceFactory,
+      EnvioEmailService envioEmailService,
       PedidoService pedidoService,
       UsuarioService usuarioService,
       ClienteService clienteService,
@@ -72,11 +72,16 @@ public class FacturaVentaServiceImpl implements FacturaVentaService {
       SucursalService sucursalService,
       MessageSource messageSource,
       CustomValidator customValidator,
-      JasperReportsHandler jasperReportsHandler) {
+      JasperReportsHandler jasperReportsHandler,
+      ImagenesReporteHandler imagenesReporteHandler,
+      NumeradorComprobanteService numeradorComprobanteService,
+      ResumenFacturacionService resumenFacturacionService,
+      AutorizacionComprobanteService autorizacionComprobanteService,
+      PaginadorPorCursor paginadorPorCursor,
+      PaginadorSinConteo paginadorSinConteo) {
     this.facturaVentaRepository = facturaVentaRepository;
     this.reciboService = reciboService;
-    this.taxationService = taxationService;
-    this.emailServiceFactory = emailServiceFactory;
+    this.envioEmailService = envioEmailService;
     this.pedidoService = pedidoService;
     this.usuarioService = usuarioService;
     this.clienteService = clienteService;
@@ -87,6 +92,12 @@ public class FacturaVentaServiceImpl implements FacturaVentaService {
     this.messageSource = messageSource;
     this.customValidator = customValidator;
     this.jasperReportsHandler = jasperReportsHandler;
+    this.imagenesReporteHandler = imagenesReporteHandler;
+    this.numeradorComprobanteService = numeradorComprobanteService;
+    this.resumenFacturacionService = resumenFacturacionService;
+    this.autorizacionComprobanteService = autorizacionComprobanteService;
+    this.paginadorPorCursor = paginadorPorCursor;
+    this.paginadorSinConteo = paginadorSinConteo;
   }
 
   @Override
@@ -198,34 +209,32 @@ public class FacturaVentaServiceImpl implements FacturaVentaService {
 
   @Override
   public List<RenglonFactura> getRenglonesPedidoParaFacturar(long idPedido, TipoDeComprobante tipoDeComprobante) {
-    List<RenglonFactura> renglonesParaFacturar = new ArrayList<>();
+    List<NuevoRenglonFacturaDTO> nuevosRenglonesFacturaDTO = new ArrayList<>();
     pedidoService
         .getRenglonesDelPedidoOrdenadorPorIdRenglon(idPedido)
         .forEach(
-            r -> {
-              NuevoRenglonFacturaDTO nuevoRenglonFacturaDTO =
-                  NuevoRenglonFacturaDTO.builder()
-                      .cantidad(r.getCantidad())
-                      .idProducto(r.getIdProductoItem())
-                      .renglonMarcado(
-                          facturaService.marcarRenglonParaAplicarBonificacion(
-                              r.getIdProductoItem(), r.getCantidad()))
-                      .build();
-              renglonesParaFacturar.add(
-                  facturaService.calcularRenglon(
-                      tipoDeComprobante, Movimiento.VENTA, nuevoRenglonFacturaDTO));
-            });
-    return renglonesParaFacturar;
+            r ->
+                nuevosRenglonesFacturaDTO.add(
+                    NuevoRenglonFacturaDTO.builder()
+                        .cantidad(r.getCantidad())
+                        .idProducto(r.getIdProductoItem())
+                        .build()));
+    return facturaService.calcularRenglones(tipoDeComprobante, Movimiento.VENTA, nuevosRenglonesFacturaDTO);
   }
 
   @Override
-  public Page<FacturaVenta> buscarFacturaVenta(BusquedaFacturaVentaCriteria criteria, long idUsuarioLoggedIn) {
-    return facturaVentaRepository.findAll(
-        this.getBuilderVenta(criteria),
-        facturaService.getPageable(
-            (criteria.getPagina() == null || criteria.getPagina() < 0) ? 0 : criteria.getPagina(),
-            criteria.getOrdenarPor(),
-            criteria.getSentido()));
+  public Slice<FacturaVenta> buscarFacturaVenta(BusquedaFacturaVentaCriteria criteria, long idUsuarioLoggedIn) {
+    var builder = this.getBuilderVenta(criteria);
+    var pageable = facturaService.getPageable(
+        (criteria.getPagina() == null || criteria.getPagina() < 0) ? 0 : criteria.getPagina(),
+        criteria.getOrdenarPor(),
+        criteria.getSentido());
+    if (criteria.isPorCursor() || criteria.getDespuesDe() != null) {
+      return paginadorPorCursor.buscar(
+          facturaVentaRepository, FacturaVenta.class, "idFactura", builder, pageable, criteria.getDespuesDe());
+    }
+    if (criteria.isSinTotal()) return paginadorSinConteo.buscar(FacturaVenta.class, builder, pageable);
+    return paginadorSinConteo.buscarConTotal(facturaVentaRepository, FacturaVenta.class, builder, pageable);
   }
 
   @Override
@@ -325,6 +334,7 @@ public class FacturaVentaServiceImpl implements FacturaVentaService {
     facturas.forEach(f -> {
       var facturaGuardada = facturaVentaRepository.save((FacturaVenta) this.procesarFacturaVenta(f));
       this.cuentaCorrienteService.asentarEnCuentaCorriente(facturaGuardada, TipoDeOperacion.ALTA);
+      this.resumenFacturacionService.acumularFactura(facturaGuardada);
       facturasProcesadas.add(facturaGuardada);
       log.info("La factura se guardó correctamente. {}", facturaGuardada);
     });
@@ -335,7 +345,8 @@ public class FacturaVentaServiceImpl implements FacturaVentaService {
       var tiposAutorizables = Arrays.asList(TipoDeComprobante.FACTURA_A, TipoDeComprobante.FACTURA_B, TipoDeComprobante.FACTURA_C);
       facturasProcesadas.stream()
               .filter(facturaVenta -> tiposAutorizables.contains(facturaVenta.getTipoComprobante()))
-              .forEach(this::autorizarFacturaVenta);
+              .forEach(facturaVenta -> autorizacionComprobanteService.encolar(
+                      DocumentoAutorizable.FACTURA_VENTA, facturaVenta.getIdFactura()));
     }
     return facturasProcesadas;
   }
@@ -356,37 +367,55 @@ public class FacturaVentaServiceImpl implements FacturaVentaService {
     facturas.forEach(facturaService::calcularValoresFactura);
   }
 
+  @Override
+  @Transactional(readOnly = true)
+  public ComprobanteAutorizableAFIP construirComprobanteAutorizable(long idFactura) {
+    return this.crearComprobanteAutorizable(this.getFacturaVentaAutorizable(idFactura));
+  }
+
   @Override
   @Transactional
-  public FacturaVenta autorizarFacturaVenta(FacturaVenta fv) {
+  public void asignarAutorizacion(long idFactura, ComprobanteAutorizableAFIP comprobanteAutorizableAFIP) {
+    this.asignarAutorizacion(this.getFacturaVentaAutorizable(idFactura), comprobanteAutorizableAFIP);
+  }
+
+  private FacturaVenta getFacturaVentaAutorizable(long idFactura) {
+    if (facturaService.getFacturaNoEliminadaPorId(idFactura) instanceof FacturaVenta facturaVenta) {
+      return facturaVenta;
+    }
+    throw new BusinessServiceException(
+            messageSource.getMessage("mensaje_comprobante_AFIP_invalido", null, Locale.getDefault()));
+  }
+
+  private ComprobanteAutorizableAFIP crearComprobanteAutorizable(FacturaVenta fv) {
     var tiposAutorizables = Arrays.asList(TipoDeComprobante.FACTURA_A, TipoDeComprobante.FACTURA_B, TipoDeComprobante.FACTURA_C);
     if (!tiposAutorizables.contains(fv.getTipoComprobante())) {
       throw new BusinessServiceException(
           messageSource.getMessage("mensaje_comprobante_AFIP_invalido", null, Locale.getDefault()));
     }
-    var comprobanteAutorizableAFIP =
-            ComprobanteAutorizableAFIP.builder()
-                    .idComprobante(fv.getIdFactura())
-                    .fecha(fv.getFecha())
-                    .tipoComprobante(fv.getTipoComprobante())
-                    .cae(fv.getCae())
-                    .vencimientoCAE(fv.getVencimientoCae())
-                    .numSerieAfip(fv.getNumSerieAfip())
-                    .numFacturaAfip(fv.getNumFacturaAfip())
-                    .sucursal(fv.getSucursal())
-                    .cliente(fv.getClienteEmbedded())
-                    .subtotalBruto(fv.getSubTotalBruto())
-                    .iva105neto(fv.getIva105Neto())
-                    .iva21neto(fv.getIva21Neto())
-                    .montoNoGravado(BigDecimal.ZERO)
-                    .total(fv.getTotal())
-                    .build();
-    taxationService.autorizar(comprobanteAutorizableAFIP);
+    return ComprobanteAutorizableAFIP.builder()
+            .idComprobante(fv.getIdFactura())
+            .fecha(fv.getFecha())
+            .tipoComprobante(fv.getTipoComprobante())
+            .cae(fv.getCae())
+            .vencimientoCAE(fv.getVencimientoCae())
+            .numSerieAfip(fv.getNumSerieAfip())
+            .numFacturaAfip(fv.getNumFacturaAfip())
+            .sucursal(fv.getSucursal())
+            .cliente(fv.getClienteEmbedded())
+            .subtotalBruto(fv.getSubTotalBruto())
+            .iva105neto(fv.getIva105Neto())
+            .iva21neto(fv.getIva21Neto())
+            .montoNoGravado(BigDecimal.ZERO)
+            .total(fv.getTotal())
+            .build();
+  }
+
+  private void asignarAutorizacion(FacturaVenta fv, ComprobanteAutorizableAFIP comprobanteAutorizableAFIP) {
     fv.setCae(comprobanteAutorizableAFIP.getCae());
     fv.setVencimientoCae(comprobanteAutorizableAFIP.getVencimientoCAE());
     fv.setNumSerieAfip(comprobanteAutorizableAFIP.getNumSerieAfip());
     fv.setNumFacturaAfip(comprobanteAutorizableAFIP.getNumFacturaAfip());
-    return fv;
   }
 
   @Override
@@ -423,13 +452,11 @@ public class FacturaVentaServiceImpl implements FacturaVentaService {
 
   @Override
   public long calcularNumeroFacturaVenta(TipoDeComprobante tipoDeComprobante, long serie, long idSucursal) {
-    Long numeroFactura =
-        facturaVentaRepository.buscarMayorNumFacturaSegunTipo(tipoDeComprobante, serie, idSucursal);
-    if (numeroFactura == null) {
-      return 1; // No existe ninguna Factura anterior
-    } else {
-      return 1 + numeroFactura;
-    }
+    return numeradorComprobanteService.asignarSiguienteNumero(idSucursal, tipoDeComprobante, serie, () -> {
+      Long numeroFactura =
+          facturaVentaRepository.buscarMayorNumFacturaSegunTipo(tipoDeComprobante, serie, idSucursal);
+      return (numeroFactura == null) ? 0 : numeroFactura;
+    });
   }
 
   @Override
@@ -462,7 +489,7 @@ public class FacturaVentaServiceImpl implements FacturaVentaService {
       try {
         params.put(
             "logo",
-            new ImageIcon(ImageIO.read(new URL(factura.getSucursal().getLogo()))).getImage());
+            imagenesReporteHandler.getImagen(factura.getSucursal().getLogo()));
       } catch (IOException ex) {
         throw new ServiceException(
             messageSource.getMessage("mensaje_sucursal_404_logo", null, Locale.getDefault()), ex);
@@ -513,15 +540,16 @@ public class FacturaVentaServiceImpl implements FacturaVentaService {
             messageSource.getMessage(
                 "mensaje_correo_factura_sin_pedido", null, Locale.getDefault());
       }
-      emailServiceFactory.getEmailService(emailDefaultProvider)
-              .enviarEmail(
-                      facturaVenta.getCliente().getEmail(),
-                      "",
-                      "Su Factura de Compra",
-                      bodyEmail,
-                      this.getReporteFacturaVenta(factura),
-                      "Factura.pdf");
-      log.info("Se envió el mail con la factura. {}", factura);
+      envioEmailService.encolar(EnvioEmail.builder()
+              .destinatario(facturaVenta.getCliente().getEmail())
+              .bcc("")
+              .asunto("Su Factura de Compra")
+              .mensaje(bodyEmail)
+              .adjunto(AdjuntoEmail.FACTURA_VENTA)
+              .idDocumentoAdjunto(factura.getIdFactura())
+              .nombreAdjunto("Factura.pdf")
+              .build());
+      log.info("Se encoló el mail con la factura. {}", factura);
     }
   }
 
@@ -2,9 +2,12 @@ package org.opencommercial.service;
 
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.MessageSource;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.opencommercial.config.CacheConfig;
 import org.opencommercial.model.FormaDePago;
 import org.opencommercial.model.FormaDePagoEnum;
 import org.opencommercial.repository.FormaDePagoRepository;
@@ -27,16 +30,19 @@ public class FormaDePagoServiceImpl implements FormaDePagoService {
   }
 
   @Override
+  @Cacheable(CacheConfig.FORMAS_DE_PAGO)
   public List<FormaDePago> getFormasDePago() {
     return formaDePagoRepository.findAllByOrderByNombreAsc();
   }
 
   @Override
+  @Cacheable(CacheConfig.FORMAS_DE_PAGO)
   public List<FormaDePago> getFormasDePagoNoEliminadas() {
     return formaDePagoRepository.findAllByAndEliminadaOrderByNombreAsc(false);
   }
 
   @Override
+  @Cacheable(CacheConfig.FORMAS_DE_PAGO)
   public FormaDePago getFormasDePagoNoEliminadoPorId(long idFormaDePago) {
     Optional<FormaDePago> formaDePago = formaDePagoRepository.findById(idFormaDePago);
     if (formaDePago.isPresent() && !formaDePago.get().isEliminada()) {
@@ -48,6 +54,7 @@ public class FormaDePagoServiceImpl implements FormaDePagoService {
   }
 
   @Override
+  @Cacheable(CacheConfig.FORMAS_DE_PAGO)
   public FormaDePago getFormasDePagoPorId(long idFormaDePago) {
     Optional<FormaDePago> formaDePago = formaDePagoRepository.findById(idFormaDePago);
     if (formaDePago.isPresent()) {
@@ -59,6 +66,7 @@ public class FormaDePagoServiceImpl implements FormaDePagoService {
   }
 
   @Override
+  @Cacheable(CacheConfig.FORMAS_DE_PAGO)
   public FormaDePago getFormaDePagoPorNombre(FormaDePagoEnum formaDePagoEnum) {
     Optional<FormaDePago> formaDePago =
         formaDePagoRepository.findByNombreAndEliminada(formaDePagoEnum.toString(), false);
@@ -71,6 +79,7 @@ public class FormaDePagoServiceImpl implements FormaDePagoService {
   }
 
   @Override
+  @Cacheable(CacheConfig.FORMAS_DE_PAGO)
   public FormaDePago getFormaDePagoPredeterminada() {
     Optional<FormaDePago> formaDePago =
         formaDePagoRepository.findByAndPredeterminadoAndEliminada(true, false);
@@ -84,6 +93,7 @@ public class FormaDePagoServiceImpl implements FormaDePagoService {
   }
 
   @Override
+  @CacheEvict(cacheNames = CacheConfig.FORMAS_DE_PAGO, allEntries = true)
   @Transactional
   public void setFormaDePagoPredeterminada(FormaDePago formaDePago) {
     Optional<FormaDePago> formaPredeterminadaAnterior =
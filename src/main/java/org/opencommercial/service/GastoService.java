@@ -5,8 +5,8 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import com.querydsl.core.BooleanBuilder;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.opencommercial.model.criteria.BusquedaGastoCriteria;
 import org.opencommercial.model.Sucursal;
 import org.opencommercial.model.FormaDePago;
@@ -29,7 +29,7 @@ public interface GastoService {
 
   void validarReglasDeNegocio(Gasto gasto);
 
-  Page<Gasto> buscarGastos(BusquedaGastoCriteria criteria);
+  Slice<Gasto> buscarGastos(BusquedaGastoCriteria criteria);
 
   long getUltimoNumeroDeGasto(long idSucursal);
 
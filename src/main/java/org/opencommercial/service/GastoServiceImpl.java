@@ -8,12 +8,14 @@ import org.opencommercial.model.*;
 import org.opencommercial.model.criteria.BusquedaGastoCriteria;
 import org.opencommercial.repository.GastoRepository;
 import org.opencommercial.util.CustomValidator;
+import org.opencommercial.util.PaginadorPorCursor;
+import org.opencommercial.util.PaginadorSinConteo;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.MessageSource;
 import org.springframework.context.annotation.Lazy;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -34,6 +36,8 @@ public class GastoServiceImpl implements GastoService {
   private static final int TAMANIO_PAGINA_DEFAULT = 25;
   private final MessageSource messageSource;
   private final CustomValidator customValidator;
+  private final PaginadorPorCursor paginadorPorCursor;
+  private final PaginadorSinConteo paginadorSinConteo;
 
   @Autowired
   @Lazy
@@ -42,12 +46,16 @@ public class GastoServiceImpl implements GastoService {
     SucursalService sucursalService,
     CajaService cajaService,
     MessageSource messageSource,
-    CustomValidator customValidator) {
+    CustomValidator customValidator,
+    PaginadorPorCursor paginadorPorCursor,
+    PaginadorSinConteo paginadorSinConteo) {
     this.gastoRepository = gastoRepository;
     this.sucursalService = sucursalService;
     this.cajaService = cajaService;
     this.messageSource = messageSource;
     this.customValidator = customValidator;
+    this.paginadorPorCursor = paginadorPorCursor;
+    this.paginadorSinConteo = paginadorSinConteo;
   }
 
   @Override
@@ -72,10 +80,15 @@ public class GastoServiceImpl implements GastoService {
   }
 
   @Override
-  public Page<Gasto> buscarGastos(BusquedaGastoCriteria criteria) {
-    return gastoRepository.findAll(
-        this.getBuilder(criteria),
-        this.getPageable(criteria.getPagina(), criteria.getOrdenarPor(), criteria.getSentido()));
+  public Slice<Gasto> buscarGastos(BusquedaGastoCriteria criteria) {
+    var builder = this.getBuilder(criteria);
+    var pageable = this.getPageable(criteria.getPagina(), criteria.getOrdenarPor(), criteria.getSentido());
+    if (criteria.isPorCursor() || criteria.getDespuesDe() != null) {
+      return paginadorPorCursor.buscar(
+          gastoRepository, Gasto.class, "idGasto", builder, pageable, criteria.getDespuesDe());
+    }
+    if (criteria.isSinTotal()) return paginadorSinConteo.buscar(Gasto.class, builder, pageable);
+    return paginadorSinConteo.buscarConTotal(gastoRepository, Gasto.class, builder, pageable);
   }
 
   @Override
@@ -0,0 +1,10 @@
+package org.opencommercial.service;
+
+import org.opencommercial.model.TipoIdentificador;
+
+import java.util.function.LongPredicate;
+
+public interface GeneradorIdentificadorService {
+
+  long generarIdentificador(TipoIdentificador tipo, String ambito, LongPredicate enUso);
+}
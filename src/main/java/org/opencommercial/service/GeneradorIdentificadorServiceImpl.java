@@ -0,0 +1,110 @@
+package org.opencommercial.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.opencommercial.exception.BusinessServiceException;
+import org.opencommercial.model.TipoIdentificador;
+import org.opencommercial.repository.SecuenciaIdentificadorRepository;
+import org.opencommercial.util.PermutacionIdentificadores;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.MessageSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongPredicate;
+
+@Service
+@Slf4j
+public class GeneradorIdentificadorServiceImpl implements GeneradorIdentificadorService {
+
+  private final SecuenciaIdentificadorRepository secuenciaIdentificadorRepository;
+  private final MessageSource messageSource;
+  private final Map<String, BloqueReservado> bloques = new ConcurrentHashMap<>();
+
+  private static final class BloqueReservado {
+    private long siguiente;
+    private long hasta;
+  }
+
+  @Autowired
+  public GeneradorIdentificadorServiceImpl(SecuenciaIdentificadorRepository secuenciaIdentificadorRepository,
+                                           MessageSource messageSource) {
+    this.secuenciaIdentificadorRepository = secuenciaIdentificadorRepository;
+    this.messageSource = messageSource;
+  }
+
+  // Cada instancia reserva bloques disjuntos de la secuencia, por lo que dos solicitudes concurrentes nunca
+  // reciben el mismo valor. enUso solo descarta los identificadores aleatorios generados antes de la secuencia.
+  @Override
+  @Transactional
+  public long generarIdentificador(TipoIdentificador tipo, String ambito, LongPredicate enUso) {
+    for (long descartados = 0; descartados < tipo.getCapacidad(); descartados++) {
+      long identificador = PermutacionIdentificadores.permutar(this.siguienteValor(tipo, ambito), tipo.getCapacidad()) + 1;
+      if (!enUso.test(identificador)) return identificador;
+    }
+    throw this.crearExcepcionSecuenciaAgotada(tipo, ambito);
+  }
+
+  private long siguienteValor(TipoIdentificador tipo, String ambito) {
+    if (tipo.getTamanioBloque() == 1) return this.reservarBloque(tipo, ambito);
+    var clave = tipo + ":" + ambito;
+    // el bloque reservado por la transaccion en curso solo lo usa ella hasta que se confirme
+    var bloquePropio = (BloqueReservado) TransactionSynchronizationManager.getResource(clave);
+    if (bloquePropio != null && bloquePropio.siguiente < bloquePropio.hasta) return bloquePropio.siguiente++;
+    var bloque = bloques.computeIfAbsent(clave, c -> new BloqueReservado());
+    synchronized (bloque) {
+      if (bloque.siguiente < bloque.hasta) return bloque.siguiente++;
+    }
+    // la reserva espera el lock de la fila, por eso se hace fuera del monitor del bloque
+    long desde = this.reservarBloque(tipo, ambito);
+    var reservado = bloquePropio != null ? bloquePropio : new BloqueReservado();
+    reservado.siguiente = desde + 1;
+    reservado.hasta = Math.min(desde + tipo.getTamanioBloque(), tipo.getCapacidad());
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      this.publicarBloque(bloque, reservado);
+    } else if (bloquePropio == null) {
+      TransactionSynchronizationManager.bindResource(clave, reservado);
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          publicarBloque(bloque, reservado);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+          TransactionSynchronizationManager.unbindResourceIfPossible(clave);
+        }
+      });
+    }
+    return desde;
+  }
+
+  // si la transaccion se revierte la reserva tambien, y el resto del bloque nunca se comparte
+  private void publicarBloque(BloqueReservado bloque, BloqueReservado reservado) {
+    synchronized (bloque) {
+      if (bloque.siguiente < bloque.hasta) return;
+      bloque.siguiente = reservado.siguiente;
+      bloque.hasta = reservado.hasta;
+    }
+  }
+
+  // devuelve el primer valor del bloque reservado, el lock de la secuencia se mantiene hasta que la transaccion termina
+  private long reservarBloque(TipoIdentificador tipo, String ambito) {
+    secuenciaIdentificadorRepository.crearSiNoExiste(tipo.name(), ambito);
+    var secuencia = secuenciaIdentificadorRepository.findParaActualizar(tipo, ambito).orElseThrow();
+    long ultimoReservado = secuencia.getUltimoReservado();
+    if (ultimoReservado >= tipo.getCapacidad()) throw this.crearExcepcionSecuenciaAgotada(tipo, ambito);
+    secuencia.setUltimoReservado(Math.min(ultimoReservado + tipo.getTamanioBloque(), tipo.getCapacidad()));
+    return ultimoReservado;
+  }
+
+  private BusinessServiceException crearExcepcionSecuenciaAgotada(TipoIdentificador tipo, String ambito) {
+    log.error("Se agotaron los identificadores {} {}.", tipo, ambito);
+    return new BusinessServiceException(
+            messageSource.getMessage("mensaje_identificadores_agotados", null, Locale.getDefault()));
+  }
+}
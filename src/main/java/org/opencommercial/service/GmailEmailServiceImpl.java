@@ -8,7 +8,6 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.MessageSource;
 import org.springframework.mail.MailException;
 import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.opencommercial.exception.ServiceException;
 
@@ -38,7 +37,6 @@ public class GmailEmailServiceImpl implements EmailService {
   }
 
   @Override
-  @Async
   public void enviarEmail(String toEmail, String bcc, String subject, String mensaje,
                           byte[] byteArray, String attachmentName) {
     if (!isServicioConfigurado()) {
@@ -0,0 +1,18 @@
+package org.opencommercial.service;
+
+import org.opencommercial.model.Producto;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface IndiceBusquedaProductoService {
+
+  void cargarIndice();
+
+  void indexar(Collection<Producto> productos);
+
+  void eliminar(Collection<Long> idsProducto);
+
+  Optional<List<Long>> buscar(String codigo, String descripcion);
+}
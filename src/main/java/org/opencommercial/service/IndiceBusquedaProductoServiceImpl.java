@@ -0,0 +1,230 @@
+package org.opencommercial.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.opencommercial.model.Producto;
+import org.opencommercial.repository.ProductoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+@Service
+@Slf4j
+public class IndiceBusquedaProductoServiceImpl implements IndiceBusquedaProductoService {
+
+  // por encima de este limite la busqueda por LIKE resulta mas conveniente que un IN con todos los ids
+  static final int CANTIDAD_MAXIMA_RESULTADOS = 1000;
+  private static final int LONGITUD_NGRAMA = 3;
+  private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+
+  private final ProductoRepository productoRepository;
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Map<Long, EntradaIndice> entradas = new HashMap<>();
+  private final Map<String, Set<Long>> ngramasCodigo = new HashMap<>();
+  private final Map<String, Set<Long>> ngramasDescripcion = new HashMap<>();
+  private volatile boolean indiceCargado = false;
+
+  @Autowired
+  public IndiceBusquedaProductoServiceImpl(ProductoRepository productoRepository) {
+    this.productoRepository = productoRepository;
+  }
+
+  @Override
+  @EventListener(ApplicationReadyEvent.class)
+  public void cargarIndice() {
+    long inicio = System.currentTimeMillis();
+    var productos = productoRepository.findAllParaIndiceDeBusqueda();
+    lock.writeLock().lock();
+    try {
+      entradas.clear();
+      ngramasCodigo.clear();
+      ngramasDescripcion.clear();
+      productos.forEach(p -> this.agregarEntrada(p.getIdProducto(), p.getCodigo(), p.getDescripcion()));
+      indiceCargado = true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+    log.info("Indice de busqueda de productos cargado con {} productos en {} ms.",
+            productos.size(), System.currentTimeMillis() - inicio);
+  }
+
+  @Override
+  public void indexar(Collection<Producto> productos) {
+    var entradasNuevas = new HashMap<Long, EntradaIndice>();
+    productos.forEach(p -> entradasNuevas.put(
+            p.getIdProducto(), p.isEliminado() ? null : new EntradaIndice(p.getCodigo(), p.getDescripcion())));
+    this.ejecutarLuegoDelCommit(() -> {
+      lock.writeLock().lock();
+      try {
+        entradasNuevas.forEach((idProducto, entrada) -> {
+          this.quitarEntrada(idProducto);
+          if (entrada != null) this.agregarEntrada(idProducto, entrada.codigo, entrada.descripcion);
+        });
+      } finally {
+        lock.writeLock().unlock();
+      }
+    });
+  }
+
+  @Override
+  public void eliminar(Collection<Long> idsProducto) {
+    var idsParaEliminar = new ArrayList<>(idsProducto);
+    this.ejecutarLuegoDelCommit(() -> {
+      lock.writeLock().lock();
+      try {
+        idsParaEliminar.forEach(this::quitarEntrada);
+      } finally {
+        lock.writeLock().unlock();
+      }
+    });
+  }
+
+  @Override
+  public Optional<List<Long>> buscar(String codigo, String descripcion) {
+    if (!indiceCargado || (codigo == null && descripcion == null)) return Optional.empty();
+    String codigoNormalizado = codigo != null ? normalizar(codigo) : null;
+    List<String> terminos = descripcion != null ? getTerminos(descripcion) : List.of();
+    lock.readLock().lock();
+    try {
+      Set<Long> coincidencias = new HashSet<>();
+      if (codigoNormalizado != null) {
+        coincidencias.addAll(this.buscarCodigo(codigoNormalizado));
+      }
+      if (descripcion != null) {
+        coincidencias.addAll(this.buscarDescripcion(terminos));
+      }
+      if (coincidencias.size() > CANTIDAD_MAXIMA_RESULTADOS) return Optional.empty();
+      var resultado = new ArrayList<>(coincidencias);
+      var puntajes = new HashMap<Long, Integer>();
+      resultado.forEach(id -> puntajes.put(id, this.calcularRelevancia(entradas.get(id), codigoNormalizado, terminos)));
+      resultado.sort(Comparator
+              .comparing((Long id) -> -puntajes.get(id))
+              .thenComparing(id -> entradas.get(id).descripcion.length())
+              .thenComparing(id -> entradas.get(id).descripcion)
+              .thenComparing(id -> id));
+      return Optional.of(resultado);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private Collection<Long> buscarCodigo(String codigo) {
+    return this.getCandidatos(List.of(codigo), ngramasCodigo).stream()
+            .filter(id -> entradas.get(id).codigo.contains(codigo))
+            .toList();
+  }
+
+  private Collection<Long> buscarDescripcion(List<String> terminos) {
+    return this.getCandidatos(terminos, ngramasDescripcion).stream()
+            .filter(id -> terminos.stream().allMatch(termino -> entradas.get(id).descripcion.contains(termino)))
+            .toList();
+  }
+
+  // todo resultado contiene cada n-grama de cada termino, alcanza con partir del n-grama menos frecuente
+  private Collection<Long> getCandidatos(List<String> terminos, Map<String, Set<Long>> ngramas) {
+    Collection<Long> candidatos = entradas.keySet();
+    for (String termino : terminos) {
+      for (String ngrama : getNgramas(termino)) {
+        Set<Long> ids = ngramas.get(ngrama);
+        if (ids == null) return List.of();
+        if (ids.size() < candidatos.size()) candidatos = ids;
+      }
+    }
+    return candidatos;
+  }
+
+  private int calcularRelevancia(EntradaIndice entrada, String codigo, List<String> terminos) {
+    int puntaje = 0;
+    if (codigo != null && !codigo.isEmpty()) {
+      if (entrada.codigo.equals(codigo)) puntaje += 100;
+      else if (entrada.codigo.startsWith(codigo)) puntaje += 50;
+      else if (entrada.codigo.contains(codigo)) puntaje += 20;
+    }
+    for (String termino : terminos) {
+      if (entrada.descripcion.startsWith(termino)) puntaje += 10;
+      else if (entrada.descripcion.contains(" " + termino)) puntaje += 6;
+      else if (entrada.descripcion.contains(termino)) puntaje += 2;
+    }
+    return puntaje;
+  }
+
+  private void agregarEntrada(long idProducto, String codigo, String descripcion) {
+    var entrada = new EntradaIndice(
+            codigo != null ? normalizar(codigo) : "", descripcion != null ? normalizar(descripcion) : "");
+    entradas.put(idProducto, entrada);
+    getNgramas(entrada.codigo).forEach(n -> ngramasCodigo.computeIfAbsent(n, k -> new HashSet<>()).add(idProducto));
+    getNgramas(entrada.descripcion).forEach(n -> ngramasDescripcion.computeIfAbsent(n, k -> new HashSet<>()).add(idProducto));
+  }
+
+  private void quitarEntrada(long idProducto) {
+    var entrada = entradas.remove(idProducto);
+    if (entrada != null) {
+      quitarNgramas(idProducto, getNgramas(entrada.codigo), ngramasCodigo);
+      quitarNgramas(idProducto, getNgramas(entrada.descripcion), ngramasDescripcion);
+    }
+  }
+
+  private static void quitarNgramas(long idProducto, Set<String> ngramasEntrada, Map<String, Set<Long>> ngramas) {
+    ngramasEntrada.forEach(n -> {
+      var ids = ngramas.get(n);
+      if (ids != null) {
+        ids.remove(idProducto);
+        if (ids.isEmpty()) ngramas.remove(n);
+      }
+    });
+  }
+
+  private void ejecutarLuegoDelCommit(Runnable accion) {
+    if (!indiceCargado) return;
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          accion.run();
+        }
+      });
+    } else {
+      accion.run();
+    }
+  }
+
+  static String normalizar(String texto) {
+    return MARCAS_DIACRITICAS
+            .matcher(Normalizer.normalize(texto, Normalizer.Form.NFD))
+            .replaceAll("")
+            .toLowerCase(Locale.ROOT);
+  }
+
+  static List<String> getTerminos(String descripcion) {
+    return Arrays.stream(normalizar(descripcion).split(" "))
+            .filter(termino -> !termino.isEmpty())
+            .toList();
+  }
+
+  static Set<String> getNgramas(String texto) {
+    var ngramas = new HashSet<String>();
+    for (int i = 0; i + LONGITUD_NGRAMA <= texto.length(); i++) {
+      ngramas.add(texto.substring(i, i + LONGITUD_NGRAMA));
+    }
+    return ngramas;
+  }
+
+  private static final class EntradaIndice {
+
+    private final String codigo;
+    private final String descripcion;
+
+    private EntradaIndice(String codigo, String descripcion) {
+      this.codigo = codigo;
+      this.descripcion = descripcion;
+    }
+  }
+}
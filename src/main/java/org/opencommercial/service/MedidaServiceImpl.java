@@ -2,12 +2,15 @@ package org.opencommercial.service;
 
 import jakarta.persistence.EntityNotFoundException;
 import lombok.extern.slf4j.Slf4j;
+import org.opencommercial.config.CacheConfig;
 import org.opencommercial.exception.BusinessServiceException;
 import org.opencommercial.model.Medida;
 import org.opencommercial.model.TipoDeOperacion;
 import org.opencommercial.repository.MedidaRepository;
 import org.opencommercial.util.CustomValidator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.MessageSource;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -35,6 +38,7 @@ public class MedidaServiceImpl implements MedidaService {
   }
 
   @Override
+  @Cacheable(CacheConfig.MEDIDAS)
   public Medida getMedidaNoEliminadaPorId(Long idMedida) {
     Optional<Medida> medida = medidaRepository
       .findById(idMedida);
@@ -47,6 +51,7 @@ public class MedidaServiceImpl implements MedidaService {
   }
 
   @Override
+  @Cacheable(CacheConfig.MEDIDAS)
   public List<Medida> getUnidadMedidas() {
     return medidaRepository.findAllByAndEliminadaOrderByNombreAsc(false);
   }
@@ -74,6 +79,7 @@ public class MedidaServiceImpl implements MedidaService {
   }
 
   @Override
+  @CacheEvict(cacheNames = CacheConfig.MEDIDAS, allEntries = true)
   @Transactional
   public void actualizar(Medida medida) {
     customValidator.validar(medida);
@@ -82,6 +88,7 @@ public class MedidaServiceImpl implements MedidaService {
   }
 
   @Override
+  @CacheEvict(cacheNames = CacheConfig.MEDIDAS, allEntries = true)
   @Transactional
   public Medida guardar(Medida medida) {
     customValidator.validar(medida);
@@ -92,6 +99,7 @@ public class MedidaServiceImpl implements MedidaService {
   }
 
   @Override
+  @CacheEvict(cacheNames = CacheConfig.MEDIDAS, allEntries = true)
   @Transactional
   public void eliminar(long idMedida) {
     Medida medida = this.getMedidaNoEliminadaPorId(idMedida);
@@ -374,9 +374,8 @@ public class MercadoPagoPaymentServiceImpl implements PaymentService {
             .motivo("Devolución de pago por MercadoPago")
             .tipoDeComprobante(notaService.getTipoNotaDebitoCliente(idCliente, idSucursal).getFirst())
             .build();
-    var notaGuardada = notaService.guardarNotaDebito(notaService.calcularNotaDebitoConRecibo(nuevaNotaDebitoDeReciboDTO, usuarioCliente));
-    var facturaElectronicaHabilitada = notaGuardada.getSucursal().getConfiguracionSucursal().isFacturaElectronicaHabilitada();
-    if (facturaElectronicaHabilitada) notaService.autorizarNota(notaGuardada);
+    // guardarNotaDebito encola la autorizacion de la nota cuando corresponde
+    notaService.guardarNotaDebito(notaService.calcularNotaDebitoConRecibo(nuevaNotaDebitoDeReciboDTO, usuarioCliente));
   }
 
   private Pedido crearPedidoPorPreference(
@@ -391,13 +390,10 @@ public class MercadoPagoPaymentServiceImpl implements PaymentService {
     pedido.setSucursal(sucursal);
     pedido.setUsuario(usuario);
     pedido.setCliente(cliente);
-    List<RenglonPedido> renglonesPedido = new ArrayList<>();
-    items.forEach(
-        i ->
-            renglonesPedido.add(
-                pedidoService.calcularRenglonPedido(
-                    i.getProducto().getIdProducto(), i.getCantidad())));
-    pedido.setRenglones(renglonesPedido);
+    pedido.setRenglones(
+        pedidoService.calcularRenglonesPedido(
+            items.stream().mapToLong(i -> i.getProducto().getIdProducto()).toArray(),
+            items.stream().map(ItemCarritoCompra::getCantidad).toArray(BigDecimal[]::new)));
     pedido.setTipoDeEnvio(tipoDeEnvio);
     pedido.setFecha(LocalDateTime.now());
     return pedidoService.guardar(pedido, Collections.emptyList());
@@ -6,7 +6,7 @@ import org.opencommercial.model.dto.NuevaNotaCreditoDeFacturaDTO;
 import org.opencommercial.model.dto.NuevaNotaCreditoSinFacturaDTO;
 import org.opencommercial.model.dto.NuevaNotaDebitoDeReciboDTO;
 import org.opencommercial.model.dto.NuevaNotaDebitoSinReciboDTO;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -27,7 +27,9 @@ public interface NotaService {
 
   boolean existsByFacturaVentaAndEliminada(FacturaVenta facturaVenta);
 
-  Nota autorizarNota(Nota nota);
+  ComprobanteAutorizableAFIP construirComprobanteAutorizable(long idNota);
+
+  void asignarAutorizacion(long idNota, ComprobanteAutorizableAFIP comprobanteAutorizableAFIP);
 
   byte[] getReporteNota(Nota nota);
 
@@ -35,9 +37,9 @@ public interface NotaService {
 
   void eliminarNota(long idNota);
 
-  Page<NotaCredito> buscarNotasCredito(BusquedaNotaCriteria busquedaNotaCriteria, long idUsuarioLoggedIn);
+  Slice<NotaCredito> buscarNotasCredito(BusquedaNotaCriteria busquedaNotaCriteria, long idUsuarioLoggedIn);
 
-  Page<NotaDebito> buscarNotasDebito(BusquedaNotaCriteria busquedaNotaCriteria, long idUsuarioLoggedIn);
+  Slice<NotaDebito> buscarNotasDebito(BusquedaNotaCriteria busquedaNotaCriteria, long idUsuarioLoggedIn);
 
   Factura getFacturaDeLaNotaCredito(Long idNota);
 
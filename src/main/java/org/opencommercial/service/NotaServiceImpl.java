@@ -16,23 +16,23 @@ import org.opencommercial.repository.NotaDebitoRepository;
 import org.opencommercial.repository.NotaRepository;
 import org.opencommercial.util.CustomValidator;
 import org.opencommercial.util.FormatoReporte;
+import org.opencommercial.util.ImagenesReporteHandler;
 import org.opencommercial.util.JasperReportsHandler;
+import org.opencommercial.util.PaginadorPorCursor;
+import org.opencommercial.util.PaginadorSinConteo;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.MessageSource;
 import org.springframework.context.annotation.Lazy;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import javax.imageio.ImageIO;
-import javax.swing.*;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.net.URL;
 import java.time.LocalDateTime;
 import java.util.*;
 
@@ -53,7 +53,6 @@ public class NotaServiceImpl implements NotaService {
   private final ProductoService productoService;
   private final CuentaCorrienteService cuentaCorrienteService;
   private final PaymentService paymentService;
-  private final TaxationService taxationService;
   private static final BigDecimal IVA_21 = new BigDecimal("21");
   private static final BigDecimal IVA_105 = new BigDecimal("10.5");
   private static final BigDecimal CIEN = new BigDecimal("100");
@@ -63,6 +62,11 @@ public class NotaServiceImpl implements NotaService {
   private final MessageSource messageSource;
   private final CustomValidator customValidator;
   private final JasperReportsHandler jasperReportsHandler;
+  private final ImagenesReporteHandler imagenesReporteHandler;
+  private final NumeradorComprobanteService numeradorComprobanteService;
+  private final AutorizacionComprobanteService autorizacionComprobanteService;
+  private final PaginadorPorCursor paginadorPorCursor;
+  private final PaginadorSinConteo paginadorSinConteo;
 
   @Autowired
   @Lazy
@@ -80,10 +84,14 @@ public class NotaServiceImpl implements NotaService {
           SucursalService sucursalService,
           CuentaCorrienteService cuentaCorrienteService,
           PaymentService paymentService,
-          TaxationService taxationService,
           MessageSource messageSource,
           CustomValidator customValidator,
-          JasperReportsHandler jasperReportsHandler) {
+          JasperReportsHandler jasperReportsHandler,
+          ImagenesReporteHandler imagenesReporteHandler,
+          NumeradorComprobanteService numeradorComprobanteService,
+          AutorizacionComprobanteService autorizacionComprobanteService,
+          PaginadorPorCursor paginadorPorCursor,
+          PaginadorSinConteo paginadorSinConteo) {
     this.notaRepository = notaRepository;
     this.notaCreditoRepository = notaCreditoRepository;
     this.notaDebitoRepository = notaDebitoRepository;
@@ -97,10 +105,14 @@ public class NotaServiceImpl implements NotaService {
     this.productoService = productoService;
     this.cuentaCorrienteService = cuentaCorrienteService;
     this.paymentService = paymentService;
-    this.taxationService = taxationService;
     this.messageSource = messageSource;
     this.customValidator = customValidator;
     this.jasperReportsHandler = jasperReportsHandler;
+    this.imagenesReporteHandler = imagenesReporteHandler;
+    this.numeradorComprobanteService = numeradorComprobanteService;
+    this.autorizacionComprobanteService = autorizacionComprobanteService;
+    this.paginadorPorCursor = paginadorPorCursor;
+    this.paginadorSinConteo = paginadorSinConteo;
   }
 
   @Override
@@ -151,29 +163,39 @@ public class NotaServiceImpl implements NotaService {
   }
 
   @Override
-  public Page<NotaCredito> buscarNotasCredito(
+  public Slice<NotaCredito> buscarNotasCredito(
     BusquedaNotaCriteria busquedaNotaCriteria, long idUsuarioLoggedIn) {
-    return notaCreditoRepository.findAll(
-        this.getBuilderNotaCredito(busquedaNotaCriteria, idUsuarioLoggedIn),
-        this.getPageable(
-            (busquedaNotaCriteria.getPagina() == null || busquedaNotaCriteria.getPagina() < 0)
-                ? 0
-                : busquedaNotaCriteria.getPagina(),
-            busquedaNotaCriteria.getOrdenarPor(),
-            busquedaNotaCriteria.getSentido()));
+    var builder = this.getBuilderNotaCredito(busquedaNotaCriteria, idUsuarioLoggedIn);
+    var pageable = this.getPageable(
+        (busquedaNotaCriteria.getPagina() == null || busquedaNotaCriteria.getPagina() < 0)
+            ? 0
+            : busquedaNotaCriteria.getPagina(),
+        busquedaNotaCriteria.getOrdenarPor(),
+        busquedaNotaCriteria.getSentido());
+    if (busquedaNotaCriteria.isPorCursor() || busquedaNotaCriteria.getDespuesDe() != null) {
+      return paginadorPorCursor.buscar(
+          notaCreditoRepository, NotaCredito.class, "idNota", builder, pageable, busquedaNotaCriteria.getDespuesDe());
+    }
+    if (busquedaNotaCriteria.isSinTotal()) return paginadorSinConteo.buscar(NotaCredito.class, builder, pageable);
+    return paginadorSinConteo.buscarConTotal(notaCreditoRepository, NotaCredito.class, builder, pageable);
   }
 
   @Override
-  public Page<NotaDebito> buscarNotasDebito(
+  public Slice<NotaDebito> buscarNotasDebito(
       BusquedaNotaCriteria busquedaNotaCriteria, long idUsuarioLoggedIn) {
-    return notaDebitoRepository.findAll(
-        this.getBuilderNotaDebito(busquedaNotaCriteria, idUsuarioLoggedIn),
-        this.getPageable(
-            (busquedaNotaCriteria.getPagina() == null || busquedaNotaCriteria.getPagina() < 0)
-                ? 0
-                : busquedaNotaCriteria.getPagina(),
-            busquedaNotaCriteria.getOrdenarPor(),
-            busquedaNotaCriteria.getSentido()));
+    var builder = this.getBuilderNotaDebito(busquedaNotaCriteria, idUsuarioLoggedIn);
+    var pageable = this.getPageable(
+        (busquedaNotaCriteria.getPagina() == null || busquedaNotaCriteria.getPagina() < 0)
+            ? 0
+            : busquedaNotaCriteria.getPagina(),
+        busquedaNotaCriteria.getOrdenarPor(),
+        busquedaNotaCriteria.getSentido());
+    if (busquedaNotaCriteria.isPorCursor() || busquedaNotaCriteria.getDespuesDe() != null) {
+      return paginadorPorCursor.buscar(
+          notaDebitoRepository, NotaDebito.class, "idNota", builder, pageable, busquedaNotaCriteria.getDespuesDe());
+    }
+    if (busquedaNotaCriteria.isSinTotal()) return paginadorSinConteo.buscar(NotaDebito.class, builder, pageable);
+    return paginadorSinConteo.buscarConTotal(notaDebitoRepository, NotaDebito.class, builder, pageable);
   }
 
   private Pageable getPageable(Integer pagina, String ordenarPor, String sentido) {
@@ -471,24 +493,22 @@ public class NotaServiceImpl implements NotaService {
   public long getSiguienteNumeroNotaDebitoCliente(
       Long idSucursal, TipoDeComprobante tipoDeComprobante) {
     Sucursal sucursal = sucursalService.getSucursalPorId(idSucursal);
-    Long numeroNota =
-        notaDebitoRepository.buscarMayorNumNotaDebitoClienteSegunTipo(
-            tipoDeComprobante,
-            sucursal.getConfiguracionSucursal().getNroPuntoDeVentaAfip(),
-            idSucursal);
-    return (numeroNota == null) ? 1 : numeroNota + 1;
+    long serie = sucursal.getConfiguracionSucursal().getNroPuntoDeVentaAfip();
+    return numeradorComprobanteService.asignarSiguienteNumero(idSucursal, tipoDeComprobante, serie, () -> {
+      Long numeroNota = notaDebitoRepository.buscarMayorNumNotaDebitoClienteSegunTipo(tipoDeComprobante, serie, idSucursal);
+      return (numeroNota == null) ? 0 : numeroNota;
+    });
   }
 
   @Override
   public long getSiguienteNumeroNotaCreditoCliente(
       Long idSucursal, TipoDeComprobante tipoDeComprobante) {
     Sucursal sucursal = sucursalService.getSucursalPorId(idSucursal);
-    Long numeroNota =
-        notaCreditoRepository.buscarMayorNumNotaCreditoClienteSegunTipo(
-            tipoDeComprobante,
-            sucursal.getConfiguracionSucursal().getNroPuntoDeVentaAfip(),
-            idSucursal);
-    return (numeroNota == null) ? 1 : numeroNota + 1;
+    long serie = sucursal.getConfiguracionSucursal().getNroPuntoDeVentaAfip();
+    return numeradorComprobanteService.asignarSiguienteNumero(idSucursal, tipoDeComprobante, serie, () -> {
+      Long numeroNota = notaCreditoRepository.buscarMayorNumNotaCreditoClienteSegunTipo(tipoDeComprobante, serie, idSucursal);
+      return (numeroNota == null) ? 0 : numeroNota;
+    });
   }
 
   @Override
@@ -696,7 +716,8 @@ public class NotaServiceImpl implements NotaService {
     var facturaElectronicaHabilitada = notaCredito.getSucursal().getConfiguracionSucursal().isFacturaElectronicaHabilitada();
     if (facturaElectronicaHabilitada && notaCredito.getMovimiento().equals(Movimiento.VENTA)) {
       var tiposAutorizables = Arrays.asList(TipoDeComprobante.NOTA_CREDITO_A, TipoDeComprobante.NOTA_CREDITO_B, TipoDeComprobante.NOTA_CREDITO_C);
-      if (tiposAutorizables.contains(notaCredito.getTipoComprobante())) this.autorizarNota(notaCredito);
+      if (tiposAutorizables.contains(notaCredito.getTipoComprobante()))
+        autorizacionComprobanteService.encolar(DocumentoAutorizable.NOTA, notaCredito.getIdNota());
     }
     log.info("La nota de crédito se guardó correctamente. {}", notaCredito);
     return notaCredito;
@@ -1046,45 +1067,55 @@ public class NotaServiceImpl implements NotaService {
     var facturaElectronicaHabilitada = notaDebito.getSucursal().getConfiguracionSucursal().isFacturaElectronicaHabilitada();
     if (facturaElectronicaHabilitada) {
       var tiposAutorizables = Arrays.asList(TipoDeComprobante.NOTA_DEBITO_A, TipoDeComprobante.NOTA_DEBITO_B, TipoDeComprobante.NOTA_DEBITO_C);
-      if (tiposAutorizables.contains(notaDebito.getTipoComprobante())) this.autorizarNota(notaDebito);
+      if (tiposAutorizables.contains(notaDebito.getTipoComprobante()))
+        autorizacionComprobanteService.encolar(DocumentoAutorizable.NOTA, notaDebito.getIdNota());
     }
     log.info("La nota de debito se guardó correctamente. {}", notaDebito);
     return notaDebito;
   }
 
+  @Override
+  @Transactional(readOnly = true)
+  public ComprobanteAutorizableAFIP construirComprobanteAutorizable(long idNota) {
+    return this.crearComprobanteAutorizable(this.getNotaNoEliminadaPorId(idNota));
+  }
+
   @Override
   @Transactional
-  public Nota autorizarNota(Nota nota) {
+  public void asignarAutorizacion(long idNota, ComprobanteAutorizableAFIP comprobanteAutorizableAFIP) {
+    this.asignarAutorizacion(this.getNotaNoEliminadaPorId(idNota), comprobanteAutorizableAFIP);
+  }
+
+  private ComprobanteAutorizableAFIP crearComprobanteAutorizable(Nota nota) {
     if (!nota.getMovimiento().equals(Movimiento.VENTA)) {
       throw new BusinessServiceException(
               messageSource.getMessage("mensaje_comprobante_AFIP_invalido", null, Locale.getDefault()));
-    } else {
-      var cliente = nota.getCliente();
-      var montoNoGravado = (nota instanceof NotaDebito notaDebito) ? notaDebito.getMontoNoGravado() : BigDecimal.ZERO;
-      var comprobanteAutorizableAFIP =
-              ComprobanteAutorizableAFIP.builder()
-                      .idComprobante(nota.getIdNota())
-                      .fecha(nota.getFecha())
-                      .tipoComprobante(nota.getTipoComprobante())
-                      .cae(nota.getCae())
-                      .vencimientoCAE(nota.getVencimientoCae())
-                      .numSerieAfip(nota.getNumSerieAfip())
-                      .numFacturaAfip(nota.getNumNotaAfip())
-                      .sucursal(nota.getSucursal())
-                      .cliente(clienteService.crearClienteEmbedded(cliente))
-                      .subtotalBruto(nota.getSubTotalBruto())
-                      .iva105neto(nota.getIva105Neto())
-                      .iva21neto(nota.getIva21Neto())
-                      .montoNoGravado(montoNoGravado)
-                      .total(nota.getTotal())
-                      .build();
-      taxationService.autorizar(comprobanteAutorizableAFIP);
-      nota.setCae(comprobanteAutorizableAFIP.getCae());
-      nota.setVencimientoCae(comprobanteAutorizableAFIP.getVencimientoCAE());
-      nota.setNumSerieAfip(comprobanteAutorizableAFIP.getNumSerieAfip());
-      nota.setNumNotaAfip(comprobanteAutorizableAFIP.getNumFacturaAfip());
     }
-    return nota;
+    var cliente = nota.getCliente();
+    var montoNoGravado = (nota instanceof NotaDebito notaDebito) ? notaDebito.getMontoNoGravado() : BigDecimal.ZERO;
+    return ComprobanteAutorizableAFIP.builder()
+            .idComprobante(nota.getIdNota())
+            .fecha(nota.getFecha())
+            .tipoComprobante(nota.getTipoComprobante())
+            .cae(nota.getCae())
+            .vencimientoCAE(nota.getVencimientoCae())
+            .numSerieAfip(nota.getNumSerieAfip())
+            .numFacturaAfip(nota.getNumNotaAfip())
+            .sucursal(nota.getSucursal())
+            .cliente(clienteService.crearClienteEmbedded(cliente))
+            .subtotalBruto(nota.getSubTotalBruto())
+            .iva105neto(nota.getIva105Neto())
+            .iva21neto(nota.getIva21Neto())
+            .montoNoGravado(montoNoGravado)
+            .total(nota.getTotal())
+            .build();
+  }
+
+  private void asignarAutorizacion(Nota nota, ComprobanteAutorizableAFIP comprobanteAutorizableAFIP) {
+    nota.setCae(comprobanteAutorizableAFIP.getCae());
+    nota.setVencimientoCae(comprobanteAutorizableAFIP.getVencimientoCAE());
+    nota.setNumSerieAfip(comprobanteAutorizableAFIP.getNumSerieAfip());
+    nota.setNumNotaAfip(comprobanteAutorizableAFIP.getNumFacturaAfip());
   }
 
   @Override
@@ -1147,7 +1178,7 @@ public class NotaServiceImpl implements NotaService {
     }
     if (nota.getSucursal().getLogo() != null && !nota.getSucursal().getLogo().isEmpty()) {
       try {
-        params.put("logo", new ImageIcon(ImageIO.read(new URL(nota.getSucursal().getLogo()))).getImage());
+        params.put("logo", imagenesReporteHandler.getImagen(nota.getSucursal().getLogo()));
       } catch (IOException ex) {
         throw new ServiceException(
                 messageSource.getMessage("mensaje_sucursal_404_logo", null, Locale.getDefault()), ex);
@@ -1179,8 +1210,9 @@ public class NotaServiceImpl implements NotaService {
     List<RenglonNotaCredito> renglonesNota = new ArrayList<>();
     RenglonNotaCredito renglonNota;
     if (cantidad.length == idRenglonFactura.length) {
+      Map<Long, RenglonFactura> renglonesFactura = facturaService.getRenglonesFactura(idRenglonFactura);
       for (int i = 0; i < idRenglonFactura.length; i++) {
-        RenglonFactura renglonFactura = facturaService.getRenglonFactura(idRenglonFactura[i]);
+        RenglonFactura renglonFactura = renglonesFactura.get(idRenglonFactura[i]);
         if (renglonFactura.getCantidad().compareTo(cantidad[i]) < 0
             || cantidad[i].compareTo(BigDecimal.ZERO) < 0) {
           throw new BusinessServiceException(
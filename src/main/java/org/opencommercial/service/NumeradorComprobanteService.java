@@ -0,0 +1,11 @@
+package org.opencommercial.service;
+
+import org.opencommercial.model.TipoDeComprobante;
+
+import java.util.function.LongSupplier;
+
+public interface NumeradorComprobanteService {
+
+  long asignarSiguienteNumero(long idSucursal, TipoDeComprobante tipoDeComprobante, long serie,
+                              LongSupplier ultimoNumeroRegistrado);
+}
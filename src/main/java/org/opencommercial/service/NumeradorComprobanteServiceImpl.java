@@ -0,0 +1,41 @@
+package org.opencommercial.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.opencommercial.model.NumeradorComprobante;
+import org.opencommercial.model.TipoDeComprobante;
+import org.opencommercial.repository.NumeradorComprobanteRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.function.LongSupplier;
+
+@Service
+@Slf4j
+public class NumeradorComprobanteServiceImpl implements NumeradorComprobanteService {
+
+  private final NumeradorComprobanteRepository numeradorComprobanteRepository;
+
+  @Autowired
+  public NumeradorComprobanteServiceImpl(NumeradorComprobanteRepository numeradorComprobanteRepository) {
+    this.numeradorComprobanteRepository = numeradorComprobanteRepository;
+  }
+
+  // El numerador queda bloqueado hasta el fin de la transaccion que guarda el comprobante,
+  // si esta se revierte el numero no se consume y la numeracion no tiene huecos.
+  @Override
+  @Transactional
+  public long asignarSiguienteNumero(long idSucursal, TipoDeComprobante tipoDeComprobante, long serie,
+                                     LongSupplier ultimoNumeroRegistrado) {
+    // la lectura con lock de una fila inexistente bloquearia el hueco del indice, por eso primero se crea
+    if (!numeradorComprobanteRepository.existsByIdSucursalAndTipoComprobanteAndSerie(idSucursal, tipoDeComprobante, serie)) {
+      numeradorComprobanteRepository.crearSiNoExiste(
+          idSucursal, tipoDeComprobante.name(), serie, ultimoNumeroRegistrado.getAsLong());
+      log.info("Numerador creado para la sucursal {}, {} serie {}.", idSucursal, tipoDeComprobante, serie);
+    }
+    NumeradorComprobante numerador =
+        numeradorComprobanteRepository.findParaActualizar(idSucursal, tipoDeComprobante, serie).orElseThrow();
+    numerador.setUltimoNumero(numerador.getUltimoNumero() + 1);
+    return numerador.getUltimoNumero();
+  }
+}
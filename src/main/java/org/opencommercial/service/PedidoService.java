@@ -5,7 +5,7 @@ import org.opencommercial.model.*;
 import org.opencommercial.model.criteria.BusquedaPedidoCriteria;
 import org.opencommercial.model.dto.NuevoRenglonPedidoDTO;
 import org.opencommercial.model.dto.NuevosResultadosComprobanteDTO;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -22,7 +22,7 @@ public interface PedidoService {
 
     void actualizarFacturasDelPedido(Pedido pedido, List<Factura> facturas);
 
-    Page<Pedido> buscarPedidos(BusquedaPedidoCriteria criteria, long idUsuarioLoggedIn);
+    Slice<Pedido> buscarPedidos(BusquedaPedidoCriteria criteria, long idUsuarioLoggedIn);
 
     BooleanBuilder getBuilderPedido(BusquedaPedidoCriteria criteria, long idUsuarioLoggedIn);
 
@@ -17,48 +17,53 @@ import org.opencommercial.repository.RenglonPedidoRepository;
 import org.opencommercial.util.CalculosComprobante;
 import org.opencommercial.util.CustomValidator;
 import org.opencommercial.util.FormatoReporte;
+import org.opencommercial.util.ImagenesReporteHandler;
 import org.opencommercial.util.JasperReportsHandler;
+import org.opencommercial.util.PaginadorPorCursor;
+import org.opencommercial.util.PaginadorSinConteo;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.MessageSource;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import javax.imageio.ImageIO;
-import javax.swing.*;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.net.URL;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 public class PedidoServiceImpl implements PedidoService {
 
-  @Value("${EMAIL_DEFAULT_PROVIDER}")
-  private String emailDefaultProvider;
-
   private final PedidoRepository pedidoRepository;
   private final RenglonPedidoRepository renglonPedidoRepository;
   private final UsuarioService usuarioService;
   private final ClienteService clienteService;
   private final ProductoService productoService;
-  private final EmailServiceFactory emailServiceFactory;
+  private final EnvioEmailService envioEmailService;
   private final ReciboService reciboService;
   private final CuentaCorrienteService cuentaCorrienteService;
   private final ModelMapper modelMapper;
   private static final BigDecimal CIEN = new BigDecimal("100");
   private static final int TAMANIO_PAGINA_DEFAULT = 25;
+  private static final int TAMANIO_LOTE_PEDIDOS_VENCIDOS = 50;
   private final MessageSource messageSource;
+  private final GeneradorIdentificadorService generadorIdentificadorService;
   private final CustomValidator customValidator;
   private final JasperReportsHandler jasperReportsHandler;
+  private final ImagenesReporteHandler imagenesReporteHandler;
+  private final TransactionTemplate transactionTemplate;
+  private final PaginadorPorCursor paginadorPorCursor;
+  private final PaginadorSinConteo paginadorSinConteo;
 
   @Autowired
   public PedidoServiceImpl(
@@ -67,25 +72,35 @@ public class PedidoServiceImpl implements PedidoService {
           UsuarioService usuarioService,
           ClienteService clienteService,
           ProductoService productoService,
-          EmailServiceFactory emailServiceFactory,
+          EnvioEmailService envioEmailService,
           ReciboService reciboService,
           CuentaCorrienteService cuentaCorrienteService,
           ModelMapper modelMapper,
           MessageSource messageSource,
+          GeneradorIdentificadorService generadorIdentificadorService,
           CustomValidator customValidator,
-          JasperReportsHandler jasperReportsHandler) {
+          JasperReportsHandler jasperReportsHandler,
+          ImagenesReporteHandler imagenesReporteHandler,
+          PlatformTransactionManager transactionManager,
+          PaginadorPorCursor paginadorPorCursor,
+          PaginadorSinConteo paginadorSinConteo) {
     this.pedidoRepository = pedidoRepository;
     this.renglonPedidoRepository = renglonPedidoRepository;
     this.usuarioService = usuarioService;
     this.clienteService = clienteService;
     this.productoService = productoService;
-    this.emailServiceFactory = emailServiceFactory;
+    this.envioEmailService = envioEmailService;
     this.reciboService = reciboService;
     this.cuentaCorrienteService = cuentaCorrienteService;
     this.modelMapper = modelMapper;
     this.messageSource = messageSource;
+    this.generadorIdentificadorService = generadorIdentificadorService;
     this.customValidator = customValidator;
     this.jasperReportsHandler = jasperReportsHandler;
+    this.imagenesReporteHandler = imagenesReporteHandler;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.paginadorPorCursor = paginadorPorCursor;
+    this.paginadorSinConteo = paginadorSinConteo;
   }
 
   @Override
@@ -158,15 +173,9 @@ public class PedidoServiceImpl implements PedidoService {
 
   @Override
   public long generarNumeroPedido(Sucursal sucursal) {
-    long min = 1L;
-    long max = 9999999999L; // 10 digitos
-    long randomLong = 0L;
-    boolean esRepetido = true;
-    while (esRepetido) {
-      randomLong = min + (long) (Math.random() * (max - min));
-      esRepetido = pedidoRepository.existsByNroPedidoAndSucursal(randomLong, sucursal);
-    }
-    return randomLong;
+    return generadorIdentificadorService.generarIdentificador(
+            TipoIdentificador.PEDIDO, String.valueOf(sucursal.getIdSucursal()),
+            nroPedido -> pedidoRepository.existsByNroPedidoAndSucursal(nroPedido, sucursal));
   }
 
   @Override
@@ -203,14 +212,13 @@ public class PedidoServiceImpl implements PedidoService {
     if (pedido.getObservaciones() == null || pedido.getObservaciones().equals("")) {
       pedido.setObservaciones("Los precios se encuentran sujetos a modificaciones.");
     }
+    Map<Long, Producto> productos = productoService.getProductosParaCalcularRenglones(
+        pedido.getRenglones().stream().map(RenglonPedido::getIdProductoItem).collect(Collectors.toSet()));
     pedido
         .getRenglones()
         .forEach(
             renglonPedido ->
-                renglonPedido.setUrlImagenItem(
-                    productoService
-                        .getProductoNoEliminadoPorId(renglonPedido.getIdProductoItem())
-                        .getUrlImagen()));
+                renglonPedido.setUrlImagenItem(productos.get(renglonPedido.getIdProductoItem()).getUrlImagen()));
     pedido.setEstado(EstadoPedido.ABIERTO);
     this.validarReglasDeNegocio(TipoDeOperacion.ALTA, pedido);
     productoService.actualizarStockPedido(pedido, TipoDeOperacion.ALTA);
@@ -219,20 +227,21 @@ public class PedidoServiceImpl implements PedidoService {
     log.info("El pedido se guardó correctamente. {}", pedido);
     String emailCliente = pedido.getCliente().getEmail();
     if (emailCliente != null && !emailCliente.isEmpty()) {
-      emailServiceFactory.getEmailService(emailDefaultProvider)
-              .enviarEmail(
-                      emailCliente,
-                      "",
-                      "Nuevo Pedido Ingresado",
-                      messageSource.getMessage(
-                              "mensaje_correo_pedido_recibido",
-                              new Object[]{
-                                      pedido.getCliente().getNombreFiscal(), "Pedido Nº " + pedido.getNroPedido()
-                              },
-                              Locale.getDefault()),
-                      this.getReportePedido(pedido.getIdPedido()),
-                      "Pedido.pdf");
-      log.info("Se envió el mail con el pedido. {}", pedido);
+      envioEmailService.encolar(EnvioEmail.builder()
+              .destinatario(emailCliente)
+              .bcc("")
+              .asunto("Nuevo Pedido Ingresado")
+              .mensaje(messageSource.getMessage(
+                      "mensaje_correo_pedido_recibido",
+                      new Object[]{
+                              pedido.getCliente().getNombreFiscal(), "Pedido Nº " + pedido.getNroPedido()
+                      },
+                      Locale.getDefault()))
+              .adjunto(AdjuntoEmail.PEDIDO)
+              .idDocumentoAdjunto(pedido.getIdPedido())
+              .nombreAdjunto("Pedido.pdf")
+              .build());
+      log.info("Se encoló el mail con el pedido. {}", pedido);
     }
     return pedido;
   }
@@ -311,15 +320,20 @@ public class PedidoServiceImpl implements PedidoService {
   }
 
   @Override
-  public Page<Pedido> buscarPedidos(BusquedaPedidoCriteria criteria, long idUsuarioLoggedIn) {
-    return pedidoRepository.findAll(
-            this.getBuilderPedido(criteria, idUsuarioLoggedIn),
-            this.getPageable(
-                    (criteria.getPagina() == null || criteria.getPagina() < 0)
-                            ? 0
-                            : criteria.getPagina(),
-                    criteria.getOrdenarPor(),
-                    criteria.getSentido()));
+  public Slice<Pedido> buscarPedidos(BusquedaPedidoCriteria criteria, long idUsuarioLoggedIn) {
+    var builder = this.getBuilderPedido(criteria, idUsuarioLoggedIn);
+    var pageable = this.getPageable(
+            (criteria.getPagina() == null || criteria.getPagina() < 0)
+                    ? 0
+                    : criteria.getPagina(),
+            criteria.getOrdenarPor(),
+            criteria.getSentido());
+    if (criteria.isPorCursor() || criteria.getDespuesDe() != null) {
+      return paginadorPorCursor.buscar(
+              pedidoRepository, Pedido.class, "idPedido", builder, pageable, criteria.getDespuesDe());
+    }
+    if (criteria.isSinTotal()) return paginadorSinConteo.buscar(Pedido.class, builder, pageable);
+    return paginadorSinConteo.buscarConTotal(pedidoRepository, Pedido.class, builder, pageable);
   }
 
   @Override
@@ -549,7 +563,7 @@ public class PedidoServiceImpl implements PedidoService {
     params.put("pedido", pedido);
     if (pedido.getSucursal().getLogo() != null && !pedido.getSucursal().getLogo().isEmpty()) {
       try {
-        params.put("logo", new ImageIcon(ImageIO.read(new URL(pedido.getSucursal().getLogo()))).getImage());
+        params.put("logo", imagenesReporteHandler.getImagen(pedido.getSucursal().getLogo()));
       } catch (IOException ex) {
         throw new ServiceException(messageSource.getMessage(
           "mensaje_sucursal_404_logo", null, Locale.getDefault()), ex);
@@ -568,13 +582,35 @@ public class PedidoServiceImpl implements PedidoService {
 
   @Override
   public RenglonPedido calcularRenglonPedido(long idProducto, BigDecimal cantidad) {
-    if (cantidad.compareTo(BigDecimal.ZERO) <= 0) {
+    return this.calcularRenglonesPedido(new long[] {idProducto}, new BigDecimal[] {cantidad}).get(0);
+  }
+
+  @Override
+  public List<RenglonPedido> calcularRenglonesPedido(long[] idProductoItem, BigDecimal[] cantidad) {
+    if (idProductoItem.length != cantidad.length) {
       throw new BusinessServiceException(
           messageSource.getMessage(
-              "mensaje_producto_cantidad_igual_menor_cero", null, Locale.getDefault()));
+              "mensaje_pedido_renglones_parametros_no_validos", null, Locale.getDefault()));
     }
+    for (BigDecimal cantidadRenglon : cantidad) {
+      if (cantidadRenglon.compareTo(BigDecimal.ZERO) <= 0) {
+        throw new BusinessServiceException(
+            messageSource.getMessage(
+                "mensaje_producto_cantidad_igual_menor_cero", null, Locale.getDefault()));
+      }
+    }
+    // los productos de todos los renglones se obtienen con una sola consulta
+    Map<Long, Producto> productos = productoService.getProductosParaCalcularRenglones(
+        Arrays.stream(idProductoItem).boxed().collect(Collectors.toSet()));
+    List<RenglonPedido> renglones = new ArrayList<>();
+    for (int i = 0; i < idProductoItem.length; ++i) {
+      renglones.add(this.calcularRenglonPedido(productos.get(idProductoItem[i]), cantidad[i]));
+    }
+    return renglones;
+  }
+
+  private RenglonPedido calcularRenglonPedido(Producto producto, BigDecimal cantidad) {
     RenglonPedido nuevoRenglon = new RenglonPedido();
-    Producto producto = productoService.getProductoNoEliminadoPorId(idProducto);
     nuevoRenglon.setIdProductoItem(producto.getIdProducto());
     nuevoRenglon.setCantidad(cantidad);
     nuevoRenglon.setCodigoItem(producto.getCodigo());
@@ -610,20 +646,6 @@ public class PedidoServiceImpl implements PedidoService {
     return nuevoRenglon;
   }
 
-  @Override
-  public List<RenglonPedido> calcularRenglonesPedido(long[] idProductoItem, BigDecimal[] cantidad) {
-    if (idProductoItem.length != cantidad.length) {
-      throw new BusinessServiceException(
-          messageSource.getMessage(
-              "mensaje_pedido_renglones_parametros_no_validos", null, Locale.getDefault()));
-    }
-    List<RenglonPedido> renglones = new ArrayList<>();
-    for (int i = 0; i < idProductoItem.length; ++i) {
-      renglones.add(this.calcularRenglonPedido(idProductoItem[i], cantidad[i]));
-    }
-    return renglones;
-  }
-
   @Override
   public Resultados calcularResultadosPedido(NuevosResultadosComprobanteDTO calculoPedido) {
     Resultados resultados = Resultados.builder().build();
@@ -648,16 +670,47 @@ public class PedidoServiceImpl implements PedidoService {
   }
 
   @Scheduled(cron = "0 0/1 * * * ?")
-  @Transactional
   public void cancelarPedidosAbiertos() {
     log.info(messageSource.getMessage("mensaje_cron_job_cancelar_pedidos", null, Locale.getDefault()));
-    Pageable pageable = PageRequest.of(0, Integer.MAX_VALUE);
-    Page<Pedido> paginaPedidos = pedidoRepository.findAllByEstadoAndEliminado(EstadoPedido.ABIERTO, pageable);
-    paginaPedidos.forEach(pedido -> {
-          if (pedido.getFechaVencimiento().isBefore(LocalDateTime.now())) {
-            this.cancelar(pedido);
-          }
-        });
+    var fechaDeCorte = LocalDateTime.now();
+    long idDesde = 0;
+    List<Long> idsPedidosVencidos;
+    do {
+      idsPedidosVencidos = pedidoRepository.findIdsDePedidosAbiertosVencidos(
+              fechaDeCorte, idDesde, PageRequest.of(0, TAMANIO_LOTE_PEDIDOS_VENCIDOS));
+      if (idsPedidosVencidos.isEmpty()) return;
+      var lote = idsPedidosVencidos;
+      try {
+        transactionTemplate.executeWithoutResult(status -> this.cancelarPedidosVencidos(lote));
+      } catch (RuntimeException ex) {
+        log.warn("No se pudo cancelar el lote de pedidos vencidos {}, se cancelan de a uno.", lote, ex);
+        lote.forEach(this::cancelarPedidoVencido);
+      }
+      // los pedidos que no se pudieron cancelar quedan abiertos hasta la proxima ejecucion
+      idDesde = lote.get(lote.size() - 1);
+    } while (idsPedidosVencidos.size() == TAMANIO_LOTE_PEDIDOS_VENCIDOS);
+  }
+
+  private void cancelarPedidoVencido(long idPedido) {
+    try {
+      transactionTemplate.executeWithoutResult(status -> this.cancelarPedidosVencidos(List.of(idPedido)));
+    } catch (RuntimeException ex) {
+      log.error("No se pudo cancelar el pedido vencido {}.", idPedido, ex);
+    }
+  }
+
+  private void cancelarPedidosVencidos(List<Long> idsPedidos) {
+    Map<Long, BigDecimal> cantidadesReservadas = new HashMap<>();
+    pedidoRepository.findParaActualizar(idsPedidos).forEach(pedido -> {
+      // pudo haberse facturado o cancelado desde que se leyo el lote
+      if (pedido.getEstado() != EstadoPedido.ABIERTO) return;
+      pedido.setEstado(EstadoPedido.CANCELADO);
+      productoService.actualizarStockPedido(pedido, TipoDeOperacion.ACTUALIZACION);
+      pedido.getRenglones().forEach(renglonPedido ->
+              cantidadesReservadas.merge(renglonPedido.getIdProductoItem(), renglonPedido.getCantidad(), BigDecimal::add));
+      log.info(messageSource.getMessage("mensaje_pedido_cancelado", new Object[]{pedido}, Locale.getDefault()));
+    });
+    productoService.quitarCantidadesReservadas(cantidadesReservadas);
   }
 
   @Override
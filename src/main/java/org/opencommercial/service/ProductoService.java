@@ -9,11 +9,14 @@ import org.opencommercial.model.embeddable.PrecioProductoEmbeddable;
 import org.opencommercial.util.FormatoReporte;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Stream;
 
 public interface ProductoService {
 
@@ -39,19 +42,19 @@ public interface ProductoService {
 
   void validarCalculos(Producto producto);
 
-  Page<Producto> buscarProductos(BusquedaProductoCriteria criteria, Long idSucursal);
+  Slice<Producto> buscarProductos(BusquedaProductoCriteria criteria, Long idSucursal);
 
-  Page<Producto> buscarProductosDeCatalogoParaUsuario(
+  Slice<Producto> buscarProductosDeCatalogoParaUsuario(
           BusquedaProductoCriteria criteria, Long idSucursal, Long isSucursal);
 
-  Page<Producto> buscarProductosDeCatalogoParaVenta(
+  Slice<Producto> buscarProductosDeCatalogoParaVenta(
           BusquedaProductoCriteria criteria, Long idSucursal, Long idUsuario, Long idCliente);
 
-  void marcarFavoritos(Page<Producto> productos, long idUsuario);
+  void marcarFavoritos(Slice<Producto> productos, long idUsuario);
 
   BooleanBuilder getBuilder(BusquedaProductoCriteria criteria);
 
-  List<Producto> buscarProductosParaReporte(BusquedaProductoCriteria criteria);
+  Stream<Producto> buscarProductosParaReporte(BusquedaProductoCriteria criteria);
 
   BigDecimal calcularGananciaNeto(BigDecimal precioCosto, BigDecimal gananciaPorcentaje);
 
@@ -61,6 +64,12 @@ public interface ProductoService {
   List<ProductoFaltanteDTO> getProductosSinStockDisponibleParaTraspaso(
           ProductosParaVerificarStockDTO productosParaVerificarStockDTO);
 
+  Map<Long, Map<Long, BigDecimal>> getCantidadesPorSucursal(long[] idsProducto, long idSucursal);
+
+  List<Producto> getProductosNoEliminadosPorIds(Set<Long> idsProducto);
+
+  Map<Long, Producto> getProductosParaCalcularRenglones(Set<Long> idsProducto);
+
   BigDecimal calcularGananciaPorcentaje(
       BigDecimal precioDeListaNuevo,
       BigDecimal precioDeListaAnterior,
@@ -90,7 +99,7 @@ public interface ProductoService {
 
   void enviarListaDeProductosPorEmail(String mailTo, byte[] listaDeProductos, FormatoReporte formato);
 
-  byte[] getReporteListaDePrecios(List<Producto> productos, FormatoReporte formato);
+  void exportarReporteListaDePrecios(Stream<Producto> productos, FormatoReporte formato, OutputStream salida);
 
   Producto guardar(NuevoProductoDTO producto, long idMedida, long idRubro, long idProveedor);
 
@@ -134,4 +143,6 @@ public interface ProductoService {
   void agregarCantidadReservada(long idProducto, BigDecimal cantidadParaAgregar);
 
   void quitarCantidadReservada(long idProducto, BigDecimal cantidadParaQuitar);
+
+  void quitarCantidadesReservadas(Map<Long, BigDecimal> cantidadesParaQuitar);
 }
@@ -1,6 +1,7 @@
 package org.opencommercial.service;
 
 import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.dsl.Expressions;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.extern.slf4j.Slf4j;
 import org.opencommercial.exception.BusinessServiceException;
@@ -12,10 +13,15 @@ import org.opencommercial.model.embeddable.CantidadProductoEmbeddable;
 import org.opencommercial.model.embeddable.PrecioProductoEmbeddable;
 import org.opencommercial.repository.ProductoFavoritoRepository;
 import org.opencommercial.repository.ProductoRepository;
+import org.opencommercial.repository.projection.CantidadDisponibleProjection;
+import org.opencommercial.repository.projection.PrecioRenglonProjection;
 import org.opencommercial.util.CalculosComprobante;
 import org.opencommercial.util.CustomValidator;
 import org.opencommercial.util.FormatoReporte;
+import org.opencommercial.util.ImagenesReporteHandler;
+import org.opencommercial.util.IteradorBeanDataSource;
 import org.opencommercial.util.JasperReportsHandler;
+import org.opencommercial.util.PaginadorSinConteo;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.MessageSource;
@@ -23,16 +29,21 @@ import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.*;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import javax.imageio.ImageIO;
-import javax.swing.*;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
@@ -58,10 +69,13 @@ public class ProductoServiceImpl implements ProductoService {
   private final EmailServiceFactory emailServiceFactory;
   private static final int TAMANIO_PAGINA_DEFAULT = 25;
   private static final String MENSAJE_ERROR_ACTUALIZAR_STOCK_PRODUCTO_ELIMINADO = "mensaje_error_actualizar_stock_producto_eliminado";
-  private static final String PRODUCTO_SIN_IMAGEN = "/producto_sin_imagen.png";
   private final MessageSource messageSource;
   private final CustomValidator customValidator;
   private final JasperReportsHandler jasperReportsHandler;
+  private final ImagenesReporteHandler imagenesReporteHandler;
+  private final IndiceBusquedaProductoService indiceBusquedaProductoService;
+  private final PaginadorSinConteo paginadorSinConteo;
+  private final TransactionTemplate transactionTemplateLectura;
 
   @Autowired
   @Lazy
@@ -81,7 +95,11 @@ public class ProductoServiceImpl implements ProductoService {
           EmailServiceFactory emailServiceFactory,
           MessageSource messageSource,
           CustomValidator customValidator,
-          JasperReportsHandler jasperReportsHandler) {
+          JasperReportsHandler jasperReportsHandler,
+          ImagenesReporteHandler imagenesReporteHandler,
+          IndiceBusquedaProductoService indiceBusquedaProductoService,
+          PaginadorSinConteo paginadorSinConteo,
+          PlatformTransactionManager transactionManager) {
     this.productoRepository = productoRepository;
     this.productoFavoritoRepository = productoFavoritoRepository;
     this.rubroService = rubroService;
@@ -98,6 +116,11 @@ public class ProductoServiceImpl implements ProductoService {
     this.messageSource = messageSource;
     this.customValidator = customValidator;
     this.jasperReportsHandler = jasperReportsHandler;
+    this.imagenesReporteHandler = imagenesReporteHandler;
+    this.indiceBusquedaProductoService = indiceBusquedaProductoService;
+    this.paginadorSinConteo = paginadorSinConteo;
+    this.transactionTemplateLectura = new TransactionTemplate(transactionManager);
+    this.transactionTemplateLectura.setReadOnly(true);
   }
 
   @Override
@@ -209,15 +232,23 @@ public class ProductoServiceImpl implements ProductoService {
   }
 
   @Override
-  public Page<Producto> buscarProductos(BusquedaProductoCriteria criteria, Long idSucursal) {
-    Page<Producto> productos =
-        productoRepository.findAll(
-            this.getBuilder(criteria),
-            this.getPageable(
-                criteria.getPagina(),
-                criteria.getOrdenarPor(),
-                criteria.getSentido(),
-                TAMANIO_PAGINA_DEFAULT));
+  public Slice<Producto> buscarProductos(BusquedaProductoCriteria criteria, Long idSucursal) {
+    List<Long> idsPorRelevancia = this.buscarEnIndice(criteria);
+    BooleanBuilder builder = this.getBuilder(criteria, idsPorRelevancia);
+    Slice<Producto> productos;
+    if (idsPorRelevancia != null && (criteria.getOrdenarPor() == null || criteria.getOrdenarPor().isEmpty())) {
+      productos = this.buscarProductosPorRelevancia(builder, idsPorRelevancia, criteria.getPagina());
+    } else {
+      Pageable pageable =
+          this.getPageable(
+              criteria.getPagina(),
+              criteria.getOrdenarPor(),
+              criteria.getSentido(),
+              TAMANIO_PAGINA_DEFAULT);
+      productos = criteria.isSinTotal()
+          ? paginadorSinConteo.buscar(Producto.class, builder, pageable)
+          : paginadorSinConteo.buscarConTotal(productoRepository, Producto.class, builder, pageable);
+    }
     productos.stream()
         .forEach(
             producto ->
@@ -226,7 +257,7 @@ public class ProductoServiceImpl implements ProductoService {
   }
 
   @Override
-  public Page<Producto> buscarProductosDeCatalogoParaUsuario(BusquedaProductoCriteria criteria, Long idSucursal, Long idUsuario) {
+  public Slice<Producto> buscarProductosDeCatalogoParaUsuario(BusquedaProductoCriteria criteria, Long idSucursal, Long idUsuario) {
     Usuario usuarioDeConsulta = usuarioService.getUsuarioNoEliminadoPorId(idUsuario);
     if (usuarioDeConsulta.getRoles().contains(Rol.COMPRADOR)) {
         Cliente clienteDeUsuario = clienteService.getClientePorIdUsuario(idUsuario);
@@ -248,7 +279,7 @@ public class ProductoServiceImpl implements ProductoService {
   }
 
   @Override
-  public Page<Producto> buscarProductosDeCatalogoParaVenta(BusquedaProductoCriteria criteria, Long idSucursal, Long idUsuario, Long idCliente) {
+  public Slice<Producto> buscarProductosDeCatalogoParaVenta(BusquedaProductoCriteria criteria, Long idSucursal, Long idUsuario, Long idCliente) {
     Usuario usuarioDeConsulta = usuarioService.getUsuarioNoEliminadoPorId(idUsuario);
     if (usuarioDeConsulta.getRoles().contains(Rol.COMPRADOR) && usuarioDeConsulta.getRoles().size() == 1) {
       throw new BusinessServiceException(
@@ -270,25 +301,26 @@ public class ProductoServiceImpl implements ProductoService {
   }
 
   @Override
-  public void marcarFavoritos(Page<Producto> productos, long idUsuario) {
-    List<Producto> productosFavoritos = this.getProductosFavoritosDelClientePorIdUsuario(idUsuario);
+  public void marcarFavoritos(Slice<Producto> productos, long idUsuario) {
+    if (productos.isEmpty()) return;
+    // solo se consultan los productos de la pagina, sin importar cuantos favoritos tenga el cliente
+    var idsProductosFavoritos = productoFavoritoRepository.getIdsProductosFavoritos(
+            idUsuario, productos.map(Producto::getIdProducto).toList());
     productos.forEach(p -> {
-      if (productosFavoritos.contains(p)) p.setFavorito(true);
+      if (idsProductosFavoritos.contains(p.getIdProducto())) p.setFavorito(true);
     });
   }
 
   @Override
-  public List<Producto> buscarProductosParaReporte(BusquedaProductoCriteria criteria) {
+  public Stream<Producto> buscarProductosParaReporte(BusquedaProductoCriteria criteria) {
     criteria.setPagina(0);
-    return productoRepository
-        .findAll(
+    return productoRepository.streamProductos(
             this.getBuilder(criteria),
             this.getPageable(
                 criteria.getPagina(),
                 criteria.getOrdenarPor(),
                 criteria.getSentido(),
-                Integer.MAX_VALUE))
-        .getContent();
+                Integer.MAX_VALUE).getSort());
   }
 
   @Override
@@ -319,12 +351,37 @@ public class ProductoServiceImpl implements ProductoService {
     return PageRequest.of(numeroDePagina, tamanioPagina, Sort.by(orden));
   }
 
+  private List<Long> buscarEnIndice(BusquedaProductoCriteria criteria) {
+    return indiceBusquedaProductoService.buscar(criteria.getCodigo(), criteria.getDescripcion()).orElse(null);
+  }
+
+  private Page<Producto> buscarProductosPorRelevancia(BooleanBuilder builder, List<Long> idsPorRelevancia, Integer pagina) {
+    Pageable pageable = PageRequest.of(pagina != null ? pagina : 0, TAMANIO_PAGINA_DEFAULT);
+    Set<Long> idsFiltrados = new HashSet<>(productoRepository.getIdsProductos(builder));
+    List<Long> idsOrdenados = idsPorRelevancia.stream().filter(idsFiltrados::contains).toList();
+    int desde = (int) Math.min(pageable.getOffset(), idsOrdenados.size());
+    int hasta = Math.min(desde + pageable.getPageSize(), idsOrdenados.size());
+    List<Long> idsPagina = idsOrdenados.subList(desde, hasta);
+    Map<Long, Producto> productosPorId = new HashMap<>();
+    if (!idsPagina.isEmpty()) {
+      productoRepository.findAllById(idsPagina).forEach(p -> productosPorId.put(p.getIdProducto(), p));
+    }
+    List<Producto> productos = idsPagina.stream().map(productosPorId::get).filter(Objects::nonNull).toList();
+    return new PageImpl<>(productos, pageable, idsOrdenados.size());
+  }
+
   @Override
   public BooleanBuilder getBuilder(BusquedaProductoCriteria criteria) {
+    return this.getBuilder(criteria, this.buscarEnIndice(criteria));
+  }
+
+  private BooleanBuilder getBuilder(BusquedaProductoCriteria criteria, List<Long> idsPorRelevancia) {
     QProducto qProducto = QProducto.producto;
     BooleanBuilder builder = new BooleanBuilder();
     builder.and(qProducto.eliminado.eq(false));
-    if (criteria.getCodigo() != null && criteria.getDescripcion() != null)
+    if (idsPorRelevancia != null)
+      builder.and(idsPorRelevancia.isEmpty() ? Expressions.FALSE.isTrue() : qProducto.idProducto.in(idsPorRelevancia));
+    else if (criteria.getCodigo() != null && criteria.getDescripcion() != null)
       builder.and(
           qProducto
               .codigo
@@ -439,6 +496,7 @@ public class ProductoServiceImpl implements ProductoService {
     producto.setParaCatalogo(nuevoProductoDTO.isParaCatalogo());
     producto.getCantidadProducto().setCantidadReservada(BigDecimal.ZERO);
     producto = productoRepository.save(producto);
+    indiceBusquedaProductoService.indexar(List.of(producto));
     log.info(messageSource.getMessage("mensaje_producto_guardado", new Object[] {producto}, Locale.getDefault()));
     if (nuevoProductoDTO.getImagen() != null) {
       producto.setUrlImagen(this.subirImagenProducto(producto.getIdProducto(), nuevoProductoDTO.getImagen()));
@@ -470,6 +528,7 @@ public class ProductoServiceImpl implements ProductoService {
     productoPorActualizar.getCantidadProducto().setIlimitado(false);
     productoPorActualizar.setVersion(productoPersistido.getVersion());
     productoPorActualizar = productoRepository.save(productoPorActualizar);
+    indiceBusquedaProductoService.indexar(List.of(productoPorActualizar));
     log.info(
         messageSource.getMessage(
             "mensaje_producto_actualizado",
@@ -508,19 +567,20 @@ public class ProductoServiceImpl implements ProductoService {
         && pedido.getEstado() == EstadoPedido.ABIERTO
         && renglonesAnteriores != null
         && !renglonesAnteriores.isEmpty()) {
+      long idSucursal = idSucursalOrigen != null ? idSucursalOrigen : pedido.getSucursal().getIdSucursal();
+      Map<Long, Producto> productos = this.getProductosParaActualizarStock(
+              renglonesAnteriores.stream().map(RenglonPedido::getIdProductoItem).toList());
+      Map<Long, Map<Long, BigDecimal>> variaciones = new HashMap<>();
       renglonesAnteriores.forEach(
           renglonAnterior -> {
-            Optional<Producto> productoAnterior =
-                productoRepository.findById(renglonAnterior.getIdProductoItem());
-            if (productoAnterior.isPresent() && !productoAnterior.get().getCantidadProducto().isIlimitado()) {
-              this.agregarStock(
-                  productoAnterior.get(),
-                  (idSucursalOrigen != null ? idSucursalOrigen : pedido.getSucursal().getIdSucursal()),
-                  renglonAnterior.getCantidad());
+            Producto productoAnterior = productos.get(renglonAnterior.getIdProductoItem());
+            if (productoAnterior != null && !productoAnterior.getCantidadProducto().isIlimitado()) {
+              this.agregarStock(variaciones, productoAnterior, idSucursal, renglonAnterior.getCantidad());
             } else {
               log.warn(messageSource.getMessage(MENSAJE_ERROR_ACTUALIZAR_STOCK_PRODUCTO_ELIMINADO,null, Locale.getDefault()));
             }
           });
+      this.guardarStock(variaciones);
     }
   }
 
@@ -538,34 +598,30 @@ public class ProductoServiceImpl implements ProductoService {
         }
       }
     }
+    boolean quitaStock = tipoDeOperacion == TipoDeOperacion.ALTA
+            || (tipoDeOperacion == TipoDeOperacion.ACTUALIZACION && pedido.getEstado() == EstadoPedido.ABIERTO);
+    boolean agregaStock = (tipoDeOperacion == TipoDeOperacion.ELIMINACION && pedido.getEstado() == EstadoPedido.ABIERTO)
+            || (tipoDeOperacion == TipoDeOperacion.ACTUALIZACION && pedido.getEstado() == EstadoPedido.CANCELADO);
+    Map<Long, Producto> productos = this.getProductosParaActualizarStock(
+            pedido.getRenglones().stream().map(RenglonPedido::getIdProductoItem).toList());
+    Map<Long, Map<Long, BigDecimal>> variaciones = new HashMap<>();
     pedido
         .getRenglones()
         .forEach(
-            renglones -> {
-              Optional<Producto> producto =
-                  productoRepository.findById(renglones.getIdProductoItem());
-              if (producto.isPresent() && !producto.get().getCantidadProducto().isIlimitado()) {
-                if (tipoDeOperacion == TipoDeOperacion.ALTA
-                    || (tipoDeOperacion == TipoDeOperacion.ACTUALIZACION
-                        && pedido.getEstado() == EstadoPedido.ABIERTO)) {
-                  this.quitarStock(
-                      producto.get(),
-                      pedido.getSucursal().getIdSucursal(),
-                      renglones.getCantidad());
+            renglon -> {
+              Producto producto = productos.get(renglon.getIdProductoItem());
+              if (producto != null && !producto.getCantidadProducto().isIlimitado()) {
+                if (quitaStock) {
+                  this.quitarStock(variaciones, producto, pedido.getSucursal().getIdSucursal(), renglon.getCantidad());
                 }
-                if ((tipoDeOperacion == TipoDeOperacion.ELIMINACION
-                        && pedido.getEstado() == EstadoPedido.ABIERTO)
-                    || (tipoDeOperacion == TipoDeOperacion.ACTUALIZACION
-                        && pedido.getEstado() == EstadoPedido.CANCELADO)) {
-                  this.agregarStock(
-                      producto.get(),
-                      pedido.getSucursal().getIdSucursal(),
-                      renglones.getCantidad());
+                if (agregaStock) {
+                  this.agregarStock(variaciones, producto, pedido.getSucursal().getIdSucursal(), renglon.getCantidad());
                 }
               } else {
                 log.warn(messageSource.getMessage(MENSAJE_ERROR_ACTUALIZAR_STOCK_PRODUCTO_ELIMINADO,null, Locale.getDefault()));
               }
             });
+    this.guardarStock(variaciones);
   }
 
   @Override
@@ -574,42 +630,47 @@ public class ProductoServiceImpl implements ProductoService {
       Long idSucursal,
       TipoDeOperacion operacion,
       Movimiento movimiento) {
+    Map<Long, Producto> productos = this.getProductosParaActualizarStock(idsYCantidades.keySet());
+    Map<Long, Map<Long, BigDecimal>> variaciones = new HashMap<>();
     idsYCantidades.forEach(
         (idProducto, cantidad) -> {
-          Optional<Producto> producto = productoRepository.findById(idProducto);
-          if (producto.isPresent() && !producto.get().getCantidadProducto().isIlimitado()) {
+          Producto producto = productos.get(idProducto);
+          if (producto != null && !producto.getCantidadProducto().isIlimitado()) {
             if (movimiento == Movimiento.COMPRA && operacion == TipoDeOperacion.ELIMINACION) {
-              this.quitarStock(producto.get(), idSucursal, cantidad);
+              this.quitarStock(variaciones, producto, idSucursal, cantidad);
             }
             if (movimiento == Movimiento.COMPRA && operacion == TipoDeOperacion.ALTA) {
-              this.agregarStock(producto.get(), idSucursal, cantidad);
+              this.agregarStock(variaciones, producto, idSucursal, cantidad);
             }
           } else {
             log.warn(messageSource.getMessage(MENSAJE_ERROR_ACTUALIZAR_STOCK_PRODUCTO_ELIMINADO,null, Locale.getDefault()));
           }
         });
+    this.guardarStock(variaciones);
   }
 
   @Override
   public void actualizarStockNotaCredito(
       Map<Long, BigDecimal> idsYCantidades, Long idSucursal, TipoDeOperacion operacion, Movimiento movimiento) {
+    Map<Long, Producto> productos = this.getProductosParaActualizarStock(idsYCantidades.keySet());
+    Map<Long, Map<Long, BigDecimal>> variaciones = new HashMap<>();
     idsYCantidades.forEach(
         (idProducto, cantidad) -> {
-          Optional<Producto> producto = productoRepository.findById(idProducto);
-          if (producto.isPresent() && !producto.get().isEliminado() && !producto.get().getCantidadProducto().isIlimitado()) {
+          Producto producto = productos.get(idProducto);
+          if (producto != null && !producto.isEliminado() && !producto.getCantidadProducto().isIlimitado()) {
             switch (operacion) {
               case ALTA -> {
                 switch (movimiento) {
-                  case VENTA -> this.agregarStock(producto.get(), idSucursal, cantidad);
-                  case COMPRA -> this.quitarStock(producto.get(), idSucursal, cantidad);
+                  case VENTA -> this.agregarStock(variaciones, producto, idSucursal, cantidad);
+                  case COMPRA -> this.quitarStock(variaciones, producto, idSucursal, cantidad);
                   default -> throw new BusinessServiceException(
                           messageSource.getMessage("mensaje_preference_tipo_de_movimiento_no_soportado", null, Locale.getDefault()));
                 }
               }
               case ELIMINACION -> {
                 switch (movimiento) {
-                  case VENTA -> this.quitarStock(producto.get(), idSucursal, cantidad);
-                  case COMPRA -> this.agregarStock(producto.get(), idSucursal, cantidad);
+                  case VENTA -> this.quitarStock(variaciones, producto, idSucursal, cantidad);
+                  case COMPRA -> this.agregarStock(variaciones, producto, idSucursal, cantidad);
                   default -> throw new BusinessServiceException(
                           messageSource.getMessage("mensaje_preference_tipo_de_movimiento_no_soportado", null, Locale.getDefault()));
                 }
@@ -621,6 +682,7 @@ public class ProductoServiceImpl implements ProductoService {
             log.warn(messageSource.getMessage(MENSAJE_ERROR_ACTUALIZAR_STOCK_PRODUCTO_ELIMINADO,null, Locale.getDefault()));
           }
         });
+    this.guardarStock(variaciones);
   }
 
   @Override
@@ -646,85 +708,100 @@ public class ProductoServiceImpl implements ProductoService {
           throw new BusinessServiceException(
                   messageSource.getMessage("mensaje_traspaso_sin_stock", null, Locale.getDefault()));
         }
+        Map<Long, Producto> productos = this.getProductosParaActualizarStock(
+                traspaso.getRenglones().stream().map(RenglonTraspaso::getIdProducto).toList());
+        Map<Long, Map<Long, BigDecimal>> variaciones = new HashMap<>();
         traspaso
         .getRenglones()
         .forEach(
                 renglonTraspaso -> {
-                  Producto producto =
-                          this.getProductoNoEliminadoPorId(renglonTraspaso.getIdProducto());
+                  Producto producto = productos.get(renglonTraspaso.getIdProducto());
+                  if (producto == null || producto.isEliminado()) {
+                    throw new EntityNotFoundException(
+                            messageSource.getMessage("mensaje_producto_no_existente", null, Locale.getDefault()));
+                  }
                   this.quitarStock(
+                          variaciones,
                           producto,
                           traspaso.getSucursalOrigen().getIdSucursal(),
                           renglonTraspaso.getCantidadProducto());
                   this.agregarStock(
+                          variaciones,
                           producto,
                           traspaso.getSucursalDestino().getIdSucursal(),
                           renglonTraspaso.getCantidadProducto());
                 });
+        this.guardarStock(variaciones);
+      }
+      case ELIMINACION -> {
+        Map<Long, Producto> productos = this.getProductosParaActualizarStock(
+                traspaso.getRenglones().stream().map(RenglonTraspaso::getIdProducto).toList());
+        Map<Long, Map<Long, BigDecimal>> variaciones = new HashMap<>();
+        traspaso
+        .getRenglones()
+        .forEach(
+                renglonTraspaso -> {
+                  Producto producto = productos.get(renglonTraspaso.getIdProducto());
+                  if (producto != null) {
+                    this.quitarStock(
+                            variaciones,
+                            producto,
+                            traspaso.getSucursalDestino().getIdSucursal(),
+                            renglonTraspaso.getCantidadProducto());
+                    this.agregarStock(
+                            variaciones,
+                            producto,
+                            traspaso.getSucursalOrigen().getIdSucursal(),
+                            renglonTraspaso.getCantidadProducto());
+                  }
+                });
+        this.guardarStock(variaciones);
       }
-      case ELIMINACION -> traspaso
-              .getRenglones()
-              .forEach(
-                      renglonTraspaso -> {
-                        Optional<Producto> producto =
-                                productoRepository.findById(renglonTraspaso.getIdProducto());
-                        if (producto.isPresent()) {
-                          this.quitarStock(
-                                  producto.get(),
-                                  traspaso.getSucursalDestino().getIdSucursal(),
-                                  renglonTraspaso.getCantidadProducto());
-                          this.agregarStock(
-                                  producto.get(),
-                                  traspaso.getSucursalOrigen().getIdSucursal(),
-                                  renglonTraspaso.getCantidadProducto());
-                        }
-                      });
       default -> throw new BusinessServiceException(
               messageSource.getMessage(
                       "mensaje_operacion_no_soportada", null, Locale.getDefault()));
     }
   }
 
-  private Producto agregarStock(Producto producto, long idSucursal, BigDecimal cantidad) {
-    producto
-        .getCantidadProducto().getCantidadEnSucursales()
-        .forEach(
-            cantidadEnSucursal -> {
-              if (cantidadEnSucursal.getSucursal().getIdSucursal() == idSucursal) {
-                cantidadEnSucursal.setCantidad(cantidadEnSucursal.getCantidad().add(cantidad));
-              }
-            });
-    producto.getCantidadProducto().setCantidadTotalEnSucursales(
-        producto.getCantidadProducto().getCantidadEnSucursales().stream()
-            .map(CantidadEnSucursal::getCantidad)
-            .reduce(BigDecimal.ZERO, BigDecimal::add));
-    producto = productoRepository.save(producto);
+  private Map<Long, Producto> getProductosParaActualizarStock(Collection<Long> idsProducto) {
+    // una sola consulta para todos los renglones, solo para validar cada producto antes de mover su stock
+    Map<Long, Producto> productos = new HashMap<>();
+    if (!idsProducto.isEmpty()) {
+      productoRepository
+              .findAllById(new HashSet<>(idsProducto))
+              .forEach(producto -> productos.put(producto.getIdProducto(), producto));
+    }
+    return productos;
+  }
+
+  private void guardarStock(Map<Long, Map<Long, BigDecimal>> variaciones) {
+    if (!variaciones.isEmpty()) {
+      productoRepository.actualizarStock(variaciones);
+    }
+  }
+
+  private void agregarStock(Map<Long, Map<Long, BigDecimal>> variaciones,
+                            Producto producto, long idSucursal, BigDecimal cantidad) {
+    this.acumularVariacion(variaciones, producto, idSucursal, cantidad);
     log.info(messageSource.getMessage(
             "mensaje_producto_agrega_stock",
             new Object[] {cantidad, producto},
             Locale.getDefault()));
-    return producto;
   }
 
-  private Producto quitarStock(Producto producto, long idSucursal, BigDecimal cantidad) {
-    producto
-        .getCantidadProducto().getCantidadEnSucursales()
-        .forEach(
-            cantidadEnSucursal -> {
-              if (cantidadEnSucursal.getSucursal().getIdSucursal() == idSucursal) {
-                cantidadEnSucursal.setCantidad(cantidadEnSucursal.getCantidad().subtract(cantidad));
-              }
-            });
-    producto.getCantidadProducto().setCantidadTotalEnSucursales(
-        producto.getCantidadProducto().getCantidadEnSucursales().stream()
-            .map(CantidadEnSucursal::getCantidad)
-            .reduce(BigDecimal.ZERO, BigDecimal::add));
-    producto = productoRepository.save(producto);
+  private void quitarStock(Map<Long, Map<Long, BigDecimal>> variaciones,
+                           Producto producto, long idSucursal, BigDecimal cantidad) {
+    this.acumularVariacion(variaciones, producto, idSucursal, cantidad.negate());
     log.info(messageSource.getMessage(
             "mensaje_producto_quita_stock",
             new Object[] {cantidad, producto},
             Locale.getDefault()));
-    return producto;
+  }
+
+  private void acumularVariacion(Map<Long, Map<Long, BigDecimal>> variaciones,
+                                 Producto producto, long idSucursal, BigDecimal variacion) {
+    variaciones.computeIfAbsent(producto.getIdProducto(), idProducto -> new HashMap<>())
+            .merge(idSucursal, variacion, BigDecimal::add);
   }
 
   @Override
@@ -740,6 +817,7 @@ public class ProductoServiceImpl implements ProductoService {
       }
     }
     productoRepository.saveAll(productos);
+    indiceBusquedaProductoService.eliminar(productos.stream().map(Producto::getIdProducto).toList());
     log.info("Los productos se eliminaron correctamente. {}", productos);
   }
 
@@ -844,6 +922,7 @@ public class ProductoServiceImpl implements ProductoService {
       this.validarReglasDeNegocio(TipoDeOperacion.ACTUALIZACION, p);
     }
     productoRepository.saveAll(productos);
+    indiceBusquedaProductoService.indexar(productos);
     log.info("Los productos se modificaron correctamente. {}", productos);
   }
 
@@ -935,30 +1014,29 @@ public class ProductoServiceImpl implements ProductoService {
                 renglonPedido -> listaIdsAndCantidades.put(renglonPedido.getIdProductoItem(), renglonPedido.getCantidad()));
       }
     }
+    var cantidadesPorProducto = this.getCantidadesDisponiblesPorProducto(
+            productosParaVerificarStockDTO.getIdProducto(), productosParaVerificarStockDTO.getIdSucursal());
     for (int i = 0; i < longitudIds; i++) {
-      var producto = this.getProductoNoEliminadoPorId(productosParaVerificarStockDTO.getIdProducto()[i]);
-      this.calcularCantidadEnSucursalesDisponible(producto, productosParaVerificarStockDTO.getIdSucursal());
-      BigDecimal cantidadParaCalcular = productosParaVerificarStockDTO.getCantidad()[i];
-      if (!listaIdsAndCantidades.isEmpty() && listaIdsAndCantidades.get(producto.getIdProducto()) != null) {
-          cantidadParaCalcular = cantidadParaCalcular.subtract(listaIdsAndCantidades.get(producto.getIdProducto()));
+      long idProducto = productosParaVerificarStockDTO.getIdProducto()[i];
+      var cantidadesDisponibles = cantidadesPorProducto.get(idProducto);
+      BigDecimal cantidadSolicitada = productosParaVerificarStockDTO.getCantidad()[i];
+      if (listaIdsAndCantidades.get(idProducto) != null) {
+        cantidadSolicitada = cantidadSolicitada.subtract(listaIdsAndCantidades.get(idProducto));
+      }
+      BigDecimal cantidadDisponible = cantidadesDisponibles.stream()
+              .filter(cantidad -> cantidad.getIdSucursal() != null)
+              .map(CantidadDisponibleProjection::getCantidad)
+              .reduce(BigDecimal.ZERO, BigDecimal::add);
+      if (!cantidadesDisponibles.get(0).getIlimitado()
+              && cantidadDisponible.compareTo(cantidadSolicitada) < 0
+              && cantidadSolicitada.compareTo(BigDecimal.ZERO) > 0) {
+        for (var cantidadEnSucursal : cantidadesDisponibles) {
+          if (cantidadEnSucursal.getIdSucursal() != null) {
+            productosFaltantes.add(this.construirNuevoProductoFaltante(
+                    cantidadEnSucursal, cantidadSolicitada, cantidadEnSucursal.getCantidad()));
+          }
+        }
       }
-      BigDecimal cantidadSolicitada = cantidadParaCalcular;
-      producto.getCantidadProducto().getCantidadEnSucursalesDisponible().stream()
-            .filter(cantidadEnSucursal -> (cantidadEnSucursal.getSucursal().getConfiguracionSucursal().isComparteStock()
-                    || cantidadEnSucursal.getSucursal().getIdSucursal() == productosParaVerificarStockDTO.getIdSucursal()))
-            .forEach(
-                cantidadEnSucursal -> {
-                  if (!producto.getCantidadProducto().isIlimitado()
-                      && producto.getCantidadProducto().getCantidadEnSucursalesDisponible()
-                          .stream()
-                          .map(CantidadEnSucursal::getCantidad)
-                          .reduce(BigDecimal.ZERO,BigDecimal::add)
-                          .compareTo(cantidadSolicitada) < 0
-                  && cantidadSolicitada.compareTo(BigDecimal.ZERO) > 0) {
-                    productosFaltantes
-                            .add(this.construirNuevoProductoFaltante(producto, cantidadSolicitada, cantidadEnSucursal.getCantidad(), cantidadEnSucursal.getIdSucursal()));
-                  }
-            });
     }
     return productosFaltantes;
   }
@@ -978,30 +1056,109 @@ public class ProductoServiceImpl implements ProductoService {
     int longitudIds = productosParaVerificarStockDTO.getIdProducto().length;
     int longitudCantidades = productosParaVerificarStockDTO.getCantidad().length;
     this.validarLongitudDeArrays(longitudIds, longitudCantidades);
+    var cantidadesPorProducto = this.getCantidadesDisponiblesPorProducto(
+            productosParaVerificarStockDTO.getIdProducto(), productosParaVerificarStockDTO.getIdSucursal());
     for (int i = 0; i < longitudIds; i++) {
-      Producto producto =
-              this.getProductoNoEliminadoPorId(productosParaVerificarStockDTO.getIdProducto()[i]);
       BigDecimal cantidadSolicitada = productosParaVerificarStockDTO.getCantidad()[i];
-      this.calcularCantidadEnSucursalesDisponible(producto, productosParaVerificarStockDTO.getIdSucursal());
-      producto.getCantidadProducto().getCantidadEnSucursalesDisponible().stream()
-              .filter(
-                      cantidadEnSucursal ->
-                              cantidadEnSucursal
-                                      .getIdSucursal()
-                                      .equals(productosParaVerificarStockDTO.getIdSucursal()))
-              .forEach(
-                      cantidadEnSucursal -> {
-                        if (!producto.getCantidadProducto().isIlimitado()
-                                && cantidadEnSucursal.getCantidad().compareTo(cantidadSolicitada) < 0
-                                && cantidadSolicitada.compareTo(BigDecimal.ZERO) > 0) {
-                          productosFaltantes
-                                  .add(this.construirNuevoProductoFaltante(producto, cantidadSolicitada, cantidadEnSucursal.getCantidad(), cantidadEnSucursal.getIdSucursal()));
-                        }
-                      });
+      cantidadesPorProducto.get(productosParaVerificarStockDTO.getIdProducto()[i]).stream()
+              .filter(cantidadEnSucursal -> cantidadEnSucursal.getIdSucursal() != null
+                      && cantidadEnSucursal.getIdSucursal() == productosParaVerificarStockDTO.getIdSucursal())
+              .forEach(cantidadEnSucursal -> {
+                if (!cantidadEnSucursal.getIlimitado()
+                        && cantidadEnSucursal.getCantidad().compareTo(cantidadSolicitada) < 0
+                        && cantidadSolicitada.compareTo(BigDecimal.ZERO) > 0) {
+                  productosFaltantes.add(this.construirNuevoProductoFaltante(
+                          cantidadEnSucursal, cantidadSolicitada, cantidadEnSucursal.getCantidad()));
+                }
+              });
     }
     return productosFaltantes;
   }
 
+  @Override
+  public Map<Long, Map<Long, BigDecimal>> getCantidadesPorSucursal(long[] idsProducto, long idSucursal) {
+    Map<Long, Map<Long, BigDecimal>> cantidadesPorSucursal = new HashMap<>();
+    this.getCantidadesDisponiblesPorProducto(idsProducto, idSucursal).forEach((idProducto, cantidades) -> {
+      if (cantidades.getFirst().getIlimitado()) return;
+      Map<Long, BigDecimal> cantidadesDelProducto = new HashMap<>();
+      cantidades.stream()
+              .filter(cantidad -> cantidad.getIdSucursal() != null)
+              .forEach(cantidad -> cantidadesDelProducto.put(cantidad.getIdSucursal(), cantidad.getCantidad()));
+      cantidadesPorSucursal.put(idProducto, cantidadesDelProducto);
+    });
+    return cantidadesPorSucursal;
+  }
+
+  @Override
+  public List<Producto> getProductosNoEliminadosPorIds(Set<Long> idsProducto) {
+    return productoRepository.findByIdProductoInAndEliminadoFalse(idsProducto);
+  }
+
+  // una sola consulta trae los datos de precio de todos los productos, sin cargar rubro, proveedor ni stock
+  @Override
+  public Map<Long, Producto> getProductosParaCalcularRenglones(Set<Long> idsProducto) {
+    if (idsProducto.isEmpty()) return Map.of();
+    Map<Long, Producto> productos = new HashMap<>();
+    productoRepository.getPreciosParaRenglones(idsProducto)
+            .forEach(precio -> productos.put(precio.getIdProducto(), this.construirProductoParaRenglon(precio)));
+    if (productos.size() < idsProducto.size()) {
+      throw new EntityNotFoundException(
+              messageSource.getMessage("mensaje_producto_no_existente", null, Locale.getDefault()));
+    }
+    return productos;
+  }
+
+  private Producto construirProductoParaRenglon(PrecioRenglonProjection precio) {
+    var producto = new Producto();
+    producto.setIdProducto(precio.getIdProducto());
+    producto.setCodigo(precio.getCodigo());
+    producto.setDescripcion(precio.getDescripcion());
+    producto.setUrlImagen(precio.getUrlImagen());
+    var medida = new Medida();
+    medida.setNombre(precio.getMedida());
+    producto.setMedida(medida);
+    var cantidadProducto = new CantidadProductoEmbeddable();
+    cantidadProducto.setCantMinima(precio.getCantMinima());
+    producto.setCantidadProducto(cantidadProducto);
+    producto.setPrecioProducto(PrecioProductoEmbeddable.builder()
+            .precioCosto(precio.getPrecioCosto())
+            .gananciaPorcentaje(precio.getGananciaPorcentaje())
+            .gananciaNeto(precio.getGananciaNeto())
+            .precioVentaPublico(precio.getPrecioVentaPublico())
+            .ivaPorcentaje(precio.getIvaPorcentaje())
+            .precioLista(precio.getPrecioLista())
+            .oferta(Boolean.TRUE.equals(precio.getOferta()))
+            .porcentajeBonificacionOferta(precio.getPorcentajeBonificacionOferta())
+            .porcentajeBonificacionPrecio(precio.getPorcentajeBonificacionPrecio())
+            .build());
+    return producto;
+  }
+
+  private Map<Long, List<CantidadDisponibleProjection>> getCantidadesDisponiblesPorProducto(
+          long[] idsProducto, long idSucursal) {
+    // una sola consulta resuelve todos los productos, incluyendo las sucursales que comparten stock
+    var idsProductoSolicitados = Arrays.stream(idsProducto).boxed().collect(Collectors.toSet());
+    if (idsProductoSolicitados.isEmpty()) return Map.of();
+    var cantidadesPorProducto = productoRepository.getCantidadesDisponibles(idsProductoSolicitados, idSucursal)
+            .stream()
+            .collect(Collectors.groupingBy(CantidadDisponibleProjection::getIdProducto));
+    if (cantidadesPorProducto.size() < idsProductoSolicitados.size()) {
+      throw new EntityNotFoundException(
+              messageSource.getMessage("mensaje_producto_no_existente", null, Locale.getDefault()));
+    }
+    return cantidadesPorProducto;
+  }
+
+  private ProductoFaltanteDTO construirNuevoProductoFaltante(
+          CantidadDisponibleProjection cantidadEnSucursal, BigDecimal cantidadSolicitada, BigDecimal cantidadDisponible) {
+    var producto = new Producto();
+    producto.setIdProducto(cantidadEnSucursal.getIdProducto());
+    producto.setCodigo(cantidadEnSucursal.getCodigo());
+    producto.setDescripcion(cantidadEnSucursal.getDescripcion());
+    return this.construirNuevoProductoFaltante(
+            producto, cantidadSolicitada, cantidadDisponible, cantidadEnSucursal.getIdSucursal());
+  }
+
   @Override
   public ProductoFaltanteDTO construirNuevoProductoFaltante(
           Producto producto, BigDecimal cantidadSolicitada, BigDecimal cantidadDisponible, long idSucursal) {
@@ -1081,9 +1238,38 @@ public class ProductoServiceImpl implements ProductoService {
   @Override
   @Async
   public void procesarReporteListaDePrecios(BusquedaProductoCriteria criteria, long idSucursal, FormatoReporte formato) {
-    var productos = this.buscarProductosParaReporte(criteria);
-    var reporte = this.getReporteListaDePrecios(productos, formato);
-    this.enviarListaDeProductosPorEmail(sucursalService.getSucursalPorId(idSucursal).getEmail(), reporte, formato);
+    // el reporte se escribe en un archivo temporal para no retener el listado completo en memoria
+    Path archivoReporte = null;
+    try {
+      archivoReporte = Files.createTempFile("ListaDeProductos", "." + formato);
+      var destino = archivoReporte;
+      // la transaccion de lectura del stream se cierra antes de enviar el email
+      transactionTemplateLectura.executeWithoutResult(status -> this.escribirReporteListaDePrecios(criteria, formato, destino));
+      this.enviarListaDeProductosPorEmail(
+              sucursalService.getSucursalPorId(idSucursal).getEmail(), Files.readAllBytes(archivoReporte), formato);
+    } catch (IOException ex) {
+      throw new ServiceException(messageSource.getMessage("mensaje_error_reporte", null, Locale.getDefault()), ex);
+    } finally {
+      this.eliminarArchivoTemporal(archivoReporte);
+    }
+  }
+
+  private void escribirReporteListaDePrecios(BusquedaProductoCriteria criteria, FormatoReporte formato, Path archivo) {
+    try (var productos = this.buscarProductosParaReporte(criteria);
+         var salida = new BufferedOutputStream(Files.newOutputStream(archivo))) {
+      this.exportarReporteListaDePrecios(productos, formato, salida);
+    } catch (IOException ex) {
+      throw new ServiceException(messageSource.getMessage("mensaje_error_reporte", null, Locale.getDefault()), ex);
+    }
+  }
+
+  private void eliminarArchivoTemporal(Path archivo) {
+    if (archivo == null) return;
+    try {
+      Files.deleteIfExists(archivo);
+    } catch (IOException ex) {
+      log.warn("No se pudo eliminar el archivo temporal {}. {}", archivo, ex.getMessage());
+    }
   }
 
   @Override
@@ -1099,20 +1285,19 @@ public class ProductoServiceImpl implements ProductoService {
   }
 
   @Override
-  public byte[] getReporteListaDePrecios(List<Producto> productos, FormatoReporte formato) {
+  public void exportarReporteListaDePrecios(Stream<Producto> productos, FormatoReporte formato, OutputStream salida) {
     var params = new HashMap<String, Object>();
     var sucursalPredeterminada = sucursalService.getSucursalPredeterminada();
     if (sucursalPredeterminada.getLogo() != null && !sucursalPredeterminada.getLogo().isEmpty()) {
       try {
-        params.put("logo", new ImageIcon(ImageIO.read(new URL(sucursalPredeterminada.getLogo()))).getImage());
-        params.put("productoSinImagen",
-                new ImageIcon(ImageIO.read(Objects.requireNonNull(getClass().getResource(PRODUCTO_SIN_IMAGEN))))
-                        .getImage());
-      } catch (IOException | NullPointerException ex) {
+        params.put("logo", imagenesReporteHandler.getImagen(sucursalPredeterminada.getLogo()));
+        params.put("productoSinImagen", imagenesReporteHandler.getImagenProductoSinImagen());
+      } catch (IOException ex) {
         throw new ServiceException(messageSource.getMessage("mensaje_recurso_no_encontrado", null, Locale.getDefault()), ex);
       }
     }
-    return jasperReportsHandler.compilar("report/ListaPreciosProductos.jrxml", params, productos, formato);
+    jasperReportsHandler.exportar(
+            "report/ListaPreciosProductos.jrxml", params, new IteradorBeanDataSource(productos.iterator()), formato, salida, true);
   }
 
   @Override
@@ -1154,27 +1339,18 @@ public class ProductoServiceImpl implements ProductoService {
 
   @Override
   public Page<Producto> getPaginaProductosFavoritosDelCliente(long idUsuario, long idSucursal, int pagina) {
-    Cliente cliente = clienteService.getClientePorIdUsuario(idUsuario);
-    QProductoFavorito qProductoFavorito = QProductoFavorito.productoFavorito;
-    BooleanBuilder builder = new BooleanBuilder();
-    builder.and(qProductoFavorito.cliente.idCliente.eq(cliente.getIdCliente()));
-    Page<ProductoFavorito> pageable =
-            productoFavoritoRepository.findAll(
-                    builder,
+    Page<Producto> productos =
+            productoFavoritoRepository.getProductosFavoritos(
+                    idUsuario,
                     PageRequest.of(
                             pagina,
                             TAMANIO_PAGINA_DEFAULT,
                             Sort.by(Sort.Direction.DESC, "idProductoFavorito")));
-    List<Producto> productos = new ArrayList<>();
-    pageable.stream()
-            .forEach(
-                    productoFavorito -> {
-                      Producto producto = productoFavorito.getProducto();
-                      producto.setFavorito(true);
-                      this.calcularCantidadEnSucursalesDisponible(producto, idSucursal);
-                      productos.add(producto);
-                    });
-    return new PageImpl<>(productos, pageable.getPageable(), pageable.getTotalElements());
+    productos.forEach(producto -> {
+      producto.setFavorito(true);
+      this.calcularCantidadEnSucursalesDisponible(producto, idSucursal);
+    });
+    return productos;
   }
 
   @Override
@@ -1220,8 +1396,7 @@ public class ProductoServiceImpl implements ProductoService {
 
   @Override
   public Long getCantidadDeProductosFavoritos(long idUsuario) {
-    Cliente cliente = clienteService.getClientePorIdUsuario(idUsuario);
-    return productoFavoritoRepository.getCantidadDeArticulosEnFavoritos(cliente);
+    return productoFavoritoRepository.getCantidadDeArticulosEnFavoritos(idUsuario);
   }
 
   @Override
@@ -1279,4 +1454,10 @@ public class ProductoServiceImpl implements ProductoService {
   public void quitarCantidadReservada(long idProducto, BigDecimal cantidadParaQuitar) {
       productoRepository.actualizarCantidadReservada(idProducto, cantidadParaQuitar.negate());
   }
+
+  // Un update por producto, en orden de id para que dos lotes concurrentes no se bloqueen mutuamente
+  @Override
+  public void quitarCantidadesReservadas(Map<Long, BigDecimal> cantidadesParaQuitar) {
+    new TreeMap<>(cantidadesParaQuitar).forEach(this::quitarCantidadReservada);
+  }
 }
@@ -8,6 +8,7 @@ import org.opencommercial.model.CuentaCorrienteProveedor;
 import org.opencommercial.model.Proveedor;
 import org.opencommercial.model.QProveedor;
 import org.opencommercial.model.TipoDeOperacion;
+import org.opencommercial.model.TipoIdentificador;
 import org.opencommercial.model.criteria.BusquedaProveedorCriteria;
 import org.opencommercial.repository.ProveedorRepository;
 import org.opencommercial.util.CustomValidator;
@@ -35,6 +36,7 @@ public class ProveedorServiceImpl implements ProveedorService {
   private final UbicacionService ubicacionService;
   private static final int TAMANIO_PAGINA_DEFAULT = 25;
   private final MessageSource messageSource;
+  private final GeneradorIdentificadorService generadorIdentificadorService;
   private final CustomValidator customValidator;
 
   @Autowired
@@ -43,11 +45,13 @@ public class ProveedorServiceImpl implements ProveedorService {
     CuentaCorrienteService cuentaCorrienteService,
     UbicacionService ubicacionService,
     MessageSource messageSource,
+    GeneradorIdentificadorService generadorIdentificadorService,
     CustomValidator customValidator) {
     this.proveedorRepository = proveedorRepository;
     this.cuentaCorrienteService = cuentaCorrienteService;
     this.ubicacionService = ubicacionService;
     this.messageSource = messageSource;
+    this.generadorIdentificadorService = generadorIdentificadorService;
     this.customValidator = customValidator;
   }
 
@@ -199,16 +203,8 @@ public class ProveedorServiceImpl implements ProveedorService {
 
   @Override
   public String generarNroDeProveedor() {
-    long min = 1L;
-    long max = 99999L; // 5 digitos
-    long randomLong = 0L;
-    boolean esRepetido = true;
-    while (esRepetido) {
-      randomLong = min + (long) (Math.random() * (max - min));
-      String nroProveedor = Long.toString(randomLong);
-      Proveedor p = proveedorRepository.findByNroProveedorAndEliminado(nroProveedor, false);
-      if (p == null) esRepetido = false;
-    }
-    return Long.toString(randomLong);
+    return Long.toString(generadorIdentificadorService.generarIdentificador(
+            TipoIdentificador.PROVEEDOR, "",
+            nroProveedor -> proveedorRepository.findByNroProveedorAndEliminado(Long.toString(nroProveedor), false) != null));
   }
 }
@@ -4,7 +4,7 @@ import com.mercadopago.resources.payment.Payment;
 import com.querydsl.core.BooleanBuilder;
 import org.opencommercial.model.*;
 import org.opencommercial.model.criteria.BusquedaReciboCriteria;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -17,7 +17,7 @@ public interface ReciboService {
 
   Optional<Recibo> getReciboPorIdMercadoPago(long idPagoMercadoPago);
 
-  Page<Recibo> buscarRecibos(BusquedaReciboCriteria criteria);
+  Slice<Recibo> buscarRecibos(BusquedaReciboCriteria criteria);
 
   BooleanBuilder getBuilder(BusquedaReciboCriteria criteria);
 
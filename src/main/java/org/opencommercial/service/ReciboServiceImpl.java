@@ -11,22 +11,22 @@ import org.opencommercial.model.criteria.BusquedaReciboCriteria;
 import org.opencommercial.repository.ReciboRepository;
 import org.opencommercial.util.CustomValidator;
 import org.opencommercial.util.FormatoReporte;
+import org.opencommercial.util.ImagenesReporteHandler;
 import org.opencommercial.util.JasperReportsHandler;
+import org.opencommercial.util.PaginadorPorCursor;
+import org.opencommercial.util.PaginadorSinConteo;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.MessageSource;
 import org.springframework.context.annotation.Lazy;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import javax.imageio.ImageIO;
-import javax.swing.*;
 import java.io.IOException;
 import java.math.BigDecimal;
-import java.net.URL;
 import java.time.LocalDateTime;
 import java.util.*;
 
@@ -44,6 +44,10 @@ public class ReciboServiceImpl implements ReciboService {
   private final MessageSource messageSource;
   private final CustomValidator customValidator;
   private final JasperReportsHandler jasperReportsHandler;
+  private final ImagenesReporteHandler imagenesReporteHandler;
+  private final NumeradorComprobanteService numeradorComprobanteService;
+  private final PaginadorPorCursor paginadorPorCursor;
+  private final PaginadorSinConteo paginadorSinConteo;
 
   @Autowired
   @Lazy
@@ -56,7 +60,11 @@ public class ReciboServiceImpl implements ReciboService {
           CajaService cajaService,
           MessageSource messageSource,
           CustomValidator customValidator,
-          JasperReportsHandler jasperReportsHandler) {
+          JasperReportsHandler jasperReportsHandler,
+          ImagenesReporteHandler imagenesReporteHandler,
+          NumeradorComprobanteService numeradorComprobanteService,
+          PaginadorPorCursor paginadorPorCursor,
+          PaginadorSinConteo paginadorSinConteo) {
     this.reciboRepository = reciboRepository;
     this.cuentaCorrienteService = cuentaCorrienteService;
     this.sucursalService = sucursalService;
@@ -66,6 +74,10 @@ public class ReciboServiceImpl implements ReciboService {
     this.messageSource = messageSource;
     this.customValidator = customValidator;
     this.jasperReportsHandler = jasperReportsHandler;
+    this.imagenesReporteHandler = imagenesReporteHandler;
+    this.numeradorComprobanteService = numeradorComprobanteService;
+    this.paginadorPorCursor = paginadorPorCursor;
+    this.paginadorSinConteo = paginadorSinConteo;
   }
 
   @Override
@@ -132,10 +144,15 @@ public class ReciboServiceImpl implements ReciboService {
   }
 
   @Override
-  public Page<Recibo> buscarRecibos(BusquedaReciboCriteria criteria) {
-    return reciboRepository.findAll(
-        this.getBuilder(criteria),
-        this.getPageable(criteria.getPagina(), criteria.getOrdenarPor(), criteria.getSentido()));
+  public Slice<Recibo> buscarRecibos(BusquedaReciboCriteria criteria) {
+    var builder = this.getBuilder(criteria);
+    var pageable = this.getPageable(criteria.getPagina(), criteria.getOrdenarPor(), criteria.getSentido());
+    if (criteria.isPorCursor() || criteria.getDespuesDe() != null) {
+      return paginadorPorCursor.buscar(
+          reciboRepository, Recibo.class, "idRecibo", builder, pageable, criteria.getDespuesDe());
+    }
+    if (criteria.isSinTotal()) return paginadorSinConteo.buscar(Recibo.class, builder, pageable);
+    return paginadorSinConteo.buscarConTotal(reciboRepository, Recibo.class, builder, pageable);
   }
 
   private Pageable getPageable(Integer pagina, String ordenarPor, String sentido) {
@@ -201,14 +218,12 @@ public class ReciboServiceImpl implements ReciboService {
 
   @Override
   public long getSiguienteNumeroRecibo(long idSucursal, long serie) {
-    Recibo recibo =
-      reciboRepository.findTopBySucursalAndNumSerieOrderByNumReciboDesc(
-        sucursalService.getSucursalPorId(idSucursal), serie);
-    if (recibo == null) {
-      return 1; // No existe ningun Recibo anterior
-    } else {
-      return 1 + recibo.getNumRecibo();
-    }
+    return numeradorComprobanteService.asignarSiguienteNumero(idSucursal, TipoDeComprobante.RECIBO, serie, () -> {
+      Recibo recibo =
+        reciboRepository.findTopBySucursalAndNumSerieOrderByNumReciboDesc(
+          sucursalService.getSucursalPorId(idSucursal), serie);
+      return (recibo == null) ? 0 : recibo.getNumRecibo();
+    });
   }
 
   @Override
@@ -243,8 +258,6 @@ public class ReciboServiceImpl implements ReciboService {
             recibo.setMonto(v);
             recibo.setNumSerie(
                 recibo.getSucursal().getConfiguracionSucursal().getNroPuntoDeVentaAfip());
-            recibo.setNumRecibo(
-                this.getSiguienteNumeroRecibo(sucursal.getIdSucursal(), recibo.getNumSerie()));
             recibo.setConcepto("SALDO.");
             recibos.add(recibo);
           });
@@ -318,7 +331,7 @@ public class ReciboServiceImpl implements ReciboService {
     params.put("recibo", recibo);
     if (recibo.getSucursal().getLogo() != null && !recibo.getSucursal().getLogo().isEmpty()) {
       try {
-        params.put("logo", new ImageIcon(ImageIO.read(new URL(recibo.getSucursal().getLogo()))).getImage());
+        params.put("logo", imagenesReporteHandler.getImagen(recibo.getSucursal().getLogo()));
       } catch (IOException ex) {
         throw new ServiceException(messageSource.getMessage(
           "mensaje_sucursal_404_logo", null, Locale.getDefault()), ex);
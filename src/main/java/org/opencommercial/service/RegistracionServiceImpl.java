@@ -3,12 +3,13 @@ package org.opencommercial.service;
 import lombok.extern.slf4j.Slf4j;
 import org.opencommercial.model.CategoriaIVA;
 import org.opencommercial.model.Cliente;
+import org.opencommercial.model.EnvioEmail;
 import org.opencommercial.model.Rol;
+import org.opencommercial.model.TipoIdentificador;
 import org.opencommercial.model.Usuario;
 import org.opencommercial.model.dto.RegistracionClienteAndUsuarioDTO;
 import org.opencommercial.util.CustomValidator;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.MessageSource;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -23,26 +24,26 @@ import java.util.Locale;
 @Slf4j
 public class RegistracionServiceImpl implements RegistracionService {
 
-  @Value("${EMAIL_DEFAULT_PROVIDER}")
-  private String emailDefaultProvider;
-
   private final UsuarioService usuarioService;
   private final ClienteService clienteService;
-  private final EmailServiceFactory emailServiceFactory;
+  private final EnvioEmailService envioEmailService;
   private final MessageSource messageSource;
+  private final GeneradorIdentificadorService generadorIdentificadorService;
   private final CustomValidator customValidator;
 
   @Autowired
   public RegistracionServiceImpl(
       UsuarioService usuarioService,
       ClienteService clienteService,
-      EmailServiceFactory emailServiceFactory,
+      EnvioEmailService envioEmailService,
       MessageSource messageSource,
+      GeneradorIdentificadorService generadorIdentificadorService,
       CustomValidator customValidator) {
     this.usuarioService = usuarioService;
     this.clienteService = clienteService;
-    this.emailServiceFactory = emailServiceFactory;
+    this.envioEmailService = envioEmailService;
     this.messageSource = messageSource;
+    this.generadorIdentificadorService = generadorIdentificadorService;
     this.customValidator = customValidator;
   }
 
@@ -79,41 +80,31 @@ public class RegistracionServiceImpl implements RegistracionService {
     nuevoCliente.setMontoCompraMinima(BigDecimal.ZERO);
     nuevoCliente.setPuedeComprarAPlazo(false);
     clienteService.guardar(nuevoCliente);
-    emailServiceFactory.getEmailService(emailDefaultProvider)
-            .enviarEmail(
-                    nuevoUsuario.getEmail(),
-                    "",
-                    "Registración de cuenta nueva",
-                    messageSource.getMessage(
-                            "mensaje_correo_registracion",
-                            new Object[]{
-                                    nuevoUsuario.getNombre() + " " + nuevoUsuario.getApellido(),
-                                    nuevoCliente.getCategoriaIVA(),
-                                    nuevoCliente.getNombreFiscal(),
-                                    nuevoCliente.getTelefono(),
-                                    nuevoUsuario.getUsername(),
-                            },
-                            Locale.getDefault()),
-                    null,
-                    null);
-    log.info("Se envió el mail de registración de usuario. {}", nuevoUsuario);
+    envioEmailService.encolar(EnvioEmail.builder()
+            .destinatario(nuevoUsuario.getEmail())
+            .bcc("")
+            .asunto("Registración de cuenta nueva")
+            .mensaje(messageSource.getMessage(
+                    "mensaje_correo_registracion",
+                    new Object[]{
+                            nuevoUsuario.getNombre() + " " + nuevoUsuario.getApellido(),
+                            nuevoCliente.getCategoriaIVA(),
+                            nuevoCliente.getNombreFiscal(),
+                            nuevoCliente.getTelefono(),
+                            nuevoUsuario.getUsername(),
+                    },
+                    Locale.getDefault()))
+            .build());
+    log.info("Se encoló el mail de registración de usuario. {}", nuevoUsuario);
   }
 
   @Override
   public String generarUsername(String nombre, String apellido) {
-    long min = 1L;
-    long max = 999L; // 3 digitos
-    long randomLong;
-    boolean esRepetido = true;
-    nombre = nombre.replaceAll("\\s+", "");
-    apellido = apellido.replaceAll("\\s+", "");
-    String nuevoUsername = "";
-    while (esRepetido) {
-      randomLong = min + (long) (Math.random() * (max - min));
-      nuevoUsername = nombre + apellido + Long.toString(randomLong);
-      Usuario u = usuarioService.getUsuarioPorUsername(nuevoUsername);
-      if (u == null) esRepetido = false;
-    }
-    return nuevoUsername.toLowerCase();
+    String base = nombre.replaceAll("\\s+", "") + apellido.replaceAll("\\s+", "");
+    // cada nombre y apellido tiene su propia secuencia de sufijos de 3 digitos
+    long sufijo = generadorIdentificadorService.generarIdentificador(
+            TipoIdentificador.USUARIO, base.toLowerCase(),
+            sufijoEnUso -> usuarioService.getUsuarioPorUsername(base + sufijoEnUso) != null);
+    return (base + sufijo).toLowerCase();
   }
 }
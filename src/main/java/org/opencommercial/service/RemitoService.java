@@ -6,8 +6,8 @@ import org.opencommercial.model.Remito;
 import org.opencommercial.model.RenglonRemito;
 import org.opencommercial.model.criteria.BusquedaRemitoCriteria;
 import org.opencommercial.model.dto.NuevoRemitoDTO;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 
@@ -21,11 +21,11 @@ public interface RemitoService {
 
   List<RenglonRemito> construirRenglonesDeRemito(NuevoRemitoDTO nuevoRemitoDTO);
 
-  long getSiguienteNumeroRemito(Long nroSerie);
+  long getSiguienteNumeroRemito(long idSucursal, long nroSerie);
 
   List<RenglonRemito> getRenglonesDelRemito(long idRemito);
 
-  Page<Remito> buscarRemito(BusquedaRemitoCriteria criteria);
+  Slice<Remito> buscarRemito(BusquedaRemitoCriteria criteria);
 
   Pageable getPageable(Integer pagina, String ordenarPor, String sentido);
 
@@ -12,21 +12,21 @@ import org.opencommercial.repository.RemitoRepository;
 import org.opencommercial.repository.RenglonRemitoRepository;
 import org.opencommercial.util.CustomValidator;
 import org.opencommercial.util.FormatoReporte;
+import org.opencommercial.util.ImagenesReporteHandler;
 import org.opencommercial.util.JasperReportsHandler;
+import org.opencommercial.util.PaginadorPorCursor;
+import org.opencommercial.util.PaginadorSinConteo;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.MessageSource;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import javax.imageio.ImageIO;
-import javax.swing.*;
 import java.io.IOException;
 import java.math.BigDecimal;
-import java.net.URL;
 import java.time.LocalDateTime;
 import java.util.*;
 
@@ -47,6 +47,10 @@ public class RemitoServiceImpl implements RemitoService {
     private static final int TAMANIO_PAGINA_DEFAULT = 25;
     private final CustomValidator customValidator;
     private final JasperReportsHandler jasperReportsHandler;
+    private final ImagenesReporteHandler imagenesReporteHandler;
+    private final NumeradorComprobanteService numeradorComprobanteService;
+    private final PaginadorPorCursor paginadorPorCursor;
+    private final PaginadorSinConteo paginadorSinConteo;
 
     @Autowired
     public RemitoServiceImpl(FacturaService facturaService,
@@ -59,7 +63,11 @@ public class RemitoServiceImpl implements RemitoService {
                              CuentaCorrienteService cuentaCorrienteService,
                              MessageSource messageSource,
                              CustomValidator customValidator,
-                             JasperReportsHandler jasperReportsHandler) {
+                             JasperReportsHandler jasperReportsHandler,
+                             ImagenesReporteHandler imagenesReporteHandler,
+                             NumeradorComprobanteService numeradorComprobanteService,
+                             PaginadorPorCursor paginadorPorCursor,
+                             PaginadorSinConteo paginadorSinConteo) {
         this.facturaService = facturaService;
         this.facturaVentaService = facturaVentaService;
         this.remitoRepository = remitoRepository;
@@ -71,6 +79,10 @@ public class RemitoServiceImpl implements RemitoService {
         this.messageSource = messageSource;
         this.customValidator = customValidator;
         this.jasperReportsHandler = jasperReportsHandler;
+        this.imagenesReporteHandler = imagenesReporteHandler;
+        this.numeradorComprobanteService = numeradorComprobanteService;
+        this.paginadorPorCursor = paginadorPorCursor;
+        this.paginadorSinConteo = paginadorSinConteo;
     }
 
     @Override
@@ -112,7 +124,7 @@ public class RemitoServiceImpl implements RemitoService {
        remito.setObservaciones(nuevoRemitoDTO.getObservaciones());
        remito.setSucursal(pedido.getSucursal());
        remito.setSerie(remito.getSucursal().getConfiguracionSucursal().getNroPuntoDeVentaAfip());
-       remito.setNroRemito(this.getSiguienteNumeroRemito(remito.getSerie()));
+       remito.setNroRemito(this.getSiguienteNumeroRemito(remito.getSucursal().getIdSucursal(), remito.getSerie()));
        remito.setUsuario(usuarioService.getUsuarioNoEliminadoPorId(idUsuario));
        remito.setTransportista(transportistaService.getTransportistaNoEliminadoPorId(nuevoRemitoDTO.getIdTransportista()));
        customValidator.validar(remito);
@@ -192,10 +204,11 @@ public class RemitoServiceImpl implements RemitoService {
     }
 
     @Override
-    public long getSiguienteNumeroRemito(Long nroSerie) {
-        Long numeroNota =
-                remitoRepository.buscarMayorNumRemitoSegunSerie(nroSerie);
-        return (numeroNota == null) ? 1 : numeroNota + 1;
+    public long getSiguienteNumeroRemito(long idSucursal, long nroSerie) {
+        return numeradorComprobanteService.asignarSiguienteNumero(idSucursal, TipoDeComprobante.REMITO, nroSerie, () -> {
+            Long numeroRemito = remitoRepository.buscarMayorNumRemitoSegunSerieYSucursal(idSucursal, nroSerie);
+            return (numeroRemito == null) ? 0 : numeroRemito;
+        });
     }
 
     @Override
@@ -204,8 +217,15 @@ public class RemitoServiceImpl implements RemitoService {
     }
 
     @Override
-    public Page<Remito> buscarRemito(BusquedaRemitoCriteria criteria) {
-        return remitoRepository.findAll(this.getBuilder(criteria), this.getPageable(criteria.getPagina(), criteria.getOrdenarPor(), criteria.getSentido()));
+    public Slice<Remito> buscarRemito(BusquedaRemitoCriteria criteria) {
+        var builder = this.getBuilder(criteria);
+        var pageable = this.getPageable(criteria.getPagina(), criteria.getOrdenarPor(), criteria.getSentido());
+        if (criteria.isPorCursor() || criteria.getDespuesDe() != null) {
+            return paginadorPorCursor.buscar(
+                    remitoRepository, Remito.class, "idRemito", builder, pageable, criteria.getDespuesDe());
+        }
+        if (criteria.isSinTotal()) return paginadorSinConteo.buscar(Remito.class, builder, pageable);
+        return paginadorSinConteo.buscarConTotal(remitoRepository, Remito.class, builder, pageable);
     }
 
     @Override
@@ -285,7 +305,7 @@ public class RemitoServiceImpl implements RemitoService {
             try {
                 params.put(
                         "logo",
-                        new ImageIcon(ImageIO.read(new URL(remitoParaReporte.getSucursal().getLogo()))).getImage());
+                        imagenesReporteHandler.getImagen(remitoParaReporte.getSucursal().getLogo()));
             } catch (IOException ex) {
                 throw new ServiceException(
                         messageSource.getMessage("mensaje_sucursal_404_logo", null, Locale.getDefault()), ex);
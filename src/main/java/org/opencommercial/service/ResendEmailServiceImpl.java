@@ -7,7 +7,6 @@ import com.resend.services.emails.model.SendEmailRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.MessageSource;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.opencommercial.exception.ServiceException;
 
@@ -37,7 +36,6 @@ public class ResendEmailServiceImpl implements EmailService {
   }
 
   @Override
-  @Async
   public void enviarEmail(String toEmail, String bcc, String subject,
                           String mensaje, byte[] byteArray, String attachmentName) {
     if (!isServicioConfigurado()) {
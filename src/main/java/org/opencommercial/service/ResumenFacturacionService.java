@@ -0,0 +1,10 @@
+package org.opencommercial.service;
+
+import org.opencommercial.model.Factura;
+
+public interface ResumenFacturacionService {
+
+  void acumularFactura(Factura factura);
+
+  void reconstruirResumenes();
+}
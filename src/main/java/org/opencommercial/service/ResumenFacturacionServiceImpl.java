@@ -0,0 +1,55 @@
+package org.opencommercial.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.opencommercial.model.*;
+import org.opencommercial.repository.ResumenFacturacionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@Slf4j
+public class ResumenFacturacionServiceImpl implements ResumenFacturacionService {
+
+  private final ResumenFacturacionRepository resumenFacturacionRepository;
+
+  @Autowired
+  public ResumenFacturacionServiceImpl(ResumenFacturacionRepository resumenFacturacionRepository) {
+    this.resumenFacturacionRepository = resumenFacturacionRepository;
+  }
+
+  // Se ejecuta dentro de la transaccion que guarda la factura, si esta se revierte el resumen tambien.
+  @Override
+  @Transactional
+  public void acumularFactura(Factura factura) {
+    Movimiento movimiento;
+    long idEntidad;
+    if (factura instanceof FacturaVenta facturaVenta) {
+      movimiento = Movimiento.VENTA;
+      idEntidad = facturaVenta.getCliente().getIdCliente();
+    } else if (factura instanceof FacturaCompra facturaCompra) {
+      movimiento = Movimiento.COMPRA;
+      idEntidad = facturaCompra.getProveedor().getIdProveedor();
+    } else {
+      return;
+    }
+    var monto = factura.isEliminada() ? factura.getTotal().negate() : factura.getTotal();
+    resumenFacturacionRepository.acumularTotal(
+            factura.getSucursal().getIdSucursal(),
+            movimiento.name(),
+            factura.getFecha().getYear(),
+            factura.getFecha().getMonthValue(),
+            factura.getFecha().getDayOfMonth(),
+            idEntidad,
+            monto);
+  }
+
+  @Override
+  @Transactional
+  public void reconstruirResumenes() {
+    resumenFacturacionRepository.eliminarTodos();
+    int ventas = resumenFacturacionRepository.insertarResumenesDeVentas();
+    int compras = resumenFacturacionRepository.insertarResumenesDeCompras();
+    log.info("Resumenes de facturacion reconstruidos: {} de ventas y {} de compras.", ventas, compras);
+  }
+}
@@ -2,12 +2,15 @@ package org.opencommercial.service;
 
 import jakarta.persistence.EntityNotFoundException;
 import lombok.extern.slf4j.Slf4j;
+import org.opencommercial.config.CacheConfig;
 import org.opencommercial.exception.BusinessServiceException;
 import org.opencommercial.model.Rubro;
 import org.opencommercial.model.TipoDeOperacion;
 import org.opencommercial.repository.RubroRepository;
 import org.opencommercial.util.CustomValidator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.MessageSource;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -35,6 +38,7 @@ public class RubroServiceImpl implements RubroService {
   }
 
   @Override
+  @Cacheable(CacheConfig.RUBROS)
   public Rubro getRubroNoEliminadoPorId(Long idRubro) {
     Optional<Rubro> rubro = rubroRepository
       .findById(idRubro);
@@ -47,6 +51,7 @@ public class RubroServiceImpl implements RubroService {
   }
 
   @Override
+  @Cacheable(CacheConfig.RUBROS)
   public List<Rubro> getRubros() {
     return rubroRepository.findAllByAndEliminadoOrderByNombreAsc(false);
   }
@@ -73,6 +78,7 @@ public class RubroServiceImpl implements RubroService {
   }
 
   @Override
+  @CacheEvict(cacheNames = CacheConfig.RUBROS, allEntries = true)
   @Transactional
   public void actualizar(Rubro rubro) {
     customValidator.validar(rubro);
@@ -81,6 +87,7 @@ public class RubroServiceImpl implements RubroService {
   }
 
   @Override
+  @CacheEvict(cacheNames = CacheConfig.RUBROS, allEntries = true)
   @Transactional
   public Rubro guardar(Rubro rubro) {
     customValidator.validar(rubro);
@@ -91,6 +98,7 @@ public class RubroServiceImpl implements RubroService {
   }
 
   @Override
+  @CacheEvict(cacheNames = CacheConfig.RUBROS, allEntries = true)
   @Transactional
   public void eliminar(long idRubro) {
     Rubro rubro = this.getRubroNoEliminadoPorId(idRubro);
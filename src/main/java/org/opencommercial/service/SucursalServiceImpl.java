@@ -2,6 +2,7 @@ package org.opencommercial.service;
 
 import jakarta.persistence.EntityNotFoundException;
 import lombok.extern.slf4j.Slf4j;
+import org.opencommercial.config.CacheConfig;
 import org.opencommercial.exception.BusinessServiceException;
 import org.opencommercial.model.ConfiguracionSucursal;
 import org.opencommercial.model.Sucursal;
@@ -10,7 +11,10 @@ import org.opencommercial.model.Ubicacion;
 import org.opencommercial.model.dto.NuevaSucursalDTO;
 import org.opencommercial.repository.SucursalRepository;
 import org.opencommercial.util.CustomValidator;
+import org.opencommercial.util.ImagenesReporteHandler;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.MessageSource;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -30,6 +34,7 @@ public class SucursalServiceImpl implements SucursalService {
   private final ProductoService productoService;
   private final MessageSource messageSource;
   private final CustomValidator customValidator;
+  private final ImagenesReporteHandler imagenesReporteHandler;
 
   @Autowired
   public SucursalServiceImpl(
@@ -38,13 +43,15 @@ public class SucursalServiceImpl implements SucursalService {
     ImageUploaderService imageUploaderService,
     ProductoService productoService,
     MessageSource messageSource,
-    CustomValidator customValidator) {
+    CustomValidator customValidator,
+    ImagenesReporteHandler imagenesReporteHandler) {
     this.sucursalRepository = sucursalRepository;
     this.ubicacionService = ubicacionService;
     this.imageUploaderService = imageUploaderService;
     this.productoService = productoService;
     this.messageSource = messageSource;
     this.customValidator = customValidator;
+    this.imagenesReporteHandler = imagenesReporteHandler;
   }
 
   @Override
@@ -59,11 +66,13 @@ public class SucursalServiceImpl implements SucursalService {
   }
 
   @Override
+  @Cacheable(CacheConfig.SUCURSALES)
   public Sucursal getSucursalPredeterminada() {
     return sucursalRepository.getSucursalPredeterminada();
   }
 
   @Override
+  @Cacheable(CacheConfig.SUCURSALES)
   public List<Sucursal> getSucusales(boolean puntoDeRetiro) {
     if (puntoDeRetiro) {
       return sucursalRepository.findAllByAndEliminadaOrderByNombreAsc(false).stream()
@@ -141,6 +150,7 @@ public class SucursalServiceImpl implements SucursalService {
   }
 
   @Override
+  @CacheEvict(cacheNames = CacheConfig.SUCURSALES, allEntries = true)
   @Transactional
   public Sucursal guardar(NuevaSucursalDTO nuevaSucursal, Ubicacion ubicacion, byte[] logo) {
     customValidator.validar(nuevaSucursal);
@@ -170,10 +180,12 @@ public class SucursalServiceImpl implements SucursalService {
   }
 
   @Override
+  @CacheEvict(cacheNames = CacheConfig.SUCURSALES, allEntries = true)
   @Transactional
   public void actualizar(Sucursal sucursalParaActualizar, Sucursal sucursalPersistida, byte[] imagen) {
     customValidator.validar(sucursalParaActualizar);
     if (imagen != null) {
+      imagenesReporteHandler.invalidar(sucursalPersistida.getLogo());
       if (imagen.length == 0) {
         if (sucursalPersistida.getLogo() != null && !sucursalPersistida.getLogo().isEmpty()) {
           imageUploaderService.borrarImagen(Sucursal.class.getSimpleName() + sucursalPersistida.getIdSucursal());
@@ -189,6 +201,7 @@ public class SucursalServiceImpl implements SucursalService {
   }
 
   @Override
+  @CacheEvict(cacheNames = CacheConfig.SUCURSALES, allEntries = true)
   @Transactional
   public void eliminar(Long idSucursal) {
     Sucursal sucursal = this.getSucursalPorId(idSucursal);
@@ -199,6 +212,7 @@ public class SucursalServiceImpl implements SucursalService {
     }
     sucursal.setEliminada(true);
     if (sucursal.getLogo() != null && !sucursal.getLogo().isEmpty()) {
+      imagenesReporteHandler.invalidar(sucursal.getLogo());
       imageUploaderService.borrarImagen(Sucursal.class.getSimpleName() + sucursal.getIdSucursal());
     }
     productoService.eliminarCantidadesDeSucursal(sucursal);
@@ -210,6 +224,8 @@ public class SucursalServiceImpl implements SucursalService {
     if (imagen.length > 1024000L)
       throw new BusinessServiceException(messageSource.getMessage(
         "mensaje_error_tamanio_no_valido", null, Locale.getDefault()));
-    return imageUploaderService.subirImagen(Sucursal.class.getSimpleName() + idSucursal, imagen);
+    String urlLogo = imageUploaderService.subirImagen(Sucursal.class.getSimpleName() + idSucursal, imagen);
+    imagenesReporteHandler.invalidar(urlLogo);
+    return urlLogo;
   }
 }
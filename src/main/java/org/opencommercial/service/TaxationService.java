@@ -2,7 +2,11 @@ package org.opencommercial.service;
 
 import org.opencommercial.model.ComprobanteAutorizable;
 
+import java.util.List;
+
 public interface TaxationService {
 
   void autorizar(ComprobanteAutorizable comprobanteAutorizable);
+
+  void autorizar(List<? extends ComprobanteAutorizable> comprobantesAutorizables);
 }
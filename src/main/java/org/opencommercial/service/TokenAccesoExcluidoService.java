@@ -0,0 +1,14 @@
+package org.opencommercial.service;
+
+import java.time.LocalDateTime;
+
+public interface TokenAccesoExcluidoService {
+
+  boolean esTokenExcluido(String token);
+
+  void excluirToken(String token, LocalDateTime fechaVencimiento);
+
+  void cargarTokensExcluidos();
+
+  void eliminarTokensVencidos();
+}
@@ -0,0 +1,81 @@
+package org.opencommercial.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.opencommercial.exception.ServiceException;
+import org.opencommercial.model.TokenAccesoExcluido;
+import org.opencommercial.repository.TokenAccesoExcluidoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@Slf4j
+public class TokenAccesoExcluidoServiceImpl implements TokenAccesoExcluidoService {
+
+  private final TokenAccesoExcluidoRepository tokenAccesoExcluidoRepository;
+  private final Map<String, LocalDateTime> tokensExcluidos = new ConcurrentHashMap<>();
+  private volatile boolean tokensExcluidosCargados;
+
+  @Autowired
+  public TokenAccesoExcluidoServiceImpl(TokenAccesoExcluidoRepository tokenAccesoExcluidoRepository) {
+    this.tokenAccesoExcluidoRepository = tokenAccesoExcluidoRepository;
+  }
+
+  @Override
+  public boolean esTokenExcluido(String token) {
+    // hasta que termine la carga inicial se consulta la base de datos
+    if (!tokensExcluidosCargados) return tokenAccesoExcluidoRepository.findByToken(token) != null;
+    return tokensExcluidos.containsKey(this.getHash(token));
+  }
+
+  @Override
+  @Transactional
+  public void excluirToken(String token, LocalDateTime fechaVencimiento) {
+    if (tokenAccesoExcluidoRepository.findByToken(token) == null) {
+      tokenAccesoExcluidoRepository.save(
+              TokenAccesoExcluido.builder().token(token).fechaVencimiento(fechaVencimiento).build());
+    }
+    tokensExcluidos.put(this.getHash(token), fechaVencimiento != null ? fechaVencimiento : LocalDateTime.MAX);
+  }
+
+  @Override
+  @EventListener(ApplicationReadyEvent.class)
+  public void cargarTokensExcluidos() {
+    tokenAccesoExcluidoRepository.findAllVigentes(LocalDateTime.now())
+            .forEach(tae -> tokensExcluidos.put(
+                    this.getHash(tae.getToken()),
+                    tae.getFechaVencimiento() != null ? tae.getFechaVencimiento() : LocalDateTime.MAX));
+    tokensExcluidosCargados = true;
+    log.info("Se cargaron {} tokens de acceso excluidos.", tokensExcluidos.size());
+  }
+
+  @Override
+  @Scheduled(cron = "0 0 * * * *") // Cada hora
+  @Transactional
+  public void eliminarTokensVencidos() {
+    var ahora = LocalDateTime.now();
+    int eliminados = tokenAccesoExcluidoRepository.eliminarTokensVencidos(ahora);
+    tokensExcluidos.values().removeIf(fechaVencimiento -> fechaVencimiento.isBefore(ahora));
+    log.info("Se eliminaron {} tokens de acceso excluidos vencidos.", eliminados);
+  }
+
+  private String getHash(String token) {
+    try {
+      var digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException ex) {
+      throw new ServiceException(ex);
+    }
+  }
+}
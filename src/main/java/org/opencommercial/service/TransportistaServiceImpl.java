@@ -3,6 +3,7 @@ package org.opencommercial.service;
 import com.querydsl.core.BooleanBuilder;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.extern.slf4j.Slf4j;
+import org.opencommercial.config.CacheConfig;
 import org.opencommercial.exception.BusinessServiceException;
 import org.opencommercial.model.QTransportista;
 import org.opencommercial.model.TipoDeOperacion;
@@ -11,6 +12,8 @@ import org.opencommercial.model.criteria.BusquedaTransportistaCriteria;
 import org.opencommercial.repository.TransportistaRepository;
 import org.opencommercial.util.CustomValidator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.MessageSource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -46,6 +49,7 @@ public class TransportistaServiceImpl implements TransportistaService {
   }
 
   @Override
+  @Cacheable(CacheConfig.TRANSPORTISTAS)
   public Transportista getTransportistaNoEliminadoPorId(long idTransportista) {
     Optional<Transportista> transportista = transportistaRepository
       .findById(idTransportista);
@@ -58,6 +62,7 @@ public class TransportistaServiceImpl implements TransportistaService {
   }
 
   @Override
+  @Cacheable(CacheConfig.TRANSPORTISTAS)
   public List<Transportista> getTransportistas() {
     List<Transportista> transportista =
         transportistaRepository.findAllByAndEliminadoOrderByNombreAsc(false);
@@ -145,6 +150,7 @@ public class TransportistaServiceImpl implements TransportistaService {
   }
 
   @Override
+  @CacheEvict(cacheNames = CacheConfig.TRANSPORTISTAS, allEntries = true)
   @Transactional
   public Transportista guardar(Transportista transportista) {
     customValidator.validar(transportista);
@@ -162,6 +168,7 @@ public class TransportistaServiceImpl implements TransportistaService {
   }
 
   @Override
+  @CacheEvict(cacheNames = CacheConfig.TRANSPORTISTAS, allEntries = true)
   @Transactional
   public void actualizar(Transportista transportista) {
     customValidator.validar(transportista);
@@ -170,6 +177,7 @@ public class TransportistaServiceImpl implements TransportistaService {
   }
 
   @Override
+  @CacheEvict(cacheNames = CacheConfig.TRANSPORTISTAS, allEntries = true)
   @Transactional
   public void eliminar(long idTransportista) {
     Transportista transportista = this.getTransportistaNoEliminadoPorId(idTransportista);
@@ -11,7 +11,9 @@ import org.opencommercial.model.dto.*;
 import org.opencommercial.repository.RenglonTraspasoRepository;
 import org.opencommercial.repository.TraspasoRepository;
 import org.opencommercial.util.FormatoReporte;
+import org.opencommercial.util.ImagenesReporteHandler;
 import org.opencommercial.util.JasperReportsHandler;
+import org.opencommercial.util.PlanificadorTraspasos;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.MessageSource;
 import org.springframework.data.domain.Page;
@@ -21,11 +23,8 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import javax.imageio.ImageIO;
-import javax.swing.*;
 import java.io.IOException;
 import java.math.BigDecimal;
-import java.net.URL;
 import java.time.LocalDateTime;
 import java.util.*;
 
@@ -41,8 +40,10 @@ public class TraspasoServiceImpl implements TraspasoService {
   private final UsuarioService usuarioService;
   private final PedidoService pedidoService;
   private final MessageSource messageSource;
+  private final GeneradorIdentificadorService generadorIdentificadorService;
   private static final int TAMANIO_PAGINA_DEFAULT = 25;
   private final JasperReportsHandler jasperReportsHandler;
+  private final ImagenesReporteHandler imagenesReporteHandler;
 
   @Autowired
   public TraspasoServiceImpl(
@@ -53,7 +54,9 @@ public class TraspasoServiceImpl implements TraspasoService {
           UsuarioService usuarioService,
           PedidoService pedidoService,
           MessageSource messageSource,
-          JasperReportsHandler jasperReportsHandler) {
+          GeneradorIdentificadorService generadorIdentificadorService,
+          JasperReportsHandler jasperReportsHandler,
+          ImagenesReporteHandler imagenesReporteHandler) {
     this.traspasoRepository = traspasoRepository;
     this.renglonTraspasoRepository = renglonTraspasoRepository;
     this.productoService = productoService;
@@ -61,7 +64,9 @@ public class TraspasoServiceImpl implements TraspasoService {
     this.usuarioService = usuarioService;
     this.pedidoService = pedidoService;
     this.messageSource = messageSource;
+    this.generadorIdentificadorService = generadorIdentificadorService;
     this.jasperReportsHandler = jasperReportsHandler;
+    this.imagenesReporteHandler = imagenesReporteHandler;
   }
 
   @Override
@@ -82,6 +87,18 @@ public class TraspasoServiceImpl implements TraspasoService {
 
   @Override
   public Traspaso guardarTraspasoDePedido(NuevoTraspasoDePedidoDTO nuevoTraspasoDePedidoDTO) {
+    var traspaso = this.construirTraspasoDePedido(
+            nuevoTraspasoDePedidoDTO,
+            this.getProductosPorId(nuevoTraspasoDePedidoDTO.getIdProductoConCantidad().keySet()));
+    traspaso = traspasoRepository.save(traspaso);
+    log.info(messageSource.getMessage(
+            "mensaje_traspaso_realizado", new Object[] {traspaso}, Locale.getDefault()));
+    productoService.actualizarStockTraspaso(traspaso, TipoDeOperacion.ALTA);
+    return traspaso;
+  }
+
+  private Traspaso construirTraspasoDePedido(NuevoTraspasoDePedidoDTO nuevoTraspasoDePedidoDTO,
+                                             Map<Long, Producto> productos) {
     Traspaso traspaso = new Traspaso();
     traspaso.setFechaDeAlta(LocalDateTime.now());
     traspaso.setNroTraspaso(this.generarNroDeTraspaso());
@@ -98,7 +115,11 @@ public class TraspasoServiceImpl implements TraspasoService {
         .getIdProductoConCantidad()
         .forEach(
             (idProducto, cantidad) -> {
-              Producto producto = productoService.getProductoNoEliminadoPorId(idProducto);
+              Producto producto = productos.get(idProducto);
+              if (producto == null) {
+                throw new EntityNotFoundException(
+                        messageSource.getMessage("mensaje_producto_no_existente", null, Locale.getDefault()));
+              }
               RenglonTraspaso renglonTraspaso = new RenglonTraspaso();
               renglonTraspaso.setIdProducto(producto.getIdProducto());
               renglonTraspaso.setCodigoProducto(producto.getCodigo());
@@ -108,13 +129,16 @@ public class TraspasoServiceImpl implements TraspasoService {
               renglonesTraspaso.add(renglonTraspaso);
             });
     traspaso.setRenglones(renglonesTraspaso);
-    traspaso = traspasoRepository.save(traspaso);
-    log.info(messageSource.getMessage(
-            "mensaje_traspaso_realizado", new Object[] {traspaso}, Locale.getDefault()));
-    productoService.actualizarStockTraspaso(traspaso, TipoDeOperacion.ALTA);
     return traspaso;
   }
 
+  private Map<Long, Producto> getProductosPorId(Set<Long> idsProducto) {
+    Map<Long, Producto> productos = new HashMap<>();
+    productoService.getProductosNoEliminadosPorIds(idsProducto)
+            .forEach(producto -> productos.put(producto.getIdProducto(), producto));
+    return productos;
+  }
+
   @Override
   public Traspaso guardarTraspaso(NuevoTraspasoDTO nuevoTraspasoDTO, long idUsuario) {
     if (nuevoTraspasoDTO.getCantidad().length != nuevoTraspasoDTO.getIdProducto().length) {
@@ -155,104 +179,43 @@ public class TraspasoServiceImpl implements TraspasoService {
 
   @Override
   public List<Traspaso> guardarTraspasosPorPedido(Pedido pedido) {
-    List<Traspaso> traspasos = new ArrayList<>();
-    this.construirNuevosTraspasosPorPedido(pedido).stream()
-        .filter(nuevoTraspaso -> !nuevoTraspaso.getIdProductoConCantidad().isEmpty())
-        .forEach(nuevoTraspaso -> traspasos.add(this.guardarTraspasoDePedido(nuevoTraspaso)));
+    var nuevosTraspasos = this.construirNuevosTraspasosPorPedido(pedido);
+    if (nuevosTraspasos.isEmpty()) return Collections.emptyList();
+    Set<Long> idsProducto = new HashSet<>();
+    nuevosTraspasos.forEach(nuevoTraspaso -> idsProducto.addAll(nuevoTraspaso.getIdProductoConCantidad().keySet()));
+    var productos = this.getProductosPorId(idsProducto);
+    // todos los traspasos del pedido y sus renglones se persisten juntos
+    var traspasos = traspasoRepository.saveAll(nuevosTraspasos.stream()
+            .map(nuevoTraspaso -> this.construirTraspasoDePedido(nuevoTraspaso, productos))
+            .toList());
+    traspasos.forEach(traspaso -> {
+      log.info(messageSource.getMessage(
+              "mensaje_traspaso_realizado", new Object[] {traspaso}, Locale.getDefault()));
+      productoService.actualizarStockTraspaso(traspaso, TipoDeOperacion.ALTA);
+    });
     return traspasos;
   }
 
   @Override
   public List<NuevoTraspasoDePedidoDTO> construirNuevosTraspasosPorPedido(Pedido pedido) {
-    long[] idProducto = new long[pedido.getRenglones().size()];
-    BigDecimal[] cantidad = new BigDecimal[pedido.getRenglones().size()];
-    int i = 0;
-    for (RenglonPedido renglonPedido : pedido.getRenglones()) {
-      idProducto[i] = renglonPedido.getIdProductoItem();
-      cantidad[i] = renglonPedido.getCantidad();
-      i++;
-    }
-    ProductosParaVerificarStockDTO productosParaVerificarStockDTO =
-        ProductosParaVerificarStockDTO.builder()
-            .cantidad(cantidad)
-            .idProducto(idProducto)
-            .idSucursal(pedido.getIdSucursal())
-            .build();
-    List<ProductoFaltanteDTO> faltantes =
-        productoService.getProductosSinStockDisponibleParaTraspaso(productosParaVerificarStockDTO);
-    if (!faltantes.isEmpty()) {
-      List<Sucursal> sucursales = sucursalService.getSucusales(false);
-      List<NuevoTraspasoDePedidoDTO> nuevosTraspasos = new ArrayList<>();
-      sucursales.stream()
-          .filter(sucursal -> sucursal.getIdSucursal() != pedido.getSucursal().getIdSucursal())
-          .forEach(
-              sucursal -> {
-                NuevoTraspasoDePedidoDTO nuevoTraspasoDePedidoDTO =
-                    NuevoTraspasoDePedidoDTO.builder()
-                        .nroPedido(pedido.getNroPedido())
-                        .idSucursalOrigen(sucursal.getIdSucursal())
-                        .idUsuario(pedido.getUsuario().getIdUsuario())
-                        .idProductoConCantidad(new HashMap<>())
-                        .build();
-                nuevosTraspasos.add(nuevoTraspasoDePedidoDTO);
-              });
-      for (ProductoFaltanteDTO productoFaltante : faltantes) {
-        BigDecimal cantidadFaltante =
-            productoFaltante
-                .getCantidadSolicitada()
-                .subtract(productoFaltante.getCantidadDisponible());
-        Producto producto =
-            productoService.getProductoNoEliminadoPorId(productoFaltante.getIdProducto());
-        List<CantidadEnSucursal> listaOrdenadaPorCantidad = new ArrayList<>();
-        productoService.calcularCantidadEnSucursalesDisponible(producto, pedido.getIdSucursal());
-        producto.getCantidadProducto().getCantidadEnSucursalesDisponible().stream()
-            .filter(
-                cantidadEnSucursal ->
-                    !cantidadEnSucursal.getIdSucursal().equals(pedido.getIdSucursal()))
-            .forEach(listaOrdenadaPorCantidad::add);
-        listaOrdenadaPorCantidad.sort(
-            (cantidad1, cantidad2) -> cantidad2.getCantidad().compareTo(cantidad1.getCantidad()));
-        for (CantidadEnSucursal cantidadEnSucursal : listaOrdenadaPorCantidad) {
-          if (cantidadFaltante.compareTo(BigDecimal.ZERO) > 0) {
-            if (cantidadFaltante.compareTo(cantidadEnSucursal.getCantidad()) <= 0) {
-              BigDecimal cantidadFaltanteLambda = cantidadFaltante;
-              nuevosTraspasos.stream()
-                  .filter(
-                      nuevoTraspaso ->
-                          nuevoTraspaso
-                              .getIdSucursalOrigen()
-                              .equals(cantidadEnSucursal.getIdSucursal()))
-                  .forEach(
-                      nuevoTraspaso -> {
-                        nuevoTraspaso.setIdSucursalDestino(pedido.getSucursal().getIdSucursal());
-                        nuevoTraspaso
-                            .getIdProductoConCantidad()
-                            .put(producto.getIdProducto(), cantidadFaltanteLambda);
-                      });
-              cantidadFaltante = BigDecimal.ZERO;
-            } else if (cantidadEnSucursal.getCantidad().compareTo(BigDecimal.ZERO) > 0) {
-              cantidadFaltante = cantidadFaltante.subtract(cantidadEnSucursal.getCantidad());
-              nuevosTraspasos.stream()
-                  .filter(
-                      nuevoTraspaso ->
-                          nuevoTraspaso
-                              .getIdSucursalOrigen()
-                              .equals(cantidadEnSucursal.getIdSucursal()))
-                  .forEach(
-                      nuevoTraspaso -> {
-                        nuevoTraspaso.setIdSucursalDestino(pedido.getSucursal().getIdSucursal());
-                        nuevoTraspaso
-                            .getIdProductoConCantidad()
-                            .put(producto.getIdProducto(), cantidadEnSucursal.getCantidad());
-                      });
-            }
-          }
-        }
-      }
-      return nuevosTraspasos;
-    } else {
-      return Collections.emptyList();
-    }
+    Map<Long, BigDecimal> cantidadesSolicitadas = new LinkedHashMap<>();
+    pedido.getRenglones().forEach(renglonPedido ->
+            cantidadesSolicitadas.merge(renglonPedido.getIdProductoItem(), renglonPedido.getCantidad(), BigDecimal::add));
+    if (cantidadesSolicitadas.isEmpty()) return Collections.emptyList();
+    // una sola consulta trae el stock de los productos del pedido en todas las sucursales que pueden abastecerlo
+    var cantidadesPorSucursal = productoService.getCantidadesPorSucursal(
+            cantidadesSolicitadas.keySet().stream().mapToLong(Long::longValue).toArray(), pedido.getIdSucursal());
+    List<NuevoTraspasoDePedidoDTO> nuevosTraspasos = new ArrayList<>();
+    PlanificadorTraspasos.planificar(pedido.getIdSucursal(), cantidadesSolicitadas, cantidadesPorSucursal)
+        .forEach((idSucursalOrigen, idProductoConCantidad) ->
+            nuevosTraspasos.add(NuevoTraspasoDePedidoDTO.builder()
+                    .nroPedido(pedido.getNroPedido())
+                    .idSucursalOrigen(idSucursalOrigen)
+                    .idSucursalDestino(pedido.getIdSucursal())
+                    .idUsuario(pedido.getUsuario().getIdUsuario())
+                    .idProductoConCantidad(idProductoConCantidad)
+                    .build()));
+    return nuevosTraspasos;
   }
 
   @Override
@@ -282,16 +245,9 @@ public class TraspasoServiceImpl implements TraspasoService {
 
   @Override
   public String generarNroDeTraspaso() {
-    long min = 1L;
-    long max = 99999L; // 5 digitos
-    long randomLong = 0L;
-    boolean esRepetido = true;
-    while (esRepetido) {
-      randomLong = min + (long) (Math.random() * (max - min));
-      String nroTraspaso = Long.toString(randomLong);
-      esRepetido = traspasoRepository.existsByNroTraspaso(nroTraspaso);
-    }
-    return Long.toString(randomLong);
+    return Long.toString(generadorIdentificadorService.generarIdentificador(
+            TipoIdentificador.TRASPASO, "",
+            nroTraspaso -> traspasoRepository.existsByNroTraspaso(Long.toString(nroTraspaso))));
   }
 
   @Override
@@ -418,7 +374,7 @@ public class TraspasoServiceImpl implements TraspasoService {
       try {
         params.put(
                 "logo",
-                new ImageIcon(ImageIO.read(new URL(sucursalPredeterminada.getLogo()))).getImage());
+                imagenesReporteHandler.getImagen(sucursalPredeterminada.getLogo()));
       } catch (IOException ex) {
         throw new ServiceException(
                 messageSource.getMessage("mensaje_sucursal_404_logo", null, Locale.getDefault()), ex);
@@ -3,6 +3,7 @@ package org.opencommercial.service;
 import com.querydsl.core.BooleanBuilder;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.extern.slf4j.Slf4j;
+import org.opencommercial.config.CacheConfig;
 import org.opencommercial.exception.BusinessServiceException;
 import org.opencommercial.model.*;
 import org.opencommercial.model.criteria.BusquedaLocalidadCriteria;
@@ -12,6 +13,8 @@ import org.opencommercial.repository.ProvinciaRepository;
 import org.opencommercial.repository.UbicacionRepository;
 import org.opencommercial.util.CustomValidator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.MessageSource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -56,6 +59,7 @@ public class UbicacionServiceImpl implements UbicacionService {
   }
 
   @Override
+  @CacheEvict(cacheNames = {CacheConfig.SUCURSALES, CacheConfig.TRANSPORTISTAS}, allEntries = true)
   @Transactional
   public Ubicacion guardar(Ubicacion ubicacion) {
     customValidator.validar(ubicacion);
@@ -65,6 +69,7 @@ public class UbicacionServiceImpl implements UbicacionService {
   }
 
   @Override
+  @Cacheable(CacheConfig.UBICACIONES)
   public Localidad getLocalidadPorId(Long idLocalidad) {
     return localidadRepository
         .findById(idLocalidad)
@@ -80,11 +85,13 @@ public class UbicacionServiceImpl implements UbicacionService {
   }
 
   @Override
+  @Cacheable(CacheConfig.UBICACIONES)
   public List<Localidad> getLocalidadesDeLaProvincia(Provincia provincia) {
     return localidadRepository.findAllByAndProvinciaOrderByNombreAsc(provincia);
   }
 
   @Override
+  @Cacheable(CacheConfig.UBICACIONES)
   public Provincia getProvinciaPorId(Long idProvincia) {
     return provinciaRepository
         .findById(idProvincia)
@@ -95,11 +102,13 @@ public class UbicacionServiceImpl implements UbicacionService {
   }
 
   @Override
+  @Cacheable(CacheConfig.UBICACIONES)
   public List<Provincia> getProvincias() {
     return provinciaRepository.findAllByOrderByNombreAsc();
   }
 
   @Override
+  @CacheEvict(cacheNames = {CacheConfig.UBICACIONES, CacheConfig.SUCURSALES, CacheConfig.TRANSPORTISTAS}, allEntries = true)
   @Transactional
   public void actualizarLocalidad(Localidad localidad) {
     customValidator.validar(localidad);
@@ -108,6 +117,7 @@ public class UbicacionServiceImpl implements UbicacionService {
   }
 
   @Override
+  @CacheEvict(cacheNames = {CacheConfig.UBICACIONES, CacheConfig.SUCURSALES, CacheConfig.TRANSPORTISTAS}, allEntries = true)
   public void actualizarMultiplesLocalidades(
       LocalidadesParaActualizarDTO localidadesParaActualizar) {
     List<Localidad> localidadesParaModificar = new ArrayList<>();
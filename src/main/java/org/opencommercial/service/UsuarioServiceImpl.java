@@ -12,7 +12,6 @@ import org.opencommercial.repository.UsuarioRepository;
 import org.opencommercial.util.CustomValidator;
 import org.opencommercial.util.EncryptUtils;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.MessageSource;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.Page;
@@ -30,13 +29,10 @@ import java.util.Optional;
 @Slf4j
 public class UsuarioServiceImpl implements UsuarioService {
 
-  @Value("${EMAIL_DEFAULT_PROVIDER}")
-  private String emailDefaultProvider;
-
   private final UsuarioRepository usuarioRepository;
   private final SucursalService sucursalService;
   private final ClienteService clienteService;
-  private final EmailServiceFactory emailServiceFactory;
+  private final EnvioEmailService envioEmailService;
   private static final int TAMANIO_PAGINA_DEFAULT = 50;
   private final MessageSource messageSource;
   private final CustomValidator customValidator;
@@ -48,14 +44,14 @@ public class UsuarioServiceImpl implements UsuarioService {
     UsuarioRepository usuarioRepository,
     SucursalService sucursalService,
     ClienteService clienteService,
-    EmailServiceFactory emailServiceFactory,
+    EnvioEmailService envioEmailService,
     MessageSource messageSource,
     CustomValidator customValidator,
     EncryptUtils encryptUtils) {
     this.usuarioRepository = usuarioRepository;
     this.sucursalService = sucursalService;
     this.clienteService = clienteService;
-    this.emailServiceFactory = emailServiceFactory;
+    this.envioEmailService = envioEmailService;
     this.messageSource = messageSource;
     this.customValidator = customValidator;
     this.encryptUtils = encryptUtils;
@@ -296,17 +292,15 @@ public class UsuarioServiceImpl implements UsuarioService {
     }
     String passwordRecoveryKey = RandomStringUtils.random(250, true, true);
     this.actualizarPasswordRecoveryKey(passwordRecoveryKey, usuario);
-    emailServiceFactory.getEmailService(emailDefaultProvider)
-            .enviarEmail(
-                    usuario.getEmail(),
-                    "",
-                    "Recuperación de contraseña",
-                    messageSource.getMessage(
-                            "mensaje_correo_recuperacion",
-                            new Object[]{host, passwordRecoveryKey, usuario.getIdUsuario()},
-                            Locale.getDefault()),
-                    null,
-                    null);
+    envioEmailService.encolar(EnvioEmail.builder()
+            .destinatario(usuario.getEmail())
+            .bcc("")
+            .asunto("Recuperación de contraseña")
+            .mensaje(messageSource.getMessage(
+                    "mensaje_correo_recuperacion",
+                    new Object[]{host, passwordRecoveryKey, usuario.getIdUsuario()},
+                    Locale.getDefault()))
+            .build());
   }
 
   @Override
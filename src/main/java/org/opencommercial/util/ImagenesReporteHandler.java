@@ -0,0 +1,48 @@
+package org.opencommercial.util;
+
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import javax.swing.*;
+import java.awt.*;
+import java.io.IOException;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class ImagenesReporteHandler {
+
+  private static final String PRODUCTO_SIN_IMAGEN = "/producto_sin_imagen.png";
+  private final Map<String, Image> imagenes = new ConcurrentHashMap<>();
+
+  public Image getImagen(String url) throws IOException {
+    var imagen = imagenes.get(url);
+    if (imagen == null) {
+      imagen = this.leerImagen(new URL(url));
+      imagenes.put(url, imagen);
+    }
+    return imagen;
+  }
+
+  public Image getImagenProductoSinImagen() throws IOException {
+    var imagen = imagenes.get(PRODUCTO_SIN_IMAGEN);
+    if (imagen == null) {
+      var recurso = getClass().getResource(PRODUCTO_SIN_IMAGEN);
+      if (recurso == null) throw new IOException(PRODUCTO_SIN_IMAGEN);
+      imagen = this.leerImagen(recurso);
+      imagenes.put(PRODUCTO_SIN_IMAGEN, imagen);
+    }
+    return imagen;
+  }
+
+  public void invalidar(String url) {
+    if (url != null) imagenes.remove(url);
+  }
+
+  private Image leerImagen(URL url) throws IOException {
+    var bufferedImage = ImageIO.read(url);
+    if (bufferedImage == null) throw new IOException(url.toString());
+    return new ImageIcon(bufferedImage).getImage();
+  }
+}
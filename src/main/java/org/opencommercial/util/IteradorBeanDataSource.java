@@ -0,0 +1,36 @@
+package org.opencommercial.util;
+
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JRField;
+import net.sf.jasperreports.engine.data.JRAbstractBeanDataSource;
+
+import java.util.Iterator;
+
+public class IteradorBeanDataSource extends JRAbstractBeanDataSource {
+
+  private final Iterator<?> iterador;
+  private Object beanActual;
+
+  public IteradorBeanDataSource(Iterator<?> iterador) {
+    super(true);
+    this.iterador = iterador;
+  }
+
+  @Override
+  public boolean next() {
+    // cada bean se obtiene a demanda, el origen no se materializa en memoria
+    if (!iterador.hasNext()) return false;
+    beanActual = iterador.next();
+    return true;
+  }
+
+  @Override
+  public Object getFieldValue(JRField field) throws JRException {
+    return this.getFieldValue(beanActual, field);
+  }
+
+  @Override
+  public void moveFirst() throws JRException {
+    throw new JRException("El origen de datos no se puede recorrer nuevamente.");
+  }
+}
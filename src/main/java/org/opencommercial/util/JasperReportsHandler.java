@@ -1,59 +1,115 @@
 package org.opencommercial.util;
 
+import lombok.extern.slf4j.Slf4j;
 import net.sf.jasperreports.engine.*;
 import net.sf.jasperreports.engine.data.JRBeanCollectionDataSource;
 import net.sf.jasperreports.engine.export.ooxml.JRXlsxExporter;
+import net.sf.jasperreports.engine.fill.JRSwapFileVirtualizer;
+import net.sf.jasperreports.engine.util.JRSwapFile;
 import net.sf.jasperreports.export.SimpleExporterInput;
 import net.sf.jasperreports.export.SimpleOutputStreamExporterOutput;
 import org.opencommercial.exception.BusinessServiceException;
 import org.opencommercial.exception.ServiceException;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.MessageSource;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.stereotype.Component;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
+@Slf4j
 public class JasperReportsHandler {
 
+  private static final String DIRECTORIO_REPORTES = "report/";
+  private static final int PAGINAS_EN_MEMORIA = 50;
+  private static final int TAMANIO_BLOQUE_SWAP = 4096;
+  private static final int BLOQUES_MINIMOS_SWAP = 64;
   private final MessageSource messageSource;
+  private final Map<String, JasperReport> reportesCompilados = new ConcurrentHashMap<>();
 
   public JasperReportsHandler(MessageSource messageSource) {
     this.messageSource = messageSource;
   }
 
   public byte[] compilar(String pathToJrxml, Map<String, Object> params, Collection<?> datasource, FormatoReporte formato) {
-    JasperReport jasperReport;
-    JasperPrint jasperPrint;
-    var ds = new JRBeanCollectionDataSource(datasource);
+    return this.compilar(pathToJrxml, params, datasource, formato, false);
+  }
+
+  public byte[] compilar(String pathToJrxml, Map<String, Object> params, Collection<?> datasource,
+                         FormatoReporte formato, boolean virtualizado) {
+    var out = new ByteArrayOutputStream();
+    this.exportar(pathToJrxml, params, new JRBeanCollectionDataSource(datasource), formato, out, virtualizado);
+    return out.toByteArray();
+  }
+
+  // virtualizado solo para listados que pueden tener miles de paginas, los comprobantes se llenan en memoria
+  public void exportar(String pathToJrxml, Map<String, Object> params, JRDataSource datasource,
+                       FormatoReporte formato, OutputStream salida, boolean virtualizado) {
+    // las paginas llenadas que exceden el limite se bajan a un archivo de intercambio temporal
+    var virtualizer = virtualizado
+            ? new JRSwapFileVirtualizer(
+                    PAGINAS_EN_MEMORIA,
+                    new JRSwapFile(System.getProperty("java.io.tmpdir"), TAMANIO_BLOQUE_SWAP, BLOQUES_MINIMOS_SWAP),
+                    true)
+            : null;
+    var parametros = new HashMap<>(params);
+    if (virtualizer != null) parametros.put(JRParameter.REPORT_VIRTUALIZER, virtualizer);
     try {
-      var classLoader = this.getClass().getClassLoader();
-      var isFileReport = classLoader.getResourceAsStream(pathToJrxml);
-      jasperReport = JasperCompileManager.compileReport(isFileReport);
-      jasperPrint = JasperFillManager.fillReport(jasperReport, params, ds);
-      return switch (formato) {
-        case PDF -> JasperExportManager.exportReportToPdf(jasperPrint);
-        case XLSX -> convertirAlFormatoXlsx(jasperPrint);
+      var jasperPrint = JasperFillManager.fillReport(this.getReporteCompilado(pathToJrxml), parametros, datasource);
+      if (virtualizer != null) virtualizer.setReadOnly(true);
+      switch (formato) {
+        case PDF -> JasperExportManager.exportReportToPdfStream(jasperPrint, salida);
+        case XLSX -> this.exportarXlsx(jasperPrint, salida);
         default -> throw new BusinessServiceException(
                 messageSource.getMessage("mensaje_formato_no_valido", null, Locale.getDefault()));
-      };
+      }
     } catch (JRException | IOException ex) {
       throw new ServiceException(messageSource.getMessage("mensaje_error_reporte", null, Locale.getDefault()), ex);
+    } finally {
+      if (virtualizer != null) virtualizer.cleanup();
+    }
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void precompilarReportes() {
+    try {
+      var reportes = new PathMatchingResourcePatternResolver(this.getClass().getClassLoader())
+              .getResources("classpath:" + DIRECTORIO_REPORTES + "*.jrxml");
+      for (var reporte : reportes) {
+        this.getReporteCompilado(DIRECTORIO_REPORTES + reporte.getFilename());
+      }
+      log.info("Se compilaron {} reportes.", reportesCompilados.size());
+    } catch (JRException | IOException ex) {
+      log.warn("No se pudieron precompilar los reportes. {}", ex.getMessage());
     }
   }
 
-  private byte[] convertirAlFormatoXlsx(JasperPrint jasperPrint) throws JRException, IOException {
+  private JasperReport getReporteCompilado(String pathToJrxml) throws JRException, IOException {
+    // la compilacion del .jrxml es costosa, se realiza una sola vez por plantilla
+    var jasperReport = reportesCompilados.get(pathToJrxml);
+    if (jasperReport == null) {
+      try (var isFileReport = this.getClass().getClassLoader().getResourceAsStream(pathToJrxml)) {
+        jasperReport = JasperCompileManager.compileReport(isFileReport);
+      }
+      var jasperReportPrevio = reportesCompilados.putIfAbsent(pathToJrxml, jasperReport);
+      if (jasperReportPrevio != null) jasperReport = jasperReportPrevio;
+    }
+    return jasperReport;
+  }
+
+  private void exportarXlsx(JasperPrint jasperPrint, OutputStream salida) throws JRException {
     var jasperXlsxExportMgr = new JRXlsxExporter();
-    var out = new ByteArrayOutputStream();
-    var simpleOutputStreamExporterOutput = new SimpleOutputStreamExporterOutput(out);
     jasperXlsxExportMgr.setExporterInput(new SimpleExporterInput(jasperPrint));
-    jasperXlsxExportMgr.setExporterOutput(simpleOutputStreamExporterOutput);
+    jasperXlsxExportMgr.setExporterOutput(new SimpleOutputStreamExporterOutput(salida));
     jasperXlsxExportMgr.exportReport();
-    byte[] bytes = out.toByteArray();
-    out.close();
-    return bytes;
   }
 }
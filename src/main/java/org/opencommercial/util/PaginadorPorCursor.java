@@ -0,0 +1,194 @@
+package org.opencommercial.util;
+
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.ComparableExpression;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.core.types.dsl.PathBuilder;
+import org.opencommercial.exception.BusinessServiceException;
+import org.opencommercial.model.PaginaPorCursor;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.context.MessageSource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.querydsl.QuerydslPredicateExecutor;
+import org.springframework.data.querydsl.SimpleEntityPathResolver;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.ToLongFunction;
+
+@Component
+public class PaginadorPorCursor {
+
+  private static final String SEPARADOR = ":";
+  private final MessageSource messageSource;
+
+  public PaginadorPorCursor(MessageSource messageSource) {
+    this.messageSource = messageSource;
+  }
+
+  // En lugar de OFFSET, la busqueda continua a partir de la clave de orden y el id del ultimo elemento devuelto,
+  // por lo que cualquier pagina cuesta lo mismo que la primera. El numero de pagina del pageable se ignora.
+  public <T> PaginaPorCursor<T> buscar(QuerydslPredicateExecutor<T> repository,
+                                       Class<T> dominio,
+                                       String propiedadId,
+                                       Predicate predicado,
+                                       Pageable pageable,
+                                       String despuesDe) {
+    var orden = pageable.getSort().stream().findFirst().orElse(Sort.Order.desc(propiedadId));
+    var sort = orden.getProperty().equals(propiedadId)
+            ? Sort.by(orden)
+            : Sort.by(orden, new Sort.Order(orden.getDirection(), propiedadId));
+    var builder = new BooleanBuilder(predicado);
+    if (despuesDe != null && !despuesDe.isEmpty()) {
+      builder.and(this.getPredicadoDespuesDe(dominio, orden, propiedadId, despuesDe));
+    }
+    int tamanioPagina = pageable.getPageSize();
+    var resultados = repository.findBy(builder, consulta -> consulta.sortBy(sort).limit(tamanioPagina + 1).all());
+    return this.construirPagina(resultados, PageRequest.of(0, tamanioPagina, sort), orden.getProperty(), propiedadId);
+  }
+
+  // para consultas ordenadas solo por id descendente, devuelve el id desde el cual continuar
+  public long getIdDesde(String despuesDe) {
+    if (despuesDe == null || despuesDe.isEmpty()) return Long.MAX_VALUE;
+    return this.getUltimoId(this.decodificar(despuesDe));
+  }
+
+  // recibe hasta tamanioPagina + 1 resultados, el excedente solo indica que existe una pagina siguiente
+  public <T> PaginaPorCursor<T> construirPagina(List<T> resultados, int tamanioPagina, ToLongFunction<T> id) {
+    if (resultados.size() <= tamanioPagina) {
+      return new PaginaPorCursor<>(resultados, PageRequest.of(0, tamanioPagina), null);
+    }
+    var contenido = resultados.subList(0, tamanioPagina);
+    var ultimo = contenido.get(tamanioPagina - 1);
+    return new PaginaPorCursor<>(contenido, PageRequest.of(0, tamanioPagina), this.codificar(id.applyAsLong(ultimo), null));
+  }
+
+  private <T> PaginaPorCursor<T> construirPagina(List<T> resultados, Pageable pageable,
+                                                 String propiedadOrden, String propiedadId) {
+    if (resultados.size() <= pageable.getPageSize()) {
+      return new PaginaPorCursor<>(resultados, pageable, null);
+    }
+    var contenido = resultados.subList(0, pageable.getPageSize());
+    BeanWrapper ultimo = PropertyAccessorFactory.forBeanPropertyAccess(contenido.get(contenido.size() - 1));
+    var id = ((Number) ultimo.getPropertyValue(propiedadId)).longValue();
+    var valor = propiedadOrden.equals(propiedadId) ? null : ultimo.getPropertyValue(propiedadOrden);
+    return new PaginaPorCursor<>(contenido, pageable, this.codificar(id, valor));
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private <T> BooleanExpression getPredicadoDespuesDe(Class<T> dominio, Sort.Order orden,
+                                                      String propiedadId, String despuesDe) {
+    var partes = this.decodificar(despuesDe);
+    PathBuilder<T> entidad = new PathBuilder<>(dominio, SimpleEntityPathResolver.INSTANCE.createPath(dominio).getMetadata());
+    NumberPath<Long> id = entidad.getNumber(propiedadId, Long.class);
+    long ultimoId = this.getUltimoId(partes);
+    boolean ascendente = orden.isAscending();
+    var idSiguiente = ascendente ? id.gt(ultimoId) : id.lt(ultimoId);
+    if (orden.getProperty().equals(propiedadId)) return idSiguiente;
+    Class<? extends Comparable> tipo = this.getTipoPropiedad(dominio, orden.getProperty());
+    ComparableExpression clave = this.getPropiedad(entidad, orden.getProperty(), tipo);
+    // MySQL ubica los nulos al principio en orden ascendente y al final en orden descendente
+    if (partes[1] == null) {
+      return ascendente ? clave.isNull().and(idSiguiente).or(clave.isNotNull()) : clave.isNull().and(idSiguiente);
+    }
+    Comparable valor = this.convertir(partes[1], tipo);
+    var claveSiguiente = ascendente ? clave.gt(valor) : clave.lt(valor);
+    var siguientes = claveSiguiente.or(clave.eq(valor).and(idSiguiente));
+    return ascendente ? siguientes : siguientes.or(clave.isNull());
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private ComparableExpression getPropiedad(PathBuilder<?> entidad, String propiedad, Class<? extends Comparable> tipo) {
+    var nombres = propiedad.split("\\.");
+    PathBuilder<?> ruta = entidad;
+    for (int i = 0; i < nombres.length - 1; i++) {
+      ruta = ruta.get(nombres[i]);
+    }
+    return ruta.getComparable(nombres[nombres.length - 1], tipo);
+  }
+
+  @SuppressWarnings("unchecked")
+  private Class<? extends Comparable<?>> getTipoPropiedad(Class<?> dominio, String propiedad) {
+    BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(BeanUtils.instantiateClass(dominio));
+    wrapper.setAutoGrowNestedPaths(true);
+    Class<?> tipo;
+    try {
+      tipo = wrapper.getPropertyType(propiedad);
+    } catch (RuntimeException ex) {
+      throw this.crearExcepcionCursorNoValido();
+    }
+    if (tipo == null) throw this.crearExcepcionCursorNoValido();
+    if (tipo.isPrimitive()) {
+      if (tipo == long.class) return Long.class;
+      if (tipo == int.class) return Integer.class;
+      if (tipo == boolean.class) return Boolean.class;
+      if (tipo == double.class) return Double.class;
+    }
+    if (!Comparable.class.isAssignableFrom(tipo)) throw this.crearExcepcionCursorNoValido();
+    return (Class<? extends Comparable<?>>) tipo;
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private Comparable convertir(String valor, Class<?> tipo) {
+    try {
+      if (tipo == String.class) return valor;
+      if (tipo == LocalDateTime.class) return LocalDateTime.parse(valor);
+      if (tipo == LocalDate.class) return LocalDate.parse(valor);
+      if (tipo == BigDecimal.class) return new BigDecimal(valor);
+      if (tipo == Long.class) return Long.valueOf(valor);
+      if (tipo == Integer.class) return Integer.valueOf(valor);
+      if (tipo == Double.class) return Double.valueOf(valor);
+      if (tipo == Boolean.class) return Boolean.valueOf(valor);
+      if (tipo.isEnum()) return Enum.valueOf((Class<Enum>) tipo, valor);
+    } catch (RuntimeException ex) {
+      throw this.crearExcepcionCursorNoValido();
+    }
+    throw this.crearExcepcionCursorNoValido();
+  }
+
+  // el cursor lleva el id y, si el orden no es por id, el valor de la clave de orden del ultimo elemento
+  private String codificar(long id, Object valor) {
+    var contenido = valor == null
+            ? String.valueOf(id)
+            : id + SEPARADOR + (valor instanceof Enum<?> e ? e.name() : valor.toString());
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(contenido.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private String[] decodificar(String despuesDe) {
+    String contenido;
+    try {
+      contenido = new String(Base64.getUrlDecoder().decode(despuesDe), StandardCharsets.UTF_8);
+    } catch (IllegalArgumentException ex) {
+      throw this.crearExcepcionCursorNoValido();
+    }
+    int separador = contenido.indexOf(SEPARADOR);
+    return separador < 0
+            ? new String[] {contenido, null}
+            : new String[] {contenido.substring(0, separador), contenido.substring(separador + 1)};
+  }
+
+  private long getUltimoId(String[] partes) {
+    try {
+      return Long.parseLong(partes[0]);
+    } catch (NumberFormatException ex) {
+      throw this.crearExcepcionCursorNoValido();
+    }
+  }
+
+  private BusinessServiceException crearExcepcionCursorNoValido() {
+    return new BusinessServiceException(
+            messageSource.getMessage("mensaje_busqueda_cursor_no_valido", null, Locale.getDefault()));
+  }
+}
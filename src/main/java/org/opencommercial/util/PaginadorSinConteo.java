@@ -0,0 +1,76 @@
+package org.opencommercial.util;
+
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.PathBuilder;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.repository.support.Querydsl;
+import org.springframework.data.querydsl.QuerydslPredicateExecutor;
+import org.springframework.data.querydsl.SimpleEntityPathResolver;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class PaginadorSinConteo {
+
+  private static final int MAXIMO_TOTALES_CACHEADOS = 1000;
+  private final EntityManager entityManager;
+  private final long duracionCacheTotalNanos;
+  private final Map<String, TotalCacheado> totalesCacheados = new ConcurrentHashMap<>();
+
+  private record TotalCacheado(long total, long vence) {}
+
+  public PaginadorSinConteo(EntityManager entityManager,
+                            @Value("${BUSQUEDA_SEGUNDOS_CACHE_TOTAL:0}") long segundosCacheTotal) {
+    this.entityManager = entityManager;
+    this.duracionCacheTotalNanos = TimeUnit.SECONDS.toNanos(segundosCacheTotal);
+  }
+
+  // Trae un elemento mas que el tamaño de pagina para saber si hay una siguiente, sin ejecutar el SELECT COUNT
+  public <T> Slice<T> buscar(Class<T> dominio, Predicate predicado, Pageable pageable) {
+    int tamanioPagina = pageable.getPageSize();
+    var resultados = this.getResultados(dominio, predicado, pageable, tamanioPagina + 1);
+    boolean haySiguiente = resultados.size() > tamanioPagina;
+    return new SliceImpl<>(haySiguiente ? resultados.subList(0, tamanioPagina) : resultados, pageable, haySiguiente);
+  }
+
+  // Igual que findAll(predicado, pageable), pero el total se reutiliza por unos segundos mientras no cambie el criterio.
+  // Sin duracion configurada se delega en el repositorio.
+  public <T> Page<T> buscarConTotal(QuerydslPredicateExecutor<T> repository, Class<T> dominio,
+                                    Predicate predicado, Pageable pageable) {
+    if (duracionCacheTotalNanos <= 0) return repository.findAll(predicado, pageable);
+    var resultados = this.getResultados(dominio, predicado, pageable, pageable.getPageSize());
+    return PageableExecutionUtils.getPage(resultados, pageable, () -> this.getTotal(repository, dominio, predicado));
+  }
+
+  private <T> List<T> getResultados(Class<T> dominio, Predicate predicado, Pageable pageable, int limite) {
+    PathBuilder<T> entidad = new PathBuilder<>(dominio, SimpleEntityPathResolver.INSTANCE.createPath(dominio).getMetadata());
+    var querydsl = new Querydsl(entityManager, entidad);
+    var consulta = querydsl.applyPagination(pageable, querydsl.createQuery(entidad).select(entidad).where(predicado));
+    return consulta.limit(limite).fetch();
+  }
+
+  private <T> long getTotal(QuerydslPredicateExecutor<T> repository, Class<T> dominio, Predicate predicado) {
+    // el predicado ya normaliza el criterio, sin pagina ni orden
+    var clave = dominio.getName() + "|" + predicado;
+    long ahora = System.nanoTime();
+    var cacheado = totalesCacheados.get(clave);
+    if (cacheado != null && cacheado.vence() - ahora > 0) return cacheado.total();
+    long total = repository.count(predicado);
+    if (totalesCacheados.size() >= MAXIMO_TOTALES_CACHEADOS) {
+      totalesCacheados.values().removeIf(t -> t.vence() - ahora <= 0);
+      if (totalesCacheados.size() >= MAXIMO_TOTALES_CACHEADOS) totalesCacheados.clear();
+    }
+    totalesCacheados.put(clave, new TotalCacheado(total, ahora + duracionCacheTotalNanos));
+    return total;
+  }
+}
@@ -0,0 +1,17 @@
+package org.opencommercial.util;
+
+public class PermutacionIdentificadores {
+
+  private PermutacionIdentificadores() {
+  }
+
+  // primo que no divide a ninguna de las capacidades usadas (999, 99999 y 9999999999)
+  private static final long MULTIPLICADOR = 7919L;
+
+  // biyeccion afin sobre [0, capacidad), valores consecutivos quedan dispersos en todo el rango
+  public static long permutar(long valor, long capacidad) {
+    if (valor < 0 || valor >= capacidad) throw new IllegalArgumentException(valor + " fuera de [0, " + capacidad + ")");
+    if (capacidad % MULTIPLICADOR == 0) throw new IllegalArgumentException(capacidad + " no es coprimo con " + MULTIPLICADOR);
+    return Math.floorMod(Math.multiplyExact(valor, MULTIPLICADOR) + capacidad / 2, capacidad);
+  }
+}
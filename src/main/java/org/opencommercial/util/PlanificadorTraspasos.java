@@ -0,0 +1,51 @@
+package org.opencommercial.util;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+public class PlanificadorTraspasos {
+
+  private PlanificadorTraspasos() {
+  }
+
+  // devuelve, por sucursal origen, las cantidades por producto a traspasar hacia la sucursal destino
+  public static Map<Long, Map<Long, BigDecimal>> planificar(long idSucursalDestino,
+                                                           Map<Long, BigDecimal> cantidadesSolicitadas,
+                                                           Map<Long, Map<Long, BigDecimal>> stockPorProducto) {
+    Map<Long, Map<Long, BigDecimal>> traspasos = new TreeMap<>();
+    cantidadesSolicitadas.forEach((idProducto, cantidadSolicitada) -> {
+      var stock = stockPorProducto.get(idProducto);
+      if (stock == null || stock.get(idSucursalDestino) == null) return;
+      var cantidadFaltante = cantidadSolicitada.subtract(stock.get(idSucursalDestino));
+      if (cantidadFaltante.compareTo(BigDecimal.ZERO) <= 0) return;
+      var origenes = stock.entrySet().stream()
+              .filter(cantidad -> cantidad.getKey() != idSucursalDestino)
+              .filter(cantidad -> cantidad.getValue().compareTo(BigDecimal.ZERO) > 0)
+              .sorted(Map.Entry.<Long, BigDecimal>comparingByValue().reversed()
+                      .thenComparing(Map.Entry.comparingByKey()))
+              .toList();
+      // se prioriza una unica sucursal que cubra todo el faltante, reutilizando los traspasos ya planificados
+      var origenUnico = origenes.stream()
+              .filter(origen -> traspasos.containsKey(origen.getKey()) && origen.getValue().compareTo(cantidadFaltante) >= 0)
+              .findFirst()
+              .or(() -> origenes.stream().filter(origen -> origen.getValue().compareTo(cantidadFaltante) >= 0).findFirst());
+      if (origenUnico.isPresent()) {
+        asignar(traspasos, origenUnico.get().getKey(), idProducto, cantidadFaltante);
+        return;
+      }
+      var cantidadPendiente = cantidadFaltante;
+      for (var origen : origenes) {
+        if (cantidadPendiente.compareTo(BigDecimal.ZERO) <= 0) break;
+        var cantidad = cantidadPendiente.min(origen.getValue());
+        asignar(traspasos, origen.getKey(), idProducto, cantidad);
+        cantidadPendiente = cantidadPendiente.subtract(cantidad);
+      }
+    });
+    return traspasos;
+  }
+
+  private static void asignar(Map<Long, Map<Long, BigDecimal>> traspasos,
+                              long idSucursalOrigen, long idProducto, BigDecimal cantidad) {
+    traspasos.computeIfAbsent(idSucursalOrigen, id -> new LinkedHashMap<>()).put(idProducto, cantidad);
+  }
+}
@@ -0,0 +1,83 @@
+package org.opencommercial.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.opencommercial.model.FormaDePago;
+import org.opencommercial.repository.FormaDePagoRepository;
+import org.opencommercial.service.FormaDePagoService;
+import org.opencommercial.service.FormaDePagoServiceImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.context.MessageSource;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {CacheConfig.class, CacheConfigTest.ConfiguracionCache.class, FormaDePagoServiceImpl.class})
+class CacheConfigTest {
+
+  @EnableCaching
+  static class ConfiguracionCache {}
+
+  @MockBean FormaDePagoRepository formaDePagoRepository;
+  @MockBean MessageSource messageSource;
+
+  @Autowired FormaDePagoService formaDePagoService;
+  @Autowired CacheManager cacheManager;
+
+  private CacheAcotada getCache(String nombre) {
+    var cache = cacheManager.getCache(nombre);
+    assertInstanceOf(TransactionAwareCacheDecorator.class, cache);
+    return (CacheAcotada) ((TransactionAwareCacheDecorator) cache).getTargetCache();
+  }
+
+  @Test
+  void shouldCachearFormasDePagoHastaQueSeActualicen() {
+    FormaDePago efectivo = new FormaDePago();
+    efectivo.setIdFormaDePago(1L);
+    efectivo.setNombre("Efectivo");
+    when(formaDePagoRepository.findById(1L)).thenReturn(Optional.of(efectivo));
+    when(formaDePagoRepository.findAllByAndEliminadaOrderByNombreAsc(false)).thenReturn(List.of(efectivo));
+    var primeraLectura = formaDePagoService.getFormasDePagoNoEliminadoPorId(1L);
+    var segundaLectura = formaDePagoService.getFormasDePagoNoEliminadoPorId(1L);
+    assertEquals(1, formaDePagoService.getFormasDePagoNoEliminadas().size());
+    assertEquals(1, formaDePagoService.getFormasDePagoNoEliminadas().size());
+    verify(formaDePagoRepository, times(1)).findById(1L);
+    verify(formaDePagoRepository, times(1)).findAllByAndEliminadaOrderByNombreAsc(false);
+    // cada lectura devuelve una copia, modificarla no altera la cache
+    assertNotSame(primeraLectura, segundaLectura);
+    segundaLectura.setPredeterminado(true);
+    assertFalse(formaDePagoService.getFormasDePagoNoEliminadoPorId(1L).isPredeterminado());
+    var estadistica = this.getCache(CacheConfig.FORMAS_DE_PAGO).getEstadistica();
+    assertEquals(2, estadistica.getEntradas());
+    assertEquals(3, estadistica.getAciertos());
+    assertEquals(2, estadistica.getFallos());
+    when(formaDePagoRepository.findByAndPredeterminadoAndEliminada(true, false)).thenReturn(Optional.empty());
+    formaDePagoService.setFormaDePagoPredeterminada(efectivo);
+    assertEquals(0, this.getCache(CacheConfig.FORMAS_DE_PAGO).getEstadistica().getEntradas());
+    formaDePagoService.getFormasDePagoNoEliminadoPorId(1L);
+    verify(formaDePagoRepository, times(2)).findById(1L);
+  }
+
+  @Test
+  void shouldDescartarLaEntradaUsadaHaceMasTiempo() {
+    CacheAcotada cache = new CacheAcotada("prueba", 2);
+    cache.put(1L, "uno");
+    cache.put(2L, "dos");
+    assertEquals("uno", cache.get(1L, String.class));
+    cache.put(3L, "tres");
+    assertNull(cache.get(2L));
+    assertEquals("uno", cache.get(1L, String.class));
+    assertEquals("tres", cache.get(3L, String.class));
+    assertEquals(2, cache.getEstadistica().getEntradas());
+  }
+}
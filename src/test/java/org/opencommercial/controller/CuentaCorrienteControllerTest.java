@@ -12,13 +12,15 @@ import org.opencommercial.util.FormatoReporte;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.MessageSource;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.util.List;
 import java.util.Map;
 
-import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(SpringExtension.class)
@@ -38,13 +40,19 @@ class CuentaCorrienteControllerTest {
         BusquedaCuentaCorrienteClienteCriteria criteria = BusquedaCuentaCorrienteClienteCriteria.builder().build();
         var claims = new DefaultClaims(Map.of("idUsuario", 1L, "roles", List.of("ADMINISTRADOR")));
         when(authService.getClaimsDelToken("headers")).thenReturn(claims);
-        when(cuentaCorrienteService.getReporteListaDeCuentasCorrienteClientePorCriteria(
-                criteria, 1L, FormatoReporte.XLSX)).thenReturn("reporte".getBytes());
-        assertNotNull(cuentaCorrienteController.getReporteListaDeCuentasCorrienteClientePorCriteria(
-                criteria, "xlsx", "headers"));
-        when(cuentaCorrienteService.getReporteListaDeCuentasCorrienteClientePorCriteria(
-                criteria, 1L, FormatoReporte.PDF)).thenReturn("reporte".getBytes());
-        assertNotNull(cuentaCorrienteController.getReporteListaDeCuentasCorrienteClientePorCriteria(
-                criteria, "pdf", "headers"));
+        var responseXlsx = new MockHttpServletResponse();
+        cuentaCorrienteController.getReporteListaDeCuentasCorrienteClientePorCriteria(
+                criteria, "xlsx", "headers", responseXlsx);
+        assertEquals("application/vnd.ms-excel", responseXlsx.getContentType());
+        assertEquals("attachment; filename=ListaClientes.xlsx", responseXlsx.getHeader("Content-Disposition"));
+        verify(cuentaCorrienteService).exportarReporteListaDeCuentasCorrienteCliente(
+                criteria, 1L, FormatoReporte.XLSX, responseXlsx.getOutputStream());
+        var responsePdf = new MockHttpServletResponse();
+        cuentaCorrienteController.getReporteListaDeCuentasCorrienteClientePorCriteria(
+                criteria, "pdf", "headers", responsePdf);
+        assertEquals("application/pdf", responsePdf.getContentType());
+        assertEquals("attachment; filename=ListaClientes.pdf", responsePdf.getHeader("Content-Disposition"));
+        verify(cuentaCorrienteService).exportarReporteListaDeCuentasCorrienteCliente(
+                criteria, 1L, FormatoReporte.PDF, responsePdf.getOutputStream());
     }
 }
@@ -41,6 +41,7 @@ class FacturaVentaControllerTest {
   @MockBean FacturaVentaServiceImpl facturaVentaService;
   @MockBean AuthServiceImpl authService;
   @MockBean PedidoServiceImpl pedidoService;
+  @MockBean AutorizacionComprobanteServiceImpl autorizacionComprobanteService;
   @MockBean MessageSource messageSource;
 
   @Autowired FacturaVentaController facturaVentaController;
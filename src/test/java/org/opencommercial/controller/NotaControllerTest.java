@@ -30,6 +30,7 @@ class NotaControllerTest {
   @MockBean SucursalService sucursalService;
   @MockBean UsuarioService usuarioService;
   @MockBean AuthService authService;
+  @MockBean AutorizacionComprobanteService autorizacionComprobanteService;
   @MockBean MessageSource messageSource;
 
   @Autowired NotaController notaController;
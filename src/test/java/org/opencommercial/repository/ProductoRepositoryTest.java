@@ -26,9 +26,11 @@ import org.testcontainers.junit.jupiter.Testcontainers;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 
 @DataJpaTest
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
@@ -160,4 +162,58 @@ class ProductoRepositoryTest {
     BigDecimal valorStock = productoRepositoryImpl.calcularValorStock(builder);
     assertEquals(10, valorStock.doubleValue());
   }
+
+  @Test
+  void shouldActualizarStockSinPisarCantidadesCargadas() {
+    Proveedor proveedor = new Proveedor();
+    proveedor.setCategoriaIVA(CategoriaIVA.RESPONSABLE_INSCRIPTO);
+    proveedor.setNroProveedor("123");
+    proveedor.setRazonSocial("test proveedor");
+    proveedor = testEntityManager.persist(proveedor);
+    Medida medida = new Medida();
+    medida.setNombre("Metro");
+    medida = testEntityManager.persist(medida);
+    Rubro rubro = new Rubro();
+    rubro.setNombre("rubro test");
+    rubro = testEntityManager.persist(rubro);
+    Sucursal sucursal = new Sucursal();
+    sucursal.setNombre("sucursal test");
+    sucursal.setCategoriaIVA(CategoriaIVA.RESPONSABLE_INSCRIPTO);
+    sucursal.setEmail("asd@asd.com");
+    Ubicacion ubicacionSucursal = new Ubicacion();
+    ubicacionSucursal.setLocalidad(localidadRepository.findById(1L));
+    sucursal.setUbicacion(ubicacionSucursal);
+    sucursal = testEntityManager.persist(sucursal);
+    Producto producto = new Producto();
+    producto.setDescripcion("Producto para test");
+    producto.setMedida(medida);
+    producto.setProveedor(proveedor);
+    producto.setRubro(rubro);
+    producto.setCantidadProducto(new CantidadProductoEmbeddable());
+    producto.getCantidadProducto().setCantMinima(BigDecimal.ONE);
+    producto.setFechaAlta(LocalDateTime.now());
+    producto.setFechaUltimaModificacion(LocalDateTime.now());
+    Set<CantidadEnSucursal> cantidadEnSucursales = new HashSet<>();
+    CantidadEnSucursal cantidadEnSucursal = new CantidadEnSucursal();
+    cantidadEnSucursal.setCantidad(BigDecimal.TEN);
+    cantidadEnSucursal.setSucursal(sucursal);
+    cantidadEnSucursales.add(cantidadEnSucursal);
+    producto.getCantidadProducto().setCantidadEnSucursales(cantidadEnSucursales);
+    producto.getCantidadProducto().setCantidadReservada(BigDecimal.ZERO);
+    producto.getCantidadProducto().setCantidadTotalEnSucursales(BigDecimal.TEN);
+    producto.setPrecioProducto(new PrecioProductoEmbeddable());
+    producto.getPrecioProducto().setOferta(false);
+    producto = testEntityManager.persistFlushFind(producto);
+    long version = producto.getVersion();
+    productoRepositoryImpl.actualizarStock(
+            Map.of(producto.getIdProducto(), Map.of(sucursal.getIdSucursal(), new BigDecimal("-3"))));
+    productoRepositoryImpl.actualizarStock(
+            Map.of(producto.getIdProducto(), Map.of(sucursal.getIdSucursal(), BigDecimal.ONE)));
+    assertFalse(testEntityManager.getEntityManager().contains(producto));
+    Producto productoActualizado = testEntityManager.find(Producto.class, producto.getIdProducto());
+    assertEquals(8, productoActualizado.getCantidadProducto().getCantidadTotalEnSucursales().doubleValue());
+    assertEquals(8, productoActualizado.getCantidadProducto().getCantidadEnSucursales()
+            .iterator().next().getCantidad().doubleValue());
+    assertEquals(version + 2, productoActualizado.getVersion());
+  }
 }
@@ -0,0 +1,85 @@
+package org.opencommercial.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.opencommercial.App;
+import org.opencommercial.interceptor.JwtInterceptor;
+import org.opencommercial.model.TipoIdentificador;
+import org.opencommercial.service.GeneradorIdentificadorService;
+import org.opencommercial.service.GeneradorIdentificadorServiceImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.MessageSource;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ExtendWith(SpringExtension.class)
+@Testcontainers
+@ContextConfiguration(classes = {GeneradorIdentificadorServiceImpl.class, App.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecuenciaIdentificadorRepositoryTest {
+
+  @MockBean JwtInterceptor jwtInterceptor;
+  @MockBean MessageSource messageSource;
+
+  @Autowired GeneradorIdentificadorService generadorIdentificadorService;
+  @Autowired SecuenciaIdentificadorRepository secuenciaIdentificadorRepository;
+
+  @Container
+  @ServiceConnection
+  static MySQLContainer<?> mySQLContainer = new MySQLContainer<>("mysql:8.3.0");
+
+  // con la secuencia inexistente el lock de la lectura no debe dejar esperando a la creacion de la fila
+  @Test
+  void shouldCrearSecuenciaInexistenteSinEsperarLocks() {
+    long sufijo = assertTimeoutPreemptively(Duration.ofSeconds(10), () ->
+            generadorIdentificadorService.generarIdentificador(TipoIdentificador.USUARIO, "juanperez", s -> false));
+    assertTrue(sufijo >= 1 && sufijo <= TipoIdentificador.USUARIO.getCapacidad());
+    assertTrue(secuenciaIdentificadorRepository.findAll().stream()
+            .anyMatch(s -> s.getTipo() == TipoIdentificador.USUARIO && s.getAmbito().equals("juanperez")));
+  }
+
+  @Test
+  void shouldGenerarIdentificadoresUnicosConcurrentementeEnSecuenciaNueva() throws Exception {
+    var ejecutor = Executors.newFixedThreadPool(4);
+    try {
+      List<Callable<List<Long>>> tareas = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        tareas.add(() -> {
+          List<Long> generados = new ArrayList<>();
+          for (int j = 0; j < 30; j++) {
+            generados.add(generadorIdentificadorService.generarIdentificador(TipoIdentificador.TRASPASO, "", n -> false));
+          }
+          return generados;
+        });
+      }
+      var todos = new HashSet<Long>();
+      for (Future<List<Long>> resultado : ejecutor.invokeAll(tareas)) {
+        todos.addAll(resultado.get());
+      }
+      assertEquals(120, todos.size());
+    } finally {
+      ejecutor.shutdown();
+    }
+  }
+}
@@ -0,0 +1,174 @@
+package org.opencommercial.service;
+
+import afip.wsfe.wsdl.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.opencommercial.exception.BusinessServiceException;
+import org.opencommercial.model.*;
+import org.opencommercial.model.embeddable.ClienteEmbeddable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.MessageSource;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {AfipTaxationServiceImpl.class, MessageSource.class})
+class AfipTaxationServiceImplTest {
+
+  @MockBean AfipWebServiceSOAPClient afipWebServiceSOAPClient;
+  @MockBean ConfiguracionSucursalService configuracionSucursalService;
+  @MockBean MessageSource messageSource;
+
+  @Autowired AfipTaxationServiceImpl afipTaxationService;
+
+  private Sucursal sucursal;
+
+  @BeforeEach
+  void setup() throws IOException {
+    ConfiguracionSucursal configuracionSucursal = new ConfiguracionSucursal();
+    configuracionSucursal.setIdConfiguracionSucursal(1L);
+    configuracionSucursal.setNroPuntoDeVentaAfip(5);
+    sucursal = new Sucursal();
+    sucursal.setIdSucursal(1L);
+    sucursal.setIdFiscal(30712345678L);
+    sucursal.setConfiguracionSucursal(configuracionSucursal);
+    when(configuracionSucursalService.getCredencialAfip(1L)).thenReturn(CredencialAfip.builder()
+            .idConfiguracionSucursal(1L)
+            .tokenWSAA("token")
+            .signTokenWSAA("sign")
+            .fechaVencimientoTokenWSAA(LocalDateTime.now().plusHours(1))
+            .build());
+    when(afipWebServiceSOAPClient.getUltimoComprobanteAutorizado(any())).thenAnswer(invocation -> {
+      FECompUltimoAutorizado solicitud = invocation.getArgument(0);
+      var response = new FERecuperaLastCbteResponse();
+      response.setCbteNro(solicitud.getCbteTipo() == 1 ? 10 : 100);
+      return response;
+    });
+    when(afipWebServiceSOAPClient.solicitarCAE(any())).thenAnswer(invocation -> this.responderSolicitud(
+            invocation.getArgument(0), Set.of()));
+  }
+
+  // simula el endpoint WSFE: aprueba cada comprobante del lote salvo los numeros indicados
+  private FECAEResponse responderSolicitud(FECAESolicitar solicitud, Set<Long> nrosRechazados) {
+    var response = new FECAEResponse();
+    var detallesResponse = new ArrayOfFECAEDetResponse();
+    solicitud.getFeCAEReq().getFeDetReq().getFECAEDetRequest().forEach(detalle -> {
+      var detalleResponse = new FECAEDetResponse();
+      detalleResponse.setCbteDesde(detalle.getCbteDesde());
+      detalleResponse.setCbteHasta(detalle.getCbteHasta());
+      if (nrosRechazados.contains(detalle.getCbteDesde())) {
+        detalleResponse.setResultado("R");
+        var obs = new Obs();
+        obs.setCode(10016);
+        obs.setMsg("El numero de comprobante no es el proximo a autorizar");
+        var observaciones = new ArrayOfObs();
+        observaciones.getObs().add(obs);
+        detalleResponse.setObservaciones(observaciones);
+      } else {
+        detalleResponse.setResultado("A");
+        detalleResponse.setCAE(String.valueOf(70000000000000L + detalle.getCbteDesde()));
+        detalleResponse.setCAEFchVto("20261028");
+      }
+      detallesResponse.getFECAEDetResponse().add(detalleResponse);
+    });
+    response.setFeDetResp(detallesResponse);
+    return response;
+  }
+
+  private ComprobanteAutorizableAFIP crearComprobante(TipoDeComprobante tipo) {
+    return ComprobanteAutorizableAFIP.builder()
+            .fecha(LocalDateTime.now())
+            .tipoComprobante(tipo)
+            .sucursal(sucursal)
+            .cliente(ClienteEmbeddable.builder()
+                    .categoriaIVACliente(CategoriaIVA.RESPONSABLE_INSCRIPTO)
+                    .idFiscalCliente(20345678901L)
+                    .build())
+            .subtotalBruto(new BigDecimal("100"))
+            .iva105neto(BigDecimal.ZERO)
+            .iva21neto(new BigDecimal("21"))
+            .montoNoGravado(BigDecimal.ZERO)
+            .total(new BigDecimal("121"))
+            .build();
+  }
+
+  @Test
+  void shouldAutorizarComprobantesEnUnLotePorTipo() throws IOException {
+    var facturasB = List.of(
+            this.crearComprobante(TipoDeComprobante.FACTURA_B),
+            this.crearComprobante(TipoDeComprobante.FACTURA_B),
+            this.crearComprobante(TipoDeComprobante.FACTURA_B));
+    var facturaA = this.crearComprobante(TipoDeComprobante.FACTURA_A);
+    afipTaxationService.autorizar(List.of(facturasB.get(0), facturaA, facturasB.get(1), facturasB.get(2)));
+    verify(afipWebServiceSOAPClient, times(2)).getUltimoComprobanteAutorizado(any());
+    verify(afipWebServiceSOAPClient, times(2)).solicitarCAE(any());
+    for (int i = 0; i < facturasB.size(); i++) {
+      assertNull(facturasB.get(i).getObservaciones());
+      assertEquals(101 + i, facturasB.get(i).getNumFacturaAfip());
+      assertEquals(5, facturasB.get(i).getNumSerieAfip());
+      assertEquals(70000000000101L + i, facturasB.get(i).getCae());
+    }
+    assertEquals(11, facturaA.getNumFacturaAfip());
+    // la numeracion se continua localmente sin volver a consultar el ultimo comprobante autorizado
+    var siguienteFacturaB = this.crearComprobante(TipoDeComprobante.FACTURA_B);
+    afipTaxationService.autorizar(siguienteFacturaB);
+    assertEquals(104, siguienteFacturaB.getNumFacturaAfip());
+    verify(afipWebServiceSOAPClient, times(2)).getUltimoComprobanteAutorizado(any());
+    verify(afipWebServiceSOAPClient, times(3)).solicitarCAE(any());
+  }
+
+  @Test
+  void shouldAsignarObservacionesYResincronizarNumeracionAnteRechazo() throws IOException {
+    doAnswer(invocation -> this.responderSolicitud(invocation.getArgument(0), Set.of(102L)))
+            .doAnswer(invocation -> this.responderSolicitud(invocation.getArgument(0), Set.of()))
+            .when(afipWebServiceSOAPClient).solicitarCAE(any());
+    var facturas = List.of(
+            this.crearComprobante(TipoDeComprobante.NOTA_CREDITO_B),
+            this.crearComprobante(TipoDeComprobante.NOTA_CREDITO_B));
+    afipTaxationService.autorizar(facturas);
+    assertEquals(101, facturas.get(0).getNumFacturaAfip());
+    assertNull(facturas.get(0).getObservaciones());
+    assertEquals(0, facturas.get(1).getCae());
+    assertEquals("El numero de comprobante no es el proximo a autorizar", facturas.get(1).getObservaciones());
+    afipTaxationService.autorizar(this.crearComprobante(TipoDeComprobante.NOTA_CREDITO_B));
+    verify(afipWebServiceSOAPClient, times(2)).getUltimoComprobanteAutorizado(any());
+  }
+
+  @Test
+  void shouldExcluirDelLoteLosComprobantesInvalidos() throws IOException {
+    when(messageSource.getMessage(eq("mensaje_comprobante_AFIP_autorizado"), any(), any()))
+            .thenReturn("El comprobante ya se encuentra autorizado");
+    var facturaAutorizada = this.crearComprobante(TipoDeComprobante.FACTURA_C);
+    facturaAutorizada.setCae(70000000000050L);
+    var factura = this.crearComprobante(TipoDeComprobante.FACTURA_C);
+    afipTaxationService.autorizar(List.of(facturaAutorizada, factura));
+    verify(afipWebServiceSOAPClient, times(1)).solicitarCAE(any());
+    assertEquals("El comprobante ya se encuentra autorizado", facturaAutorizada.getObservaciones());
+    assertEquals(70000000000050L, facturaAutorizada.getCae());
+    assertNull(factura.getObservaciones());
+    assertEquals(101, factura.getNumFacturaAfip());
+  }
+
+  @Test
+  void shouldLanzarExcepcionAlRechazarUnComprobanteIndividual() throws IOException {
+    doAnswer(invocation -> this.responderSolicitud(invocation.getArgument(0), Set.of(101L)))
+            .when(afipWebServiceSOAPClient).solicitarCAE(any());
+    var notaDebito = this.crearComprobante(TipoDeComprobante.NOTA_DEBITO_B);
+    var ex = assertThrows(BusinessServiceException.class, () -> afipTaxationService.autorizar(notaDebito));
+    assertEquals("El numero de comprobante no es el proximo a autorizar", ex.getMessage());
+    assertEquals(0, notaDebito.getCae());
+  }
+}
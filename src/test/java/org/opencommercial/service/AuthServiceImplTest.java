@@ -5,18 +5,25 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.MessageSource;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 import org.opencommercial.model.Rol;
-import org.opencommercial.model.TokenAccesoExcluido;
-import org.opencommercial.repository.TokenAccesoExcluidoRepository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -25,7 +32,7 @@ import static org.mockito.Mockito.when;
 @TestPropertySource(locations = "classpath:application.properties")
 class AuthServiceImplTest {
 
-  @MockBean TokenAccesoExcluidoRepository tokenAccesoExcluidoRepository;
+  @MockBean TokenAccesoExcluidoService tokenAccesoExcluidoService;
   @MockBean MessageSource messageSource;
   @MockBean RestTemplate restTemplate;
 
@@ -40,20 +47,40 @@ class AuthServiceImplTest {
 
   @Test
   void shouldEsAuthorizationHeaderValido() {
-    when(tokenAccesoExcluidoRepository.findByToken(anyString())).thenReturn(null);
+    when(tokenAccesoExcluidoService.esTokenExcluido(anyString())).thenReturn(false);
     var token = authService.generarJWT(1L, List.of(Rol.ADMINISTRADOR));
     assertTrue(authService.esAuthorizationHeaderValido(BEARER_TOKEN_PREFIX + " " + token));
-    verify(tokenAccesoExcluidoRepository).findByToken(anyString());
+    verify(tokenAccesoExcluidoService).esTokenExcluido(token);
+  }
+
+  @Test
+  void shouldGetContextoAutenticacionUnaSolaVezPorRequest() {
+    when(tokenAccesoExcluidoService.esTokenExcluido(anyString())).thenReturn(false);
+    var authorizationHeader = BEARER_TOKEN_PREFIX + " " + authService.generarJWT(1L, List.of(Rol.VENDEDOR));
+    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    try {
+      var contexto = authService.getContextoAutenticacion(authorizationHeader);
+      assertEquals(1L, contexto.getIdUsuario());
+      assertEquals(List.of(Rol.VENDEDOR), contexto.getRoles());
+      assertEquals(contexto.getClaims(), authService.getClaimsDelToken(authorizationHeader));
+      assertTrue(authService.esAuthorizationHeaderValido(authorizationHeader));
+      verify(tokenAccesoExcluidoService, times(1)).esTokenExcluido(anyString());
+    } finally {
+      RequestContextHolder.resetRequestAttributes();
+    }
   }
 
   @Test
   void shouldExcluirTokenAcceso() {
-    var token = anyString();
-    var tae = TokenAccesoExcluido.builder().token(token).build();
-    when(tokenAccesoExcluidoRepository.findByToken(token)).thenReturn(null);
-    when(tokenAccesoExcluidoRepository.save(tae)).thenReturn(tae);
-    authService.excluirTokenAcceso(BEARER_TOKEN_PREFIX + " " + anyString());
-    verify(tokenAccesoExcluidoRepository).findByToken(token);
-    verify(tokenAccesoExcluidoRepository).save(tae);
+    var token = authService.generarJWT(1L, List.of(Rol.COMPRADOR));
+    authService.excluirTokenAcceso(BEARER_TOKEN_PREFIX + " " + token);
+    verify(tokenAccesoExcluidoService).excluirToken(eq(token), any(LocalDateTime.class));
+  }
+
+  @Test
+  void shouldNoEsAuthorizationHeaderValidoSiElTokenEstaExcluido() {
+    when(tokenAccesoExcluidoService.esTokenExcluido(anyString())).thenReturn(true);
+    var token = authService.generarJWT(1L, List.of(Rol.COMPRADOR));
+    assertFalse(authService.esAuthorizationHeaderValido(BEARER_TOKEN_PREFIX + " " + token));
   }
 }
@@ -0,0 +1,115 @@
+package org.opencommercial.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.opencommercial.exception.ServiceException;
+import org.opencommercial.model.*;
+import org.opencommercial.repository.AutorizacionComprobanteRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.MessageSource;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {AutorizacionComprobanteServiceImpl.class})
+class AutorizacionComprobanteServiceImplTest {
+
+  @MockBean AutorizacionComprobanteRepository autorizacionComprobanteRepository;
+  @MockBean FacturaVentaService facturaVentaService;
+  @MockBean NotaService notaService;
+  @MockBean TaxationService taxationService;
+  @MockBean MessageSource messageSource;
+  @MockBean PlatformTransactionManager transactionManager;
+
+  @Autowired AutorizacionComprobanteServiceImpl autorizacionComprobanteService;
+
+  private AutorizacionComprobante crearAutorizacionPendiente(DocumentoAutorizable documento, long idComprobante) {
+    return AutorizacionComprobante.builder()
+            .documento(documento)
+            .idComprobante(idComprobante)
+            .estado(EstadoAutorizacion.PENDIENTE)
+            .build();
+  }
+
+  @Test
+  void shouldEncolarAutorizacion() {
+    when(autorizacionComprobanteRepository.findByDocumentoAndIdComprobante(DocumentoAutorizable.FACTURA_VENTA, 1L))
+            .thenReturn(Optional.empty());
+    when(autorizacionComprobanteRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    var autorizacion = autorizacionComprobanteService.encolar(DocumentoAutorizable.FACTURA_VENTA, 1L);
+    assertEquals(EstadoAutorizacion.PENDIENTE, autorizacion.getEstado());
+    assertEquals(0, autorizacion.getIntentos());
+    assertNotNull(autorizacion.getFechaAlta());
+    assertEquals(autorizacion.getFechaAlta(), autorizacion.getFechaProximoIntento());
+    verifyNoInteractions(taxationService, facturaVentaService);
+  }
+
+  @Test
+  void shouldAutorizarPendientesEnUnLote() {
+    var autorizacionFactura = this.crearAutorizacionPendiente(DocumentoAutorizable.FACTURA_VENTA, 1L);
+    var autorizacionNota = this.crearAutorizacionPendiente(DocumentoAutorizable.NOTA, 2L);
+    when(autorizacionComprobanteRepository.findByEstadoAndFechaProximoIntentoLessThanEqualOrderByFechaProximoIntento(
+            eq(EstadoAutorizacion.PENDIENTE), any(), any()))
+            .thenReturn(List.of(autorizacionFactura, autorizacionNota));
+    var factura = ComprobanteAutorizableAFIP.builder().tipoComprobante(TipoDeComprobante.FACTURA_B).build();
+    var nota = ComprobanteAutorizableAFIP.builder().tipoComprobante(TipoDeComprobante.NOTA_CREDITO_B).build();
+    when(facturaVentaService.construirComprobanteAutorizable(1L)).thenReturn(factura);
+    when(notaService.construirComprobanteAutorizable(2L)).thenReturn(nota);
+    doAnswer(invocation -> {
+      factura.setCae(21064126523746L);
+      nota.setObservaciones("El campo DocNro es invalido");
+      return null;
+    }).when(taxationService).autorizar(List.of(factura, nota));
+    autorizacionComprobanteService.autorizarPendientes();
+    verify(taxationService).autorizar(List.of(factura, nota));
+    verify(facturaVentaService).asignarAutorizacion(1L, factura);
+    verify(notaService, never()).asignarAutorizacion(anyLong(), any());
+    assertEquals(EstadoAutorizacion.AUTORIZADO, autorizacionFactura.getEstado());
+    assertNotNull(autorizacionFactura.getFechaAutorizacion());
+    assertEquals(EstadoAutorizacion.PENDIENTE, autorizacionNota.getEstado());
+    assertEquals(1, autorizacionNota.getIntentos());
+    assertEquals("El campo DocNro es invalido", autorizacionNota.getUltimoError());
+    assertTrue(autorizacionNota.getFechaProximoIntento().isAfter(LocalDateTime.now()));
+    verify(autorizacionComprobanteRepository, times(2)).save(any());
+  }
+
+  @Test
+  void shouldMarcarAutorizacionComoFallidaAlAgotarIntentos() {
+    var autorizacion = this.crearAutorizacionPendiente(DocumentoAutorizable.FACTURA_VENTA, 1L);
+    autorizacion.setIntentos(7);
+    when(autorizacionComprobanteRepository.findByEstadoAndFechaProximoIntentoLessThanEqualOrderByFechaProximoIntento(
+            eq(EstadoAutorizacion.PENDIENTE), any(), any()))
+            .thenReturn(List.of(autorizacion));
+    when(facturaVentaService.construirComprobanteAutorizable(1L))
+            .thenReturn(ComprobanteAutorizableAFIP.builder().tipoComprobante(TipoDeComprobante.FACTURA_A).build());
+    doThrow(new ServiceException("sin conexion")).when(taxationService).autorizar(anyList());
+    autorizacionComprobanteService.autorizarPendientes();
+    assertEquals(EstadoAutorizacion.FALLIDO, autorizacion.getEstado());
+    assertEquals(8, autorizacion.getIntentos());
+    assertEquals("sin conexion", autorizacion.getUltimoError());
+  }
+
+  @Test
+  void shouldNoSolicitarCAEDeComprobanteYaAutorizado() {
+    var autorizacion = this.crearAutorizacionPendiente(DocumentoAutorizable.NOTA, 3L);
+    when(autorizacionComprobanteRepository.findByEstadoAndFechaProximoIntentoLessThanEqualOrderByFechaProximoIntento(
+            eq(EstadoAutorizacion.PENDIENTE), any(), any()))
+            .thenReturn(List.of(autorizacion));
+    when(notaService.construirComprobanteAutorizable(3L))
+            .thenReturn(ComprobanteAutorizableAFIP.builder().cae(21064126523746L).build());
+    autorizacionComprobanteService.autorizarPendientes();
+    assertEquals(EstadoAutorizacion.AUTORIZADO, autorizacion.getEstado());
+    verifyNoInteractions(taxationService);
+  }
+}
@@ -0,0 +1,90 @@
+package org.opencommercial.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.opencommercial.model.Caja;
+import org.opencommercial.model.EstadoCaja;
+import org.opencommercial.model.Sucursal;
+import org.opencommercial.repository.CajaRepository;
+import org.opencommercial.repository.projection.FormaDePagoMontoProjection;
+import org.opencommercial.util.CustomValidator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.MessageSource;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {CajaServiceImpl.class, CustomValidator.class, MessageSource.class})
+class CajaServiceImplTest {
+
+  @MockBean CajaRepository cajaRepository;
+  @MockBean GastoService gastoService;
+  @MockBean SucursalService sucursalService;
+  @MockBean UsuarioService usuarioService;
+  @MockBean ReciboService reciboService;
+  @MockBean ClockService clockService;
+  @MockBean MessageSource messageSource;
+
+  @Autowired CajaServiceImpl cajaService;
+
+  private Caja crearCajaConMovimientos() {
+    Sucursal sucursal = new Sucursal();
+    sucursal.setIdSucursal(1L);
+    Caja caja = new Caja();
+    caja.setIdCaja(1L);
+    caja.setSucursal(sucursal);
+    caja.setEstado(EstadoCaja.ABIERTA);
+    caja.setSaldoApertura(new BigDecimal("100"));
+    caja.setFechaApertura(LocalDateTime.now().minusHours(8));
+    when(cajaRepository.findById(1L)).thenReturn(caja);
+    // efectivo: recibos 500 y gastos -50, transferencia: recibos 300
+    List<FormaDePagoMontoProjection> montos = List.of(
+        this.crearMontoFormaDePago(1L, true, new BigDecimal("500")),
+        this.crearMontoFormaDePago(2L, false, new BigDecimal("300")),
+        this.crearMontoFormaDePago(1L, true, new BigDecimal("-50")));
+    when(cajaRepository.getMontosPorFormaDePagoEntreFechas(eq(1L), eq(caja.getFechaApertura()), any()))
+        .thenReturn(montos);
+    return caja;
+  }
+
+  private FormaDePagoMontoProjection crearMontoFormaDePago(long idFormaDePago, boolean afectaCaja, BigDecimal monto) {
+    FormaDePagoMontoProjection projection = mock(FormaDePagoMontoProjection.class);
+    when(projection.getIdFormaDePago()).thenReturn(idFormaDePago);
+    when(projection.getAfectaCaja()).thenReturn(afectaCaja);
+    when(projection.getMonto()).thenReturn(monto);
+    return projection;
+  }
+
+  @Test
+  void shouldGetIdsFormasDePagoAndMontos() {
+    this.crearCajaConMovimientos();
+    Map<Long, BigDecimal> totales = cajaService.getIdsFormasDePagoAndMontos(1L);
+    assertEquals(2, totales.size());
+    assertEquals(new BigDecimal("450"), totales.get(1L));
+    assertEquals(new BigDecimal("300"), totales.get(2L));
+    verify(cajaRepository).getMontosPorFormaDePagoEntreFechas(eq(1L), any(), any());
+    verifyNoInteractions(reciboService, gastoService);
+  }
+
+  @Test
+  void shouldGetSaldoSistemaYSaldoQueAfectaCaja() {
+    Caja caja = this.crearCajaConMovimientos();
+    assertEquals(new BigDecimal("850"), cajaService.getSaldoSistema(caja));
+    assertEquals(new BigDecimal("550"), cajaService.getSaldoQueAfectaCaja(caja));
+    caja.setEstado(EstadoCaja.CERRADA);
+    caja.setSaldoSistema(new BigDecimal("700"));
+    assertEquals(new BigDecimal("700"), cajaService.getSaldoSistema(caja));
+    verify(cajaRepository, times(2)).getMontosPorFormaDePagoEntreFechas(eq(1L), any(), any());
+  }
+}
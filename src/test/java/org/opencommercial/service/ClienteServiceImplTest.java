@@ -9,6 +9,8 @@ import org.opencommercial.model.TipoDeOperacion;
 import org.opencommercial.model.Usuario;
 import org.opencommercial.repository.ClienteRepository;
 import org.opencommercial.util.CustomValidator;
+import org.opencommercial.util.PaginadorPorCursor;
+import org.opencommercial.util.PaginadorSinConteo;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.MessageSource;
@@ -36,6 +38,9 @@ class ClienteServiceImplTest {
   @MockBean CuentaCorrienteService cuentaCorrienteService;
   @MockBean UsuarioService usuarioService;
   @MockBean UbicacionService ubicacionService;
+  @MockBean GeneradorIdentificadorService generadorIdentificadorService;
+  @MockBean PaginadorPorCursor paginadorPorCursor;
+  @MockBean PaginadorSinConteo paginadorSinConteo;
 
   @Autowired ClienteServiceImpl clienteService;
 
@@ -4,7 +4,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.opencommercial.exception.BusinessServiceException;
 import org.opencommercial.model.ConfiguracionSucursal;
+import org.opencommercial.model.CredencialAfip;
 import org.opencommercial.repository.ConfiguracionSucursalRepository;
+import org.opencommercial.repository.CredencialAfipRepository;
 import org.opencommercial.util.CustomValidator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -15,7 +17,9 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 import java.time.LocalDateTime;
 import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
@@ -27,6 +31,7 @@ import static org.mockito.Mockito.when;
 class ConfiguracionSucursalServiceImplTest {
 
   @MockBean ConfiguracionSucursalRepository configuracionSucursalRepository;
+  @MockBean CredencialAfipRepository credencialAfipRepository;
   @MockBean MessageSource messageSource;
 
   @Autowired ConfiguracionSucursalServiceImpl configuracionSucursalService;
@@ -59,9 +64,12 @@ class ConfiguracionSucursalServiceImplTest {
     verify(messageSource).getMessage(eq("mensaje_sucursal_punto_venta_invalido"), any(), any());
     configuracionSucursal.setNroPuntoDeVentaAfip(3);
     configuracionSucursal.setPredeterminada(true);
+    when(configuracionSucursalRepository.save(configuracionSucursal)).thenReturn(configuracionSucursal);
     configuracionSucursalService.guardar(configuracionSucursal);
     verify(configuracionSucursalRepository).desmarcarSucursalPredeterminada();
     verify(configuracionSucursalRepository).save(configuracionSucursal);
+    assertTrue(configuracionSucursal.isExisteCertificado());
+    verify(credencialAfipRepository).save(any(CredencialAfip.class));
   }
 
   @Test
@@ -73,12 +81,14 @@ class ConfiguracionSucursalServiceImplTest {
     configuracionDeSucursalParaActualizar.setIdConfiguracionSucursal(1L);
     configuracionDeSucursalParaActualizar.setFacturaElectronicaHabilitada(true);
     configuracionDeSucursalParaActualizar.setPasswordCertificadoAfip("");
-    configuracionSucursalPersistida.setPasswordCertificadoAfip("password");
-    configuracionSucursalPersistida.setCertificadoAfip(("").getBytes());
-    configuracionSucursalPersistida.setSignTokenWSAA("firmaToken");
-    configuracionSucursalPersistida.setTokenWSAA("token");
-    configuracionSucursalPersistida.setFechaGeneracionTokenWSAA(LocalDateTime.MIN);
-    configuracionSucursalPersistida.setFechaVencimientoTokenWSAA(LocalDateTime.MIN);
+    CredencialAfip credencialAfipPersistida = new CredencialAfip();
+    credencialAfipPersistida.setIdConfiguracionSucursal(1L);
+    credencialAfipPersistida.setPasswordCertificadoAfip("password");
+    credencialAfipPersistida.setCertificadoAfip(("").getBytes());
+    credencialAfipPersistida.setSignTokenWSAA("firmaToken");
+    credencialAfipPersistida.setTokenWSAA("token");
+    credencialAfipPersistida.setFechaGeneracionTokenWSAA(LocalDateTime.MIN);
+    credencialAfipPersistida.setFechaVencimientoTokenWSAA(LocalDateTime.MIN);
     configuracionDeSucursalParaActualizar.setVencimientoLargo(0L);
     configuracionDeSucursalParaActualizar.setVencimientoCorto(0L);
     configuracionSucursalPersistida.setVencimientoCorto(1L);
@@ -86,6 +96,7 @@ class ConfiguracionSucursalServiceImplTest {
     configuracionDeSucursalParaActualizar.setFirmanteCertificadoAfip("firmante");
     configuracionDeSucursalParaActualizar.setNroPuntoDeVentaAfip(3);
     when(configuracionSucursalRepository.findById(1L)).thenReturn(Optional.of(configuracionSucursalPersistida));
+    when(credencialAfipRepository.findById(1L)).thenReturn(Optional.of(credencialAfipPersistida));
     assertThrows(
         BusinessServiceException.class,
         () -> configuracionSucursalService.actualizar(configuracionDeSucursalParaActualizar));
@@ -93,6 +104,10 @@ class ConfiguracionSucursalServiceImplTest {
     configuracionDeSucursalParaActualizar.setPredeterminada(true);
     configuracionSucursalService.actualizar(configuracionDeSucursalParaActualizar);
     verify(configuracionSucursalRepository).save(configuracionDeSucursalParaActualizar);
+    assertTrue(configuracionDeSucursalParaActualizar.isExisteCertificado());
+    verify(credencialAfipRepository).save(credencialAfipPersistida);
+    assertEquals("password", credencialAfipPersistida.getPasswordCertificadoAfip());
+    assertEquals("token", credencialAfipPersistida.getTokenWSAA());
   }
 
   @Test
@@ -10,26 +10,32 @@ import org.opencommercial.repository.CuentaCorrienteRepository;
 import org.opencommercial.repository.RenglonCuentaCorrienteRepository;
 import org.opencommercial.util.CustomValidator;
 import org.opencommercial.util.FormatoReporte;
+import org.opencommercial.util.ImagenesReporteHandler;
 import org.opencommercial.util.JasperReportsHandler;
+import org.opencommercial.util.PaginadorPorCursor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.MessageSource;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(SpringExtension.class)
 @ContextConfiguration(
-        classes = {CuentaCorrienteServiceImpl.class, CustomValidator.class, MessageSource.class, JasperReportsHandler.class})
+        classes = {CuentaCorrienteServiceImpl.class, CustomValidator.class, MessageSource.class, JasperReportsHandler.class, ImagenesReporteHandler.class})
 class CuentaCorrienteServiceImplTest {
 
   @MockBean CuentaCorrienteRepository<CuentaCorriente> cuentaCorrienteRepository;
@@ -39,6 +45,7 @@ class CuentaCorrienteServiceImplTest {
   @MockBean ClienteService clienteService;
   @MockBean SucursalService sucursalService;
   @MockBean MessageSource messageSource;
+  @MockBean PaginadorPorCursor paginadorPorCursor;
 
   @Autowired CuentaCorrienteServiceImpl cuentaCorrienteService;
 
@@ -52,28 +59,75 @@ class CuentaCorrienteServiceImplTest {
     rolesDeUsuario.add(Rol.ADMINISTRADOR);
     usuario.setRoles(rolesDeUsuario);
     when(usuarioService.getUsuarioNoEliminadoPorId(1L)).thenReturn(usuario);
-    when(cuentaCorrienteClienteRepository.findAll(
+    when(cuentaCorrienteClienteRepository.streamCuentasCorrienteCliente(
             cuentaCorrienteService.getBuilder(BusquedaCuentaCorrienteClienteCriteria.builder().build(), 1L),
-            cuentaCorrienteService.getPageable(null, null, null, "cliente.nombreFiscal", Integer.MAX_VALUE)))
-            .thenReturn(new PageImpl<>(cuentasCorriente));
+            cuentaCorrienteService.getPageable(0, null, null, "cliente.nombreFiscal", Integer.MAX_VALUE).getSort()))
+            .thenAnswer(invocation -> cuentasCorriente.stream());
     Sucursal sucursal = new Sucursal();
     sucursal.setLogo("noTieneImagen");
     when(sucursalService.getSucursalPredeterminada()).thenReturn(sucursal);
     assertThrows(
             ServiceException.class,
-            () -> cuentaCorrienteService.getReporteListaDeCuentasCorrienteClientePorCriteria(
-                    BusquedaCuentaCorrienteClienteCriteria.builder().build(), 1L, FormatoReporte.PDF));
+            () -> cuentaCorrienteService.exportarReporteListaDeCuentasCorrienteCliente(
+                    BusquedaCuentaCorrienteClienteCriteria.builder().build(), 1L, FormatoReporte.PDF,
+                    new ByteArrayOutputStream()));
     assertThrows(
             ServiceException.class,
-            () -> cuentaCorrienteService.getReporteListaDeCuentasCorrienteClientePorCriteria(
-                    BusquedaCuentaCorrienteClienteCriteria.builder().build(), 1L, FormatoReporte.XLSX));
+            () -> cuentaCorrienteService.exportarReporteListaDeCuentasCorrienteCliente(
+                    BusquedaCuentaCorrienteClienteCriteria.builder().build(), 1L, FormatoReporte.XLSX,
+                    new ByteArrayOutputStream()));
     verify(messageSource, times(2)).getMessage(eq("mensaje_sucursal_404_logo"), any(), any());
     sucursal.setLogo(null);
-    assertNotNull(
-        cuentaCorrienteService.getReporteListaDeCuentasCorrienteClientePorCriteria(
-            BusquedaCuentaCorrienteClienteCriteria.builder().build(), 1L, FormatoReporte.PDF));
-    assertNotNull(
-        cuentaCorrienteService.getReporteListaDeCuentasCorrienteClientePorCriteria(
-            BusquedaCuentaCorrienteClienteCriteria.builder().build(), 1L, FormatoReporte.PDF));
+    var reportePdf = new ByteArrayOutputStream();
+    cuentaCorrienteService.exportarReporteListaDeCuentasCorrienteCliente(
+        BusquedaCuentaCorrienteClienteCriteria.builder().build(), 1L, FormatoReporte.PDF, reportePdf);
+    assertTrue(reportePdf.size() > 0);
+    var reporteXlsx = new ByteArrayOutputStream();
+    cuentaCorrienteService.exportarReporteListaDeCuentasCorrienteCliente(
+        BusquedaCuentaCorrienteClienteCriteria.builder().build(), 1L, FormatoReporte.XLSX, reporteXlsx);
+    assertTrue(reporteXlsx.size() > 0);
+  }
+
+  @Test
+  void shouldAsentarFacturaVentaSinCargarRenglonesDeCuentaCorriente() {
+    Cliente cliente = new Cliente();
+    cliente.setIdCliente(1L);
+    when(clienteService.getClienteNoEliminadoPorId(1L)).thenReturn(cliente);
+    CuentaCorrienteCliente cuentaCorrienteCliente = new CuentaCorrienteCliente();
+    cuentaCorrienteCliente.setIdCuentaCorriente(2L);
+    cuentaCorrienteCliente.setSaldo(new BigDecimal("100"));
+    when(cuentaCorrienteClienteRepository.findByClienteAndEliminada(cliente, false)).thenReturn(cuentaCorrienteCliente);
+    when(cuentaCorrienteRepository.getSaldo(2L)).thenReturn(new BigDecimal("-50"));
+    FacturaVenta facturaVenta = new FacturaVenta();
+    facturaVenta.setIdFactura(3L);
+    facturaVenta.setCliente(cliente);
+    facturaVenta.setTipoComprobante(TipoDeComprobante.FACTURA_A);
+    facturaVenta.setFecha(LocalDateTime.now());
+    facturaVenta.setTotal(new BigDecimal("150"));
+    cuentaCorrienteService.asentarEnCuentaCorriente(facturaVenta, TipoDeOperacion.ALTA);
+    verify(cuentaCorrienteRepository).actualizarSaldo(2L, new BigDecimal("-150"));
+    verify(renglonCuentaCorrienteRepository).save(any(RenglonCuentaCorriente.class));
+    assertEquals(new BigDecimal("-50"), cuentaCorrienteCliente.getSaldo());
+    assertEquals(facturaVenta.getFecha(), cuentaCorrienteCliente.getFechaUltimoMovimiento());
+  }
+
+  @Test
+  void shouldRevertirSaldoAlEliminarRecibo() {
+    Cliente cliente = new Cliente();
+    cliente.setIdCliente(1L);
+    CuentaCorrienteCliente cuentaCorrienteCliente = new CuentaCorrienteCliente();
+    cuentaCorrienteCliente.setIdCuentaCorriente(2L);
+    when(cuentaCorrienteClienteRepository.findByClienteAndEliminada(cliente, false)).thenReturn(cuentaCorrienteCliente);
+    Recibo recibo = new Recibo();
+    recibo.setCliente(cliente);
+    recibo.setMonto(new BigDecimal("80"));
+    RenglonCuentaCorriente renglonCuentaCorriente = new RenglonCuentaCorriente();
+    renglonCuentaCorriente.setIdRenglonCuentaCorriente(4L);
+    when(renglonCuentaCorrienteRepository.findByReciboAndEliminado(recibo, false)).thenReturn(renglonCuentaCorriente);
+    when(renglonCuentaCorrienteRepository.findTop2ByAndCuentaCorrienteAndEliminadoOrderByIdRenglonCuentaCorrienteDesc(
+            cuentaCorrienteCliente, false)).thenReturn(List.of(renglonCuentaCorriente));
+    cuentaCorrienteService.asentarEnCuentaCorriente(recibo, TipoDeOperacion.ELIMINACION);
+    verify(cuentaCorrienteRepository).actualizarSaldo(2L, new BigDecimal("-80"));
+    assertTrue(renglonCuentaCorriente.isEliminado());
   }
 }
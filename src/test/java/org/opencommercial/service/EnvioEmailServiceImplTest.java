@@ -0,0 +1,144 @@
+package org.opencommercial.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.opencommercial.exception.ServiceException;
+import org.opencommercial.model.*;
+import org.opencommercial.repository.EnvioEmailRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {EnvioEmailServiceImpl.class})
+@TestPropertySource(properties = {"EMAIL_DEFAULT_PROVIDER=resend"})
+class EnvioEmailServiceImplTest {
+
+  @MockBean EnvioEmailRepository envioEmailRepository;
+  @MockBean EmailServiceFactory emailServiceFactory;
+  @MockBean ResendEmailServiceImpl resendEmailService;
+  @MockBean PedidoService pedidoService;
+  @MockBean FacturaService facturaService;
+  @MockBean FacturaVentaService facturaVentaService;
+  @MockBean PlatformTransactionManager transactionManager;
+
+  @Autowired EnvioEmailServiceImpl envioEmailService;
+
+  @Test
+  void shouldEncolarEmail() {
+    when(envioEmailRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    EnvioEmail envioEmail = envioEmailService.encolar(EnvioEmail.builder()
+            .destinatario("correo@cliente.com")
+            .asunto("Nuevo Pedido Ingresado")
+            .adjunto(AdjuntoEmail.PEDIDO)
+            .idDocumentoAdjunto(1L)
+            .build());
+    assertEquals(EstadoEnvioEmail.PENDIENTE, envioEmail.getEstado());
+    assertEquals(0, envioEmail.getIntentos());
+    assertNotNull(envioEmail.getFechaAlta());
+    assertEquals(envioEmail.getFechaAlta(), envioEmail.getFechaProximoIntento());
+    verifyNoInteractions(pedidoService, emailServiceFactory);
+  }
+
+  @Test
+  void shouldDespacharEmailsPendientesConAdjunto() {
+    EnvioEmail envioPedido = EnvioEmail.builder()
+            .destinatario("correo@cliente.com")
+            .bcc("")
+            .asunto("Nuevo Pedido Ingresado")
+            .mensaje("Pedido Nº 1")
+            .adjunto(AdjuntoEmail.PEDIDO)
+            .idDocumentoAdjunto(1L)
+            .nombreAdjunto("Pedido.pdf")
+            .estado(EstadoEnvioEmail.PENDIENTE)
+            .build();
+    EnvioEmail envioRecuperacion = EnvioEmail.builder()
+            .destinatario("correo@usuario.com")
+            .bcc("")
+            .asunto("Recuperación de contraseña")
+            .mensaje("link")
+            .estado(EstadoEnvioEmail.PENDIENTE)
+            .build();
+    when(envioEmailRepository.findByEstadoAndFechaProximoIntentoLessThanEqualOrderByFechaProximoIntento(
+            eq(EstadoEnvioEmail.PENDIENTE), any(), any()))
+            .thenReturn(List.of(envioPedido, envioRecuperacion));
+    when(emailServiceFactory.getEmailService("resend")).thenReturn(resendEmailService);
+    byte[] reporte = new byte[] {1, 2, 3};
+    when(pedidoService.getReportePedido(1L)).thenReturn(reporte);
+    envioEmailService.despacharPendientes();
+    verify(resendEmailService).enviarEmail("correo@cliente.com", "", "Nuevo Pedido Ingresado",
+            "Pedido Nº 1", reporte, "Pedido.pdf");
+    verify(resendEmailService).enviarEmail("correo@usuario.com", "", "Recuperación de contraseña",
+            "link", null, null);
+    assertEquals(EstadoEnvioEmail.ENVIADO, envioPedido.getEstado());
+    assertEquals(EstadoEnvioEmail.ENVIADO, envioRecuperacion.getEstado());
+    assertEquals(1, envioPedido.getIntentos());
+    assertNotNull(envioPedido.getFechaEnvio());
+    assertNull(envioPedido.getMensaje());
+    assertNull(envioRecuperacion.getMensaje());
+    verify(envioEmailRepository, times(2)).save(any());
+  }
+
+  @Test
+  void shouldReprogramarEmailConEnvioFallido() {
+    EnvioEmail envioEmail = EnvioEmail.builder()
+            .destinatario("correo@cliente.com")
+            .estado(EstadoEnvioEmail.PENDIENTE)
+            .intentos(2)
+            .build();
+    when(envioEmailRepository.findByEstadoAndFechaProximoIntentoLessThanEqualOrderByFechaProximoIntento(
+            eq(EstadoEnvioEmail.PENDIENTE), any(), any()))
+            .thenReturn(List.of(envioEmail));
+    when(emailServiceFactory.getEmailService("resend")).thenReturn(resendEmailService);
+    doThrow(new ServiceException("sin conexion")).when(resendEmailService)
+            .enviarEmail(any(), any(), any(), any(), any(), any());
+    LocalDateTime antes = LocalDateTime.now();
+    envioEmailService.despacharPendientes();
+    assertEquals(EstadoEnvioEmail.PENDIENTE, envioEmail.getEstado());
+    assertEquals(3, envioEmail.getIntentos());
+    assertEquals("sin conexion", envioEmail.getUltimoError());
+    assertFalse(envioEmail.getFechaProximoIntento().isBefore(antes.plusMinutes(4)));
+    assertNull(envioEmail.getFechaEnvio());
+    verify(envioEmailRepository).save(envioEmail);
+  }
+
+  @Test
+  void shouldMarcarEmailComoFallidoAlAgotarIntentos() {
+    EnvioEmail envioEmail = EnvioEmail.builder()
+            .destinatario("correo@cliente.com")
+            .mensaje("clave de recuperacion")
+            .estado(EstadoEnvioEmail.PENDIENTE)
+            .intentos(5)
+            .build();
+    when(envioEmailRepository.findByEstadoAndFechaProximoIntentoLessThanEqualOrderByFechaProximoIntento(
+            eq(EstadoEnvioEmail.PENDIENTE), any(), any()))
+            .thenReturn(List.of(envioEmail));
+    when(emailServiceFactory.getEmailService("resend")).thenReturn(resendEmailService);
+    doThrow(new ServiceException("sin conexion")).when(resendEmailService)
+            .enviarEmail(any(), any(), any(), any(), any(), any());
+    envioEmailService.despacharPendientes();
+    assertEquals(EstadoEnvioEmail.FALLIDO, envioEmail.getEstado());
+    assertEquals(6, envioEmail.getIntentos());
+    assertNull(envioEmail.getMensaje());
+  }
+
+  @Test
+  void shouldEliminarEnviosFinalizadosFueraDelPeriodoDeRetencion() {
+    LocalDateTime limite = LocalDateTime.now().minusDays(30);
+    envioEmailService.eliminarEnviosFinalizados();
+    verify(envioEmailRepository).eliminarFinalizadosAntesDe(
+            eq(List.of(EstadoEnvioEmail.ENVIADO, EstadoEnvioEmail.FALLIDO)),
+            argThat(fecha -> !fecha.isBefore(limite) && fecha.isBefore(limite.plusMinutes(1))));
+  }
+}
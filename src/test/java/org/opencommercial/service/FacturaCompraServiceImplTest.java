@@ -9,6 +9,8 @@ import org.opencommercial.model.*;
 import org.opencommercial.model.criteria.BusquedaFacturaCompraCriteria;
 import org.opencommercial.model.embeddable.PrecioProductoEmbeddable;
 import org.opencommercial.repository.FacturaCompraRepository;
+import org.opencommercial.util.PaginadorPorCursor;
+import org.opencommercial.util.PaginadorSinConteo;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.MessageSource;
@@ -31,6 +33,8 @@ class FacturaCompraServiceImplTest {
 
   @MockBean FacturaCompraRepository facturaCompraRepository;
   @MockBean MessageSource messageSource;
+  @MockBean PaginadorPorCursor paginadorPorCursor;
+  @MockBean PaginadorSinConteo paginadorSinConteo;
 
   @Autowired FacturaServiceImpl facturaServiceImpl;
   @Autowired FacturaCompraServiceImpl facturaCompraServiceImpl;
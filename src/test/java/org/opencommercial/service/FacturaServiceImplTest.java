@@ -15,12 +15,19 @@ import org.springframework.context.MessageSource;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(SpringExtension.class)
 @ContextConfiguration(
@@ -445,4 +452,83 @@ class FacturaServiceImplTest {
             CalculosComprobante.getArrayDeBonificacionesParaFactura(nuevosRenglonsFactura));
   }
 
+  private Producto crearProductoParaRenglon(long idProducto, String medida, String precioCosto,
+                                            String gananciaPorcentaje, String precioVentaPublico,
+                                            String ivaPorcentaje, String precioLista, boolean oferta,
+                                            String bonificacionOferta, String bonificacionPrecio,
+                                            String cantMinima) {
+    Producto producto = new Producto();
+    producto.setIdProducto(idProducto);
+    producto.setCodigo("COD" + idProducto);
+    producto.setDescripcion("Producto " + idProducto);
+    producto.setMedida(new Medida());
+    producto.getMedida().setNombre(medida);
+    var precioProducto = PrecioProductoEmbeddable.builder()
+            .precioCosto(new BigDecimal(precioCosto))
+            .gananciaPorcentaje(new BigDecimal(gananciaPorcentaje))
+            .precioVentaPublico(new BigDecimal(precioVentaPublico))
+            .ivaPorcentaje(new BigDecimal(ivaPorcentaje))
+            .precioLista(new BigDecimal(precioLista))
+            .oferta(oferta)
+            .porcentajeBonificacionOferta(bonificacionOferta != null ? new BigDecimal(bonificacionOferta) : null)
+            .porcentajeBonificacionPrecio(bonificacionPrecio != null ? new BigDecimal(bonificacionPrecio) : null)
+            .build();
+    precioProducto.setGananciaNeto(precioProducto.getPrecioCosto()
+            .multiply(precioProducto.getGananciaPorcentaje()).divide(new BigDecimal("100")));
+    producto.setPrecioProducto(precioProducto);
+    producto.setCantidadProducto(new CantidadProductoEmbeddable());
+    producto.getCantidadProducto().setCantMinima(new BigDecimal(cantMinima));
+    return producto;
+  }
+
+  // salida de referencia obtenida con el calculo renglon por renglon anterior al calculo en lote
+  @Test
+  void shouldCalcularRenglonesIgualQueElCalculoPorRenglon() throws IOException {
+    var productos = List.of(
+            this.crearProductoParaRenglon(1L, "Unidad", "100", "30", "130", "21", "157.3", false, null, "10", "5"),
+            this.crearProductoParaRenglon(2L, "Metro", "45.5", "20", "54.6", "10.5", "60.333", true, "15", "5", "1"),
+            this.crearProductoParaRenglon(3L, "Kilo", "12.345", "0", "12.345", "21", "14.93745", false, null, null, "10"));
+    when(productoService.getProductosParaCalcularRenglones(any())).thenAnswer(invocation -> {
+      Set<Long> idsProducto = invocation.getArgument(0);
+      return productos.stream()
+              .filter(producto -> idsProducto.contains(producto.getIdProducto()))
+              .collect(Collectors.toMap(Producto::getIdProducto, Function.identity()));
+    });
+    var salida = new StringBuilder();
+    for (Movimiento movimiento : List.of(Movimiento.VENTA, Movimiento.COMPRA, Movimiento.PEDIDO)) {
+      var tipos = switch (movimiento) {
+        case VENTA -> List.of(TipoDeComprobante.FACTURA_A, TipoDeComprobante.FACTURA_B, TipoDeComprobante.FACTURA_C,
+                TipoDeComprobante.FACTURA_X, TipoDeComprobante.PRESUPUESTO);
+        case COMPRA -> List.of(TipoDeComprobante.FACTURA_A, TipoDeComprobante.FACTURA_B, TipoDeComprobante.FACTURA_C,
+                TipoDeComprobante.FACTURA_X);
+        default -> List.of(TipoDeComprobante.PEDIDO);
+      };
+      for (TipoDeComprobante tipo : tipos) {
+        var nuevosRenglones = List.of(
+                NuevoRenglonFacturaDTO.builder().idProducto(1L).cantidad(new BigDecimal("3")).build(),
+                NuevoRenglonFacturaDTO.builder().idProducto(2L).cantidad(new BigDecimal("2.5"))
+                        .bonificacion(new BigDecimal("5")).build(),
+                NuevoRenglonFacturaDTO.builder().idProducto(3L).cantidad(new BigDecimal("12"))
+                        .bonificacion(BigDecimal.ZERO).build(),
+                NuevoRenglonFacturaDTO.builder().idProducto(1L).cantidad(new BigDecimal("7")).renglonMarcado(true)
+                        .bonificacion(new BigDecimal("12.5")).build());
+        var renglones = facturaServiceImpl.calcularRenglones(tipo, movimiento, nuevosRenglones);
+        renglones.forEach(renglon -> salida.append(String.join(" ", movimiento.name(), tipo.name(),
+                renglon.getCodigoItem(), renglon.getMedidaItem(), renglon.getCantidad().toPlainString(),
+                renglon.getPrecioUnitario().toPlainString(), renglon.getBonificacionPorcentaje().toPlainString(),
+                renglon.getBonificacionNeta().toPlainString(), renglon.getIvaNeto().toPlainString(),
+                renglon.getImporteAnterior().toPlainString(), renglon.getImporte().toPlainString())).append("\n"));
+        var importes = renglones.stream().map(RenglonFactura::getImporte).toArray(BigDecimal[]::new);
+        salida.append(movimiento.name()).append(" ").append(tipo.name()).append(" subtotal ")
+                .append(CalculosComprobante.calcularSubTotal(importes).toPlainString()).append("\n");
+      }
+    }
+    assertEquals(
+            new String(getClass().getResourceAsStream("/renglonesFacturaEsperados.txt").readAllBytes(), StandardCharsets.UTF_8),
+            salida.toString());
+    // una sola consulta de productos por comprobante
+    verify(productoService, times(10)).getProductosParaCalcularRenglones(Set.of(1L, 2L, 3L));
+    verify(productoService, never()).getProductoNoEliminadoPorId(anyLong());
+  }
+
 }
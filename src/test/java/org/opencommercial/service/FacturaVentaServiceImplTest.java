@@ -14,7 +14,10 @@ import org.opencommercial.model.embeddable.PrecioProductoEmbeddable;
 import org.opencommercial.repository.FacturaRepository;
 import org.opencommercial.repository.FacturaVentaRepository;
 import org.opencommercial.util.CustomValidator;
+import org.opencommercial.util.ImagenesReporteHandler;
 import org.opencommercial.util.JasperReportsHandler;
+import org.opencommercial.util.PaginadorPorCursor;
+import org.opencommercial.util.PaginadorSinConteo;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.MessageSource;
@@ -37,7 +40,8 @@ import static org.mockito.Mockito.*;
                 FacturaVentaServiceImpl.class,
                 FacturaServiceImpl.class,
                 MessageSource.class,
-                JasperReportsHandler.class
+                JasperReportsHandler.class,
+                ImagenesReporteHandler.class
         })
 class FacturaVentaServiceImplTest {
 
@@ -48,11 +52,14 @@ class FacturaVentaServiceImplTest {
   @MockBean ClienteServiceImpl clienteService;
   @MockBean PedidoServiceImpl pedidoService;
   @MockBean ConfiguracionSucursalServiceImpl configuracionSucursalService;
-  @MockBean EmailServiceFactory emailServiceFactory;
-  @MockBean ResendEmailServiceImpl resendEmailService;
+  @MockBean EnvioEmailService envioEmailService;
   @MockBean SucursalServiceImpl sucursalService;
   @MockBean TransportistaServiceImpl transportistaService;
+  @MockBean NumeradorComprobanteService numeradorComprobanteService;
+  @MockBean ResumenFacturacionService resumenFacturacionService;
   @MockBean MessageSource messageSource;
+  @MockBean PaginadorPorCursor paginadorPorCursor;
+  @MockBean PaginadorSinConteo paginadorSinConteo;
 
   @Autowired FacturaServiceImpl facturaServiceImpl;
   @Autowired FacturaVentaServiceImpl facturaVentaServiceImpl;
@@ -226,6 +233,8 @@ class FacturaVentaServiceImplTest {
     when(producto6.getDescripcion()).thenReturn("producto seis test");
     when(producto6.getMedida()).thenReturn(medida);
     when(productoService.getProductoNoEliminadoPorId(6L)).thenReturn(producto6);
+    when(productoService.getProductosParaCalcularRenglones(any()))
+        .thenReturn(Map.of(1L, producto1, 2L, producto2, 3L, producto3, 4L, producto4, 5L, producto5, 6L, producto6));
     when(renglon1.getIdProductoItem()).thenReturn(1L);
     when(renglon1.getIvaNeto()).thenReturn(new BigDecimal("21"));
     when(renglon1.getBonificacionPorcentaje()).thenReturn(BigDecimal.ZERO);
@@ -596,8 +605,8 @@ class FacturaVentaServiceImplTest {
     productoParaRetorno.getPrecioProducto().setPorcentajeBonificacionOferta(BigDecimal.ZERO);
     productoParaRetorno.setCantidadProducto(new CantidadProductoEmbeddable());
     productoParaRetorno.getCantidadProducto().setCantMinima(new BigDecimal("5"));
-    when(productoService.getProductoNoEliminadoPorId(1L)).thenReturn(productoParaRetorno);
-    when(productoService.getProductoNoEliminadoPorId(2L)).thenReturn(productoParaRetorno);
+    when(productoService.getProductosParaCalcularRenglones(Set.of(1L, 2L)))
+        .thenReturn(Map.of(1L, productoParaRetorno, 2L, productoParaRetorno));
     assertFalse(
         facturaVentaServiceImpl
             .getRenglonesPedidoParaFacturar(1L, TipoDeComprobante.FACTURA_A)
@@ -618,7 +627,6 @@ class FacturaVentaServiceImplTest {
     Cliente clienteDeFactura = new Cliente();
     facturaVenta.setCliente(clienteDeFactura);
     when(facturaRepository.findById(1L)).thenReturn(Optional.of(facturaVenta));
-    when(emailServiceFactory.getEmailService(anyString())).thenReturn(resendEmailService);
     assertThrows(
         BusinessServiceException.class,
         () -> facturaVentaServiceImpl.enviarFacturaVentaPorEmail(1L));
@@ -654,9 +662,15 @@ class FacturaVentaServiceImplTest {
     facturaVenta.setPedido(pedido);
     when(facturaRepository.findById(1L)).thenReturn(Optional.of(facturaVenta));
     facturaVentaServiceImpl.enviarFacturaVentaPorEmail(1L);
-    verify(resendEmailService, times(3))
-            .enviarEmail(eq(facturaVenta.getCliente().getEmail()), eq(""),
-                    eq("Su Factura de Compra"), any(), any(), eq("Factura.pdf"));
+    verify(envioEmailService, times(3))
+            .encolar(EnvioEmail.builder()
+                    .destinatario(facturaVenta.getCliente().getEmail())
+                    .bcc("")
+                    .asunto("Su Factura de Compra")
+                    .adjunto(AdjuntoEmail.FACTURA_VENTA)
+                    .idDocumentoAdjunto(1L)
+                    .nombreAdjunto("Factura.pdf")
+                    .build());
   }
 
   @Test
@@ -711,7 +725,7 @@ class FacturaVentaServiceImplTest {
     producto.getPrecioProducto().setIvaPorcentaje(new BigDecimal("21"));
     producto.getPrecioProducto().setPrecioVentaPublico(new BigDecimal("100"));
     producto.getPrecioProducto().setPrecioLista(new BigDecimal("121"));
-    when(productoService.getProductoNoEliminadoPorId(1L)).thenReturn(producto);
+    when(productoService.getProductosParaCalcularRenglones(Set.of(1L))).thenReturn(Map.of(1L, producto));
     FacturaVenta facturaVenta =
         facturaVentaServiceImpl.construirFacturaVenta(nuevaFacturaVentaDTO, 1L, 1L);
     assertNotNull(facturaVenta);
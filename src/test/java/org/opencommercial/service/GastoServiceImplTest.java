@@ -4,6 +4,8 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.opencommercial.model.criteria.BusquedaGastoCriteria;
 import org.opencommercial.repository.GastoRepository;
+import org.opencommercial.util.PaginadorPorCursor;
+import org.opencommercial.util.PaginadorSinConteo;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.MessageSource;
@@ -22,6 +24,8 @@ class GastoServiceImplTest {
     @MockBean SucursalService sucursalService;
     @MockBean CajaService cajaService;
     @MockBean MessageSource messageSource;
+    @MockBean PaginadorPorCursor paginadorPorCursor;
+    @MockBean PaginadorSinConteo paginadorSinConteo;
 
     @Autowired GastoServiceImpl gastoService;
 
@@ -0,0 +1,130 @@
+package org.opencommercial.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.opencommercial.exception.BusinessServiceException;
+import org.opencommercial.model.SecuenciaIdentificador;
+import org.opencommercial.model.TipoIdentificador;
+import org.opencommercial.repository.SecuenciaIdentificadorRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.MessageSource;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {GeneradorIdentificadorServiceImpl.class, MessageSource.class})
+class GeneradorIdentificadorServiceImplTest {
+
+  @MockBean SecuenciaIdentificadorRepository secuenciaIdentificadorRepository;
+  @MockBean MessageSource messageSource;
+
+  @Autowired GeneradorIdentificadorServiceImpl generadorIdentificadorService;
+
+  private SecuenciaIdentificador crearSecuencia(TipoIdentificador tipo, String ambito) {
+    var secuencia = SecuenciaIdentificador.builder().tipo(tipo).ambito(ambito).ultimoReservado(0L).build();
+    when(secuenciaIdentificadorRepository.findParaActualizar(tipo, ambito)).thenReturn(Optional.of(secuencia));
+    return secuencia;
+  }
+
+  @Test
+  void shouldGenerarIdentificadoresUnicosReservandoBloques() {
+    var secuencia = this.crearSecuencia(TipoIdentificador.CLIENTE, "");
+    var generados = new HashSet<Long>();
+    for (int i = 0; i < 45; i++) {
+      long nroCliente = generadorIdentificadorService.generarIdentificador(TipoIdentificador.CLIENTE, "", nro -> false);
+      assertTrue(nroCliente >= 1 && nroCliente <= 99999);
+      assertTrue(generados.add(nroCliente));
+    }
+    // 3 bloques de 20 valores
+    assertEquals(60L, secuencia.getUltimoReservado());
+    verify(secuenciaIdentificadorRepository, times(3)).findParaActualizar(TipoIdentificador.CLIENTE, "");
+  }
+
+  @Test
+  void shouldDescartarIdentificadoresGeneradosAntesDeLaSecuencia() {
+    this.crearSecuencia(TipoIdentificador.PEDIDO, "1");
+    long primero = generadorIdentificadorService.generarIdentificador(TipoIdentificador.PEDIDO, "1", nro -> false);
+    this.crearSecuencia(TipoIdentificador.PEDIDO, "2");
+    long nroPedido = generadorIdentificadorService.generarIdentificador(TipoIdentificador.PEDIDO, "2", nro -> nro == primero);
+    assertNotEquals(primero, nroPedido);
+  }
+
+  @Test
+  void shouldCrearSecuenciaAntesDeBloquearla() {
+    var secuencia = this.crearSecuencia(TipoIdentificador.TRASPASO, "");
+    generadorIdentificadorService.generarIdentificador(TipoIdentificador.TRASPASO, "", nro -> false);
+    var orden = inOrder(secuenciaIdentificadorRepository);
+    orden.verify(secuenciaIdentificadorRepository).crearSiNoExiste("TRASPASO", "");
+    orden.verify(secuenciaIdentificadorRepository).findParaActualizar(TipoIdentificador.TRASPASO, "");
+    verify(secuenciaIdentificadorRepository, never()).save(any());
+    assertEquals(20L, secuencia.getUltimoReservado());
+  }
+
+  @Test
+  void shouldCompartirElBloqueSoloDespuesDeConfirmarLaTransaccion() {
+    var secuencia = this.crearSecuencia(TipoIdentificador.PROVEEDOR, "");
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      var primero = generadorIdentificadorService.generarIdentificador(TipoIdentificador.PROVEEDOR, "", nro -> false);
+      var segundo = generadorIdentificadorService.generarIdentificador(TipoIdentificador.PROVEEDOR, "", nro -> false);
+      assertNotEquals(primero, segundo);
+      verify(secuenciaIdentificadorRepository, times(1)).findParaActualizar(TipoIdentificador.PROVEEDOR, "");
+      // la transaccion se revierte junto con la reserva, el resto del bloque se descarta
+      TransactionSynchronizationManager.getSynchronizations()
+              .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+    secuencia.setUltimoReservado(0L);
+    generadorIdentificadorService.generarIdentificador(TipoIdentificador.PROVEEDOR, "", nro -> false);
+    verify(secuenciaIdentificadorRepository, times(2)).findParaActualizar(TipoIdentificador.PROVEEDOR, "");
+    generadorIdentificadorService.generarIdentificador(TipoIdentificador.PROVEEDOR, "", nro -> false);
+    verify(secuenciaIdentificadorRepository, times(2)).findParaActualizar(TipoIdentificador.PROVEEDOR, "");
+  }
+
+  // con la secuencia al 10%, 50% y 90% de ocupacion cada identificador sigue costando una sola reserva y una sola verificacion
+  @Test
+  void shouldMantenerCostoConstanteAlSaturarElEspacio() {
+    this.crearSecuencia(TipoIdentificador.USUARIO, "juanperez");
+    var verificaciones = new AtomicInteger();
+    var generados = new HashSet<Long>();
+    long capacidad = TipoIdentificador.USUARIO.getCapacidad();
+    for (double ocupacion : new double[] {0.1, 0.5, 0.9}) {
+      while (generados.size() < (long) (capacidad * ocupacion)) {
+        generados.add(generadorIdentificadorService.generarIdentificador(
+                TipoIdentificador.USUARIO, "juanperez", sufijo -> verificaciones.incrementAndGet() < 0));
+      }
+      clearInvocations(secuenciaIdentificadorRepository);
+      verificaciones.set(0);
+      long inicio = System.nanoTime();
+      for (int i = 0; i < 10; i++) {
+        assertTrue(generados.add(generadorIdentificadorService.generarIdentificador(
+                TipoIdentificador.USUARIO, "juanperez", sufijo -> verificaciones.incrementAndGet() < 0)));
+      }
+      long microsPorIdentificador = (System.nanoTime() - inicio) / 10_000;
+      assertEquals(10, verificaciones.get(), "ocupacion " + ocupacion + ", " + microsPorIdentificador + "us");
+      verify(secuenciaIdentificadorRepository, times(10)).findParaActualizar(TipoIdentificador.USUARIO, "juanperez");
+    }
+    while (generados.size() < capacidad) {
+      generados.add(generadorIdentificadorService.generarIdentificador(
+              TipoIdentificador.USUARIO, "juanperez", sufijo -> false));
+    }
+    when(messageSource.getMessage("mensaje_identificadores_agotados", null, Locale.getDefault()))
+            .thenReturn("Se agotaron los identificadores disponibles.");
+    var ex = assertThrows(BusinessServiceException.class, () -> generadorIdentificadorService.generarIdentificador(
+            TipoIdentificador.USUARIO, "juanperez", sufijo -> false));
+    assertEquals("Se agotaron los identificadores disponibles.", ex.getMessage());
+  }
+}
@@ -0,0 +1,114 @@
+package org.opencommercial.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.opencommercial.model.Producto;
+import org.opencommercial.repository.ProductoRepository;
+import org.opencommercial.repository.projection.ProductoBusquedaProjection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {IndiceBusquedaProductoServiceImpl.class})
+class IndiceBusquedaProductoServiceImplTest {
+
+  @MockBean ProductoRepository productoRepository;
+
+  @Autowired IndiceBusquedaProductoServiceImpl indiceBusquedaProductoService;
+
+  private ProductoBusquedaProjection construirProyeccion(long idProducto, String codigo, String descripcion) {
+    return new ProductoBusquedaProjection() {
+      @Override
+      public Long getIdProducto() {
+        return idProducto;
+      }
+
+      @Override
+      public String getCodigo() {
+        return codigo;
+      }
+
+      @Override
+      public String getDescripcion() {
+        return descripcion;
+      }
+    };
+  }
+
+  private void cargarIndice() {
+    when(productoRepository.findAllParaIndiceDeBusqueda())
+        .thenReturn(List.of(
+            construirProyeccion(1L, "CIN-001", "Cinta adhesiva doble faz 3M"),
+            construirProyeccion(2L, "CAJ-002", "Caja de cartón para cintas"),
+            construirProyeccion(3L, "AUT-003", "Etiqueta autoadhesiva"),
+            construirProyeccion(4L, "", "Cinta métrica")));
+    indiceBusquedaProductoService.cargarIndice();
+  }
+
+  @Test
+  void shouldNoBuscarSiElIndiceNoEstaCargado() {
+    var indiceSinCargar = new IndiceBusquedaProductoServiceImpl(productoRepository);
+    assertEquals(Optional.empty(), indiceSinCargar.buscar(null, "cinta"));
+  }
+
+  @Test
+  void shouldBuscarPorDescripcionIgnorandoMayusculasYAcentos() {
+    this.cargarIndice();
+    assertEquals(List.of(4L, 1L, 2L), indiceBusquedaProductoService.buscar(null, "CINTA").orElseThrow());
+    assertEquals(List.of(2L), indiceBusquedaProductoService.buscar(null, "carton").orElseThrow());
+    assertEquals(List.of(4L), indiceBusquedaProductoService.buscar(null, "metrica").orElseThrow());
+  }
+
+  @Test
+  void shouldBuscarTodosLosTerminosDeLaDescripcion() {
+    this.cargarIndice();
+    assertEquals(List.of(1L, 3L), indiceBusquedaProductoService.buscar(null, "adhesiva").orElseThrow());
+    assertEquals(List.of(1L), indiceBusquedaProductoService.buscar(null, "adhesiva  3m").orElseThrow());
+    assertEquals(List.of(), indiceBusquedaProductoService.buscar(null, "adhesiva caja").orElseThrow());
+  }
+
+  @Test
+  void shouldBuscarPorCodigoODescripcion() {
+    this.cargarIndice();
+    assertEquals(List.of(2L), indiceBusquedaProductoService.buscar("caj-002", null).orElseThrow());
+    assertEquals(List.of(3L, 2L), indiceBusquedaProductoService.buscar("aut", "caja").orElseThrow());
+  }
+
+  @Test
+  void shouldActualizarElIndiceAlIndexarYEliminar() {
+    this.cargarIndice();
+    Producto producto = new Producto();
+    producto.setIdProducto(4L);
+    producto.setCodigo("");
+    producto.setDescripcion("Cinta aisladora");
+    indiceBusquedaProductoService.indexar(List.of(producto));
+    assertEquals(List.of(), indiceBusquedaProductoService.buscar(null, "metrica").orElseThrow());
+    assertEquals(List.of(4L), indiceBusquedaProductoService.buscar(null, "aisla").orElseThrow());
+    indiceBusquedaProductoService.eliminar(List.of(1L));
+    assertEquals(List.of(4L, 2L), indiceBusquedaProductoService.buscar(null, "cinta").orElseThrow());
+    producto.setEliminado(true);
+    indiceBusquedaProductoService.indexar(List.of(producto));
+    assertEquals(List.of(2L), indiceBusquedaProductoService.buscar(null, "cinta").orElseThrow());
+  }
+
+  @Test
+  void shouldNoUsarElIndiceSiHayDemasiadosResultados() {
+    var productos = new ArrayList<ProductoBusquedaProjection>();
+    for (long i = 1; i <= IndiceBusquedaProductoServiceImpl.CANTIDAD_MAXIMA_RESULTADOS + 1; i++) {
+      productos.add(construirProyeccion(i, "COD-" + i, "Tornillo " + i));
+    }
+    when(productoRepository.findAllParaIndiceDeBusqueda()).thenReturn(productos);
+    indiceBusquedaProductoService.cargarIndice();
+    assertTrue(indiceBusquedaProductoService.buscar(null, "tornillo").isEmpty());
+    assertTrue(indiceBusquedaProductoService.buscar(null, "tornillo 100").isPresent());
+  }
+}
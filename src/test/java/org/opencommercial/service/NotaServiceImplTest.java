@@ -7,6 +7,8 @@ import org.opencommercial.model.*;
 import org.opencommercial.model.dto.NuevaNotaCreditoSinFacturaDTO;
 import org.opencommercial.repository.NotaDebitoRepository;
 import org.opencommercial.util.CustomValidator;
+import org.opencommercial.util.PaginadorPorCursor;
+import org.opencommercial.util.PaginadorSinConteo;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.MessageSource;
@@ -17,6 +19,7 @@ import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.LongSupplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -33,7 +36,10 @@ class NotaServiceImplTest {
   @MockBean ClienteServiceImpl clienteService;
   @MockBean ProveedorServiceImpl proveedorService;
   @MockBean NotaDebitoRepository notaDebitoRepository;
+  @MockBean NumeradorComprobanteService numeradorComprobanteService;
   @MockBean MessageSource messageSource;
+  @MockBean PaginadorPorCursor paginadorPorCursor;
+  @MockBean PaginadorSinConteo paginadorSinConteo;
 
   @Autowired NotaServiceImpl notaServiceImpl;
 
@@ -345,6 +351,8 @@ class NotaServiceImplTest {
       sucursal.setConfiguracionSucursal(configuracionSucursal);
       when(sucursalServiceImpl.getSucursalPorId(1L)).thenReturn(sucursal);
       when(notaDebitoRepository.buscarMayorNumNotaDebitoClienteSegunTipo(TipoDeComprobante.NOTA_DEBITO_A, 1, 1L)).thenReturn(null);
+      when(numeradorComprobanteService.asignarSiguienteNumero(eq(1L), eq(TipoDeComprobante.NOTA_DEBITO_A), eq(1L), any()))
+          .thenAnswer(invocation -> invocation.<LongSupplier>getArgument(3).getAsLong() + 1);
       assertEquals(1L, notaServiceImpl.getSiguienteNumeroNotaDebitoCliente(1L, TipoDeComprobante.NOTA_DEBITO_A));
   }
 
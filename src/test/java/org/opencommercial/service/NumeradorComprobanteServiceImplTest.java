@@ -0,0 +1,79 @@
+package org.opencommercial.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.opencommercial.model.NumeradorComprobante;
+import org.opencommercial.model.TipoDeComprobante;
+import org.opencommercial.repository.NumeradorComprobanteRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {NumeradorComprobanteServiceImpl.class})
+class NumeradorComprobanteServiceImplTest {
+
+  @MockBean NumeradorComprobanteRepository numeradorComprobanteRepository;
+
+  @Autowired NumeradorComprobanteServiceImpl numeradorComprobanteService;
+
+  @Test
+  void shouldAsignarSiguienteNumeroDeNumeradorExistente() {
+    NumeradorComprobante numerador = NumeradorComprobante.builder()
+            .idSucursal(1L)
+            .tipoComprobante(TipoDeComprobante.FACTURA_A)
+            .serie(2L)
+            .ultimoNumero(41L)
+            .build();
+    when(numeradorComprobanteRepository.existsByIdSucursalAndTipoComprobanteAndSerie(1L, TipoDeComprobante.FACTURA_A, 2L))
+            .thenReturn(true);
+    when(numeradorComprobanteRepository.findParaActualizar(1L, TipoDeComprobante.FACTURA_A, 2L))
+            .thenReturn(Optional.of(numerador));
+    assertEquals(42L, numeradorComprobanteService.asignarSiguienteNumero(1L, TipoDeComprobante.FACTURA_A, 2L, () -> 0L));
+    assertEquals(43L, numeradorComprobanteService.asignarSiguienteNumero(1L, TipoDeComprobante.FACTURA_A, 2L, () -> 0L));
+    assertEquals(43L, numerador.getUltimoNumero());
+    verify(numeradorComprobanteRepository, never()).crearSiNoExiste(anyLong(), anyString(), anyLong(), anyLong());
+  }
+
+  @Test
+  void shouldCrearNumeradorDesdeUltimoNumeroRegistrado() {
+    NumeradorComprobante numerador = NumeradorComprobante.builder()
+            .idSucursal(1L)
+            .tipoComprobante(TipoDeComprobante.RECIBO)
+            .serie(2L)
+            .ultimoNumero(10L)
+            .build();
+    when(numeradorComprobanteRepository.existsByIdSucursalAndTipoComprobanteAndSerie(1L, TipoDeComprobante.RECIBO, 2L))
+            .thenReturn(false);
+    when(numeradorComprobanteRepository.findParaActualizar(1L, TipoDeComprobante.RECIBO, 2L))
+            .thenReturn(Optional.of(numerador));
+    assertEquals(11L, numeradorComprobanteService.asignarSiguienteNumero(1L, TipoDeComprobante.RECIBO, 2L, () -> 10L));
+    var orden = inOrder(numeradorComprobanteRepository);
+    orden.verify(numeradorComprobanteRepository).crearSiNoExiste(1L, "RECIBO", 2L, 10L);
+    orden.verify(numeradorComprobanteRepository).findParaActualizar(1L, TipoDeComprobante.RECIBO, 2L);
+  }
+
+  @Test
+  void shouldNoCalcularUltimoNumeroRegistradoSiElNumeradorExiste() {
+    NumeradorComprobante numerador = NumeradorComprobante.builder()
+            .idSucursal(1L)
+            .tipoComprobante(TipoDeComprobante.REMITO)
+            .serie(2L)
+            .ultimoNumero(5L)
+            .build();
+    when(numeradorComprobanteRepository.existsByIdSucursalAndTipoComprobanteAndSerie(1L, TipoDeComprobante.REMITO, 2L))
+            .thenReturn(true);
+    when(numeradorComprobanteRepository.findParaActualizar(1L, TipoDeComprobante.REMITO, 2L))
+            .thenReturn(Optional.of(numerador));
+    assertEquals(6L, numeradorComprobanteService.asignarSiguienteNumero(1L, TipoDeComprobante.REMITO, 2L,
+            () -> { throw new AssertionError("no deberia consultarse el ultimo numero registrado"); }));
+  }
+}
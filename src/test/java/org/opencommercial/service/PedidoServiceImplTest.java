@@ -14,17 +14,23 @@ import org.opencommercial.model.embeddable.CantidadProductoEmbeddable;
 import org.opencommercial.repository.PedidoRepository;
 import org.opencommercial.repository.RenglonPedidoRepository;
 import org.opencommercial.util.CustomValidator;
+import org.opencommercial.util.ImagenesReporteHandler;
 import org.opencommercial.util.JasperReportsHandler;
+import org.opencommercial.util.PaginadorPorCursor;
+import org.opencommercial.util.PaginadorSinConteo;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.MessageSource;
+import org.springframework.dao.CannotAcquireLockException;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -35,7 +41,8 @@ import static org.mockito.Mockito.*;
                 PedidoServiceImpl.class,
                 CustomValidator.class,
                 MessageSource.class,
-                JasperReportsHandler.class
+                JasperReportsHandler.class,
+                ImagenesReporteHandler.class
         })
 class PedidoServiceImplTest {
 
@@ -45,13 +52,16 @@ class PedidoServiceImplTest {
   @MockBean UsuarioServiceImpl usuarioService;
   @MockBean ClienteServiceImpl clienteService;
   @MockBean ProductoServiceImpl productoService;
-  @MockBean EmailServiceFactory emailServiceFactory;
-  @MockBean ResendEmailServiceImpl resendEmailService;
+  @MockBean EnvioEmailService envioEmailService;
   @MockBean ConfiguracionSucursalServiceImpl configuracionSucursalService;
   @MockBean CuentaCorrienteServiceImpl cuentaCorrienteService;
   @MockBean ReciboServiceImpl reciboService;
   @MockBean MessageSource messageSource;
   @MockBean ModelMapper modelMapper;
+  @MockBean PlatformTransactionManager transactionManager;
+  @MockBean GeneradorIdentificadorService generadorIdentificadorService;
+  @MockBean PaginadorPorCursor paginadorPorCursor;
+  @MockBean PaginadorSinConteo paginadorSinConteo;
 
   @Autowired PedidoServiceImpl pedidoService;
 
@@ -131,7 +141,7 @@ class PedidoServiceImplTest {
     producto.setCodigo("123");
     producto.setDescripcion("desc producto");
     producto.setUrlImagen("url");
-    when(productoService.getProductoNoEliminadoPorId(1L)).thenReturn(producto);
+    when(productoService.getProductosParaCalcularRenglones(Set.of(1L))).thenReturn(Map.of(1L, producto));
     Sucursal sucursal = new Sucursal();
     Set<CantidadEnSucursal> cantidadEnSucursales = new HashSet<>();
     CantidadEnSucursal cantidadEnSucursal = new CantidadEnSucursal();
@@ -190,7 +200,6 @@ class PedidoServiceImplTest {
     assertThrows(BusinessServiceException.class, () -> pedidoService.guardar(pedido, new ArrayList<>()));
     verify(messageSource).getMessage(eq("mensaje_pedido_sin_stock"), any(), any());
     when(productoService.getProductosSinStockDisponible(any())).thenReturn(new ArrayList<>());
-    when(emailServiceFactory.getEmailService(anyString())).thenReturn(resendEmailService);
     Pedido pedidoGuardado = pedidoService.guardar(pedido, new ArrayList<>());
     assertNotNull(pedidoGuardado);
     assertEquals(1, pedidoGuardado.getRenglones().size());
@@ -216,6 +225,7 @@ class PedidoServiceImplTest {
     assertEquals(pedidoGuardado.getFecha().plusMinutes(1L).truncatedTo(ChronoUnit.MINUTES),
             pedido.getFechaVencimiento().truncatedTo(ChronoUnit.MINUTES));
     verify(reciboService).guardar(any());
+    verify(envioEmailService, times(3)).encolar(any());
   }
 
   @Test
@@ -418,4 +428,67 @@ class PedidoServiceImplTest {
             () -> pedidoService.actualizarCantidadReservadaDeProductosPorModificacion(pedido, renglonesAnterioresPedido));
     verify(messageSource).getMessage(eq("mensaje_producto_error_actualizar_cantidad_reservada"), any(), any());
   }
+
+  @Test
+  void shouldCancelarPedidosVencidosPorLotes() {
+    Sucursal sucursal = new Sucursal();
+    sucursal.setIdSucursal(1L);
+    List<Pedido> pedidos = new ArrayList<>();
+    for (long idPedido = 1; idPedido <= 3; idPedido++) {
+      RenglonPedido renglonPedido = new RenglonPedido();
+      renglonPedido.setIdProductoItem(10L);
+      renglonPedido.setCantidad(new BigDecimal("2"));
+      Pedido pedido = new Pedido();
+      pedido.setIdPedido(idPedido);
+      pedido.setSucursal(sucursal);
+      pedido.setEstado(idPedido == 3 ? EstadoPedido.CERRADO : EstadoPedido.ABIERTO);
+      pedido.setRenglones(List.of(renglonPedido));
+      pedidos.add(pedido);
+    }
+    when(pedidoRepository.findIdsDePedidosAbiertosVencidos(any(), eq(0L), any())).thenReturn(List.of(1L, 2L, 3L));
+    when(pedidoRepository.findParaActualizar(List.of(1L, 2L, 3L))).thenReturn(pedidos);
+    pedidoService.cancelarPedidosAbiertos();
+    assertEquals(EstadoPedido.CANCELADO, pedidos.get(0).getEstado());
+    assertEquals(EstadoPedido.CANCELADO, pedidos.get(1).getEstado());
+    assertEquals(EstadoPedido.CERRADO, pedidos.get(2).getEstado());
+    verify(productoService, times(2)).actualizarStockPedido(any(), eq(TipoDeOperacion.ACTUALIZACION));
+    verify(productoService).quitarCantidadesReservadas(Map.of(10L, new BigDecimal("4")));
+    verify(productoService, never()).quitarCantidadReservada(anyLong(), any());
+    verify(pedidoRepository, times(1)).findIdsDePedidosAbiertosVencidos(any(), anyLong(), any());
+  }
+
+  @Test
+  void shouldCancelarDeAUnoLosPedidosDeUnLoteFallidoYContinuarConElSiguiente() {
+    Sucursal sucursal = new Sucursal();
+    sucursal.setIdSucursal(1L);
+    Map<Long, Pedido> pedidos = new HashMap<>();
+    List<Long> primerLote = LongStream.rangeClosed(1, 50).boxed().toList();
+    LongStream.rangeClosed(1, 51).forEach(idPedido -> {
+      RenglonPedido renglonPedido = new RenglonPedido();
+      renglonPedido.setIdProductoItem(10L);
+      renglonPedido.setCantidad(BigDecimal.ONE);
+      Pedido pedido = new Pedido();
+      pedido.setIdPedido(idPedido);
+      pedido.setSucursal(sucursal);
+      pedido.setEstado(EstadoPedido.ABIERTO);
+      pedido.setRenglones(List.of(renglonPedido));
+      pedidos.put(idPedido, pedido);
+    });
+    when(pedidoRepository.findIdsDePedidosAbiertosVencidos(any(), eq(0L), any())).thenReturn(primerLote);
+    when(pedidoRepository.findIdsDePedidosAbiertosVencidos(any(), eq(50L), any())).thenReturn(List.of(51L));
+    when(pedidoRepository.findParaActualizar(anyList())).thenAnswer(invocation -> {
+      List<Long> ids = invocation.getArgument(0);
+      if (ids.size() > 1 || ids.contains(2L)) throw new CannotAcquireLockException("lock wait timeout");
+      return List.of(pedidos.get(ids.get(0)));
+    });
+    pedidoService.cancelarPedidosAbiertos();
+    assertEquals(EstadoPedido.CANCELADO, pedidos.get(1L).getEstado());
+    assertEquals(EstadoPedido.ABIERTO, pedidos.get(2L).getEstado());
+    assertEquals(EstadoPedido.CANCELADO, pedidos.get(3L).getEstado());
+    assertEquals(EstadoPedido.CANCELADO, pedidos.get(50L).getEstado());
+    assertEquals(EstadoPedido.CANCELADO, pedidos.get(51L).getEstado());
+    verify(pedidoRepository).findParaActualizar(primerLote);
+    verify(pedidoRepository).findParaActualizar(List.of(2L));
+    verify(pedidoRepository).findIdsDePedidosAbiertosVencidos(any(), eq(50L), any());
+  }
 }
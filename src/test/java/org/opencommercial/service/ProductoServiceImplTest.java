@@ -2,6 +2,7 @@ package org.opencommercial.service;
 
 import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.Predicate;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -18,15 +19,19 @@ import org.opencommercial.model.embeddable.CantidadProductoEmbeddable;
 import org.opencommercial.model.embeddable.PrecioProductoEmbeddable;
 import org.opencommercial.repository.ProductoFavoritoRepository;
 import org.opencommercial.repository.ProductoRepository;
+import org.opencommercial.repository.projection.CantidadDisponibleProjection;
 import org.opencommercial.util.CustomValidator;
 import org.opencommercial.util.FormatoReporte;
+import org.opencommercial.util.ImagenesReporteHandler;
 import org.opencommercial.util.JasperReportsHandler;
+import org.opencommercial.util.PaginadorSinConteo;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.MessageSource;
 import org.springframework.data.domain.*;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -43,7 +48,9 @@ import static org.mockito.Mockito.*;
                 ProductoServiceImpl.class,
                 CustomValidator.class,
                 MessageSource.class,
-                JasperReportsHandler.class
+                JasperReportsHandler.class,
+                ImagenesReporteHandler.class,
+                PaginadorSinConteo.class
         })
 class ProductoServiceImplTest {
 
@@ -59,7 +66,10 @@ class ProductoServiceImplTest {
   @MockBean ResendEmailServiceImpl resendEmailService;
   @MockBean ProductoRepository productoRepository;
   @MockBean ProductoFavoritoRepository productoFavoritoRepository;
+  @MockBean IndiceBusquedaProductoServiceImpl indiceBusquedaProductoService;
   @MockBean MessageSource messageSource;
+  @MockBean EntityManager entityManager;
+  @MockBean PlatformTransactionManager transactionManager;
 
   @Autowired ProductoServiceImpl productoService;
 
@@ -327,7 +337,9 @@ class ProductoServiceImplTest {
     producto.getCantidadProducto().setCantidadEnSucursales(cantidadEnSucursales);
     producto.getCantidadProducto().setIlimitado(false);
     when(sucursalService.getSucursalPorId(1L)).thenReturn(sucursal);
-    when(productoRepository.findById(1L)).thenReturn(Optional.of(producto));
+    List<CantidadDisponibleProjection> cantidadesDisponibles =
+            List.of(this.crearCantidadDisponible(1L, 1L, new BigDecimal("9")));
+    when(productoRepository.getCantidadesDisponibles(Set.of(1L), 1L)).thenReturn(cantidadesDisponibles);
     long[] idProducto = {1};
     BigDecimal[] cantidad = {BigDecimal.TEN.add(BigDecimal.ONE)};
     assertThrows(
@@ -366,6 +378,48 @@ class ProductoServiceImplTest {
     assertEquals(new BigDecimal("9"), resultadoObtenido.get(0).getCantidadDisponible());
   }
 
+  @Test
+  void shouldGetProductosSinStockDisponibleConUnaSolaConsulta() {
+    Sucursal sucursal = new Sucursal();
+    sucursal.setIdSucursal(1L);
+    Sucursal sucursalQueComparteStock = new Sucursal();
+    sucursalQueComparteStock.setIdSucursal(2L);
+    when(sucursalService.getSucursalPorId(1L)).thenReturn(sucursal);
+    when(sucursalService.getSucursalPorId(2L)).thenReturn(sucursalQueComparteStock);
+    List<CantidadDisponibleProjection> cantidadesDisponibles = List.of(
+            this.crearCantidadDisponible(1L, 1L, new BigDecimal("4")),
+            this.crearCantidadDisponible(1L, 2L, new BigDecimal("5")),
+            this.crearCantidadDisponible(2L, 1L, new BigDecimal("3")));
+    when(productoRepository.getCantidadesDisponibles(Set.of(1L, 2L), 1L)).thenReturn(cantidadesDisponibles);
+    var productosParaVerificarStock = ProductosParaVerificarStockDTO.builder()
+            .idProducto(new long[] {1L, 2L})
+            .cantidad(new BigDecimal[] {new BigDecimal("8"), new BigDecimal("5")})
+            .idSucursal(1L)
+            .build();
+    var faltantes = productoService.getProductosSinStockDisponible(productosParaVerificarStock);
+    assertEquals(1, faltantes.size());
+    assertEquals(2L, faltantes.get(0).getIdProducto());
+    assertEquals(new BigDecimal("3"), faltantes.get(0).getCantidadDisponible());
+    faltantes = productoService.getProductosSinStockDisponibleParaTraspaso(productosParaVerificarStock);
+    assertEquals(2, faltantes.size());
+    assertEquals(new BigDecimal("4"), faltantes.get(0).getCantidadDisponible());
+    assertEquals(new BigDecimal("3"), faltantes.get(1).getCantidadDisponible());
+    verify(productoRepository, times(2)).getCantidadesDisponibles(Set.of(1L, 2L), 1L);
+    verify(productoRepository, never()).findById(anyLong());
+    productosParaVerificarStock.setIdProducto(new long[] {1L, 3L});
+    assertThrows(EntityNotFoundException.class,
+            () -> productoService.getProductosSinStockDisponible(productosParaVerificarStock));
+  }
+
+  private CantidadDisponibleProjection crearCantidadDisponible(long idProducto, long idSucursal, BigDecimal cantidad) {
+    CantidadDisponibleProjection projection = mock(CantidadDisponibleProjection.class);
+    when(projection.getIdProducto()).thenReturn(idProducto);
+    when(projection.getIlimitado()).thenReturn(false);
+    when(projection.getIdSucursal()).thenReturn(idSucursal);
+    when(projection.getCantidad()).thenReturn(cantidad);
+    return projection;
+  }
+
   @Test
   void shouldTestActualizarMultiplesProductos() {
     Producto producto = this.construirProducto();
@@ -484,10 +538,8 @@ class ProductoServiceImplTest {
     List<Producto> productos = new ArrayList<>();
     Producto productoParaReporte = new Producto();
     productos.add(productoParaReporte);
-    when(productoRepository.findAll(
-            productoService.getBuilder(BusquedaProductoCriteria.builder().build()),
-            productoService.getPageable(null, null, null, Integer.MAX_VALUE)))
-        .thenReturn(new PageImpl<>(productos));
+    when(productoRepository.streamProductos(any(), eq(productoService.getPageable(null, null, null, Integer.MAX_VALUE).getSort())))
+        .thenAnswer(invocation -> productos.stream());
     Sucursal sucursal = new Sucursal();
     sucursal.setLogo("noTieneImagen");
     sucursal.setEmail("correo@gmail.com");
@@ -569,7 +621,6 @@ class ProductoServiceImplTest {
     producto1.getCantidadProducto().setCantidadEnSucursales(cantidadEnSucursalesProducto1);
     producto1.getCantidadProducto().setIlimitado(false);
     when(productoRepository.findById(1L)).thenReturn(Optional.of(producto1));
-    when(productoRepository.save(producto1)).thenReturn(producto1);
     Producto producto2 = new Producto();
     producto2.setIdProducto(2L);
     producto2.setCantidadProducto(new CantidadProductoEmbeddable());
@@ -583,7 +634,8 @@ class ProductoServiceImplTest {
     producto2.getCantidadProducto().setCantidadEnSucursales(cantidadEnSucursalesProducto2);
     producto2.getCantidadProducto().setIlimitado(false);
     when(productoRepository.findById(2L)).thenReturn(Optional.of(producto2));
-    when(productoRepository.save(producto2)).thenReturn(producto2);
+    when(productoRepository.findAllById(Set.of(1L, 2L)))
+        .thenReturn(List.of(producto1, producto2));
     Traspaso traspaso = new Traspaso();
     List<RenglonTraspaso> renglones = new ArrayList<>();
     RenglonTraspaso renglonTraspaso1 = new RenglonTraspaso();
@@ -599,6 +651,15 @@ class ProductoServiceImplTest {
     traspaso.setSucursalDestino(sucursalDestino);
     when(sucursalService.getSucursalPorId(1L)).thenReturn(sucursalOrigen);
     when(sucursalService.getSucursalPorId(2L)).thenReturn(sucursalDestino);
+    List<CantidadDisponibleProjection> cantidadesSinStock = List.of(
+            this.crearCantidadDisponible(1L, 1L, new BigDecimal("3")),
+            this.crearCantidadDisponible(2L, 1L, new BigDecimal("2")));
+    List<CantidadDisponibleProjection> cantidadesConStock = List.of(
+            this.crearCantidadDisponible(1L, 1L, BigDecimal.TEN),
+            this.crearCantidadDisponible(2L, 1L, new BigDecimal("2")));
+    when(productoRepository.getCantidadesDisponibles(Set.of(1L, 2L), 1L))
+        .thenReturn(cantidadesSinStock)
+        .thenReturn(cantidadesConStock);
     assertThrows(
         BusinessServiceException.class,
         () -> productoService.actualizarStockTraspaso(traspaso, TipoDeOperacion.ALTA));
@@ -608,8 +669,13 @@ class ProductoServiceImplTest {
         .getCantidadProducto().getCantidadEnSucursales()
         .forEach(cantidadEnSucursal -> cantidadEnSucursal.setCantidad(BigDecimal.TEN));
     productoService.actualizarStockTraspaso(traspaso, TipoDeOperacion.ALTA);
+    verify(productoRepository).actualizarStock(Map.of(
+            1L, Map.of(1L, BigDecimal.TEN.negate(), 2L, BigDecimal.TEN),
+            2L, Map.of(1L, BigDecimal.ONE.negate(), 2L, BigDecimal.ONE)));
     productoService.actualizarStockTraspaso(traspaso, TipoDeOperacion.ELIMINACION);
-    verify(productoRepository, times(8)).save(any());
+    verify(productoRepository, times(2)).findAllById(Set.of(1L, 2L));
+    verify(productoRepository, times(2)).actualizarStock(any());
+    verify(productoRepository, never()).save(any());
     assertThrows(
         BusinessServiceException.class,
         () -> productoService.actualizarStockTraspaso(traspaso, TipoDeOperacion.ACTUALIZACION));
@@ -623,6 +689,7 @@ class ProductoServiceImplTest {
     List<RenglonPedido> renglones = new ArrayList<>();
     RenglonPedido renglonPedido = new RenglonPedido();
     renglonPedido.setIdProductoItem(1L);
+    renglonPedido.setCantidad(BigDecimal.ONE);
     renglones.add(renglonPedido);
     pedido.setRenglones(renglones);
     Sucursal sucursal = new Sucursal();
@@ -637,12 +704,12 @@ class ProductoServiceImplTest {
     verify(messageSource)
         .getMessage(eq("mensaje_error_actualizar_stock_producto_eliminado"), any(), any());
     Producto producto = this.construirProducto();
-    when(productoRepository.findById(1L)).thenReturn(Optional.of(producto));
-    when(productoRepository.save(producto)).thenReturn(producto);
+    when(productoRepository.findAllById(Set.of(1L)))
+        .thenReturn(List.of(producto));
     productoService.devolverStockPedido(
         pedido, TipoDeOperacion.ACTUALIZACION, renglonesAnteriores, 1L);
     verify(messageSource).getMessage(eq("mensaje_producto_agrega_stock"), any(), any());
-    verify(productoRepository).save(producto);
+    verify(productoRepository).actualizarStock(any());
   }
 
   @Test
@@ -652,6 +719,7 @@ class ProductoServiceImplTest {
     List<RenglonPedido> renglones = new ArrayList<>();
     RenglonPedido renglonPedido = new RenglonPedido();
     renglonPedido.setIdProductoItem(1L);
+    renglonPedido.setCantidad(BigDecimal.ONE);
     renglones.add(renglonPedido);
     pedido.setRenglones(renglones);
     Sucursal sucursal = new Sucursal();
@@ -661,8 +729,8 @@ class ProductoServiceImplTest {
     verify(messageSource)
         .getMessage(eq("mensaje_error_actualizar_stock_producto_eliminado"), any(), any());
     Producto producto = this.construirProducto();
-    when(productoRepository.findById(1L)).thenReturn(Optional.of(producto));
-    when(productoRepository.save(producto)).thenReturn(producto);
+    when(productoRepository.findAllById(Set.of(1L)))
+        .thenReturn(List.of(producto));
     productoService.actualizarStockPedido(pedido, TipoDeOperacion.ALTA);
     productoService.actualizarStockPedido(pedido, TipoDeOperacion.ACTUALIZACION);
     verify(messageSource, times(2)).getMessage(eq("mensaje_producto_quita_stock"), any(), any());
@@ -672,6 +740,7 @@ class ProductoServiceImplTest {
     verify(messageSource, times(2)).getMessage(eq("mensaje_producto_agrega_stock"), any(), any());
     verify(traspasoService, times(3)).guardarTraspasosPorPedido(pedido);
     verify(traspasoService, times(3)).eliminarTraspasoDePedido(pedido);
+    verify(productoRepository, times(4)).actualizarStock(any());
   }
 
   @Test
@@ -701,8 +770,8 @@ class ProductoServiceImplTest {
     producto2.setCantidadProducto(new CantidadProductoEmbeddable());
     producto2.getCantidadProducto().setCantidadEnSucursales(cantidadesEnSucursalProducto2);
     producto2.getCantidadProducto().setCantidadTotalEnSucursales(BigDecimal.ONE);
-    when(productoRepository.findById(1L)).thenReturn(Optional.of(producto1));
-    when(productoRepository.findById(2L)).thenReturn(Optional.of(producto2));
+    when(productoRepository.findAllById(Set.of(1L, 2L)))
+        .thenReturn(List.of(producto1, producto2));
     productoService.actualizarStockNotaCredito(
         idsYCantidades, 1L, TipoDeOperacion.ALTA, Movimiento.VENTA);
     productoService.actualizarStockNotaCredito(
@@ -715,7 +784,11 @@ class ProductoServiceImplTest {
         .getMessage(eq("mensaje_producto_agrega_stock"), any(), eq(Locale.getDefault()));
     verify(messageSource, times(4))
         .getMessage(eq("mensaje_producto_quita_stock"), any(), eq(Locale.getDefault()));
-    verify(productoRepository, times(8)).save(any());
+    verify(productoRepository, times(4)).actualizarStock(any());
+    verify(productoRepository, times(2)).actualizarStock(
+            Map.of(1L, Map.of(1L, new BigDecimal("10")), 2L, Map.of(1L, new BigDecimal("20"))));
+    verify(productoRepository, times(2)).actualizarStock(
+            Map.of(1L, Map.of(1L, new BigDecimal("-10")), 2L, Map.of(1L, new BigDecimal("-20"))));
     assertThrows(
         BusinessServiceException.class,
         () ->
@@ -835,18 +908,12 @@ class ProductoServiceImplTest {
     cantidadEnSucursal.setSucursal(sucursal);
     cantidadProductoEmbeddable.setCantidadEnSucursales(cantidadesEnSucursal);
     producto.setCantidadProducto(cantidadProductoEmbeddable);
-    List<ProductoFavorito> productosFavoritos = new ArrayList<>();
-    ProductoFavorito productoFavorito = new ProductoFavorito();
-    productoFavorito.setCliente(cliente);
-    productoFavorito.setProducto(producto);
-    productosFavoritos.add(productoFavorito);
-    Page<ProductoFavorito> pageable = new PageImpl<>(
-            productosFavoritos,
+    Page<Producto> pageable = new PageImpl<>(
+            List.of(producto),
             PageRequest.of(0, 1, Sort.by("idProductoFavorito")), 0);
-    when(productoFavoritoRepository.findAll(
-            (Predicate) any(),
-            eq(PageRequest.of(1, 25, Sort.by(Sort.Direction.DESC, "idProductoFavorito")))
-    )).thenReturn(pageable);
+    when(productoFavoritoRepository.getProductosFavoritos(
+            1L, PageRequest.of(1, 25, Sort.by(Sort.Direction.DESC, "idProductoFavorito"))))
+        .thenReturn(pageable);
     Page<Producto> paginaProductos = productoService.getPaginaProductosFavoritosDelCliente(1L, 1L, 1);
     assertNotNull(paginaProductos);
     assertEquals(paginaProductos.getTotalElements(), pageable.getTotalElements());
@@ -947,6 +1014,31 @@ class ProductoServiceImplTest {
     verify(productoRepository).findAll(eq(builder), eq(pageable));
   }
 
+  @Test
+  void shouldBuscarProductosPorRelevanciaSegunIndice() {
+    Producto productoUno = new Producto();
+    productoUno.setIdProducto(1L);
+    productoUno.setCantidadProducto(new CantidadProductoEmbeddable());
+    productoUno.getCantidadProducto().setCantidadEnSucursales(new HashSet<>());
+    Producto productoDos = new Producto();
+    productoDos.setIdProducto(2L);
+    productoDos.setCantidadProducto(new CantidadProductoEmbeddable());
+    productoDos.getCantidadProducto().setCantidadEnSucursales(new HashSet<>());
+    Producto productoTres = new Producto();
+    productoTres.setIdProducto(3L);
+    BusquedaProductoCriteria criteria = BusquedaProductoCriteria.builder().descripcion("cinta").build();
+    when(indiceBusquedaProductoService.buscar(null, "cinta")).thenReturn(Optional.of(List.of(3L, 2L, 1L)));
+    when(productoRepository.getIdsProductos(any())).thenReturn(List.of(1L, 2L));
+    when(productoRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(productoUno, productoDos));
+    Page<Producto> resultado = (Page<Producto>) productoService.buscarProductos(criteria, 1L);
+    assertEquals(List.of(productoDos, productoUno), resultado.getContent());
+    assertEquals(2, resultado.getTotalElements());
+    assertEquals(
+        "producto.eliminado = false && producto.idProducto in [3, 2, 1]",
+        productoService.getBuilder(criteria).toString());
+    verify(productoRepository, never()).findAll(any(BooleanBuilder.class), any(Pageable.class));
+  }
+
   @Test
   void shouldTestQuitarTodosLosProductosDeFavoritosDelCliente() {
     Cliente cliente = new Cliente();
@@ -977,11 +1069,23 @@ class ProductoServiceImplTest {
 
   @Test
   void shouldGetCantidadDeProductoFavorito() {
-    Cliente cliente = new Cliente();
-    cliente.setNombreFiscal("Cliente test");
-    when(clienteService.getClientePorIdUsuario(1L)).thenReturn(cliente);
     productoService.getCantidadDeProductosFavoritos(1L);
-    verify(productoFavoritoRepository).getCantidadDeArticulosEnFavoritos(cliente);
+    verify(productoFavoritoRepository).getCantidadDeArticulosEnFavoritos(1L);
+  }
+
+  @Test
+  void shouldMarcarFavoritosConsultandoSoloLosProductosDeLaPagina() {
+    Producto productoUno = new Producto();
+    productoUno.setIdProducto(1L);
+    Producto productoDos = new Producto();
+    productoDos.setIdProducto(2L);
+    when(productoFavoritoRepository.getIdsProductosFavoritos(1L, List.of(1L, 2L))).thenReturn(Set.of(2L));
+    productoService.marcarFavoritos(new PageImpl<>(List.of(productoUno, productoDos)), 1L);
+    assertFalse(productoUno.isFavorito());
+    assertTrue(productoDos.isFavorito());
+    verify(productoFavoritoRepository, never()).findAllByCliente(any());
+    productoService.marcarFavoritos(Page.empty(), 1L);
+    verify(productoFavoritoRepository).getIdsProductosFavoritos(anyLong(), any());
   }
 
   @Test
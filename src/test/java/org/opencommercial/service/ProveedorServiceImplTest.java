@@ -23,6 +23,7 @@ public class ProveedorServiceImplTest {
   @MockBean CuentaCorrienteServiceImpl cuentaCorrienteService;
   @MockBean UbicacionServiceImpl ubicacionService;
   @MockBean MessageSource messageSource;
+  @MockBean GeneradorIdentificadorService generadorIdentificadorService;
 
   @Autowired ProveedorServiceImpl proveedorService;
 
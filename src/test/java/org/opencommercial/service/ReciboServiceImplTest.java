@@ -6,6 +6,8 @@ import org.opencommercial.exception.BusinessServiceException;
 import org.opencommercial.model.*;
 import org.opencommercial.model.criteria.BusquedaReciboCriteria;
 import org.opencommercial.repository.ReciboRepository;
+import org.opencommercial.util.PaginadorPorCursor;
+import org.opencommercial.util.PaginadorSinConteo;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.MessageSource;
@@ -32,7 +34,10 @@ class ReciboServiceImplTest {
   @MockBean FormaDePagoService formaDePagoService;
   @MockBean SucursalService sucursalService;
   @MockBean ReciboRepository reciboRepository;
+  @MockBean NumeradorComprobanteService numeradorComprobanteService;
   @MockBean MessageSource messageSource;
+  @MockBean PaginadorPorCursor paginadorPorCursor;
+  @MockBean PaginadorSinConteo paginadorSinConteo;
 
   @Autowired ReciboServiceImpl reciboServiceImpl;
 
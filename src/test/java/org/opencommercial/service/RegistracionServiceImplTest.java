@@ -20,7 +20,8 @@ class RegistracionServiceImplTest {
 
   @MockBean UsuarioService usuarioService;
   @MockBean ClienteService clienteService;
-  @MockBean EmailServiceFactory emailServiceFactory;
+  @MockBean EnvioEmailService envioEmailService;
+  @MockBean GeneradorIdentificadorService generadorIdentificadorService;
 
   @Autowired RegistracionServiceImpl registracionService;
 
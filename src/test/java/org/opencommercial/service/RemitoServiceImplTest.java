@@ -1,6 +1,7 @@
 package org.opencommercial.service;
 
 import com.querydsl.core.BooleanBuilder;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.opencommercial.exception.BusinessServiceException;
@@ -11,7 +12,10 @@ import org.opencommercial.model.dto.UbicacionDTO;
 import org.opencommercial.repository.RemitoRepository;
 import org.opencommercial.repository.RenglonRemitoRepository;
 import org.opencommercial.util.CustomValidator;
+import org.opencommercial.util.ImagenesReporteHandler;
 import org.opencommercial.util.JasperReportsHandler;
+import org.opencommercial.util.PaginadorSinConteo;
+import org.opencommercial.util.PaginadorPorCursor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.MessageSource;
@@ -25,6 +29,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
+import java.util.function.LongSupplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -34,7 +39,8 @@ import static org.mockito.Mockito.when;
 
 @ExtendWith(SpringExtension.class)
 @ContextConfiguration(
-    classes = {CustomValidator.class, RemitoServiceImpl.class, MessageSource.class, JasperReportsHandler.class})
+    classes = {CustomValidator.class, RemitoServiceImpl.class, MessageSource.class, JasperReportsHandler.class, ImagenesReporteHandler.class,
+        PaginadorSinConteo.class})
 class RemitoServiceImplTest {
 
   @MockBean FacturaService facturaService;
@@ -47,7 +53,10 @@ class RemitoServiceImplTest {
   @MockBean ConfiguracionSucursalService configuracionSucursalService;
   @MockBean CuentaCorrienteService cuentaCorrienteService;
   @MockBean SucursalService sucursalService;
+  @MockBean NumeradorComprobanteService numeradorComprobanteService;
   @MockBean MessageSource messageSource;
+  @MockBean PaginadorPorCursor paginadorPorCursor;
+  @MockBean EntityManager entityManager;
 
   @Autowired RemitoServiceImpl remitoService;
 
@@ -149,6 +158,8 @@ class RemitoServiceImplTest {
     nuevoRemitoDTO.setTiposDeBulto(tipoBulto);
     when(usuarioService.getUsuarioNoEliminadoPorId(2L)).thenReturn(usuario);
     pedidoUno.setCliente(cliente);
+    when(numeradorComprobanteService.asignarSiguienteNumero(eq(1L), eq(TipoDeComprobante.REMITO), eq(1L), any()))
+        .thenReturn(1L);
     Remito remito = remitoService.crearRemitoDeFacturasVenta(nuevoRemitoDTO, 2L);
     verify(remitoRepository).save(any());
     assertEquals(1, remito.getSerie());
@@ -220,10 +231,12 @@ class RemitoServiceImplTest {
 
   @Test
   void shouldGetSiguienteNumeroRemito() {
-    when(remitoRepository.buscarMayorNumRemitoSegunSerie(1L)).thenReturn(null);
-    assertEquals(1L, remitoService.getSiguienteNumeroRemito(1L));
-    when(remitoRepository.buscarMayorNumRemitoSegunSerie(1L)).thenReturn(43L);
-    assertEquals(44L, remitoService.getSiguienteNumeroRemito(1L));
+    when(numeradorComprobanteService.asignarSiguienteNumero(eq(2L), eq(TipoDeComprobante.REMITO), eq(1L), any()))
+        .thenAnswer(invocation -> invocation.<LongSupplier>getArgument(3).getAsLong() + 1);
+    when(remitoRepository.buscarMayorNumRemitoSegunSerieYSucursal(2L, 1L)).thenReturn(null);
+    assertEquals(1L, remitoService.getSiguienteNumeroRemito(2L, 1L));
+    when(remitoRepository.buscarMayorNumRemitoSegunSerieYSucursal(2L, 1L)).thenReturn(43L);
+    assertEquals(44L, remitoService.getSiguienteNumeroRemito(2L, 1L));
   }
 
   @Test
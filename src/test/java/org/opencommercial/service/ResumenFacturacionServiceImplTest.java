@@ -0,0 +1,78 @@
+package org.opencommercial.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.opencommercial.model.*;
+import org.opencommercial.repository.ResumenFacturacionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {ResumenFacturacionServiceImpl.class})
+class ResumenFacturacionServiceImplTest {
+
+  @MockBean ResumenFacturacionRepository resumenFacturacionRepository;
+
+  @Autowired ResumenFacturacionServiceImpl resumenFacturacionService;
+
+  private FacturaVenta crearFacturaVenta() {
+    Sucursal sucursal = new Sucursal();
+    sucursal.setIdSucursal(1L);
+    Cliente cliente = new Cliente();
+    cliente.setIdCliente(5L);
+    FacturaVenta facturaVenta = new FacturaVenta();
+    facturaVenta.setSucursal(sucursal);
+    facturaVenta.setCliente(cliente);
+    facturaVenta.setFecha(LocalDateTime.of(2024, 3, 15, 10, 30));
+    facturaVenta.setTotal(new BigDecimal("1500"));
+    return facturaVenta;
+  }
+
+  @Test
+  void shouldAcumularFacturaEnUnaSolaSentencia() {
+    resumenFacturacionService.acumularFactura(this.crearFacturaVenta());
+    verify(resumenFacturacionRepository)
+            .acumularTotal(1L, "VENTA", 2024, 3, 15, 5L, new BigDecimal("1500"));
+    verifyNoMoreInteractions(resumenFacturacionRepository);
+  }
+
+  @Test
+  void shouldRestarFacturaEliminada() {
+    var facturaVenta = this.crearFacturaVenta();
+    facturaVenta.setEliminada(true);
+    resumenFacturacionService.acumularFactura(facturaVenta);
+    verify(resumenFacturacionRepository)
+            .acumularTotal(1L, "VENTA", 2024, 3, 15, 5L, new BigDecimal("-1500"));
+  }
+
+  @Test
+  void shouldAcumularFacturaCompraPorProveedor() {
+    Sucursal sucursal = new Sucursal();
+    sucursal.setIdSucursal(1L);
+    Proveedor proveedor = new Proveedor();
+    proveedor.setIdProveedor(7L);
+    FacturaCompra facturaCompra = new FacturaCompra();
+    facturaCompra.setSucursal(sucursal);
+    facturaCompra.setProveedor(proveedor);
+    facturaCompra.setFecha(LocalDateTime.of(2023, 12, 31, 23, 59));
+    facturaCompra.setTotal(new BigDecimal("800"));
+    resumenFacturacionService.acumularFactura(facturaCompra);
+    verify(resumenFacturacionRepository).acumularTotal(1L, "COMPRA", 2023, 12, 31, 7L, new BigDecimal("800"));
+  }
+
+  @Test
+  void shouldReconstruirResumenes() {
+    resumenFacturacionService.reconstruirResumenes();
+    var inOrder = inOrder(resumenFacturacionRepository);
+    inOrder.verify(resumenFacturacionRepository).eliminarTodos();
+    inOrder.verify(resumenFacturacionRepository).insertarResumenesDeVentas();
+    inOrder.verify(resumenFacturacionRepository).insertarResumenesDeCompras();
+  }
+}
@@ -8,6 +8,7 @@ import org.opencommercial.model.*;
 import org.opencommercial.model.dto.NuevaSucursalDTO;
 import org.opencommercial.repository.SucursalRepository;
 import org.opencommercial.util.CustomValidator;
+import org.opencommercial.util.ImagenesReporteHandler;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.MessageSource;
@@ -27,7 +28,7 @@ import static org.mockito.Mockito.*;
 
 @ExtendWith(SpringExtension.class)
 @ContextConfiguration(
-    classes = {SucursalServiceImpl.class, CustomValidator.class, MessageSource.class})
+    classes = {SucursalServiceImpl.class, CustomValidator.class, MessageSource.class, ImagenesReporteHandler.class})
 class SucursalServiceImplTest {
 
   @MockBean SucursalRepository sucursalRepository;
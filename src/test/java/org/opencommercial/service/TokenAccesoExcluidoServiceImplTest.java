@@ -0,0 +1,59 @@
+package org.opencommercial.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.opencommercial.model.TokenAccesoExcluido;
+import org.opencommercial.repository.TokenAccesoExcluidoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {TokenAccesoExcluidoServiceImpl.class})
+class TokenAccesoExcluidoServiceImplTest {
+
+  @MockBean TokenAccesoExcluidoRepository tokenAccesoExcluidoRepository;
+
+  @Autowired TokenAccesoExcluidoServiceImpl tokenAccesoExcluidoService;
+
+  @Test
+  void shouldVerificarTokensExcluidosSinConsultarLaBaseDeDatos() {
+    var tokenExcluido = TokenAccesoExcluido.builder()
+            .token("token.excluido")
+            .fechaVencimiento(LocalDateTime.now().plusDays(1L))
+            .build();
+    when(tokenAccesoExcluidoRepository.findAllVigentes(any())).thenReturn(List.of(tokenExcluido));
+    tokenAccesoExcluidoService.cargarTokensExcluidos();
+    assertTrue(tokenAccesoExcluidoService.esTokenExcluido("token.excluido"));
+    assertFalse(tokenAccesoExcluidoService.esTokenExcluido("token.valido"));
+    verify(tokenAccesoExcluidoRepository, never()).findByToken(any());
+  }
+
+  @Test
+  void shouldExcluirToken() {
+    var fechaVencimiento = LocalDateTime.now().plusDays(1L);
+    tokenAccesoExcluidoService.cargarTokensExcluidos();
+    tokenAccesoExcluidoService.excluirToken("token.nuevo", fechaVencimiento);
+    verify(tokenAccesoExcluidoRepository).save(
+            TokenAccesoExcluido.builder().token("token.nuevo").fechaVencimiento(fechaVencimiento).build());
+    assertTrue(tokenAccesoExcluidoService.esTokenExcluido("token.nuevo"));
+  }
+
+  @Test
+  void shouldEliminarTokensVencidos() {
+    tokenAccesoExcluidoService.cargarTokensExcluidos();
+    tokenAccesoExcluidoService.excluirToken("token.vencido", LocalDateTime.now().minusMinutes(1L));
+    tokenAccesoExcluidoService.eliminarTokensVencidos();
+    verify(tokenAccesoExcluidoRepository).eliminarTokensVencidos(any());
+    assertFalse(tokenAccesoExcluidoService.esTokenExcluido("token.vencido"));
+  }
+}
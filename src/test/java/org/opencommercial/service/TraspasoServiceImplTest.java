@@ -14,6 +14,7 @@ import org.opencommercial.model.embeddable.CantidadProductoEmbeddable;
 import org.opencommercial.repository.RenglonTraspasoRepository;
 import org.opencommercial.repository.TraspasoRepository;
 import org.opencommercial.util.CustomValidator;
+import org.opencommercial.util.ImagenesReporteHandler;
 import org.opencommercial.util.JasperReportsHandler;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -29,11 +30,12 @@ import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(SpringExtension.class)
 @ContextConfiguration(
-        classes = {CustomValidator.class, TraspasoServiceImpl.class, MessageSource.class, JasperReportsHandler.class})
+        classes = {CustomValidator.class, TraspasoServiceImpl.class, MessageSource.class, JasperReportsHandler.class, ImagenesReporteHandler.class})
 class TraspasoServiceImplTest {
 
   @MockBean ProductoServiceImpl productoService;
@@ -43,6 +45,7 @@ class TraspasoServiceImplTest {
   @MockBean TraspasoRepository traspasoRepository;
   @MockBean RenglonTraspasoRepository renglonTraspasoRepository;
   @MockBean MessageSource messageSource;
+  @MockBean GeneradorIdentificadorService generadorIdentificadorService;
 
   @Autowired TraspasoServiceImpl traspasoService;
 
@@ -51,174 +54,66 @@ class TraspasoServiceImplTest {
     Sucursal sucursal = new Sucursal();
     sucursal.setIdSucursal(1L);
     sucursal.setNombre("sucursal uno");
-    ConfiguracionSucursal configuracionSucursal1 = new ConfiguracionSucursal();
-    configuracionSucursal1.setComparteStock(true);
-    sucursal.setConfiguracionSucursal(configuracionSucursal1);
     Sucursal sucursal2 = new Sucursal();
     sucursal2.setIdSucursal(2L);
     sucursal2.setNombre("Sucursal dos");
-    ConfiguracionSucursal configuracionSucursal2 = new ConfiguracionSucursal();
-    configuracionSucursal2.setComparteStock(true);
-    sucursal2.setConfiguracionSucursal(configuracionSucursal1);
     Sucursal sucursal3 = new Sucursal();
     sucursal3.setIdSucursal(3L);
     sucursal3.setNombre("Sucursal tres");
-    ConfiguracionSucursal configuracionSucursal3 = new ConfiguracionSucursal();
-    configuracionSucursal3.setComparteStock(true);
-    sucursal3.setConfiguracionSucursal(configuracionSucursal1);
-    List<Sucursal> sucursales = new ArrayList<>();
-    sucursales.add(sucursal);
-    sucursales.add(sucursal2);
-    sucursales.add(sucursal3);
-    when(sucursalService.getSucusales(false)).thenReturn(sucursales);
     when(sucursalService.getSucursalPorId(1L)).thenReturn(sucursal);
     when(sucursalService.getSucursalPorId(2L)).thenReturn(sucursal2);
     when(sucursalService.getSucursalPorId(3L)).thenReturn(sucursal3);
-    ProductoFaltanteDTO productoFaltanteDTO1 =
-        ProductoFaltanteDTO.builder()
-            .idProducto(1L)
-            .cantidadDisponible(BigDecimal.TEN)
-            .cantidadSolicitada(new BigDecimal("100"))
-            .build();
-    ProductoFaltanteDTO productoFaltanteDTO3 =
-        ProductoFaltanteDTO.builder()
-            .idProducto(3L)
-            .cantidadDisponible(BigDecimal.ZERO)
-            .cantidadSolicitada(new BigDecimal("20"))
-            .build();
-    ProductoFaltanteDTO productoFaltanteDTO4 =
-        ProductoFaltanteDTO.builder()
-            .idProducto(4L)
-            .cantidadDisponible(new BigDecimal("50"))
-            .cantidadSolicitada(new BigDecimal("150"))
-            .build();
-    List<ProductoFaltanteDTO> productosFaltantes = new ArrayList<>();
-    productosFaltantes.add(productoFaltanteDTO1);
-    productosFaltantes.add(productoFaltanteDTO3);
-    productosFaltantes.add(productoFaltanteDTO4);
-    when(productoService.getProductosSinStockDisponibleParaTraspaso(any())).thenReturn(productosFaltantes);
     Pedido pedido = new Pedido();
     List<RenglonPedido> renglonesPedido = new ArrayList<>();
-    RenglonPedido renglonPedido1 = new RenglonPedido();
-    renglonPedido1.setIdProductoItem(1L);
-    renglonPedido1.setCantidad(new BigDecimal("100"));
-    RenglonPedido renglonPedido2 = new RenglonPedido();
-    renglonPedido2.setIdProductoItem(2L);
-    renglonPedido2.setCantidad(new BigDecimal("50"));
-    RenglonPedido renglonPedido3 = new RenglonPedido();
-    renglonPedido3.setIdProductoItem(3L);
-    renglonPedido3.setCantidad(new BigDecimal("20"));
-    RenglonPedido renglonPedido4 = new RenglonPedido();
-    renglonPedido3.setIdProductoItem(4L);
-    renglonPedido3.setCantidad(new BigDecimal("150"));
-    renglonesPedido.add(renglonPedido1);
-    renglonesPedido.add(renglonPedido2);
-    renglonesPedido.add(renglonPedido3);
-    renglonesPedido.add(renglonPedido4);
+    long[] idsProducto = {1L, 2L, 3L, 4L};
+    BigDecimal[] cantidades = {new BigDecimal("100"), new BigDecimal("50"), new BigDecimal("20"), new BigDecimal("150")};
+    for (int i = 0; i < idsProducto.length; i++) {
+      RenglonPedido renglonPedido = new RenglonPedido();
+      renglonPedido.setIdProductoItem(idsProducto[i]);
+      renglonPedido.setCantidad(cantidades[i]);
+      renglonesPedido.add(renglonPedido);
+    }
     pedido.setSucursal(sucursal);
     pedido.setRenglones(renglonesPedido);
     Usuario usuario = new Usuario();
     usuario.setIdUsuario(1L);
     pedido.setUsuario(usuario);
+    Map<Long, Map<Long, BigDecimal>> cantidadesPorSucursal = new HashMap<>();
+    cantidadesPorSucursal.put(1L, new HashMap<>(Map.of(1L, BigDecimal.TEN, 2L, new BigDecimal("91"), 3L, BigDecimal.ZERO)));
+    cantidadesPorSucursal.put(2L, new HashMap<>(Map.of(1L, new BigDecimal("60"), 2L, new BigDecimal("20"))));
+    cantidadesPorSucursal.put(3L, new HashMap<>(Map.of(1L, BigDecimal.ZERO, 2L, new BigDecimal("20"))));
+    cantidadesPorSucursal.put(4L, new HashMap<>(Map.of(1L, new BigDecimal("50"), 2L, new BigDecimal("50"), 3L, new BigDecimal("50"))));
+    when(productoService.getCantidadesPorSucursal(idsProducto, 1L)).thenReturn(cantidadesPorSucursal);
     Medida medida = new Medida();
     medida.setNombre("Metro");
-    Producto producto1 = new Producto();
-    producto1.setIdProducto(1L);
-    producto1.setMedida(medida);
-    producto1.setCantidadProducto(new CantidadProductoEmbeddable());
-    producto1.getCantidadProducto().setCantidadTotalEnSucursales(new BigDecimal("101"));
-    Set<CantidadEnSucursal> cantidadEnSucursalesProducto1 = new HashSet<>();
-    CantidadEnSucursal cantidadEnSucursal1Producto1 = new CantidadEnSucursal();
-    cantidadEnSucursal1Producto1.setSucursal(sucursal);
-    cantidadEnSucursal1Producto1.setCantidad(BigDecimal.TEN);
-    CantidadEnSucursal cantidadEnSucursal2Producto1 = new CantidadEnSucursal();
-    cantidadEnSucursal2Producto1.setSucursal(sucursal2);
-    cantidadEnSucursal2Producto1.setCantidad(new BigDecimal("91"));
-    CantidadEnSucursal cantidadEnSucursal3Producto1 = new CantidadEnSucursal();
-    cantidadEnSucursal3Producto1.setSucursal(sucursal3);
-    cantidadEnSucursal3Producto1.setCantidad(BigDecimal.ZERO);
-    cantidadEnSucursalesProducto1.add(cantidadEnSucursal1Producto1);
-    cantidadEnSucursalesProducto1.add(cantidadEnSucursal2Producto1);
-    cantidadEnSucursalesProducto1.add(cantidadEnSucursal3Producto1);
-    producto1.getCantidadProducto().setCantidadEnSucursalesDisponible(cantidadEnSucursalesProducto1);
-    Producto producto2 = new Producto();
-    producto2.setIdProducto(2L);
-    producto2.setMedida(medida);
-    producto2.setCantidadProducto(new CantidadProductoEmbeddable());
-    producto2.getCantidadProducto().setCantidadTotalEnSucursales(new BigDecimal("80"));
-    Set<CantidadEnSucursal> cantidadEnSucursalesProducto2 = new HashSet<>();
-    CantidadEnSucursal cantidadEnSucursal1Producto2 = new CantidadEnSucursal();
-    cantidadEnSucursal1Producto2.setSucursal(sucursal);
-    cantidadEnSucursal1Producto2.setCantidad(new BigDecimal("60"));
-    CantidadEnSucursal cantidadEnSucursal2Producto2 = new CantidadEnSucursal();
-    cantidadEnSucursal2Producto2.setSucursal(sucursal2);
-    cantidadEnSucursal2Producto2.setCantidad(new BigDecimal("20"));
-    CantidadEnSucursal cantidadEnSucursal3Producto2 = new CantidadEnSucursal();
-    cantidadEnSucursal3Producto2.setSucursal(sucursal3);
-    cantidadEnSucursal3Producto2.setCantidad(BigDecimal.ZERO);
-    cantidadEnSucursalesProducto2.add(cantidadEnSucursal1Producto2);
-    cantidadEnSucursalesProducto2.add(cantidadEnSucursal2Producto2);
-    cantidadEnSucursalesProducto2.add(cantidadEnSucursal3Producto2);
-    producto2.getCantidadProducto().setCantidadEnSucursalesDisponible(cantidadEnSucursalesProducto2);
-    Producto producto3 = new Producto();
-    producto3.setIdProducto(3L);
-    producto3.setMedida(medida);
-    producto3.setCantidadProducto(new CantidadProductoEmbeddable());
-    producto3.getCantidadProducto().setCantidadTotalEnSucursales(new BigDecimal("20"));
-    Set<CantidadEnSucursal> cantidadEnSucursalesProducto3 = new HashSet<>();
-    CantidadEnSucursal cantidadEnSucursal1Producto3 = new CantidadEnSucursal();
-    cantidadEnSucursal1Producto3.setSucursal(sucursal);
-    cantidadEnSucursal1Producto3.setCantidad(BigDecimal.ZERO);
-    CantidadEnSucursal cantidadEnSucursal2Producto3 = new CantidadEnSucursal();
-    cantidadEnSucursal2Producto3.setSucursal(sucursal2);
-    cantidadEnSucursal2Producto3.setCantidad(new BigDecimal("20"));
-    CantidadEnSucursal cantidadEnSucursal3Producto3 = new CantidadEnSucursal();
-    cantidadEnSucursal3Producto3.setSucursal(sucursal3);
-    cantidadEnSucursal3Producto3.setCantidad(BigDecimal.ZERO);
-    cantidadEnSucursalesProducto3.add(cantidadEnSucursal1Producto3);
-    cantidadEnSucursalesProducto3.add(cantidadEnSucursal2Producto3);
-    cantidadEnSucursalesProducto3.add(cantidadEnSucursal3Producto3);
-    producto3.getCantidadProducto().setCantidadEnSucursalesDisponible(cantidadEnSucursalesProducto3);
-    Producto producto4 = new Producto();
-    producto4.setIdProducto(4L);
-    producto4.setMedida(medida);
-    producto4.setCantidadProducto(new CantidadProductoEmbeddable());
-    producto4.getCantidadProducto().setCantidadTotalEnSucursales(new BigDecimal("150"));
-    Set<CantidadEnSucursal> cantidadEnSucursalesProducto4 = new HashSet<>();
-    CantidadEnSucursal cantidadEnSucursal1Producto4 = new CantidadEnSucursal();
-    cantidadEnSucursal1Producto4.setSucursal(sucursal);
-    cantidadEnSucursal1Producto4.setCantidad(new BigDecimal("50"));
-    CantidadEnSucursal cantidadEnSucursal2Producto4 = new CantidadEnSucursal();
-    cantidadEnSucursal2Producto4.setSucursal(sucursal2);
-    cantidadEnSucursal2Producto4.setCantidad(new BigDecimal("50"));
-    CantidadEnSucursal cantidadEnSucursal3Producto4 = new CantidadEnSucursal();
-    cantidadEnSucursal3Producto4.setSucursal(sucursal3);
-    cantidadEnSucursal3Producto4.setCantidad(new BigDecimal("50"));
-    cantidadEnSucursalesProducto4.add(cantidadEnSucursal1Producto4);
-    cantidadEnSucursalesProducto4.add(cantidadEnSucursal2Producto4);
-    cantidadEnSucursalesProducto4.add(cantidadEnSucursal3Producto4);
-    producto4.getCantidadProducto().setCantidadEnSucursalesDisponible(cantidadEnSucursalesProducto4);
-    when(productoService.getProductoNoEliminadoPorId(1L)).thenReturn(producto1);
-    when(productoService.getProductoNoEliminadoPorId(2L)).thenReturn(producto2);
-    when(productoService.getProductoNoEliminadoPorId(3L)).thenReturn(producto3);
-    when(productoService.getProductoNoEliminadoPorId(4L)).thenReturn(producto4);
+    List<Producto> productos = new ArrayList<>();
+    for (long idProducto : List.of(1L, 3L, 4L)) {
+      Producto producto = new Producto();
+      producto.setIdProducto(idProducto);
+      producto.setMedida(medida);
+      productos.add(producto);
+    }
+    when(productoService.getProductosNoEliminadosPorIds(Set.of(1L, 3L, 4L))).thenReturn(productos);
     List<NuevoTraspasoDePedidoDTO> nuevosTraspasos = traspasoService.construirNuevosTraspasosPorPedido(pedido);
     assertEquals(2, nuevosTraspasos.size());
-    Set<Long> idsEsperados = new HashSet<>();
-    idsEsperados.add(1L);
-    idsEsperados.add(3L);
-    idsEsperados.add(4L);
-    assertEquals(idsEsperados, nuevosTraspasos.getFirst().getIdProductoConCantidad().keySet());
+    assertEquals(2L, nuevosTraspasos.getFirst().getIdSucursalOrigen());
+    assertEquals(1L, nuevosTraspasos.getFirst().getIdSucursalDestino());
+    assertEquals(Set.of(1L, 3L, 4L), nuevosTraspasos.getFirst().getIdProductoConCantidad().keySet());
     assertEquals(new BigDecimal("90"), nuevosTraspasos.getFirst().getIdProductoConCantidad().get(1L));
     assertEquals(new BigDecimal("20"), nuevosTraspasos.getFirst().getIdProductoConCantidad().get(3L));
     assertEquals(new BigDecimal("50"), nuevosTraspasos.getFirst().getIdProductoConCantidad().get(4L));
-    idsEsperados.clear();
-    idsEsperados.add(4L);
-    assertEquals(idsEsperados, nuevosTraspasos.get(1).getIdProductoConCantidad().keySet());
+    assertEquals(3L, nuevosTraspasos.get(1).getIdSucursalOrigen());
+    assertEquals(Set.of(4L), nuevosTraspasos.get(1).getIdProductoConCantidad().keySet());
     assertEquals(new BigDecimal("50"), nuevosTraspasos.get(1).getIdProductoConCantidad().get(4L));
-    traspasoService.guardarTraspasosPorPedido(pedido);
+    when(traspasoRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    List<Traspaso> traspasos = traspasoService.guardarTraspasosPorPedido(pedido);
+    assertEquals(2, traspasos.size());
+    assertEquals(3, traspasos.getFirst().getRenglones().size());
     verify(messageSource, times(2)).getMessage(eq("mensaje_traspaso_realizado"), any(), any());
-    verify(traspasoRepository, times(2)).save(any());
+    verify(traspasoRepository).saveAll(any());
+    verify(traspasoRepository, never()).save(any());
+    verify(productoService).getProductosNoEliminadosPorIds(Set.of(1L, 3L, 4L));
+    verify(productoService, never()).getProductoNoEliminadoPorId(anyLong());
     verify(productoService, times(2)).actualizarStockTraspaso(any(), eq(TipoDeOperacion.ALTA));
   }
 
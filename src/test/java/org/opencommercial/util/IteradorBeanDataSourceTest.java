@@ -0,0 +1,39 @@
+package org.opencommercial.util;
+
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.design.JRDesignField;
+import org.junit.jupiter.api.Test;
+import org.opencommercial.model.Producto;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IteradorBeanDataSourceTest {
+
+  @Test
+  void shouldRecorrerBeansADemanda() throws JRException {
+    Producto producto1 = new Producto();
+    producto1.setCodigo("1");
+    Producto producto2 = new Producto();
+    producto2.setCodigo("2");
+    var consumidos = new AtomicInteger();
+    Iterator<Producto> iterador = List.of(producto1, producto2).stream()
+            .peek(producto -> consumidos.incrementAndGet())
+            .iterator();
+    var dataSource = new IteradorBeanDataSource(iterador);
+    var campoCodigo = new JRDesignField();
+    campoCodigo.setName("codigo");
+    campoCodigo.setDescription("codigo");
+    assertEquals(0, consumidos.get());
+    assertTrue(dataSource.next());
+    assertEquals(1, consumidos.get());
+    assertEquals("1", dataSource.getFieldValue(campoCodigo));
+    assertTrue(dataSource.next());
+    assertEquals("2", dataSource.getFieldValue(campoCodigo));
+    assertFalse(dataSource.next());
+    assertThrows(JRException.class, dataSource::moveFirst);
+  }
+}
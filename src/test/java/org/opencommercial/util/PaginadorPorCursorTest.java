@@ -0,0 +1,112 @@
+package org.opencommercial.util;
+
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.Predicate;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.opencommercial.exception.BusinessServiceException;
+import org.opencommercial.model.Gasto;
+import org.opencommercial.model.QGasto;
+import org.opencommercial.repository.GastoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.MessageSource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.query.FluentQuery;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {PaginadorPorCursor.class, MessageSource.class})
+class PaginadorPorCursorTest {
+
+  @MockBean GastoRepository gastoRepository;
+  @MockBean MessageSource messageSource;
+
+  @Autowired PaginadorPorCursor paginadorPorCursor;
+
+  private final List<Predicate> predicados = new ArrayList<>();
+
+  @SuppressWarnings("unchecked")
+  private FluentQuery.FetchableFluentQuery<Gasto> simularConsulta(List<Gasto> resultados) {
+    FluentQuery.FetchableFluentQuery<Gasto> consulta = mock(FluentQuery.FetchableFluentQuery.class, RETURNS_SELF);
+    when(consulta.all()).thenReturn(resultados);
+    when(gastoRepository.findBy(any(Predicate.class), any(Function.class))).thenAnswer(invocation -> {
+      predicados.add(invocation.getArgument(0));
+      return ((Function<FluentQuery.FetchableFluentQuery<Gasto>, List<Gasto>>) invocation.getArgument(1))
+              .apply(consulta);
+    });
+    return consulta;
+  }
+
+  private List<Gasto> crearGastos(long desde, long hasta, LocalDateTime fecha) {
+    return LongStream.rangeClosed(desde, hasta).mapToObj(id -> {
+      var gasto = new Gasto();
+      gasto.setIdGasto(id);
+      gasto.setFecha(fecha);
+      return gasto;
+    }).toList();
+  }
+
+  @Test
+  void shouldContinuarDesdeElUltimoElementoDevuelto() {
+    var fecha = LocalDateTime.of(2026, 3, 10, 12, 30);
+    var consulta = this.simularConsulta(this.crearGastos(1, 26, fecha));
+    var pageable = PageRequest.of(3, 25, Sort.by(Sort.Direction.DESC, "fecha"));
+    var predicado = QGasto.gasto.eliminado.eq(false);
+    var primeraPagina = paginadorPorCursor.buscar(gastoRepository, Gasto.class, "idGasto", predicado, pageable, null);
+    assertEquals(25, primeraPagina.getNumberOfElements());
+    assertTrue(primeraPagina.hasNext());
+    assertNotNull(primeraPagina.getDespuesDe());
+    var orden = Sort.by(Sort.Order.desc("fecha"), Sort.Order.desc("idGasto"));
+    verify(consulta).sortBy(orden);
+    verify(consulta).limit(26);
+    assertEquals(new BooleanBuilder(predicado).toString(), predicados.get(0).toString());
+    paginadorPorCursor.buscar(gastoRepository, Gasto.class, "idGasto", predicado, pageable, primeraPagina.getDespuesDe());
+    var qGasto = QGasto.gasto;
+    var predicadoEsperado = new BooleanBuilder(predicado)
+            .and(qGasto.fecha.lt(fecha)
+                    .or(qGasto.fecha.eq(fecha).and(qGasto.idGasto.lt(25L)))
+                    .or(qGasto.fecha.isNull()));
+    assertEquals(predicadoEsperado.toString(), predicados.get(1).toString());
+  }
+
+  @Test
+  void shouldNoDevolverCursorEnLaUltimaPagina() {
+    this.simularConsulta(this.crearGastos(1, 10, LocalDateTime.now()));
+    var pagina = paginadorPorCursor.buscar(gastoRepository, Gasto.class, "idGasto", new BooleanBuilder(),
+            PageRequest.of(0, 25, Sort.by(Sort.Direction.DESC, "fecha")), null);
+    assertEquals(10, pagina.getNumberOfElements());
+    assertFalse(pagina.hasNext());
+    assertNull(pagina.getDespuesDe());
+  }
+
+  @Test
+  void shouldConstruirPaginaOrdenadaPorId() {
+    var gastos = this.crearGastos(1, 26, LocalDateTime.now());
+    var pagina = paginadorPorCursor.construirPagina(gastos, 25, Gasto::getIdGasto);
+    assertEquals(25, pagina.getNumberOfElements());
+    assertEquals(25L, paginadorPorCursor.getIdDesde(pagina.getDespuesDe()));
+    assertEquals(Long.MAX_VALUE, paginadorPorCursor.getIdDesde(null));
+  }
+
+  @Test
+  void shouldLanzarExcepcionSiElCursorNoEsValido() {
+    when(messageSource.getMessage("mensaje_busqueda_cursor_no_valido", null, Locale.getDefault()))
+            .thenReturn("El cursor de la búsqueda no es válido");
+    var ex = assertThrows(BusinessServiceException.class, () -> paginadorPorCursor.getIdDesde("no es un cursor"));
+    assertEquals("El cursor de la búsqueda no es válido", ex.getMessage());
+  }
+}
@@ -0,0 +1,88 @@
+package org.opencommercial.util;
+
+import com.querydsl.core.types.Predicate;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Query;
+import org.junit.jupiter.api.Test;
+import org.opencommercial.model.Gasto;
+import org.opencommercial.model.QGasto;
+import org.opencommercial.repository.GastoRepository;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class PaginadorSinConteoTest {
+
+  private final EntityManager entityManager = mock(EntityManager.class);
+  private final GastoRepository gastoRepository = mock(GastoRepository.class);
+  private final Pageable pageable = PageRequest.of(2, 25, Sort.by(Sort.Direction.DESC, "fecha"));
+
+  private Query simularConsulta(long cantidad) {
+    Query consulta = mock(Query.class, RETURNS_SELF);
+    when(entityManager.getDelegate()).thenReturn(entityManager);
+    when(entityManager.getEntityManagerFactory()).thenReturn(mock(EntityManagerFactory.class));
+    when(entityManager.createQuery(anyString())).thenReturn(consulta);
+    when(consulta.getResultList()).thenReturn(LongStream.rangeClosed(1, cantidad).mapToObj(id -> {
+      var gasto = new Gasto();
+      gasto.setIdGasto(id);
+      return gasto;
+    }).toList());
+    return consulta;
+  }
+
+  @Test
+  void shouldBuscarSinContarResultados() {
+    var consulta = this.simularConsulta(26);
+    var paginador = new PaginadorSinConteo(entityManager, 0);
+    var pagina = paginador.buscar(Gasto.class, QGasto.gasto.eliminado.eq(false), pageable);
+    assertEquals(25, pagina.getNumberOfElements());
+    assertEquals(2, pagina.getNumber());
+    assertTrue(pagina.hasNext());
+    verify(consulta).setFirstResult(50);
+    verify(consulta).setMaxResults(26);
+    verify(gastoRepository, never()).count(any(Predicate.class));
+    this.simularConsulta(7);
+    assertFalse(paginador.buscar(Gasto.class, QGasto.gasto.eliminado.eq(false), pageable).hasNext());
+  }
+
+  @Test
+  void shouldDelegarEnElRepositorioSinCacheDeTotal() {
+    var paginador = new PaginadorSinConteo(entityManager, 0);
+    var predicado = QGasto.gasto.eliminado.eq(false);
+    when(gastoRepository.findAll(predicado, pageable)).thenReturn(new PageImpl<>(List.of(), pageable, 80));
+    assertEquals(80, paginador.buscarConTotal(gastoRepository, Gasto.class, predicado, pageable).getTotalElements());
+    verify(gastoRepository).findAll(predicado, pageable);
+    verifyNoInteractions(entityManager);
+  }
+
+  // por cada modo se cuentan las consultas COUNT necesarias para recorrer 4 paginas del mismo criterio
+  @Test
+  void shouldReutilizarTotalMientrasNoCambieElCriterio() {
+    this.simularConsulta(25);
+    var predicado = QGasto.gasto.eliminado.eq(false);
+    when(gastoRepository.count(any(Predicate.class))).thenReturn(300L);
+    var sinConteo = new PaginadorSinConteo(entityManager, 30);
+    for (int i = 0; i < 4; i++) {
+      sinConteo.buscar(Gasto.class, predicado, PageRequest.of(i, 25));
+    }
+    verify(gastoRepository, never()).count(any(Predicate.class));
+    for (int i = 0; i < 4; i++) {
+      var pagina = sinConteo.buscarConTotal(gastoRepository, Gasto.class, predicado, PageRequest.of(i, 25));
+      assertEquals(300, pagina.getTotalElements());
+      assertEquals(12, pagina.getTotalPages());
+    }
+    verify(gastoRepository, times(1)).count(any(Predicate.class));
+    sinConteo.buscarConTotal(gastoRepository, Gasto.class, QGasto.gasto.eliminado.eq(true), PageRequest.of(0, 25));
+    verify(gastoRepository, times(2)).count(any(Predicate.class));
+  }
+}
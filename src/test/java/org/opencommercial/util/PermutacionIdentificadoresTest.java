@@ -0,0 +1,41 @@
+package org.opencommercial.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PermutacionIdentificadoresTest {
+
+  @Test
+  void shouldPermutarSinRepetirValores() {
+    for (long capacidad : new long[] {999L, 99999L}) {
+      var usados = new BitSet((int) capacidad);
+      for (long valor = 0; valor < capacidad; valor++) {
+        int permutado = (int) PermutacionIdentificadores.permutar(valor, capacidad);
+        assertTrue(permutado >= 0 && permutado < capacidad);
+        assertFalse(usados.get(permutado));
+        usados.set(permutado);
+      }
+      assertEquals(capacidad, usados.cardinality());
+    }
+  }
+
+  @Test
+  void shouldNoDevolverValoresConsecutivos() {
+    long capacidad = 9999999999L;
+    long primero = PermutacionIdentificadores.permutar(0L, capacidad);
+    long segundo = PermutacionIdentificadores.permutar(1L, capacidad);
+    assertNotEquals(1L, Math.abs(segundo - primero));
+    long ultimo = PermutacionIdentificadores.permutar(capacidad - 1, capacidad);
+    assertTrue(ultimo >= 0 && ultimo < capacidad);
+  }
+
+  @Test
+  void shouldRechazarValorFueraDeRango() {
+    assertThrows(IllegalArgumentException.class, () -> PermutacionIdentificadores.permutar(999L, 999L));
+    assertThrows(IllegalArgumentException.class, () -> PermutacionIdentificadores.permutar(-1L, 999L));
+    assertThrows(IllegalArgumentException.class, () -> PermutacionIdentificadores.permutar(0L, 7919L * 2));
+  }
+}
@@ -0,0 +1,48 @@
+package org.opencommercial.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlanificadorTraspasosTest {
+
+  @Test
+  void shouldPriorizarSucursalesYaPlanificadas() {
+    Map<Long, BigDecimal> cantidadesSolicitadas = new LinkedHashMap<>();
+    cantidadesSolicitadas.put(1L, new BigDecimal("10"));
+    cantidadesSolicitadas.put(2L, new BigDecimal("5"));
+    Map<Long, Map<Long, BigDecimal>> stock = Map.of(
+            1L, Map.of(1L, BigDecimal.ZERO, 2L, new BigDecimal("10"), 3L, new BigDecimal("4")),
+            2L, Map.of(1L, BigDecimal.ONE, 2L, new BigDecimal("4"), 3L, new BigDecimal("8")));
+    var traspasos = PlanificadorTraspasos.planificar(1L, cantidadesSolicitadas, stock);
+    // la sucursal 2 ya abastece al producto 1 y tambien cubre el faltante del producto 2
+    assertEquals(Map.of(2L, Map.of(1L, new BigDecimal("10"), 2L, new BigDecimal("4"))), traspasos);
+  }
+
+  @Test
+  void shouldRepartirFaltanteEntreSucursalesDeFormaDeterminista() {
+    Map<Long, BigDecimal> cantidadesSolicitadas = Map.of(1L, new BigDecimal("12"));
+    Map<Long, Map<Long, BigDecimal>> stock = Map.of(
+            1L, Map.of(1L, BigDecimal.ZERO, 4L, new BigDecimal("5"), 3L, new BigDecimal("5"), 2L, new BigDecimal("1")));
+    var traspasos = PlanificadorTraspasos.planificar(1L, cantidadesSolicitadas, stock);
+    assertEquals(List.of(2L, 3L, 4L), List.copyOf(traspasos.keySet()));
+    assertEquals(new BigDecimal("5"), traspasos.get(3L).get(1L));
+    assertEquals(new BigDecimal("5"), traspasos.get(4L).get(1L));
+    assertEquals(new BigDecimal("1"), traspasos.get(2L).get(1L));
+  }
+
+  @Test
+  void shouldNoPlanificarSinFaltantesOSinStockEnDestino() {
+    Map<Long, BigDecimal> cantidadesSolicitadas = Map.of(1L, BigDecimal.TEN, 2L, BigDecimal.TEN);
+    Map<Long, Map<Long, BigDecimal>> stock = Map.of(
+            1L, Map.of(1L, BigDecimal.TEN, 2L, BigDecimal.TEN),
+            2L, Map.of(2L, BigDecimal.TEN));
+    assertTrue(PlanificadorTraspasos.planificar(1L, cantidadesSolicitadas, stock).isEmpty());
+  }
+}